@@ -1,6 +1,7 @@
 package de.metas.ui.web.attachments;
 
 import java.net.URI;
+import java.util.Date;
 
 import org.adempiere.archive.api.IArchiveBL;
 import org.adempiere.util.FileUtils;
@@ -90,4 +91,10 @@ class DocumentArchiveEntry implements IDocumentAttachmentEntry
 		return null;
 	}
 
+	@Override
+	public Date getLastModified()
+	{
+		return archive.getUpdated();
+	}
+
 }
@@ -0,0 +1,107 @@
+package de.metas.ui.web.attachments;
+
+import java.util.Date;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import de.metas.ui.web.cache.MappedFilesCache;
+import de.metas.ui.web.cache.MappedFilesCache.Content;
+import de.metas.ui.web.cache.MappedFilesCache.MappedFile;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * On-disk cache of attachment entries data, bounded by the total size of the files (see {@link MappedFilesCache}).
+ * <p>
+ * The data is loaded from the attachments store only once per entry version, then it's served from memory mapped buffers of the cached files,
+ * so repeated downloads (including the HTTP range requests) are not allocating the whole data in heap.
+ * Entries whose last modified timestamp is not known or which are bigger than a quarter of the cache are not cached.
+ */
+/* package */ final class DocumentAttachmentDataCache
+{
+	private final MappedFilesCache<DataKey, Void> cache;
+
+	/* package */ DocumentAttachmentDataCache(final int maxSizeMB, final int expireAfterAccessMinutes)
+	{
+		cache = MappedFilesCache.<DataKey, Void> builder()
+				.name("attachments")
+				.maxSizeMB(maxSizeMB)
+				.expireAfterAccessMinutes(Math.max(expireAfterAccessMinutes, 1))
+				.build();
+	}
+
+	/**
+	 * @return entry's data or <code>null</code> if the entry has no data
+	 */
+	public Resource getData(@NonNull final DocumentPath documentPath, @NonNull final IDocumentAttachmentEntry entry)
+	{
+		final Date lastModified = entry.getLastModified();
+		if (!cache.isEnabled() || lastModified == null)
+		{
+			return toResourceOrNull(entry.getData());
+		}
+
+		final DataKey key = new DataKey(documentPath, entry.getId(), lastModified.getTime());
+		final MappedFile<Void> cachedData = cache.getIfPresent(key);
+		if (cachedData != null)
+		{
+			return cachedData.toResource();
+		}
+
+		final byte[] data = entry.getData();
+		if (data == null || data.length == 0)
+		{
+			return null;
+		}
+		if (!cache.isCacheable(data.length))
+		{
+			return toResourceOrNull(data);
+		}
+
+		return cache.getOrCreate(key, () -> Content.of(data, null))
+				.toResource();
+	}
+
+	private static Resource toResourceOrNull(final byte[] data)
+	{
+		if (data == null || data.length == 0)
+		{
+			return null;
+		}
+		return new ByteArrayResource(data);
+	}
+
+	@lombok.Value
+	private static final class DataKey
+	{
+		@NonNull
+		private final DocumentPath documentPath;
+		@NonNull
+		private final DocumentId entryId;
+		private final long lastModifiedMillis;
+	}
+}
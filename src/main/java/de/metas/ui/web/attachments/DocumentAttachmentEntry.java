@@ -1,8 +1,11 @@
 package de.metas.ui.web.attachments;
 
 import java.net.URI;
+import java.util.Date;
 
+import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.util.Services;
+import org.compiere.model.I_AD_AttachmentEntry;
 
 import de.metas.attachments.AttachmentEntry;
 import de.metas.attachments.AttachmentEntryType;
@@ -41,18 +44,34 @@ import lombok.ToString;
 @ToString
 class DocumentAttachmentEntry implements IDocumentAttachmentEntry
 {
+	/**
+	 * Creates the entry and captures its last modified timestamp, so serving the entry (and checking its ETag) is not loading the record again.
+	 */
 	/* package */static DocumentAttachmentEntry of(final DocumentId id, final AttachmentEntry entry)
 	{
-		return new DocumentAttachmentEntry(id, entry);
+		final I_AD_AttachmentEntry entryRecord = InterfaceWrapperHelper.load(entry.getId(), I_AD_AttachmentEntry.class);
+		final Date lastModified = entryRecord != null ? entryRecord.getUpdated() : null;
+		return new DocumentAttachmentEntry(id, entry, lastModified);
+	}
+
+	/**
+	 * Creates the entry without its last modified timestamp, which is not needed when only listing the entries.
+	 */
+	/* package */static DocumentAttachmentEntry ofWithoutLastModified(final DocumentId id, final AttachmentEntry entry)
+	{
+		final Date lastModified = null;
+		return new DocumentAttachmentEntry(id, entry, lastModified);
 	}
 
 	private final DocumentId id;
 	private final AttachmentEntry entry;
+	private final Date lastModified;
 
-	private DocumentAttachmentEntry(final DocumentId id, final AttachmentEntry entry)
+	private DocumentAttachmentEntry(final DocumentId id, final AttachmentEntry entry, final Date lastModified)
 	{
 		this.id = id;
 		this.entry = entry;
+		this.lastModified = lastModified;
 	}
 
 	@Override
@@ -90,4 +109,10 @@ class DocumentAttachmentEntry implements IDocumentAttachmentEntry
 	{
 		return entry.getUrl();
 	}
+
+	@Override
+	public Date getLastModified()
+	{
+		return lastModified;
+	}
 }
@@ -1,6 +1,7 @@
 package de.metas.ui.web.attachments;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.stream.Stream;
@@ -22,6 +23,7 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 import com.jgoodies.common.base.Objects;
 
 import de.metas.attachments.AttachmentEntry;
@@ -102,11 +104,16 @@ final class DocumentAttachments
 				.toString();
 	}
 
+	public DocumentPath getDocumentPath()
+	{
+		return documentPath;
+	}
+
 	public List<JSONAttachment> toJson()
 	{
 		final Stream<IDocumentAttachmentEntry> attachments = attachmentsBL.getEntries(recordRef)
 				.stream()
-				.map(entry -> DocumentAttachmentEntry.of(buildId(ID_PREFIX_Attachment, entry.getId()), entry));
+				.map(entry -> DocumentAttachmentEntry.ofWithoutLastModified(buildId(ID_PREFIX_Attachment, entry.getId()), entry));
 
 		final Stream<DocumentArchiveEntry> archives = Services.get(IArchiveDAO.class).retrieveLastArchives(Env.getCtx(), recordRef, 10)
 				.stream()
@@ -121,13 +128,33 @@ final class DocumentAttachments
 	{
 		Check.assumeNotNull(file, "Parameter file is not null");
 		final String name = file.getOriginalFilename();
-		final byte[] data = file.getBytes();
+		final byte[] data = readFully(file);
 
 		attachmentsBL.addEntry(recordRef, name, data);
 
 		notifyRelatedDocumentTabsChanged();
 	}
 
+	/**
+	 * Reads the uploaded file (which was spooled to disk by the multipart resolver) directly into an array of the exact size.
+	 * NOTE: we are not using {@link MultipartFile#getBytes()} because it's growing an intermediate buffer, which for big files is producing a lot of garbage.
+	 */
+	private static byte[] readFully(final MultipartFile file) throws IOException
+	{
+		final long size = file.getSize();
+		if (size > Integer.MAX_VALUE)
+		{
+			throw new IOException("File too big: " + file.getOriginalFilename());
+		}
+
+		final byte[] data = new byte[(int)size];
+		try (final InputStream in = file.getInputStream())
+		{
+			ByteStreams.readFully(in, data);
+		}
+		return data;
+	}
+
 	public void addURLEntry(final String name, final URI url)
 	{
 		attachmentsBL.addURLEntry(recordRef, name, url);
@@ -1,11 +1,18 @@
 package de.metas.ui.web.attachments;
 
 import java.io.IOException;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -18,12 +25,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.google.common.collect.ImmutableMap;
+
 import de.metas.attachments.AttachmentEntryType;
 import de.metas.ui.web.attachments.json.JSONAttachURLRequest;
 import de.metas.ui.web.attachments.json.JSONAttachment;
+import de.metas.ui.web.cache.ETag;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.exceptions.ServiceUnavailableException;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.window.controller.WindowRestController;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -68,6 +80,27 @@ public class DocumentAttachmentsRestController
 	@Autowired
 	private DocumentWebsocketPublisher websocketPublisher;
 
+	@Value("${metasfresh.webui.attachments.cache.maxSizeMB:256}")
+	private int dataCacheMaxSizeMB;
+	@Value("${metasfresh.webui.attachments.cache.expireAfterAccessMinutes:30}")
+	private int dataCacheExpireAfterAccessMinutes;
+	/** How many uploaded files can be loaded in memory at the same time, because the attachments store accepts only byte arrays */
+	@Value("${metasfresh.webui.attachments.upload.maxConcurrent:4}")
+	private int uploadMaxConcurrent;
+	/** How long an upload waits for the other uploads to finish before it's rejected with HTTP 503 */
+	@Value("${metasfresh.webui.attachments.upload.waitTimeoutSeconds:30}")
+	private int uploadWaitTimeoutSeconds;
+
+	private DocumentAttachmentDataCache dataCache;
+	private Semaphore uploadPermits;
+
+	@PostConstruct
+	private void init()
+	{
+		dataCache = new DocumentAttachmentDataCache(dataCacheMaxSizeMB, dataCacheExpireAfterAccessMinutes);
+		uploadPermits = new Semaphore(Math.max(uploadMaxConcurrent, 1), true);
+	}
+
 	private DocumentAttachments getDocumentAttachments(final String windowIdStr, final String documentId)
 	{
 		final DocumentPath documentPath = DocumentPath.rootDocumentPath(WindowId.fromJson(windowIdStr), documentId);
@@ -93,8 +126,33 @@ public class DocumentAttachmentsRestController
 	{
 		userSession.assertLoggedIn();
 
-		getDocumentAttachments(windowIdStr, documentId)
-				.addEntry(file);
+		final DocumentAttachments documentAttachments = getDocumentAttachments(windowIdStr, documentId);
+
+		acquireUploadPermit();
+		try
+		{
+			documentAttachments.addEntry(file);
+		}
+		finally
+		{
+			uploadPermits.release();
+		}
+	}
+
+	private void acquireUploadPermit()
+	{
+		try
+		{
+			if (!uploadPermits.tryAcquire(uploadWaitTimeoutSeconds, TimeUnit.SECONDS))
+			{
+				throw new ServiceUnavailableException("Too many concurrent uploads. Please try again later.");
+			}
+		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new ServiceUnavailableException("Interrupted while waiting for the other uploads to finish");
+		}
 	}
 
 	@PostMapping("/addUrl")
@@ -121,22 +179,29 @@ public class DocumentAttachmentsRestController
 				.toJson();
 	}
 
+	/**
+	 * Gets attachment entry's data.
+	 * <p>
+	 * The data is streamed and HTTP range requests are supported (e.g. for resuming downloads or for media players).
+	 * The responses are also carrying ETag and Last-Modified headers, so the conditional requests of unchanged entries are answered with "304 Not Modified" without loading the data.
+	 */
 	@GetMapping("/{id}")
-	public ResponseEntity<byte[]> getAttachmentById(
+	public ResponseEntity<Resource> getAttachmentById(
 			@PathVariable("windowId") final String windowIdStr //
 			, @PathVariable("documentId") final String documentId //
-			, @PathVariable("id") final String entryIdStr)
+			, @PathVariable("id") final String entryIdStr //
+			, final WebRequest request)
 	{
 		userSession.assertLoggedIn();
 
 		final DocumentId entryId = DocumentId.of(entryIdStr);
-		final IDocumentAttachmentEntry entry = getDocumentAttachments(windowIdStr, documentId)
-				.getEntry(entryId);
+		final DocumentAttachments documentAttachments = getDocumentAttachments(windowIdStr, documentId);
+		final IDocumentAttachmentEntry entry = documentAttachments.getEntry(entryId);
 
 		final AttachmentEntryType type = entry.getType();
 		if (type == AttachmentEntryType.Data)
 		{
-			return extractResponseEntryFromData(entry);
+			return extractResponseEntryFromData(documentAttachments.getDocumentPath(), entry, request);
 		}
 		else if (type == AttachmentEntryType.URL)
 		{
@@ -151,32 +216,55 @@ public class DocumentAttachmentsRestController
 		}
 	}
 
-	private static ResponseEntity<byte[]> extractResponseEntryFromData(@NonNull final IDocumentAttachmentEntry entry)
+	private ResponseEntity<Resource> extractResponseEntryFromData(
+			@NonNull final DocumentPath documentPath,
+			@NonNull final IDocumentAttachmentEntry entry,
+			@NonNull final WebRequest request)
 	{
-		final String entryFilename = entry.getFilename();
-		final byte[] entryData = entry.getData();
-		if (entryData == null || entryData.length == 0)
+		//
+		// Check if the client's copy is still up to date
+		final Date lastModified = entry.getLastModified();
+		final String etag = lastModified != null ? ETag.of(lastModified.getTime(), ImmutableMap.of("id", entry.getId().toJson())).toETagString() : null;
+		if (lastModified != null && request.checkNotModified(etag, lastModified.getTime()))
+		{
+			// Response: 304 Not Modified
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+					.eTag(etag)
+					.lastModified(lastModified.getTime())
+					.build();
+		}
+
+		final Resource entryData = dataCache.getData(documentPath, entry);
+		if (entryData == null)
 		{
 			throw new EntityNotFoundException("No attachment found")
 					.setParameter("entry", entry)
 					.setParameter("reason", "data is null or empty");
 		}
 
+		final String entryFilename = entry.getFilename();
 		final String entryContentType = entry.getContentType();
 
 		final HttpHeaders headers = new HttpHeaders();
 		headers.setContentType(MediaType.parseMediaType(entryContentType));
 		headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + entryFilename + "\"");
 		headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-		final ResponseEntity<byte[]> response = new ResponseEntity<>(entryData, headers, HttpStatus.OK);
-		return response;
+
+		final ResponseEntity.BodyBuilder response = ResponseEntity.ok().headers(headers);
+		if (lastModified != null)
+		{
+			response.eTag(etag).lastModified(lastModified.getTime());
+		}
+
+		// NOTE: the content length and the range requests are handled by spring because we are returning a resource
+		return response.body(entryData);
 	}
 
-	private static ResponseEntity<byte[]> extractResponseEntryFromURL(@NonNull final IDocumentAttachmentEntry entry)
+	private static ResponseEntity<Resource> extractResponseEntryFromURL(@NonNull final IDocumentAttachmentEntry entry)
 	{
 		final HttpHeaders headers = new HttpHeaders();
 		headers.setLocation(entry.getUrl()); // forward to attachment entry's URL
-		final ResponseEntity<byte[]> response = new ResponseEntity<>(new byte[] {}, headers, HttpStatus.FOUND);
+		final ResponseEntity<Resource> response = new ResponseEntity<>(headers, HttpStatus.FOUND);
 		return response;
 	}
 
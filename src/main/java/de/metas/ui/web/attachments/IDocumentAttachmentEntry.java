@@ -1,6 +1,7 @@
 package de.metas.ui.web.attachments;
 
 import java.net.URI;
+import java.util.Date;
 
 import de.metas.attachments.AttachmentEntryType;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -38,6 +39,9 @@ public interface IDocumentAttachmentEntry
 	byte[] getData();
 
 	String getContentType();
+
+	/** @return when the entry was last changed or <code>null</code> if not known */
+	Date getLastModified();
 	
 	URI getUrl();
 }
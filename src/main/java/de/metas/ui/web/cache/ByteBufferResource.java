@@ -0,0 +1,73 @@
+package de.metas.ui.web.cache;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.springframework.core.io.AbstractResource;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Resource backed by a (memory mapped) byte buffer.
+ * <p>
+ * Unlike an {@link org.springframework.core.io.InputStreamResource}, it can be read more than once, so it's also suitable for HTTP range requests.
+ * The buffer is never changed, it's always read through duplicates, so it can be shared.
+ */
+public final class ByteBufferResource extends AbstractResource
+{
+	public static ByteBufferResource of(@NonNull final ByteBuffer data, @NonNull final String description)
+	{
+		return new ByteBufferResource(data, description);
+	}
+
+	private final ByteBuffer data;
+	private final String description;
+
+	private ByteBufferResource(@NonNull final ByteBuffer data, @NonNull final String description)
+	{
+		this.data = data.duplicate();
+		this.description = description;
+	}
+
+	@Override
+	public String getDescription()
+	{
+		return "ByteBuffer resource [" + description + "]";
+	}
+
+	@Override
+	public InputStream getInputStream()
+	{
+		return new ByteBufferBackedInputStream(data.duplicate());
+	}
+
+	@Override
+	public long contentLength()
+	{
+		return data.remaining();
+	}
+}
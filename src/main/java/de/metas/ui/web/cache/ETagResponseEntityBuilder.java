@@ -53,6 +53,7 @@ public class ETagResponseEntityBuilder<T extends ETagAware, R>
 	private Supplier<JSONOptions> jsonOptions = () -> null;
 	private int cacheMaxAgeSec = 10;
 	private boolean includeLanguageInETag = false;
+	private boolean includeJSONOptionsInETag = false;
 
 	private ETagResponseEntityBuilder(@NonNull final WebRequest request, @NonNull final T etagAware, @NonNull final Supplier<R> result)
 	{
@@ -79,12 +80,28 @@ public class ETagResponseEntityBuilder<T extends ETagAware, R>
 		return this;
 	}
 
+	/**
+	 * Include all JSON options which are affecting the JSON output (language, advanced fields, fields list, permissions etc) in the ETag.
+	 */
+	public ETagResponseEntityBuilder<T, R> includeJSONOptionsInETag()
+	{
+		includeJSONOptionsInETag(true);
+		return this;
+	}
+
+	private ETagResponseEntityBuilder<T, R> includeJSONOptionsInETag(final boolean includeJSONOptionsInETag)
+	{
+		this.includeJSONOptionsInETag = includeJSONOptionsInETag;
+		return this;
+	}
+
 	public <R2> ETagResponseEntityBuilder<T, R2> map(@NonNull final Function<R, R2> resultMapper)
 	{
 		final Supplier<R> result = this.result;
 		final Supplier<R2> newResult = () -> resultMapper.apply(result.get());
 		return new ETagResponseEntityBuilder<>(request, etagAware, newResult)
 				.includeLanguageInETag(includeLanguageInETag)
+				.includeJSONOptionsInETag(includeJSONOptionsInETag)
 				.cacheMaxAge(this.cacheMaxAgeSec);
 	}
 
@@ -112,6 +129,10 @@ public class ETagResponseEntityBuilder<T extends ETagAware, R>
 			final String adLanguage = getJSONOptions().getAD_Language();
 			etag = etag.overridingAttributes(ImmutableMap.of("lang", adLanguage));
 		}
+		if (includeJSONOptionsInETag)
+		{
+			etag = etag.overridingAttributes(getJSONOptions().toETagAttributes());
+		}
 
 		return etag;
 	}
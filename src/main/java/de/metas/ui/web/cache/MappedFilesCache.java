@@ -0,0 +1,296 @@
+package de.metas.ui.web.cache;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.util.Check;
+import org.slf4j.Logger;
+import org.springframework.core.io.Resource;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import de.metas.logging.LogManager;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * On-disk cache of binary data, bounded by the total size of the files.
+ * <p>
+ * The data is written to temporary files and it's served from memory mapped buffers of those files, so it's not kept in heap.
+ * The files are deleted when their entries are removed from cache.
+ * <p>
+ * The keys can be grouped (e.g. by the document they belong to), so all entries of a group can be invalidated without scanning the whole cache.
+ *
+ * @param <K> cache key type
+ * @param <M> type of the metadata which is kept in memory together with each file (e.g. filename, content type)
+ */
+public final class MappedFilesCache<K, M>
+{
+	private static final Logger logger = LogManager.getLogger(MappedFilesCache.class);
+
+	private final String name;
+	private final boolean enabled;
+	private final long maxSizeKB;
+	private final Cache<K, MappedFile<M>> cache;
+	private Path _directory; // lazy
+
+	private final Function<K, ?> groupKeyFunction;
+	/** the cached keys, indexed by their group key; the key sets are changed only inside {@link ConcurrentHashMap#compute(Object, java.util.function.BiFunction)} */
+	private final ConcurrentHashMap<Object, Set<K>> keysByGroupKey = new ConcurrentHashMap<>();
+
+	/**
+	 * @param name used to name the temporary directory and files
+	 * @param maxSizeMB total size of the cached files; if not positive, the cache is disabled
+	 * @param expireAfterAccessMinutes if positive, the entries which were not accessed for that long are removed
+	 * @param expireAfterWriteMinutes if positive, the entries which were created that long ago are removed
+	 * @param groupKeyFunction if set, extracts the group of given key (see {@link #invalidateGroup(Object)})
+	 */
+	@Builder
+	private MappedFilesCache(
+			@NonNull final String name,
+			final int maxSizeMB,
+			final int expireAfterAccessMinutes,
+			final int expireAfterWriteMinutes,
+			@Nullable final Function<K, ?> groupKeyFunction)
+	{
+		this.name = name;
+		this.groupKeyFunction = groupKeyFunction;
+		enabled = maxSizeMB > 0;
+		maxSizeKB = Math.max(maxSizeMB, 0) * 1024L;
+
+		final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+				.maximumWeight(maxSizeKB)
+				.recordStats();
+		if (expireAfterAccessMinutes > 0)
+		{
+			cacheBuilder.expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES);
+		}
+		if (expireAfterWriteMinutes > 0)
+		{
+			cacheBuilder.expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES);
+		}
+
+		cache = cacheBuilder
+				.weigher((final K key, final MappedFile<M> file) -> file.getSizeKB())
+				.removalListener((final RemovalNotification<K, MappedFile<M>> notification) -> onRemoved(notification.getKey(), notification.getValue()))
+				.build();
+	}
+
+	private void onRemoved(final K key, final MappedFile<M> mappedFile)
+	{
+		unindexKey(key);
+		deleteFile(mappedFile);
+	}
+
+	private static void deleteFile(final MappedFile<?> mappedFile)
+	{
+		if (mappedFile == null)
+		{
+			return;
+		}
+
+		// NOTE: on unix-like systems, the memory mapped buffers which are still used remain valid after the file was deleted
+		try
+		{
+			Files.deleteIfExists(mappedFile.getFile());
+		}
+		catch (final IOException ex)
+		{
+			logger.warn("Failed deleting {}. Ignored.", mappedFile.getFile(), ex);
+		}
+	}
+
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * @return true if data of given size shall be cached; data bigger than a quarter of the cache is not, because it would evict too many entries
+	 */
+	public boolean isCacheable(final long sizeBytes)
+	{
+		return enabled && sizeBytes / 1024 <= maxSizeKB / 4;
+	}
+
+	/**
+	 * @return cached file or <code>null</code>
+	 */
+	public MappedFile<M> getIfPresent(@NonNull final K key)
+	{
+		return cache.getIfPresent(key);
+	}
+
+	/**
+	 * Gets the cached file or, if missing, writes the content provided by given supplier to a new file and caches it.
+	 * The supplier is called only once even if the same key is requested concurrently.
+	 */
+	public MappedFile<M> getOrCreate(@NonNull final K key, @NonNull final Supplier<Content<M>> contentSupplier)
+	{
+		try
+		{
+			return cache.get(key, () -> {
+				final MappedFile<M> mappedFile = writeToFile(contentSupplier.get());
+				indexKey(key);
+				return mappedFile;
+			});
+		}
+		catch (final ExecutionException | UncheckedExecutionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause());
+		}
+	}
+
+	private MappedFile<M> writeToFile(@NonNull final Content<M> content) throws IOException
+	{
+		final Path file = Files.createTempFile(getDirectory(), name, ".tmp");
+		Files.write(file, content.getData());
+
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			final MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new MappedFile<>(file, data, content.getMetadata());
+		}
+	}
+
+	private synchronized Path getDirectory() throws IOException
+	{
+		if (_directory == null)
+		{
+			_directory = Files.createTempDirectory("metasfresh-webui-" + name);
+			_directory.toFile().deleteOnExit();
+		}
+		return _directory;
+	}
+
+	private void indexKey(final K key)
+	{
+		if (groupKeyFunction == null)
+		{
+			return;
+		}
+
+		keysByGroupKey.compute(groupKeyFunction.apply(key), (groupKey, keys) -> {
+			final Set<K> keysEffective = keys != null ? keys : new HashSet<>();
+			keysEffective.add(key);
+			return keysEffective;
+		});
+	}
+
+	private void unindexKey(final K key)
+	{
+		if (groupKeyFunction == null || key == null)
+		{
+			return;
+		}
+
+		keysByGroupKey.computeIfPresent(groupKeyFunction.apply(key), (groupKey, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	/**
+	 * Invalidates all entries of given group.
+	 *
+	 * @see MappedFilesCacheBuilder#groupKeyFunction(Function)
+	 */
+	public void invalidateGroup(@NonNull final Object groupKey)
+	{
+		Check.assumeNotNull(groupKeyFunction, "groupKeyFunction is set for cache {}", name);
+
+		final Set<K> keys = keysByGroupKey.remove(groupKey);
+		if (keys == null)
+		{
+			return;
+		}
+
+		cache.invalidateAll(keys);
+	}
+
+	public Map<String, Object> getStats()
+	{
+		final CacheStats stats = cache.stats();
+		return ImmutableMap.<String, Object> builder()
+				.put("enabled", enabled)
+				.put("size", cache.size())
+				.put("sizeKB", cache.asMap().values().stream().mapToLong(MappedFile::getSizeKB).sum())
+				.put("maxSizeKB", maxSizeKB)
+				.put("hitCount", stats.hitCount())
+				.put("missCount", stats.missCount())
+				.put("evictionCount", stats.evictionCount())
+				.build();
+	}
+
+	/** Content to be cached */
+	@lombok.Value(staticConstructor = "of")
+	public static final class Content<M>
+	{
+		@NonNull
+		private final byte[] data;
+		private final M metadata;
+	}
+
+	@lombok.Value
+	public static final class MappedFile<M>
+	{
+		@NonNull
+		private final Path file;
+		/** memory mapped data; it shall be accessed only through duplicates */
+		@NonNull
+		private final MappedByteBuffer data;
+		private final M metadata;
+
+		public int getSizeKB()
+		{
+			return Math.max(data.capacity() / 1024, 1);
+		}
+
+		public Resource toResource()
+		{
+			return ByteBufferResource.of(data, file.getFileName().toString());
+		}
+	}
+}
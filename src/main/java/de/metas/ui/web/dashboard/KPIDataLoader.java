@@ -3,12 +3,18 @@ package de.metas.ui.web.dashboard;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
 import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.Check;
+import org.adempiere.util.GuavaCollectors;
 import org.compiere.util.Env;
 import org.compiere.util.Evaluatee;
 import org.compiere.util.Evaluatees;
@@ -24,9 +30,11 @@ import org.elasticsearch.search.aggregations.metrics.NumericMetricsAggregation;
 import org.slf4j.Logger;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.logging.LogManager;
+import lombok.Value;
 
 /*
  * #%L
@@ -67,6 +75,7 @@ public class KPIDataLoader
 	private List<TimeRange> timeRanges;
 
 	private boolean formatValues = false;
+	private Executor executor = null;
 
 	private BiFunction<KPIField, TimeRange, String> fieldNameExtractor = (field, timeRange) -> field.getFieldName();
 	private BiFunction<Bucket, TimeRange, Object> dataSetValueKeyExtractor = (bucket, timeRange) -> bucket.getKey();
@@ -146,6 +155,15 @@ public class KPIDataLoader
 		return formatValues;
 	}
 
+	/**
+	 * @param executor executor used to run the compare-offset queries in parallel with the main query. If null, all queries are executed in current thread.
+	 */
+	public KPIDataLoader setExecutor(final Executor executor)
+	{
+		this.executor = executor;
+		return this;
+	}
+
 	/**
 	 * Checks if KPI's elasticsearch Index and Type exists
 	 */
@@ -191,27 +209,57 @@ public class KPIDataLoader
 		final KPIDataResult.Builder data = KPIDataResult.builder()
 				.setRange(mainTimeRange);
 
-		timeRanges.forEach(timeRange -> loadData(data, timeRange));
+		//
+		// Start all queries (the compare-offset ones in background, if we have an executor)
+		// and then fetch their responses in time ranges order, because the data builder is not thread safe.
+		final Properties ctx = Env.getCtx();
+		final List<Supplier<KPIQueryResult>> queryResults = timeRanges.stream()
+				.map(timeRange -> executeQueryAsync(ctx, timeRange))
+				.collect(GuavaCollectors.toImmutableList());
+
+		queryResults.forEach(queryResult -> loadData(data, queryResult.get()));
 
 		return data
 				.setTook(duration.stop())
 				.build();
 	}
 
-	private void loadData(final KPIDataResult.Builder data, final TimeRange timeRange)
+	private Supplier<KPIQueryResult> executeQueryAsync(final Properties ctx, final TimeRange timeRange)
+	{
+		if (executor == null || timeRange.isMainTimeRange())
+		{
+			// NOTE: executed lazily in current thread, after all background queries were started
+			return Suppliers.memoize(() -> executeQuery(ctx, timeRange));
+		}
+
+		final CompletableFuture<KPIQueryResult> future = CompletableFuture.supplyAsync(() -> executeQuery(ctx, timeRange), executor);
+		return () -> {
+			try
+			{
+				return future.join();
+			}
+			catch (final CompletionException ex)
+			{
+				final Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+				throw cause instanceof RuntimeException ? (RuntimeException)cause : AdempiereException.wrapIfNeeded(cause);
+			}
+		};
+	}
+
+	private KPIQueryResult executeQuery(final Properties ctx, final TimeRange timeRange)
 	{
 		logger.trace("Loading data for {}", timeRange);
 
 		//
 		// Create query evaluation context
 		final Evaluatee evalCtx = Evaluatees.mapBuilder()
-				.put("MainFromMillis", data.getRange().getFromMillis())
-				.put("MainToMillis", data.getRange().getToMillis())
+				.put("MainFromMillis", mainTimeRange.getFromMillis())
+				.put("MainToMillis", mainTimeRange.getToMillis())
 				.put("FromMillis", timeRange.getFromMillis())
 				.put("ToMillis", timeRange.getToMillis())
 				.build()
 				// Fallback to user context
-				.andComposeWith(Evaluatees.ofCtx(Env.getCtx()));
+				.andComposeWith(Evaluatees.ofCtx(ctx));
 
 		//
 		// Resolve esQuery's variables
@@ -244,6 +292,15 @@ public class KPIDataLoader
 					+ "\nQuery: " + esQueryParsed, e);
 		}
 
+		return new KPIQueryResult(timeRange, esQueryParsed, response);
+	}
+
+	private void loadData(final KPIDataResult.Builder data, final KPIQueryResult queryResult)
+	{
+		final TimeRange timeRange = queryResult.getTimeRange();
+		final String esQueryParsed = queryResult.getEsQueryParsed();
+		final SearchResponse response = queryResult.getResponse();
+
 		//
 		// Fetch data
 		try
@@ -359,4 +416,12 @@ public class KPIDataLoader
 			throw new AdempiereException("Cannot convert " + valueObj + " to millis.");
 		}
 	}
+
+	@Value
+	private static final class KPIQueryResult
+	{
+		private final TimeRange timeRange;
+		private final String esQueryParsed;
+		private final SearchResponse response;
+	}
 }
@@ -0,0 +1,229 @@
+package de.metas.ui.web.dashboard;
+
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.compiere.util.CCache;
+import org.compiere.util.Env;
+import org.elasticsearch.client.Client;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.base.model.I_WEBUI_KPI;
+import de.metas.ui.web.base.model.I_WEBUI_KPI_Field;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Provides {@link KPIDataResult}s for dashboard items.
+ * <p>
+ * Results are cached per KPI, time range bucket and client/org/role/language context, for KPI's poll interval (or {@link #defaultCacheTTLSec} if the KPI has no poll interval).
+ * Concurrent requests for the same key are coalesced, i.e. only one of them is querying elasticsearch and the others are waiting for its result.
+ */
+@Service
+public class KPIDataProvider
+{
+	private static final Logger logger = LogManager.getLogger(KPIDataProvider.class);
+
+	@Autowired
+	private Client elasticsearchClient;
+
+	@Value("${metasfresh.webui.dashboard.kpiDataCacheTTLSec:60}")
+	private int defaultCacheTTLSec;
+
+	private static final int CACHE_MAX_SIZE = 1000;
+	private final CCache<KPIDataCacheKey, KPIDataCacheEntry> cache = CCache.<KPIDataCacheKey, KPIDataCacheEntry> newLRUCache(I_WEBUI_KPI.Table_Name + "#Data", CACHE_MAX_SIZE, 0)
+			.addResetForTableName(I_WEBUI_KPI_Field.Table_Name);
+
+	private final ConcurrentHashMap<KPIDataCacheKey, CompletableFuture<KPIDataResult>> loadingFutures = new ConcurrentHashMap<>();
+
+	@Value("${metasfresh.webui.dashboard.kpiData.threads:4}")
+	private int timeRangesThreadsCount;
+	private ExecutorService timeRangesExecutor;
+
+	@PostConstruct
+	private void postConstruct()
+	{
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(KPIDataProvider.class.getSimpleName() + "-");
+		threadFactory.setDaemon(true);
+
+		timeRangesExecutor = Executors.newFixedThreadPool(Math.max(timeRangesThreadsCount, 1), threadFactory);
+	}
+
+	@PreDestroy
+	private void preDestroy()
+	{
+		timeRangesExecutor.shutdownNow();
+	}
+
+	public KPIDataResult getKPIData(@NonNull final KPI kpi, @NonNull final TimeRange timeRange, final boolean formatValues)
+	{
+		final long ttlMillis = getCacheTTLMillis(kpi);
+		if (ttlMillis <= 0)
+		{
+			return retrieveKPIData(kpi, timeRange, formatValues);
+		}
+
+		final Properties ctx = Env.getCtx();
+		final KPIDataCacheKey key = KPIDataCacheKey.builder()
+				.kpiId(kpi.getId())
+				.fromBucket(timeRange.getFromMillis() / ttlMillis)
+				.toBucket(timeRange.getToMillis() / ttlMillis)
+				.formatValues(formatValues)
+				.adClientId(Env.getAD_Client_ID(ctx))
+				.adOrgId(Env.getAD_Org_ID(ctx))
+				.adRoleId(Env.getAD_Role_ID(ctx))
+				.adLanguage(Env.getAD_Language(ctx))
+				.build();
+
+		final KPIDataResult cachedResult = getCachedResultOrNull(key);
+		if (cachedResult != null)
+		{
+			return cachedResult;
+		}
+
+		//
+		// Check if somebody else is already loading the same data. If yes, wait for it.
+		final CompletableFuture<KPIDataResult> future = new CompletableFuture<>();
+		final CompletableFuture<KPIDataResult> existingFuture = loadingFutures.putIfAbsent(key, future);
+		if (existingFuture != null)
+		{
+			logger.trace("Waiting for data which is currently loaded by another request: {}", key);
+			return waitForResult(existingFuture);
+		}
+
+		try
+		{
+			// NOTE: check the cache again, because the data might have been loaded between our first check and registering our future
+			KPIDataResult result = getCachedResultOrNull(key);
+			if (result == null)
+			{
+				result = retrieveKPIData(kpi, timeRange, formatValues);
+				cache.put(key, new KPIDataCacheEntry(result, System.currentTimeMillis() + ttlMillis));
+			}
+
+			future.complete(result);
+			return result;
+		}
+		catch (final Throwable ex)
+		{
+			// NOTE: make sure the waiting requests are released, no matter what happened
+			future.completeExceptionally(ex);
+			throw ex;
+		}
+		finally
+		{
+			loadingFutures.remove(key, future);
+		}
+	}
+
+	private long getCacheTTLMillis(final KPI kpi)
+	{
+		final int ttlSec = kpi.getPollIntervalSec() > 0 ? kpi.getPollIntervalSec() : defaultCacheTTLSec;
+		return ttlSec > 0 ? TimeUnit.SECONDS.toMillis(ttlSec) : 0;
+	}
+
+	private KPIDataResult getCachedResultOrNull(final KPIDataCacheKey key)
+	{
+		final KPIDataCacheEntry entry = cache.get(key);
+		if (entry == null)
+		{
+			return null;
+		}
+		if (entry.isExpired())
+		{
+			cache.remove(key);
+			return null;
+		}
+		return entry.getResult();
+	}
+
+	private KPIDataResult retrieveKPIData(final KPI kpi, final TimeRange timeRange, final boolean formatValues)
+	{
+		return KPIDataLoader.newInstance(elasticsearchClient, kpi)
+				.setTimeRange(timeRange)
+				.setFormatValues(formatValues)
+				.setExecutor(timeRangesExecutor)
+				.retrieveData();
+	}
+
+	private static KPIDataResult waitForResult(final CompletableFuture<KPIDataResult> future)
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+		catch (final ExecutionException ex)
+		{
+			final Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+			throw cause instanceof RuntimeException ? (RuntimeException)cause : AdempiereException.wrapIfNeeded(cause);
+		}
+	}
+
+	@lombok.Value
+	@Builder
+	private static final class KPIDataCacheKey
+	{
+		private final int kpiId;
+		private final long fromBucket;
+		private final long toBucket;
+		private final boolean formatValues;
+
+		private final int adClientId;
+		private final int adOrgId;
+		private final int adRoleId;
+		private final String adLanguage;
+	}
+
+	@lombok.Value
+	private static final class KPIDataCacheEntry
+	{
+		private final KPIDataResult result;
+		private final long expiresAtMillis;
+
+		public boolean isExpired()
+		{
+			return System.currentTimeMillis() >= expiresAtMillis;
+		}
+	}
+}
@@ -57,6 +57,7 @@ import de.metas.ui.web.view.ViewRowOverridesHelper;
 import de.metas.ui.web.view.descriptor.annotation.ViewColumnHelper;
 import de.metas.ui.web.view.json.JSONViewResult;
 import de.metas.ui.web.websocket.WebsocketEventLogRecord;
+import de.metas.ui.web.websocket.WebsocketOutboundDispatcher;
 import de.metas.ui.web.websocket.WebsocketSender;
 import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -120,6 +121,9 @@ public class DebugRestController
 	@Autowired
 	@Lazy
 	private WebsocketSender websocketSender;
+	@Autowired
+	@Lazy
+	private WebsocketOutboundDispatcher websocketOutboundDispatcher;
 
 	@RequestMapping(value = "/cacheReset", method = RequestMethod.GET)
 	public void cacheReset()
@@ -185,6 +189,18 @@ public class DebugRestController
 				.collect(GuavaCollectors.toImmutableList());
 	}
 
+	@GetMapping("/views/notifyRecordsChangedStats")
+	public Map<String, Object> getViewsNotifyRecordsChangedStats()
+	{
+		return viewsRepo.getNotifyRecordsChangedStats();
+	}
+
+	@GetMapping("/documents/cacheStats")
+	public Map<String, Object> getDocumentsCacheStats()
+	{
+		return documentCollection.getCacheStats();
+	}
+
 	@PostMapping("/viewDefaultProfile/{windowId}")
 	public void setDefaultViewProfile(@PathVariable("windowId") final String windowIdStr, @RequestBody final String profileIdStr)
 	{
@@ -409,6 +425,12 @@ public class DebugRestController
 		websocketSender.setLogEventsMaxSize(maxLoggedEvents);
 	}
 
+	@GetMapping("websocketOutboundStats")
+	public Map<String, Object> getWebsocketOutboundStats()
+	{
+		return websocketOutboundDispatcher.getStats();
+	}
+
 	@GetMapping("websocketEvents")
 	public List<WebsocketEventLogRecord> getWebsocketLoggedEvents(@RequestParam(value = "destinationFilter", required = false) final String destinationFilter)
 	{
@@ -1,18 +1,38 @@
 package de.metas.ui.web.handlingunits.process;
 
 import java.sql.Timestamp;
+import java.util.HashSet;
 import java.util.Iterator;
-
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.model.PlainContextAware;
 import org.adempiere.util.ILoggable;
 import org.adempiere.util.NullLoggable;
 import org.adempiere.util.Services;
+import org.adempiere.util.StringUtils;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.model.I_M_Warehouse;
 import org.compiere.util.Env;
 import org.slf4j.Logger;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 
 import de.metas.handlingunits.model.I_M_HU;
 import de.metas.handlingunits.movement.api.IHUMovementBL;
@@ -20,8 +40,13 @@ import de.metas.handlingunits.movement.api.impl.HUMovementBuilder;
 import de.metas.interfaces.I_M_Movement;
 import de.metas.logging.LogManager;
 import de.metas.ui.web.handlingunits.HUEditorView;
+import de.metas.ui.web.process.ProcessExecutionProgress;
+import de.metas.ui.web.process.ProcessExecutionProgresses;
 import de.metas.ui.web.window.model.DocumentCollection;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Singular;
 
 /*
  * #%L
@@ -68,8 +93,11 @@ public class HUMoveToDirectWarehouseService
 	private String _description = null;
 	private boolean _failOnFirstError = false;
 	private boolean _failIfNoHUs = false; // default false for backward compatibility
+	private int _chunkSize = 0; // default: no chunks, move the HUs one by one
+	private int _parallelism = 1;
 	private ILoggable loggable = NullLoggable.instance;
 	private HUEditorView huView;
+	private Function<I_M_HU, I_M_Movement> movementCreator = this::createMovementUsingHUMovementBuilder;
 
 	// state
 	private transient I_M_Warehouse _targetWarehouse;
@@ -82,19 +110,34 @@ public class HUMoveToDirectWarehouseService
 	{
 		checkPreconditions();
 
+		if (getChunkSize() > 0)
+		{
+			moveInChunks(hus);
+			return;
+		}
+
 		//
 		// Move the HUs, one by one
+		final ProcessExecutionProgress progress = ProcessExecutionProgresses.get();
 		int countMoved = 0;
 		while (hus.hasNext())
 		{
+			// Stop if the user asked us to; the HUs which were already moved shall be reflected in the view
+			if (progress.isCancelRequested())
+			{
+				break;
+			}
+
 			final I_M_HU hu = hus.next();
 			generateMovement(hu);
 			countMoved++;
+			progress.setProgress(countMoved, -1);
 		}
 
 		// Stop here if nothing moved
 		if (countMoved <= 0)
 		{
+			progress.assertNotCancelRequested();
 			if (isFailIfNoHUs())
 			{
 				throw new AdempiereException("@NoSelection@");
@@ -107,6 +150,8 @@ public class HUMoveToDirectWarehouseService
 		{
 			huView.invalidateAll();
 		}
+
+		progress.assertNotCancelRequested();
 	}
 
 	private void checkPreconditions()
@@ -121,30 +166,17 @@ public class HUMoveToDirectWarehouseService
 	 */
 	private final void generateMovement(@NonNull final I_M_HU hu)
 	{
-		final I_M_Warehouse targetWarehouse = getTargetWarehouse();
-
 		try
 		{
 			//
 			// Move the HU
-			final I_M_Movement movement = new HUMovementBuilder()
-					.setContextInitial(PlainContextAware.newWithThreadInheritedTrx())
-					.setWarehouseFrom(hu.getM_Locator().getM_Warehouse())
-					.setWarehouseTo(targetWarehouse)
-					.setMovementDate(getMovementDate())
-					.setDescription(getDescription())
-					.addHU(hu)
-					.createMovement();
-			if (movement == null)
-			{
-				throw new AdempiereException("No Movement created");
-			}
+			final I_M_Movement movement = createMovement(hu);
 
 			//
 			// Notify listeners/handlers
 			notifyHUMoved(hu);
 
-			loggable.addLog("@Created@ @M_Movement_ID@: {}", movement.getDocumentNo());
+			addLog("@Created@ @M_Movement_ID@: {}", movement.getDocumentNo());
 		}
 		catch (final Exception ex)
 		{
@@ -155,11 +187,191 @@ public class HUMoveToDirectWarehouseService
 			}
 
 			final String errmsg = "Error on " + hu.getValue() + ": " + ex.getLocalizedMessage();
-			loggable.addLog(errmsg);
+			addLog(errmsg);
 			logger.warn(errmsg, ex);
 		}
 	}
 
+	private I_M_Movement createMovement(@NonNull final I_M_HU hu)
+	{
+		final I_M_Movement movement = movementCreator.apply(hu);
+		if (movement == null)
+		{
+			throw new AdempiereException("No Movement created");
+		}
+		return movement;
+	}
+
+	private I_M_Movement createMovementUsingHUMovementBuilder(@NonNull final I_M_HU hu)
+	{
+		return new HUMovementBuilder()
+				.setContextInitial(PlainContextAware.newWithThreadInheritedTrx())
+				.setWarehouseFrom(hu.getM_Locator().getM_Warehouse())
+				.setWarehouseTo(getTargetWarehouse())
+				.setMovementDate(getMovementDate())
+				.setDescription(getDescription())
+				.addHU(hu)
+				.createMovement();
+	}
+
+	/**
+	 * Moves the HUs in chunks of {@link #getChunkSize()}, each chunk in its own transaction, using up to {@link #getParallelism()} threads.
+	 * <p>
+	 * If a chunk fails, its transaction is rolled back and, unless we shall fail on first error, its HUs are moved again one by one, so only the failing ones are skipped.
+	 * The documents and the view are invalidated only once, at the end.
+	 */
+	private void moveInChunks(final Iterator<I_M_HU> hus)
+	{
+		final List<Integer> huIds = ImmutableList.copyOf(Iterators.transform(hus, I_M_HU::getM_HU_ID));
+		if (huIds.isEmpty())
+		{
+			if (isFailIfNoHUs())
+			{
+				throw new AdempiereException("@NoSelection@");
+			}
+			return;
+		}
+
+		final List<List<Integer>> chunks = Lists.partition(huIds, getChunkSize());
+		final ChunksExecutionContext chunksContext = ChunksExecutionContext.builder()
+				.ctx(Env.copyCtx(Env.getCtx()))
+				.progress(ProcessExecutionProgresses.get())
+				.countTotal(huIds.size())
+				.build();
+
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(HUMoveToDirectWarehouseService.class.getSimpleName() + "-");
+		threadFactory.setDaemon(true);
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(getParallelism(), chunks.size()), threadFactory);
+
+		final Set<Integer> movedHUIds = new HashSet<>();
+		AdempiereException firstError = null;
+		try
+		{
+			final List<Future<ChunkResult>> futures = chunks.stream()
+					.map(chunk -> executor.submit(() -> moveChunk(chunk, chunksContext)))
+					.collect(ImmutableList.toImmutableList());
+
+			//
+			// Collect the results in chunks order, so the log lines are also ordered
+			int chunkNo = 0;
+			for (final Future<ChunkResult> future : futures)
+			{
+				chunkNo++;
+				try
+				{
+					final ChunkResult chunkResult = future.get();
+					movedHUIds.addAll(chunkResult.getMovedHUIds());
+					chunkResult.getLogs().forEach(this::addLog);
+					if (chunkResult.getErrorsCount() > 0)
+					{
+						addLog("Chunk {}/{}: {} HUs moved, {} errors", chunkNo, chunks.size(), chunkResult.getMovedHUIds().size(), chunkResult.getErrorsCount());
+					}
+				}
+				catch (final ExecutionException ex)
+				{
+					chunksContext.abort();
+					if (firstError == null)
+					{
+						firstError = AdempiereException.wrapIfNeeded(ex.getCause());
+					}
+				}
+				catch (final InterruptedException ex)
+				{
+					chunksContext.abort();
+					Thread.currentThread().interrupt();
+					throw AdempiereException.wrapIfNeeded(ex);
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+			notifyHUsMoved(movedHUIds);
+		}
+
+		if (firstError != null)
+		{
+			throw firstError;
+		}
+		chunksContext.getProgress().assertNotCancelRequested();
+	}
+
+	private ChunkResult moveChunk(final List<Integer> huIds, final ChunksExecutionContext chunksContext)
+	{
+		if (chunksContext.isAborted() || chunksContext.getProgress().isCancelRequested())
+		{
+			return ChunkResult.EMPTY;
+		}
+
+		// NOTE: each chunk gets its own copy of the context, because the context is a mutable Properties which is changed while the documents are processed
+		try (final IAutoCloseable ctxRestorer = Env.switchContext(chunksContext.newCtx()))
+		{
+			ChunkResult chunkResult;
+			try
+			{
+				chunkResult = moveChunkInTrx(huIds);
+			}
+			catch (final Exception ex)
+			{
+				if (isFailOnFirstError())
+				{
+					throw AdempiereException.wrapIfNeeded(ex);
+				}
+
+				logger.info("Moving chunk {} failed. Moving the HUs one by one.", huIds, ex);
+				chunkResult = moveOneByOne(huIds);
+			}
+
+			chunksContext.incrementProgress(huIds.size());
+			return chunkResult;
+		}
+	}
+
+	private ChunkResult moveChunkInTrx(final List<Integer> huIds)
+	{
+		final ChunkResult.ChunkResultBuilder chunkResult = ChunkResult.builder();
+		Services.get(ITrxManager.class).run(ITrx.TRXNAME_ThreadInherited, () -> {
+			for (final int huId : huIds)
+			{
+				final I_M_Movement movement = createMovement(InterfaceWrapperHelper.load(huId, I_M_HU.class));
+				chunkResult.movedHUId(huId);
+				chunkResult.log(StringUtils.formatMessage("@Created@ @M_Movement_ID@: {}", movement.getDocumentNo()));
+			}
+		});
+		return chunkResult.build();
+	}
+
+	private ChunkResult moveOneByOne(final List<Integer> huIds)
+	{
+		final ChunkResult.ChunkResultBuilder chunkResult = ChunkResult.builder();
+		int errorsCount = 0;
+		for (final int huId : huIds)
+		{
+			try
+			{
+				Services.get(ITrxManager.class).run(ITrx.TRXNAME_ThreadInherited, () -> {
+					final I_M_Movement movement = createMovement(InterfaceWrapperHelper.load(huId, I_M_HU.class));
+					chunkResult.log(StringUtils.formatMessage("@Created@ @M_Movement_ID@: {}", movement.getDocumentNo()));
+				});
+				chunkResult.movedHUId(huId);
+			}
+			catch (final Exception ex)
+			{
+				final String errmsg = "Error on M_HU_ID=" + huId + ": " + ex.getLocalizedMessage();
+				chunkResult.log(errmsg);
+				errorsCount++;
+				logger.warn(errmsg, ex);
+			}
+		}
+		return chunkResult.errorsCount(errorsCount).build();
+	}
+
+	private void addLog(final String msg, final Object... msgParameters)
+	{
+		loggable.addLog(msg, msgParameters);
+		ProcessExecutionProgresses.get().addLog(msg, msgParameters);
+	}
+
 	public HUMoveToDirectWarehouseService setMovementDate(final Timestamp movementDate)
 	{
 		_movementDate = movementDate;
@@ -210,6 +422,34 @@ public class HUMoveToDirectWarehouseService
 		return _failIfNoHUs;
 	}
 
+	/**
+	 * @param chunkSize if > 0 the HUs will be moved in chunks of this size, each chunk in its own transaction
+	 */
+	public HUMoveToDirectWarehouseService setChunkSize(final int chunkSize)
+	{
+		_chunkSize = chunkSize;
+		return this;
+	}
+
+	private int getChunkSize()
+	{
+		return _chunkSize;
+	}
+
+	/**
+	 * @param parallelism how many chunks can be moved in parallel; relevant only if moving in chunks (see {@link #setChunkSize(int)})
+	 */
+	public HUMoveToDirectWarehouseService setParallelism(final int parallelism)
+	{
+		_parallelism = parallelism;
+		return this;
+	}
+
+	private int getParallelism()
+	{
+		return Math.max(_parallelism, 1);
+	}
+
 	public HUMoveToDirectWarehouseService setDocumentsCollection(final DocumentCollection documentsCollection)
 	{
 		this.documentsCollection = documentsCollection;
@@ -222,6 +462,13 @@ public class HUMoveToDirectWarehouseService
 		return this;
 	}
 
+	@VisibleForTesting
+	HUMoveToDirectWarehouseService setMovementCreator(@NonNull final Function<I_M_HU, I_M_Movement> movementCreator)
+	{
+		this.movementCreator = movementCreator;
+		return this;
+	}
+
 	private final void notifyHUMoved(final I_M_HU hu)
 	{
 		final int huId = hu.getM_HU_ID();
@@ -249,6 +496,34 @@ public class HUMoveToDirectWarehouseService
 		}
 	}
 
+	private final void notifyHUsMoved(final Set<Integer> huIds)
+	{
+		if (huIds.isEmpty())
+		{
+			return;
+		}
+
+		if (documentsCollection != null)
+		{
+			for (final int huId : huIds)
+			{
+				try
+				{
+					documentsCollection.invalidateDocumentByRecordId(I_M_HU.Table_Name, huId);
+				}
+				catch (final Exception ex)
+				{
+					logger.warn("Failed invalidating documents for M_HU_ID={}. Ignored", huId, ex);
+				}
+			}
+		}
+
+		if (huView != null)
+		{
+			huView.removeHUIdsAndInvalidate(huIds);
+		}
+	}
+
 	/**
 	 * @return target warehouse where the HUs will be moved to.
 	 */
@@ -261,4 +536,60 @@ public class HUMoveToDirectWarehouseService
 		}
 		return _targetWarehouse;
 	}
+
+	@lombok.Value
+	@Builder
+	private static final class ChunkResult
+	{
+		public static final ChunkResult EMPTY = builder().build();
+
+		@Singular
+		private final List<Integer> movedHUIds;
+		@Singular
+		private final List<String> logs;
+		private final int errorsCount;
+	}
+
+	private static final class ChunksExecutionContext
+	{
+		private final Properties ctx;
+		@Getter
+		private final ProcessExecutionProgress progress;
+		private final int countTotal;
+
+		private final AtomicInteger countProcessed = new AtomicInteger(0);
+		private volatile boolean aborted = false;
+
+		@Builder
+		private ChunksExecutionContext(
+				@NonNull final Properties ctx,
+				@NonNull final ProcessExecutionProgress progress,
+				final int countTotal)
+		{
+			this.ctx = ctx;
+			this.progress = progress;
+			this.countTotal = countTotal;
+		}
+
+		/** @return a new copy of the caller's context, so it's never shared between chunks */
+		public Properties newCtx()
+		{
+			return Env.copyCtx(ctx);
+		}
+
+		public void incrementProgress(final int count)
+		{
+			progress.setProgress(countProcessed.addAndGet(count), countTotal);
+		}
+
+		public void abort()
+		{
+			aborted = true;
+		}
+
+		public boolean isAborted()
+		{
+			return aborted;
+		}
+	}
 }
@@ -5,10 +5,12 @@ import java.util.Iterator;
 
 import org.adempiere.ad.dao.impl.TypedSqlQueryFilter;
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.Check;
 import org.adempiere.util.Services;
 import org.adempiere.util.api.IRangeAwareParams;
 import org.compiere.model.IQuery;
+import org.compiere.util.Env;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import de.metas.handlingunits.IHUQueryBuilder;
@@ -54,6 +56,11 @@ public class WEBUI_M_HU_MoveToDirectWarehouse_Mass extends HUEditorProcessTempla
 	@Autowired
 	private DocumentCollection documentsCollection;
 
+	/** If > 0, the HUs are moved in chunks of this size, each chunk in its own transaction; the SysConfig name is prefixed with the process class name */
+	private static final String SYSCONFIG_ChunkSize = ".ChunkSize";
+	/** How many chunks can be moved in parallel; the SysConfig name is prefixed with the process class name */
+	private static final String SYSCONFIG_Parallelism = ".Parallelism";
+
 	// parameters
 	private int p_M_Warehouse_ID = -1; // the source warehouse
 	private String p_huWhereClause = null;
@@ -81,11 +88,23 @@ public class WEBUI_M_HU_MoveToDirectWarehouse_Mass extends HUEditorProcessTempla
 				.setDescription(p_Description)
 				.setFailOnFirstError(false)
 				.setLoggable(this)
+				.setChunkSize(getSysConfigInt(SYSCONFIG_ChunkSize, 0))
+				.setParallelism(getSysConfigInt(SYSCONFIG_Parallelism, 4))
 				.move(retrieveHUs());
 
 		return MSG_OK;
 	}
 
+	private int getSysConfigInt(final String nameSuffix, final int defaultValue)
+	{
+		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+		final int clientId = Env.getAD_Client_ID(getCtx());
+		final int orgId = Env.getAD_Org_ID(getCtx());
+
+		// NOTE: using the actual class name, so each subclass can be configured separately
+		return sysConfigBL.getIntValue(getClass().getName() + nameSuffix, defaultValue, clientId, orgId);
+	}
+
 	/**
 	 * @return HUs that will be moved
 	 */
@@ -70,7 +70,9 @@ public class MaterialCockpitRow implements IViewRow
 	private static final String SEPARATOR = "-";
 	private static final Joiner DOCUMENT_ID_JOINER = Joiner.on(SEPARATOR).skipNulls();
 
+	@Getter
 	private final Timestamp date;
+	@Getter
 	private final int productId;
 
 	@ViewColumn(widgetType = DocumentFieldWidgetType.Text, //
@@ -1,25 +1,21 @@
 package de.metas.ui.web.material.cockpit;
 
-import java.util.Collection;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
 
 import org.adempiere.ad.dao.ICompositeQueryFilter;
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.util.Services;
-import org.adempiere.util.lang.ExtendedMemorizingSupplier;
-import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.model.I_M_Product;
 import org.compiere.util.CCache;
 import org.compiere.util.Env;
 import org.compiere.util.TimeUtil;
 import org.springframework.stereotype.Repository;
 
-import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Maps;
 
 import de.metas.material.cockpit.model.I_MD_Cockpit;
 import de.metas.material.cockpit.model.I_MD_Stock;
@@ -29,7 +25,6 @@ import de.metas.ui.web.material.cockpit.filters.StockFilters;
 import de.metas.ui.web.material.cockpit.rowfactory.MaterialCockpitRowFactory;
 import de.metas.ui.web.material.cockpit.rowfactory.MaterialCockpitRowFactory.CreateRowsRequest;
 import de.metas.ui.web.view.AbstractCustomView.IRowsData;
-import de.metas.ui.web.window.datatypes.DocumentId;
 import lombok.NonNull;
 
 /*
@@ -76,32 +71,18 @@ public class MaterialCockpitRowRepository
 
 	public IRowsData<MaterialCockpitRow> createRowsData(@NonNull final List<DocumentFilter> filters)
 	{
-		return new IRowsData<MaterialCockpitRow>()
-		{
-			private final ExtendedMemorizingSupplier<List<MaterialCockpitRow>> topLevelRows = //
-					ExtendedMemorizingSupplier.of(() -> retrieveRows(filters));
-
-			@Override
-			public Map<DocumentId, MaterialCockpitRow> getDocumentId2TopLevelRows()
-			{
-				return Maps.uniqueIndex(topLevelRows.get(), row -> row.getId());
-			}
-
-			@Override
-			public ListMultimap<TableRecordReference, MaterialCockpitRow> getTableRecordReference2rows()
-			{
-				return extractTableRecordReference2DocumentId2(getDocumentId2AllRows().values());
-			}
-
-			@Override
-			public void invalidateAll()
-			{
-				topLevelRows.forget();
-			}
-		};
+		final Date date = materialCockpitFilters.getFilterByDate(filters);
+		return MaterialCockpitRowsData.builder()
+				.date(date != null ? TimeUtil.asTimestamp(date) : null)
+				.allRowsLoader(() -> retrieveRows(filters, null))
+				.rowsByProductIdsLoader(productIds -> retrieveRows(filters, productIds))
+				.build();
 	}
 
-	private List<MaterialCockpitRow> retrieveRows(@NonNull final List<DocumentFilter> filters)
+	/**
+	 * @param onlyProductIds if not null, only the rows of the given products are retrieved
+	 */
+	private List<MaterialCockpitRow> retrieveRows(@NonNull final List<DocumentFilter> filters, @Nullable final Set<Integer> onlyProductIds)
 	{
 		final Date date = materialCockpitFilters.getFilterByDate(filters);
 		if (date == null)
@@ -110,29 +91,30 @@ public class MaterialCockpitRowRepository
 		}
 
 		final List<I_MD_Cockpit> cockpitRecords = materialCockpitFilters
-				.createQuery(filters)
+				.createQuery(filters, onlyProductIds)
 				.list();
 
 		final List<I_MD_Stock> stockRecords = StockFilters
-				.createStockQueryFor(filters)
+				.createStockQueryFor(filters, onlyProductIds)
 				.list();
 
 		final CreateRowsRequest request = CreateRowsRequest.builder()
 				.date(TimeUtil.asTimestamp(date))
-				.productsToListEvenIfEmpty(retrieveRelevantProducts(filters))
+				.productsToListEvenIfEmpty(retrieveRelevantProducts(filters, onlyProductIds))
 				.cockpitRecords(cockpitRecords)
 				.stockRecords(stockRecords)
 				.build();
 		return materialCockpitRowFactory.createRows(request);
 	}
 
-	private List<I_M_Product> retrieveRelevantProducts(@NonNull final List<DocumentFilter> filters)
+	private List<I_M_Product> retrieveRelevantProducts(@NonNull final List<DocumentFilter> filters, @Nullable final Set<Integer> onlyProductIds)
 	{
 		final int orgId = Env.getAD_Org_ID(Env.getCtx());
 		final List<I_M_Product> allProducts = orgIdToproducts
 				.getOrLoad(orgId, () -> retrieveAllProducts(orgId));
 
 		return allProducts.stream()
+				.filter(product -> onlyProductIds == null || onlyProductIds.contains(product.getM_Product_ID()))
 				.filter(materialCockpitFilters.toProductFilterPredicate(filters))
 				.collect(ImmutableList.toImmutableList());
 	}
@@ -156,25 +138,4 @@ public class MaterialCockpitRowRepository
 						.list();
 		return products;
 	}
-
-	private static ListMultimap<TableRecordReference, MaterialCockpitRow> extractTableRecordReference2DocumentId2(
-			@NonNull final Collection<MaterialCockpitRow> allRows)
-	{
-		final ListMultimap<TableRecordReference, MaterialCockpitRow> recordReference2DocumentId = ArrayListMultimap.create();
-
-		for (final MaterialCockpitRow materialCockpitRow : allRows)
-		{
-			materialCockpitRow
-					.getAllIncludedCockpitRecordIds()
-					.forEach(cockpitRecordId -> recordReference2DocumentId
-							.put(TableRecordReference.of(I_MD_Cockpit.Table_Name, cockpitRecordId), materialCockpitRow));
-
-			materialCockpitRow
-					.getAllIncludedStockRecordIds()
-					.forEach(stockRecordId -> recordReference2DocumentId
-							.put(TableRecordReference.of(I_MD_Stock.Table_Name, stockRecordId), materialCockpitRow));
-		}
-
-		return recordReference2DocumentId;
-	}
 }
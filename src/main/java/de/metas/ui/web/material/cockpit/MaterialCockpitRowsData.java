@@ -0,0 +1,270 @@
+package de.metas.ui.web.material.cockpit;
+
+import static org.adempiere.model.InterfaceWrapperHelper.load;
+
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.util.TimeUtil;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+
+import de.metas.material.cockpit.model.I_MD_Cockpit;
+import de.metas.material.cockpit.model.I_MD_Stock;
+import de.metas.ui.web.view.AbstractCustomView.IRowsData;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Material cockpit rows, which are incrementally refreshed.
+ * <p>
+ * All rows of one view are for the same date, so the main row buckets of a view are identified by their product.
+ * When some rows are invalidated, only the main rows of the affected products are reloaded and patched into the existing rows.
+ */
+@ToString(of = "date")
+final class MaterialCockpitRowsData implements IRowsData<MaterialCockpitRow>
+{
+	/** the day of the view's rows; null if the view has no date filter, i.e. no rows */
+	private final Timestamp date;
+	private final Supplier<List<MaterialCockpitRow>> allRowsLoader;
+	private final Function<Set<Integer>, List<MaterialCockpitRow>> rowsByProductIdsLoader;
+
+	/** top level (main) rows; null means not loaded */
+	private ImmutableMap<DocumentId, MaterialCockpitRow> topLevelRows; // guarded by this
+	/** products whose main rows have to be reloaded next time the top level rows are needed */
+	private final Set<Integer> staleProductIds = new HashSet<>(); // guarded by this
+
+	private ImmutableListMultimap<TableRecordReference, MaterialCockpitRow> rowsByRecordRef; // guarded by this
+	private ImmutableMap<Integer, DocumentId> mainRowIdsByProductId; // guarded by this
+
+	@Builder
+	private MaterialCockpitRowsData(
+			@Nullable final Timestamp date,
+			@NonNull final Supplier<List<MaterialCockpitRow>> allRowsLoader,
+			@NonNull final Function<Set<Integer>, List<MaterialCockpitRow>> rowsByProductIdsLoader)
+	{
+		this.date = date != null ? TimeUtil.getDay(date) : null;
+		this.allRowsLoader = allRowsLoader;
+		this.rowsByProductIdsLoader = rowsByProductIdsLoader;
+	}
+
+	@Override
+	public synchronized Map<DocumentId, MaterialCockpitRow> getDocumentId2TopLevelRows()
+	{
+		if (topLevelRows == null)
+		{
+			setTopLevelRows(Maps.uniqueIndex(allRowsLoader.get(), MaterialCockpitRow::getId));
+		}
+		else if (!staleProductIds.isEmpty())
+		{
+			setTopLevelRows(reloadRows(topLevelRows, ImmutableSet.copyOf(staleProductIds)));
+		}
+
+		return topLevelRows;
+	}
+
+	private void setTopLevelRows(final ImmutableMap<DocumentId, MaterialCockpitRow> topLevelRows)
+	{
+		this.topLevelRows = topLevelRows;
+		staleProductIds.clear();
+		rowsByRecordRef = null;
+		mainRowIdsByProductId = null;
+	}
+
+	/**
+	 * @return given rows, where the main rows of given products were replaced by the reloaded ones (or removed, if they vanished).
+	 *         Main rows which did not exist before are added at the end.
+	 */
+	private ImmutableMap<DocumentId, MaterialCockpitRow> reloadRows(final Map<DocumentId, MaterialCockpitRow> rows, final Set<Integer> productIds)
+	{
+		final Map<DocumentId, MaterialCockpitRow> reloadedRows = Maps.uniqueIndex(rowsByProductIdsLoader.apply(productIds), MaterialCockpitRow::getId);
+
+		final ImmutableMap.Builder<DocumentId, MaterialCockpitRow> result = ImmutableMap.builder();
+		rows.forEach((rowId, row) -> {
+			if (!productIds.contains(row.getProductId()))
+			{
+				result.put(rowId, row);
+			}
+			else if (reloadedRows.containsKey(rowId))
+			{
+				result.put(rowId, reloadedRows.get(rowId));
+			}
+		});
+		reloadedRows.forEach((rowId, row) -> {
+			if (!rows.containsKey(rowId))
+			{
+				result.put(rowId, row);
+			}
+		});
+
+		return result.build();
+	}
+
+	@Override
+	public synchronized ListMultimap<TableRecordReference, MaterialCockpitRow> getTableRecordReference2rows()
+	{
+		final Map<DocumentId, MaterialCockpitRow> allRows = getDocumentId2AllRows(); // NOTE: might reset rowsByRecordRef
+		if (rowsByRecordRef == null)
+		{
+			final ImmutableListMultimap.Builder<TableRecordReference, MaterialCockpitRow> builder = ImmutableListMultimap.builder();
+			for (final MaterialCockpitRow row : allRows.values())
+			{
+				row.getAllIncludedCockpitRecordIds()
+						.forEach(cockpitRecordId -> builder.put(TableRecordReference.of(I_MD_Cockpit.Table_Name, cockpitRecordId), row));
+				row.getAllIncludedStockRecordIds()
+						.forEach(stockRecordId -> builder.put(TableRecordReference.of(I_MD_Stock.Table_Name, stockRecordId), row));
+			}
+			rowsByRecordRef = builder.build();
+		}
+		return rowsByRecordRef;
+	}
+
+	private synchronized Map<Integer, DocumentId> getMainRowIdsByProductId()
+	{
+		final Map<DocumentId, MaterialCockpitRow> topLevelRows = getDocumentId2TopLevelRows(); // NOTE: might reset mainRowIdsByProductId
+		if (mainRowIdsByProductId == null)
+		{
+			final Map<Integer, DocumentId> result = Maps.newHashMap();
+			topLevelRows.values().forEach(row -> result.putIfAbsent(row.getProductId(), row.getId()));
+			mainRowIdsByProductId = ImmutableMap.copyOf(result);
+		}
+		return mainRowIdsByProductId;
+	}
+
+	@Override
+	public synchronized void invalidateAll()
+	{
+		topLevelRows = null;
+		staleProductIds.clear();
+		rowsByRecordRef = null;
+		mainRowIdsByProductId = null;
+	}
+
+	@Override
+	public synchronized void invalidate(final DocumentIdsSelection rowIds)
+	{
+		if (rowIds.isAll())
+		{
+			invalidateAll();
+			return;
+		}
+		if (topLevelRows == null)
+		{
+			return; // nothing loaded yet
+		}
+
+		final Map<DocumentId, Integer> productIdsByRowId = Maps.newHashMap();
+		for (final MaterialCockpitRow mainRow : topLevelRows.values())
+		{
+			productIdsByRowId.put(mainRow.getId(), mainRow.getProductId());
+			mainRow.getIncludedRows().forEach(subRow -> productIdsByRowId.put(subRow.getId(), subRow.getProductId()));
+		}
+
+		final Set<Integer> productIds = new HashSet<>();
+		for (final DocumentId rowId : rowIds.toSet())
+		{
+			final Integer productId = productIdsByRowId.get(rowId);
+			if (productId == null)
+			{
+				// NOTE: shall not happen, but if it does, we have no idea which rows shall be reloaded
+				invalidateAll();
+				return;
+			}
+			productIds.add(productId);
+		}
+
+		staleProductIds.addAll(productIds);
+	}
+
+	/**
+	 * Besides the rows which contain the given record, also the main row of the record's product is returned, if the record is a new one which shall be included in that main row.
+	 */
+	@Override
+	public Stream<DocumentId> streamDocumentIdsToInvalidate(@NonNull final TableRecordReference recordRef)
+	{
+		final List<MaterialCockpitRow> rowsContainingRecord = getTableRecordReference2rows().get(recordRef);
+		if (!rowsContainingRecord.isEmpty())
+		{
+			return rowsContainingRecord.stream().map(MaterialCockpitRow::getId);
+		}
+
+		final int productId = retrieveProductIdIfRelevant(recordRef);
+		if (productId <= 0)
+		{
+			return Stream.empty();
+		}
+
+		// NOTE: if there is no main row for the product, then the product is not relevant for this view
+		final DocumentId mainRowId = getMainRowIdsByProductId().get(productId);
+		return mainRowId != null ? Stream.of(mainRowId) : Stream.empty();
+	}
+
+	/**
+	 * @return the M_Product_ID of the given MD_Cockpit or MD_Stock record, if the record shall be part of this view's rows; else -1
+	 */
+	private int retrieveProductIdIfRelevant(final TableRecordReference recordRef)
+	{
+		if (date == null)
+		{
+			return -1;
+		}
+
+		final String tableName = recordRef.getTableName();
+		if (I_MD_Cockpit.Table_Name.equals(tableName))
+		{
+			final I_MD_Cockpit cockpitRecord = load(recordRef.getRecord_ID(), I_MD_Cockpit.class);
+			if (cockpitRecord == null || !date.equals(TimeUtil.getDay(cockpitRecord.getDateGeneral())))
+			{
+				return -1;
+			}
+			return cockpitRecord.getM_Product_ID();
+		}
+		else if (I_MD_Stock.Table_Name.equals(tableName))
+		{
+			final I_MD_Stock stockRecord = load(recordRef.getRecord_ID(), I_MD_Stock.class);
+			return stockRecord != null ? stockRecord.getM_Product_ID() : -1;
+		}
+		else
+		{
+			return -1;
+		}
+	}
+}
@@ -3,8 +3,11 @@ package de.metas.ui.web.material.cockpit.filters;
 import java.sql.Timestamp;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.ad.dao.ConstantQueryFilter;
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
@@ -80,6 +83,14 @@ public class MaterialCockpitFilters
 	}
 
 	public IQuery<I_MD_Cockpit> createQuery(@NonNull final List<DocumentFilter> filters)
+	{
+		return createQuery(filters, null);
+	}
+
+	/**
+	 * @param onlyProductIds if not null, only the records of the given products are matched; used to reload just a part of the view's rows
+	 */
+	public IQuery<I_MD_Cockpit> createQuery(@NonNull final List<DocumentFilter> filters, @Nullable final Set<Integer> onlyProductIds)
 	{
 		final IQueryBuilder<I_MD_Cockpit> queryBuilder = createInitialQueryBuilder();
 
@@ -95,6 +106,11 @@ public class MaterialCockpitFilters
 
 		if (anyRestrictionAdded)
 		{
+			if (onlyProductIds != null)
+			{
+				queryBuilder.addInArrayFilter(I_MD_Cockpit.COLUMN_M_Product_ID, onlyProductIds);
+			}
+
 			final IQuery<I_MD_Cockpit> query = augmentQueryBuilderWithOrderBy(queryBuilder).create();
 			return query;
 		}
@@ -1,6 +1,9 @@
 package de.metas.ui.web.material.cockpit.filters;
 
 import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
 
 import org.adempiere.ad.dao.ConstantQueryFilter;
 import org.adempiere.ad.dao.IQueryBL;
@@ -38,6 +41,14 @@ import lombok.NonNull;
 public class StockFilters
 {
 	public static IQuery<I_MD_Stock> createStockQueryFor(@NonNull final List<DocumentFilter> filters)
+	{
+		return createStockQueryFor(filters, null);
+	}
+
+	/**
+	 * @param onlyProductIds if not null, only the records of the given products are matched; used to reload just a part of the view's rows
+	 */
+	public static IQuery<I_MD_Stock> createStockQueryFor(@NonNull final List<DocumentFilter> filters, @Nullable final Set<Integer> onlyProductIds)
 	{
 		final IQueryBL queryBL = Services.get(IQueryBL.class);
 
@@ -53,6 +64,10 @@ public class StockFilters
 
 		if (anyRestrictionAdded)
 		{
+			if (onlyProductIds != null)
+			{
+				queryBuilder.addInArrayFilter(I_MD_Stock.COLUMN_M_Product_ID, onlyProductIds);
+			}
 			return queryBuilder.create();
 		}
 		else
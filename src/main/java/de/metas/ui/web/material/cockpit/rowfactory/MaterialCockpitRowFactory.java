@@ -11,6 +11,8 @@ import org.adempiere.util.Services;
 import org.compiere.model.I_M_Product;
 import org.compiere.model.I_S_Resource;
 import org.compiere.model.X_S_Resource;
+import org.compiere.util.CCache;
+import org.compiere.util.Env;
 import org.springframework.stereotype.Service;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -21,6 +23,9 @@ import com.google.common.collect.ImmutableMap.Builder;
 import de.metas.dimension.DimensionSpec;
 import de.metas.dimension.DimensionSpecGroup;
 import de.metas.dimension.IDimensionspecDAO;
+import de.metas.dimension.model.I_DIM_Dimension_Spec;
+import de.metas.dimension.model.I_DIM_Dimension_Spec_Attribute;
+import de.metas.dimension.model.I_DIM_Dimension_Spec_AttributeValue;
 import de.metas.material.cockpit.model.I_MD_Cockpit;
 import de.metas.material.cockpit.model.I_MD_Stock;
 import de.metas.ui.web.material.cockpit.MaterialCockpitRow;
@@ -54,6 +59,18 @@ public class MaterialCockpitRowFactory
 {
 	public static final String DIM_SPEC_INTERNAL_NAME = "Material_Cockpit_Default_Spec";
 
+	private final CCache<String, DimensionSpecAndGroups> dimensionSpecs = CCache.<String, DimensionSpecAndGroups> newCache(
+			I_DIM_Dimension_Spec.Table_Name + "#by#" + I_DIM_Dimension_Spec.COLUMNNAME_InternalName,
+			1, // initial size
+			CCache.EXPIREMINUTES_Never)
+			.addResetForTableName(I_DIM_Dimension_Spec_Attribute.Table_Name)
+			.addResetForTableName(I_DIM_Dimension_Spec_AttributeValue.Table_Name);
+
+	private final CCache<Integer, List<Integer>> countingPlantIds = CCache.<Integer, List<Integer>> newCache(
+			I_S_Resource.Table_Name + "#CountingPlantIds#by#" + I_S_Resource.COLUMNNAME_AD_Client_ID,
+			1, // initial size
+			CCache.EXPIREMINUTES_Never);
+
 	@Value
 	@lombok.Builder
 	public static class CreateRowsRequest
@@ -77,8 +94,7 @@ public class MaterialCockpitRowFactory
 				request.getProductsToListEvenIfEmpty(),
 				request.getDate());
 
-		final DimensionSpec dimensionSpec = Services.get(IDimensionspecDAO.class).retrieveForInternalNameOrNull(DIM_SPEC_INTERNAL_NAME);
-		Check.errorIf(dimensionSpec == null, "Unable to load DIM_Dimension_Spec record with InternalName={}", DIM_SPEC_INTERNAL_NAME);
+		final DimensionSpec dimensionSpec = getDimensionSpec().getDimensionSpec();
 
 		final Map<MainRowBucketId, MainRowWithSubRows> result = new HashMap<>(emptyRowBuckets);
 
@@ -96,11 +112,8 @@ public class MaterialCockpitRowFactory
 			@NonNull final List<I_M_Product> products,
 			@NonNull final Timestamp timestamp)
 	{
-		final DimensionSpec dimensionSpec = Services.get(IDimensionspecDAO.class).retrieveForInternalNameOrNull(DIM_SPEC_INTERNAL_NAME);
-		Check.errorIf(dimensionSpec == null, "Unable to load DIM_Dimension_Spec record with InternalName={}", DIM_SPEC_INTERNAL_NAME);
-
-		final List<DimensionSpecGroup> groups = dimensionSpec.retrieveGroups();
-		final List<I_S_Resource> plants = retrieveCountingPlants();
+		final List<DimensionSpecGroup> groups = getDimensionSpec().getGroups();
+		final List<Integer> plantIds = getCountingPlantIds();
 
 		final Builder<MainRowBucketId, MainRowWithSubRows> result = ImmutableMap.builder();
 		for (final I_M_Product product : products)
@@ -108,9 +121,9 @@ public class MaterialCockpitRowFactory
 			final MainRowBucketId key = MainRowBucketId.createPlainInstance(product.getM_Product_ID(), timestamp);
 			final MainRowWithSubRows mainRowBucket = MainRowWithSubRows.create(key);
 
-			for (final I_S_Resource plant : plants)
+			for (final int plantId : plantIds)
 			{
-				mainRowBucket.addEmptyCountingSubrowBucket(plant.getS_Resource_ID());
+				mainRowBucket.addEmptyCountingSubrowBucket(plantId);
 			}
 
 			for (final DimensionSpecGroup group : groups)
@@ -123,12 +136,42 @@ public class MaterialCockpitRowFactory
 		return result.build();
 	}
 
-	private List<I_S_Resource> retrieveCountingPlants()
+	private DimensionSpecAndGroups getDimensionSpec()
+	{
+		return dimensionSpecs.getOrLoad(DIM_SPEC_INTERNAL_NAME, () -> retrieveDimensionSpec(DIM_SPEC_INTERNAL_NAME));
+	}
+
+	private static DimensionSpecAndGroups retrieveDimensionSpec(final String internalName)
+	{
+		final DimensionSpec dimensionSpec = Services.get(IDimensionspecDAO.class).retrieveForInternalNameOrNull(internalName);
+		Check.errorIf(dimensionSpec == null, "Unable to load DIM_Dimension_Spec record with InternalName={}", internalName);
+
+		return new DimensionSpecAndGroups(dimensionSpec, ImmutableList.copyOf(dimensionSpec.retrieveGroups()));
+	}
+
+	private List<Integer> getCountingPlantIds()
+	{
+		final int adClientId = Env.getAD_Client_ID(Env.getCtx());
+		return countingPlantIds.getOrLoad(adClientId, () -> retrieveCountingPlantIds());
+	}
+
+	private static List<Integer> retrieveCountingPlantIds()
 	{
 		return Services.get(IQueryBL.class).createQueryBuilder(I_S_Resource.class)
 				.addOnlyActiveRecordsFilter()
 				.addEqualsFilter(I_S_Resource.COLUMNNAME_ManufacturingResourceType, X_S_Resource.MANUFACTURINGRESOURCETYPE_Plant)
-				.create().list();
+				.create()
+				.listIds();
+	}
+
+	@Value
+	private static class DimensionSpecAndGroups
+	{
+		@NonNull
+		DimensionSpec dimensionSpec;
+
+		@NonNull
+		List<DimensionSpecGroup> groups;
 	}
 
 	private void addCockpitRowsToResult(
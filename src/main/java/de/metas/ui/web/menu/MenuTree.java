@@ -1,10 +1,11 @@
 package de.metas.ui.web.menu;
 
-import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.compiere.util.Util;
@@ -65,6 +66,8 @@ public final class MenuTree
 	private final ListMultimap<ArrayKey, MenuNode> nodesByTypeAndElementId;
 	private final ListMultimap<String, MenuNode> nodesByMainTableName;
 
+	private final MenuTreeCaptionIndex captionIndex;
+
 	private MenuTree(final long version, final MenuNode rootNode)
 	{
 		super();
@@ -88,6 +91,8 @@ public final class MenuTree
 		nodesById = nodesByIdBuilder.build();
 		nodesByTypeAndElementId = nodesByTypeAndElementIdBuilder.build();
 		nodesByMainTableName = nodesByMainTableNameBuilder.build();
+
+		captionIndex = MenuTreeCaptionIndex.of(rootNode);
 	}
 
 	private static final ArrayKey mkTypeAndElementIdKey(final MenuNodeType type, final DocumentId elementId)
@@ -243,8 +248,20 @@ public final class MenuTree
 			throw new IllegalArgumentException("Invalid name query '" + nameQuery + "'");
 		}
 
-		final String nameQueryLC = nameQuery.toLowerCase();
-		logger.trace("Filtering using nameQueryLC={}", nameQueryLC);
+		//
+		// Find out the matching nodes and all the nodes on their paths, using the index.
+		// So, while copying the tree, we only have to walk those paths.
+		final Set<String> matchingNodeIds = captionIndex.findNodeIdsMatchingQuery(nameQuery);
+		final Set<String> nodeIdsOnMatchingPaths = new HashSet<>();
+		for (final String matchingNodeId : matchingNodeIds)
+		{
+			MenuNode node = nodesById.get(matchingNodeId);
+			while (node != null && nodeIdsOnMatchingPaths.add(node.getId()))
+			{
+				node = node.getParent();
+			}
+		}
+		logger.trace("Filtering using nameQuery={}: matchingNodeIds={}", nameQuery, matchingNodeIds);
 
 		return getRootNode()
 				.deepCopy(node -> {
@@ -254,7 +271,7 @@ public final class MenuTree
 						return MenuNodeFilterResolution.Accept;
 					}
 
-					final boolean matches = matchesNameQuery(node, nameQueryLC);
+					final boolean matches = matchingNodeIds.contains(node.getId());
 					if (matches)
 					{
 						logger.trace("Filter: accept node because matches: {}", node);
@@ -263,6 +280,12 @@ public final class MenuTree
 
 					if (node.isGroupingNode())
 					{
+						if (!nodeIdsOnMatchingPaths.contains(node.getId()))
+						{
+							logger.trace("Filter: reject grouping node because it does not match and it has no matching children: {}", node);
+							return MenuNodeFilterResolution.Reject;
+						}
+
 						logger.trace("Filter: accept node (if has children!) because does matches and it's a groupping node: {}", node);
 						return MenuNodeFilterResolution.AcceptIfHasChildren;
 					}
@@ -279,20 +302,6 @@ public final class MenuTree
 				});
 	}
 
-	private static final boolean matchesNameQuery(final MenuNode node, final String nameQueryLC)
-	{
-		final String captionNorm = stripDiacritics(node.getCaption().toLowerCase());
-		final String queryNorm = stripDiacritics(nameQueryLC);
-		return captionNorm.indexOf(queryNorm) >= 0;
-	}
-
-	private static final String stripDiacritics(final String string)
-	{
-		String s = Normalizer.normalize(string, Normalizer.Form.NFD);
-		s = s.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
-		return s;
-	}
-
 	public MenuNode getRootNodeWithFavoritesOnly(@NonNull final MenuNodeFavoriteProvider menuNodeFavoriteProvider)
 	{
 		return getRootNode()
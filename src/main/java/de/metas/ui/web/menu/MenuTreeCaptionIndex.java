@@ -0,0 +1,128 @@
+package de.metas.ui.web.menu;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Index of normalized (lowercased, diacritics stripped) menu node captions, used to find the nodes whose caption contains a given query string.
+ * <p>
+ * Besides the normalized captions, we also index the caption's n-grams (of {@link #NGRAM_LENGTH} characters),
+ * so for longer queries we only have to check the few nodes which contain all the query's n-grams.
+ */
+final class MenuTreeCaptionIndex
+{
+	public static MenuTreeCaptionIndex of(@NonNull final MenuNode rootNode)
+	{
+		return new MenuTreeCaptionIndex(rootNode);
+	}
+
+	private static final int NGRAM_LENGTH = 3;
+	private static final Pattern PATTERN_DiacriticalMarks = Pattern.compile("[\\p{InCombiningDiacriticalMarks}]");
+
+	/** normalized caption by node ID; root node is not included */
+	private final ImmutableMap<String, String> normalizedCaptionsByNodeId;
+	private final ImmutableSetMultimap<String, String> nodeIdsByNGram;
+
+	private MenuTreeCaptionIndex(final MenuNode rootNode)
+	{
+		final ImmutableMap.Builder<String, String> normalizedCaptionsByNodeId = ImmutableMap.builder();
+		final ImmutableSetMultimap.Builder<String, String> nodeIdsByNGram = ImmutableSetMultimap.builder();
+		rootNode.iterate(node -> {
+			if (node.isRoot())
+			{
+				return;
+			}
+
+			final String nodeId = node.getId();
+			final String captionNorm = normalize(node.getCaption());
+			normalizedCaptionsByNodeId.put(nodeId, captionNorm);
+
+			for (int i = 0; i + NGRAM_LENGTH <= captionNorm.length(); i++)
+			{
+				nodeIdsByNGram.put(captionNorm.substring(i, i + NGRAM_LENGTH), nodeId);
+			}
+		});
+
+		this.normalizedCaptionsByNodeId = normalizedCaptionsByNodeId.build();
+		this.nodeIdsByNGram = nodeIdsByNGram.build();
+	}
+
+	public static String normalize(final String string)
+	{
+		if (string == null || string.isEmpty())
+		{
+			return "";
+		}
+
+		final String stringNFD = Normalizer.normalize(string.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+		return PATTERN_DiacriticalMarks.matcher(stringNFD).replaceAll("");
+	}
+
+	/**
+	 * @return IDs of the nodes whose normalized caption contains the normalized query
+	 */
+	public Set<String> findNodeIdsMatchingQuery(@NonNull final String query)
+	{
+		final String queryNorm = normalize(query);
+		if (queryNorm.length() < NGRAM_LENGTH)
+		{
+			return normalizedCaptionsByNodeId.entrySet()
+					.stream()
+					.filter(entry -> entry.getValue().contains(queryNorm))
+					.map(entry -> entry.getKey())
+					.collect(ImmutableSet.toImmutableSet());
+		}
+
+		//
+		// Pick the n-gram with the fewest nodes as candidates
+		Set<String> candidateNodeIds = null;
+		for (int i = 0; i + NGRAM_LENGTH <= queryNorm.length(); i++)
+		{
+			final Set<String> nodeIds = nodeIdsByNGram.get(queryNorm.substring(i, i + NGRAM_LENGTH));
+			if (nodeIds.isEmpty())
+			{
+				return ImmutableSet.of();
+			}
+			if (candidateNodeIds == null || nodeIds.size() < candidateNodeIds.size())
+			{
+				candidateNodeIds = nodeIds;
+			}
+		}
+
+		//
+		// Check the candidates
+		return candidateNodeIds.stream()
+				.filter(nodeId -> normalizedCaptionsByNodeId.get(nodeId).contains(queryNorm))
+				.collect(ImmutableSet.toImmutableSet());
+	}
+}
@@ -1,22 +1,26 @@
 package de.metas.ui.web.picking.packageable;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Supplier;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.adempiere.util.GuavaCollectors;
-import org.adempiere.util.lang.ExtendedMemorizingSupplier;
 import org.adempiere.util.lang.impl.TableRecordReference;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
 
 import de.metas.inoutcandidate.model.I_M_ShipmentSchedule;
 import de.metas.ui.web.view.AbstractCustomView.IRowsData;
 import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import lombok.NonNull;
 import lombok.ToString;
 
@@ -42,12 +46,14 @@ import lombok.ToString;
  * #L%
  */
 
-@ToString
+@ToString(of = "shipmentScheduleIds")
 final class PackageableRowsData implements IRowsData<PackageableRow>
 {
-	public static PackageableRowsData ofSupplier(final Supplier<List<PackageableRow>> rowsSupplier)
+	public static PackageableRowsData of(
+			@NonNull final Set<Integer> shipmentScheduleIds,
+			@NonNull final Function<Set<Integer>, List<PackageableRow>> rowsLoader)
 	{
-		return new PackageableRowsData(rowsSupplier);
+		return new PackageableRowsData(shipmentScheduleIds, rowsLoader);
 	}
 
 	public static PackageableRowsData cast(final IRowsData<PackageableRow> rowsData)
@@ -55,15 +61,25 @@ final class PackageableRowsData implements IRowsData<PackageableRow>
 		return (PackageableRowsData)rowsData;
 	}
 
-	public static final PackageableRowsData EMPTY = new PackageableRowsData(ImmutableList::of);
+	public static final PackageableRowsData EMPTY = new PackageableRowsData(ImmutableSet.of(), shipmentScheduleIds -> ImmutableList.of());
 
-	private final ExtendedMemorizingSupplier<Map<DocumentId, PackageableRow>> topLevelRows;
+	private final ImmutableSet<Integer> shipmentScheduleIds;
+	private final Function<Set<Integer>, List<PackageableRow>> rowsLoader;
+
+	/** top level rows; null means not loaded */
+	private ImmutableMap<DocumentId, PackageableRow> topLevelRows; // guarded by this
+	/** rows which have to be reloaded next time the top level rows are needed */
+	private final Set<DocumentId> staleRowIds = new HashSet<>(); // guarded by this
+	private ImmutableListMultimap<TableRecordReference, PackageableRow> rowsByRecordRef; // guarded by this
 
 	private final ImmutableListMultimap<TableRecordReference, DocumentId> initialDocumentIdsByRecordRef;
 
-	private PackageableRowsData(@NonNull final Supplier<List<PackageableRow>> rowsSupplier)
+	private PackageableRowsData(
+			@NonNull final Set<Integer> shipmentScheduleIds,
+			@NonNull final Function<Set<Integer>, List<PackageableRow>> rowsLoader)
 	{
-		topLevelRows = ExtendedMemorizingSupplier.of(() -> Maps.uniqueIndex(rowsSupplier.get(), PackageableRow::getId));
+		this.shipmentScheduleIds = ImmutableSet.copyOf(shipmentScheduleIds);
+		this.rowsLoader = rowsLoader;
 
 		//
 		// Remember initial rows
@@ -77,24 +93,88 @@ final class PackageableRowsData implements IRowsData<PackageableRow>
 	}
 
 	@Override
-	public Map<DocumentId, PackageableRow> getDocumentId2TopLevelRows()
+	public synchronized Map<DocumentId, PackageableRow> getDocumentId2TopLevelRows()
 	{
-		return topLevelRows.get();
+		if (topLevelRows == null)
+		{
+			topLevelRows = Maps.uniqueIndex(rowsLoader.apply(shipmentScheduleIds), PackageableRow::getId);
+			staleRowIds.clear();
+			rowsByRecordRef = null;
+		}
+		else if (!staleRowIds.isEmpty())
+		{
+			topLevelRows = reloadRows(topLevelRows, ImmutableSet.copyOf(staleRowIds));
+			staleRowIds.clear();
+			rowsByRecordRef = null;
+		}
+
+		return topLevelRows;
+	}
+
+	/**
+	 * @return given rows, where the stale ones were reloaded (or removed, if they vanished). Rows which appeared back are added at the end.
+	 */
+	private ImmutableMap<DocumentId, PackageableRow> reloadRows(final Map<DocumentId, PackageableRow> rows, final Set<DocumentId> staleRowIds)
+	{
+		final Set<Integer> shipmentScheduleIdsToReload = staleRowIds.stream()
+				.map(DocumentId::toInt)
+				.collect(ImmutableSet.toImmutableSet());
+		final Map<DocumentId, PackageableRow> reloadedRows = Maps.uniqueIndex(rowsLoader.apply(shipmentScheduleIdsToReload), PackageableRow::getId);
+
+		final ImmutableMap.Builder<DocumentId, PackageableRow> result = ImmutableMap.builder();
+		rows.forEach((rowId, row) -> {
+			if (!staleRowIds.contains(rowId))
+			{
+				result.put(rowId, row);
+			}
+			else if (reloadedRows.containsKey(rowId))
+			{
+				result.put(rowId, reloadedRows.get(rowId));
+			}
+		});
+		reloadedRows.forEach((rowId, row) -> {
+			if (!rows.containsKey(rowId))
+			{
+				result.put(rowId, row);
+			}
+		});
+
+		return result.build();
 	}
 
 	@Override
-	public ListMultimap<TableRecordReference, PackageableRow> getTableRecordReference2rows()
+	public synchronized ListMultimap<TableRecordReference, PackageableRow> getTableRecordReference2rows()
 	{
-		return getDocumentId2AllRows()
-				.values()
-				.stream()
-				.collect(GuavaCollectors.toImmutableListMultimap(PackageableRow::getTableRecordReference));
+		final Map<DocumentId, PackageableRow> allRows = getDocumentId2AllRows(); // NOTE: might reset rowsByRecordRef
+		if (rowsByRecordRef == null)
+		{
+			rowsByRecordRef = allRows
+					.values()
+					.stream()
+					.collect(GuavaCollectors.toImmutableListMultimap(PackageableRow::getTableRecordReference));
+		}
+		return rowsByRecordRef;
+	}
+
+	@Override
+	public synchronized void invalidateAll()
+	{
+		topLevelRows = null;
+		staleRowIds.clear();
+		rowsByRecordRef = null;
 	}
 
 	@Override
-	public void invalidateAll()
+	public synchronized void invalidate(final DocumentIdsSelection rowIds)
 	{
-		topLevelRows.forget();
+		if (rowIds.isAll())
+		{
+			invalidateAll();
+		}
+		else
+		{
+			staleRowIds.addAll(rowIds.toSet());
+		}
 	}
 
 	@Override
@@ -129,6 +129,6 @@ public class PackageableViewRepository
 		}
 
 		final Set<Integer> shipmentScheduleIdsCopy = ImmutableSet.copyOf(shipmentScheduleIds);
-		return PackageableRowsData.ofSupplier(() -> retrieveRowsByShipmentScheduleIds(viewId, shipmentScheduleIdsCopy));
+		return PackageableRowsData.of(shipmentScheduleIdsCopy, shipmentScheduleIdsToLoad -> retrieveRowsByShipmentScheduleIds(viewId, shipmentScheduleIdsToLoad));
 	}
 }
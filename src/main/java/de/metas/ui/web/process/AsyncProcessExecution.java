@@ -0,0 +1,228 @@
+package de.metas.ui.web.process;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.util.Services;
+import org.adempiere.util.StringUtils;
+import org.compiere.util.Env;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.EvictingQueue;
+
+import de.metas.i18n.IMsgBL;
+import de.metas.ui.web.process.json.JSONProcessInstanceExecution;
+import de.metas.ui.web.process.json.JSONProcessInstanceExecution.Status;
+import de.metas.ui.web.process.json.JSONProcessInstanceResult;
+import de.metas.ui.web.websocket.WebSocketConfig;
+import de.metas.ui.web.websocket.WebsocketSender;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * An asynchronous process execution, as seen by the frontend.
+ * <p>
+ * It collects the progress and the log lines reported by the process and publishes them to the process instance's websocket topic,
+ * but not more often than each {@link #PUBLISH_INTERVAL_MILLIS}. The status changes are always published right away.
+ * <p>
+ * NOTE: the events are published using {@link WebsocketSender}, so if they are reported inside a transaction they will be sent only after that transaction is committed.
+ */
+/* package */ final class AsyncProcessExecution implements ProcessExecutionProgress
+{
+	private static final int MAX_LOGS = 1000;
+	private static final long PUBLISH_INTERVAL_MILLIS = 500;
+
+	private final ProcessId processId;
+	private final DocumentId pinstanceId;
+	private final int adUserId;
+	private final String websocketEndpoint;
+	private final WebsocketSender websocketSender;
+
+	private Status status = Status.QUEUED;
+	private volatile boolean cancelRequested = false;
+	private int progressDone = 0;
+	private int progressTotal = -1;
+	private final EvictingQueue<String> logs = EvictingQueue.create(MAX_LOGS);
+	private final List<String> logsToPublish = new ArrayList<>();
+	private String error;
+	private JSONProcessInstanceResult result;
+
+	private Future<?> future;
+	private long lastPublishNanos;
+
+	@Builder
+	private AsyncProcessExecution(
+			@NonNull final ProcessId processId,
+			@NonNull final DocumentId pinstanceId,
+			final int adUserId,
+			@NonNull final WebsocketSender websocketSender)
+	{
+		this.processId = processId;
+		this.pinstanceId = pinstanceId;
+		this.adUserId = adUserId;
+		websocketEndpoint = WebSocketConfig.buildProcessInstanceTopicName(processId, pinstanceId);
+		this.websocketSender = websocketSender;
+
+		lastPublishNanos = System.nanoTime();
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.add("processId", processId)
+				.add("pinstanceId", pinstanceId)
+				.add("status", status)
+				.add("cancelRequested", cancelRequested)
+				.add("progressDone", progressDone)
+				.add("progressTotal", progressTotal)
+				.toString();
+	}
+
+	public int getAdUserId()
+	{
+		return adUserId;
+	}
+
+	public synchronized boolean isFinished()
+	{
+		return status.isFinal();
+	}
+
+	/* package */ synchronized void setFuture(@NonNull final Future<?> future)
+	{
+		this.future = future;
+	}
+
+	/* package */ synchronized void markRunning()
+	{
+		status = Status.RUNNING;
+		publish();
+	}
+
+	/* package */ synchronized void markCompleted(@NonNull final JSONProcessInstanceResult result)
+	{
+		status = Status.COMPLETED;
+		this.result = result;
+		publish();
+	}
+
+	/* package */ synchronized void markFailed(@NonNull final Throwable error)
+	{
+		status = cancelRequested ? Status.CANCELED : Status.FAILED;
+		this.error = error.getLocalizedMessage();
+		publish();
+	}
+
+	/**
+	 * Asks the process to stop.
+	 * <p>
+	 * If the execution was not started yet, it's canceled right away.
+	 * Else the process is expected to check {@link #isCancelRequested()} and stop by itself (see {@link #assertNotCancelRequested()}).
+	 * We are not interrupting the execution thread because that would leave the database connection in an undefined state.
+	 */
+	public synchronized void requestCancel()
+	{
+		if (status.isFinal() || cancelRequested)
+		{
+			return;
+		}
+
+		cancelRequested = true;
+		if (status == Status.QUEUED && future != null && future.cancel(false))
+		{
+			status = Status.CANCELED;
+		}
+		publish();
+	}
+
+	@Override
+	public boolean isCancelRequested()
+	{
+		return cancelRequested;
+	}
+
+	@Override
+	public synchronized void setProgress(final int done, final int total)
+	{
+		progressDone = done;
+		progressTotal = total > 0 ? total : -1;
+		publishIfDue();
+	}
+
+	@Override
+	public synchronized void addLog(final String msg, final Object... msgParameters)
+	{
+		final String message = StringUtils.formatMessage(msg, msgParameters);
+		final String messageTrl = Services.get(IMsgBL.class).parseTranslation(Env.getCtx(), message);
+
+		logs.add(messageTrl);
+		logsToPublish.add(messageTrl);
+		publishIfDue();
+	}
+
+	public synchronized JSONProcessInstanceExecution toJSON()
+	{
+		return toJSON(logs);
+	}
+
+	private JSONProcessInstanceExecution toJSON(final Collection<String> logs)
+	{
+		return JSONProcessInstanceExecution.builder()
+				.processId(processId.toJson())
+				.pinstanceId(pinstanceId.toJson())
+				.websocketEndpoint(websocketEndpoint)
+				.status(status)
+				.cancelRequested(cancelRequested)
+				.progressDone(progressDone)
+				.progressTotal(progressTotal)
+				.logs(logs)
+				.error(error)
+				.result(result)
+				.build();
+	}
+
+	private void publishIfDue()
+	{
+		if (System.nanoTime() - lastPublishNanos < TimeUnit.MILLISECONDS.toNanos(PUBLISH_INTERVAL_MILLIS))
+		{
+			return;
+		}
+		publish();
+	}
+
+	private void publish()
+	{
+		final JSONProcessInstanceExecution event = toJSON(logsToPublish);
+		logsToPublish.clear();
+		lastPublishNanos = System.nanoTime();
+
+		websocketSender.convertAndSend(websocketEndpoint, event);
+	}
+}
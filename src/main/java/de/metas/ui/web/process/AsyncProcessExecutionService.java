@@ -0,0 +1,225 @@
+package de.metas.ui.web.process;
+
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.adempiere.ad.security.IUserRolePermissions;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.util.Env;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.process.exceptions.ProcessExecutionException;
+import de.metas.ui.web.process.json.JSONProcessInstanceExecution;
+import de.metas.ui.web.process.json.JSONProcessInstanceResult;
+import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.websocket.WebsocketSender;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Executes processes in background, on a bounded thread pool, so long running processes are not holding an HTTP connection.
+ * <p>
+ * The progress of each execution is published to the process instance's websocket topic (see {@link AsyncProcessExecution}).
+ * The finished executions are kept for a while, so the frontend can (re)attach to them, e.g. after it reconnected.
+ */
+@Service
+public class AsyncProcessExecutionService
+{
+	private static final Logger logger = LogManager.getLogger(AsyncProcessExecutionService.class);
+
+	private final WebsocketSender websocketSender;
+
+	private final ThreadPoolExecutor executor;
+	private final ConcurrentHashMap<ExecutionKey, AsyncProcessExecution> runningExecutions = new ConcurrentHashMap<>();
+	private final Cache<ExecutionKey, AsyncProcessExecution> finishedExecutions;
+
+	public AsyncProcessExecutionService(
+			@NonNull final WebsocketSender websocketSender,
+			@Value("${metasfresh.webui.process.async.threads:4}") final int threadsCount,
+			@Value("${metasfresh.webui.process.async.maxQueued:100}") final int maxQueued,
+			@Value("${metasfresh.webui.process.async.keepFinishedMinutes:60}") final int keepFinishedMinutes)
+	{
+		this.websocketSender = websocketSender;
+
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(AsyncProcessExecutionService.class.getSimpleName());
+		threadFactory.setDaemon(true);
+
+		final int threadsCountEffective = Math.max(threadsCount, 1);
+		executor = new ThreadPoolExecutor(
+				threadsCountEffective, threadsCountEffective,
+				0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(maxQueued, 1)),
+				threadFactory);
+
+		finishedExecutions = CacheBuilder.newBuilder()
+				.expireAfterWrite(Math.max(keepFinishedMinutes, 1), TimeUnit.MINUTES)
+				.build();
+	}
+
+	@PreDestroy
+	/* package */ void preDestroy()
+	{
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Enqueues given process execution.
+	 *
+	 * @param permissions the permissions of the user who started the execution; the background thread has no {@link UserSession}, so they are made available through {@link UserSession#getCurrentPermissions()}
+	 * @param processRunner executes the process in background thread, having the context of current thread
+	 * @return the execution state, including the websocket endpoint where its changes will be published
+	 */
+	public JSONProcessInstanceExecution start(
+			@NonNull final ProcessId processId,
+			@NonNull final DocumentId pinstanceId,
+			final int adUserId,
+			@NonNull final IUserRolePermissions permissions,
+			@NonNull final Callable<JSONProcessInstanceResult> processRunner)
+	{
+		final ExecutionKey key = ExecutionKey.of(processId, pinstanceId);
+		final AsyncProcessExecution execution = AsyncProcessExecution.builder()
+				.processId(processId)
+				.pinstanceId(pinstanceId)
+				.adUserId(adUserId)
+				.websocketSender(websocketSender)
+				.build();
+		if (runningExecutions.putIfAbsent(key, execution) != null)
+		{
+			throw new ProcessExecutionException("Process is already running");
+		}
+		finishedExecutions.invalidate(key);
+
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		try
+		{
+			final Future<?> future = executor.submit(() -> execute(key, execution, ctx, permissions, processRunner));
+			execution.setFuture(future);
+		}
+		catch (final RejectedExecutionException ex)
+		{
+			runningExecutions.remove(key);
+			throw new ProcessExecutionException("Too many processes are waiting to be executed. Please try again later.");
+		}
+
+		logger.debug("Enqueued {}", execution);
+		return execution.toJSON();
+	}
+
+	private void execute(
+			final ExecutionKey key,
+			final AsyncProcessExecution execution,
+			final Properties ctx,
+			final IUserRolePermissions permissions,
+			final Callable<JSONProcessInstanceResult> processRunner)
+	{
+		try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx);
+				final IAutoCloseable permissionsRestorer = UserSession.temporarySetPermissions(permissions);
+				final IAutoCloseable progressRestorer = ProcessExecutionProgresses.temporarySet(execution))
+		{
+			execution.assertNotCancelRequested();
+			execution.markRunning();
+
+			final JSONProcessInstanceResult result = processRunner.call();
+			execution.markCompleted(result);
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed executing {}", execution, ex);
+			execution.markFailed(ex);
+		}
+		finally
+		{
+			markFinished(key, execution);
+		}
+	}
+
+	private void markFinished(final ExecutionKey key, final AsyncProcessExecution execution)
+	{
+		finishedExecutions.put(key, execution);
+		runningExecutions.remove(key, execution);
+	}
+
+	/**
+	 * @return current state of given process instance's execution
+	 * @throws EntityNotFoundException if there is no such execution or it does not belong to given user
+	 */
+	public JSONProcessInstanceExecution getExecution(@NonNull final ProcessId processId, @NonNull final DocumentId pinstanceId, final int adUserId)
+	{
+		return getExecutionObject(ExecutionKey.of(processId, pinstanceId), adUserId).toJSON();
+	}
+
+	public JSONProcessInstanceExecution cancel(@NonNull final ProcessId processId, @NonNull final DocumentId pinstanceId, final int adUserId)
+	{
+		final ExecutionKey key = ExecutionKey.of(processId, pinstanceId);
+		final AsyncProcessExecution execution = getExecutionObject(key, adUserId);
+		execution.requestCancel();
+
+		// the execution was canceled before it started
+		if (execution.isFinished() && runningExecutions.get(key) == execution)
+		{
+			markFinished(key, execution);
+		}
+
+		return execution.toJSON();
+	}
+
+	private AsyncProcessExecution getExecutionObject(final ExecutionKey key, final int adUserId)
+	{
+		AsyncProcessExecution execution = runningExecutions.get(key);
+		if (execution == null)
+		{
+			execution = finishedExecutions.getIfPresent(key);
+		}
+
+		if (execution == null || execution.getAdUserId() != adUserId)
+		{
+			throw new EntityNotFoundException("No async execution found for " + key);
+		}
+		return execution;
+	}
+
+	@lombok.Value(staticConstructor = "of")
+	private static final class ExecutionKey
+	{
+		private final ProcessId processId;
+		private final DocumentId pinstanceId;
+	}
+}
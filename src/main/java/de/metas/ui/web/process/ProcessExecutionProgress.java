@@ -0,0 +1,59 @@
+package de.metas.ui.web.process;
+
+import de.metas.ui.web.process.exceptions.ProcessExecutionException;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Progress of a process execution.
+ * <p>
+ * Long running processes can use it to report their progress and log lines and to check if the user asked to cancel them.
+ * To get the progress of the process which is executed in current thread, use {@link ProcessExecutionProgresses#get()}.
+ */
+public interface ProcessExecutionProgress
+{
+	/**
+	 * @param done how many items were processed so far
+	 * @param total how many items shall be processed or <code>-1</code> if not known
+	 */
+	void setProgress(int done, int total);
+
+	/**
+	 * Adds a log line. The message format is the same as for {@link org.adempiere.util.ILoggable}.
+	 */
+	void addLog(String msg, Object... msgParameters);
+
+	/** @return true if the user asked to cancel the execution */
+	boolean isCancelRequested();
+
+	/**
+	 * @throws ProcessExecutionException if the user asked to cancel the execution
+	 */
+	default void assertNotCancelRequested()
+	{
+		if (isCancelRequested())
+		{
+			throw new ProcessExecutionException("Process execution was canceled");
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package de.metas.ui.web.process;
+
+import org.adempiere.util.lang.IAutoCloseable;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Keeps track of the {@link ProcessExecutionProgress} of the process which is executed in current thread.
+ * <p>
+ * When the process is not executed asynchronously (see {@link ProcessRestController#startProcessAsync(String, String)}), the reported progress is simply ignored.
+ */
+public final class ProcessExecutionProgresses
+{
+	private static final ThreadLocal<ProcessExecutionProgress> current = new ThreadLocal<>();
+
+	private ProcessExecutionProgresses()
+	{
+	}
+
+	/** @return progress of the process which is currently executed in this thread; never returns null */
+	public static ProcessExecutionProgress get()
+	{
+		final ProcessExecutionProgress progress = current.get();
+		return progress != null ? progress : NullProcessExecutionProgress.instance;
+	}
+
+	/**
+	 * Sets given progress as current progress of this thread, until the returned {@link IAutoCloseable} is closed.
+	 */
+	public static IAutoCloseable temporarySet(@NonNull final ProcessExecutionProgress progress)
+	{
+		final ProcessExecutionProgress previousProgress = current.get();
+		current.set(progress);
+		return () -> current.set(previousProgress);
+	}
+
+	private static final class NullProcessExecutionProgress implements ProcessExecutionProgress
+	{
+		public static final transient NullProcessExecutionProgress instance = new NullProcessExecutionProgress();
+
+		@Override
+		public void setProgress(final int done, final int total)
+		{
+			// nothing
+		}
+
+		@Override
+		public void addLog(final String msg, final Object... msgParameters)
+		{
+			// nothing
+		}
+
+		@Override
+		public boolean isCancelRequested()
+		{
+			return false;
+		}
+	}
+}
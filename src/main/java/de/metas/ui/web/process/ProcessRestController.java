@@ -32,6 +32,7 @@ import de.metas.ui.web.process.descriptor.ProcessDescriptor;
 import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
 import de.metas.ui.web.process.json.JSONCreateProcessInstanceRequest;
 import de.metas.ui.web.process.json.JSONProcessInstance;
+import de.metas.ui.web.process.json.JSONProcessInstanceExecution;
 import de.metas.ui.web.process.json.JSONProcessInstanceResult;
 import de.metas.ui.web.process.json.JSONProcessLayout;
 import de.metas.ui.web.session.UserSession;
@@ -92,6 +93,8 @@ public class ProcessRestController
 	private IViewsRepository viewsRepo;
 	@Autowired
 	private DocumentCollection documentsCollection;
+	@Autowired
+	private AsyncProcessExecutionService asyncProcessExecutionService;
 
 	private final ConcurrentHashMap<String, IProcessInstancesRepository> pinstancesRepositoriesByHandlerType = new ConcurrentHashMap<>();
 
@@ -254,13 +257,42 @@ public class ProcessRestController
 
 		final IProcessInstancesRepository instancesRepository = getRepository(processId);
 
+		return startProcess(instancesRepository, pinstanceId, userSession.getAD_Language());
+	}
+
+	/**
+	 * Starts the process in background and returns right away.
+	 * <p>
+	 * The progress, the log lines and the final result are published to the websocket endpoint which is returned.
+	 * Use {@link #getProcessExecution(String, String)} to (re)attach to a running execution and {@link #cancelProcessExecution(String, String)} to cancel it.
+	 */
+	@RequestMapping(value = "/{processId}/{pinstanceId}/startAsync", method = RequestMethod.GET)
+	public JSONProcessInstanceExecution startProcessAsync(
+			@PathVariable("processId") final String processIdStr //
+			, @PathVariable("pinstanceId") final String pinstanceIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final ProcessId processId = ProcessId.fromJson(processIdStr);
+		final DocumentId pinstanceId = DocumentId.of(pinstanceIdStr);
+
+		final IProcessInstancesRepository instancesRepository = getRepository(processId);
+		final String adLanguage = userSession.getAD_Language();
+
+		return asyncProcessExecutionService.start(processId, pinstanceId, userSession.getAD_User_ID(), userSession.getUserRolePermissions(),
+				() -> startProcess(instancesRepository, pinstanceId, adLanguage));
+	}
+
+	private JSONProcessInstanceResult startProcess(final IProcessInstancesRepository instancesRepository, final DocumentId pinstanceId, final String adLanguage)
+	{
 		return Execution.prepareNewExecution()
 				.outOfTransaction()
 				.execute(() -> {
 					return instancesRepository.forProcessInstanceWritable(pinstanceId, NullDocumentChangesCollector.instance, processInstance -> {
 						final ProcessInstanceResult result = processInstance.startProcess(ProcessExecutionContext.builder()
 								.ctx(Env.getCtx())
-								.adLanguage(userSession.getAD_Language())
+								.adLanguage(adLanguage)
 								.viewsRepo(viewsRepo)
 								.documentsCollection(documentsCollection)
 								.build());
@@ -269,6 +301,34 @@ public class ProcessRestController
 				});
 	}
 
+	@RequestMapping(value = "/{processId}/{pinstanceId}/execution", method = RequestMethod.GET)
+	public JSONProcessInstanceExecution getProcessExecution(
+			@PathVariable("processId") final String processIdStr //
+			, @PathVariable("pinstanceId") final String pinstanceIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final ProcessId processId = ProcessId.fromJson(processIdStr);
+		final DocumentId pinstanceId = DocumentId.of(pinstanceIdStr);
+
+		return asyncProcessExecutionService.getExecution(processId, pinstanceId, userSession.getAD_User_ID());
+	}
+
+	@RequestMapping(value = "/{processId}/{pinstanceId}/execution/cancel", method = RequestMethod.POST)
+	public JSONProcessInstanceExecution cancelProcessExecution(
+			@PathVariable("processId") final String processIdStr //
+			, @PathVariable("pinstanceId") final String pinstanceIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final ProcessId processId = ProcessId.fromJson(processIdStr);
+		final DocumentId pinstanceId = DocumentId.of(pinstanceIdStr);
+
+		return asyncProcessExecutionService.cancel(processId, pinstanceId, userSession.getAD_User_ID());
+	}
+
 	@RequestMapping(value = "/{processId}/{pinstanceId}/print/{filename:.*}", method = RequestMethod.GET)
 	public ResponseEntity<byte[]> getReport(
 			@PathVariable("processId") final String processIdStr //
@@ -0,0 +1,112 @@
+package de.metas.ui.web.process.json;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * State of an asynchronous process execution.
+ * <p>
+ * It's returned when the execution is started or when the frontend (re)attaches to it, and it's also published to the process instance's websocket topic each time it changes.
+ * In the later case, the {@link #logs} contains only the log lines which were added since the previous event.
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+public class JSONProcessInstanceExecution
+{
+	public static enum Status
+	{
+		QUEUED, RUNNING, COMPLETED, FAILED, CANCELED;
+
+		public boolean isFinal()
+		{
+			return this == COMPLETED || this == FAILED || this == CANCELED;
+		}
+	}
+
+	@JsonProperty("processId")
+	private final String processId;
+	@JsonProperty("pinstanceId")
+	private final String pinstanceId;
+
+	@JsonProperty("websocketEndpoint")
+	private final String websocketEndpoint;
+
+	@JsonProperty("status")
+	private final Status status;
+	@JsonProperty("cancelRequested")
+	private final boolean cancelRequested;
+
+	@JsonProperty("progressDone")
+	private final int progressDone;
+	@JsonProperty("progressTotal")
+	private final int progressTotal;
+
+	@JsonProperty("logs")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final List<String> logs;
+
+	@JsonProperty("error")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final String error;
+
+	@JsonProperty("result")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final JSONProcessInstanceResult result;
+
+	@Builder
+	private JSONProcessInstanceExecution(
+			@NonNull final String processId,
+			@NonNull final String pinstanceId,
+			@NonNull final String websocketEndpoint,
+			@NonNull final Status status,
+			final boolean cancelRequested,
+			final int progressDone,
+			final int progressTotal,
+			@Singular final List<String> logs,
+			final String error,
+			final JSONProcessInstanceResult result)
+	{
+		this.processId = processId;
+		this.pinstanceId = pinstanceId;
+		this.websocketEndpoint = websocketEndpoint;
+		this.status = status;
+		this.cancelRequested = cancelRequested;
+		this.progressDone = progressDone;
+		this.progressTotal = progressTotal > 0 ? progressTotal : -1;
+		this.logs = ImmutableList.copyOf(logs);
+		this.error = error;
+		this.result = result;
+	}
+}
@@ -0,0 +1,351 @@
+package de.metas.ui.web.session;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.DBException;
+import org.compiere.util.DB;
+import org.slf4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.session.ExpiringSession;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.events.SessionCreatedEvent;
+import org.springframework.session.events.SessionDeletedEvent;
+import org.springframework.session.events.SessionExpiredEvent;
+import org.springframework.util.SerializationUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Session repository which keeps the sessions in database, so they can be shared between multiple webui-api nodes.
+ * The sessions table (T_WEBUI_Session) is created by the migration scripts.
+ * <p>
+ * The session attributes are java-serialized, so they all have to be {@link Serializable}.
+ * When a session is saved but its attributes were not changed, only the access timestamps are updated.
+ * <p>
+ * Like {@link FixedMapSessionRepository}, it's firing session created/deleted/expired events.
+ * NOTE: the expired events are fired only by the node which detected the expiration.
+ */
+@ToString(of = { "defaultMaxInactiveInterval" })
+/* package */class JdbcSessionRepository implements SessionRepository<ExpiringSession>
+{
+	private static final Logger logger = LogManager.getLogger(JdbcSessionRepository.class);
+
+	private static final String TABLENAME = "T_WEBUI_Session";
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final Integer defaultMaxInactiveInterval;
+
+	@Builder
+	private JdbcSessionRepository(
+			@NonNull final ApplicationEventPublisher applicationEventPublisher,
+			@Nullable final Integer defaultMaxInactiveInterval)
+	{
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+	}
+
+	@Override
+	public void save(@NonNull final ExpiringSession session)
+	{
+		final byte[] data = serializeAttributes(session);
+		final long expiryTime = computeExpiryTime(session);
+
+		//
+		// Update only the timestamps if the attributes were not changed since the session was loaded
+		if (session instanceof JdbcSession && Arrays.equals(((JdbcSession)session).getLoadedData(), data))
+		{
+			final String sql = "UPDATE " + TABLENAME + " SET LastAccessedTime=?, MaxInactiveInterval=?, ExpiryTime=? WHERE SessionId=?";
+			final int updatedCount = DB.executeUpdateEx(sql,
+					new Object[] { session.getLastAccessedTime(), session.getMaxInactiveIntervalInSeconds(), expiryTime, session.getId() },
+					ITrx.TRXNAME_None);
+			if (updatedCount > 0)
+			{
+				return;
+			}
+
+			// the session was deleted in meantime (e.g. by another node), so insert it back
+		}
+
+		final String sql = "INSERT INTO " + TABLENAME + " (SessionId, CreationTime, LastAccessedTime, MaxInactiveInterval, ExpiryTime, Data) VALUES (?, ?, ?, ?, ?, ?)"
+				+ " ON CONFLICT (SessionId) DO UPDATE SET LastAccessedTime=EXCLUDED.LastAccessedTime, MaxInactiveInterval=EXCLUDED.MaxInactiveInterval, ExpiryTime=EXCLUDED.ExpiryTime, Data=EXCLUDED.Data";
+		PreparedStatement pstmt = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			pstmt.setString(1, session.getId());
+			pstmt.setLong(2, session.getCreationTime());
+			pstmt.setLong(3, session.getLastAccessedTime());
+			pstmt.setInt(4, session.getMaxInactiveIntervalInSeconds());
+			pstmt.setLong(5, expiryTime);
+			pstmt.setBytes(6, data);
+			pstmt.executeUpdate();
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql);
+		}
+		finally
+		{
+			DB.close(pstmt);
+		}
+
+		if (session instanceof JdbcSession)
+		{
+			((JdbcSession)session).setLoadedData(data);
+		}
+	}
+
+	private static long computeExpiryTime(final ExpiringSession session)
+	{
+		final int maxInactiveIntervalInSeconds = session.getMaxInactiveIntervalInSeconds();
+		if (maxInactiveIntervalInSeconds < 0)
+		{
+			return Long.MAX_VALUE; // never expires
+		}
+		return session.getLastAccessedTime() + maxInactiveIntervalInSeconds * 1000L;
+	}
+
+	@VisibleForTesting
+	static byte[] serializeAttributes(final ExpiringSession session)
+	{
+		final HashMap<String, Object> attributes = new HashMap<>();
+		for (final String attributeName : session.getAttributeNames())
+		{
+			attributes.put(attributeName, session.getAttribute(attributeName));
+		}
+		return SerializationUtils.serialize(attributes);
+	}
+
+	@VisibleForTesting
+	@SuppressWarnings("unchecked")
+	static Map<String, Object> deserializeAttributes(final byte[] data)
+	{
+		return data != null ? (Map<String, Object>)SerializationUtils.deserialize(data) : null;
+	}
+
+	@Override
+	public ExpiringSession getSession(final String id)
+	{
+		final JdbcSession session = retrieveSession(id);
+		if (session == null)
+		{
+			return null;
+		}
+		if (session.isExpired())
+		{
+			final boolean expired = true;
+			deleteAndFireEvent(session.getId(), expired);
+			return null;
+		}
+
+		return session;
+	}
+
+	private JdbcSession retrieveSession(final String id)
+	{
+		final String sql = "SELECT CreationTime, LastAccessedTime, MaxInactiveInterval, Data FROM " + TABLENAME + " WHERE SessionId=?";
+		final Object[] sqlParams = new Object[] { id };
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+			if (!rs.next())
+			{
+				return null;
+			}
+
+			final byte[] data = rs.getBytes("Data");
+
+			final JdbcSession session = new JdbcSession(id, data);
+			session.setCreationTime(rs.getLong("CreationTime"));
+			session.setLastAccessedTime(rs.getLong("LastAccessedTime"));
+			session.setMaxInactiveIntervalInSeconds(rs.getInt("MaxInactiveInterval"));
+
+			final Map<String, Object> attributes = deserializeAttributes(data);
+			if (attributes != null)
+			{
+				attributes.forEach(session::setAttribute);
+			}
+
+			return session;
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	@Override
+	public void delete(final String id)
+	{
+		final boolean expired = false;
+		deleteAndFireEvent(id, expired);
+	}
+
+	private void deleteAndFireEvent(final String id, final boolean expired)
+	{
+		final int deletedCount = DB.executeUpdateEx("DELETE FROM " + TABLENAME + " WHERE SessionId=?", new Object[] { id }, ITrx.TRXNAME_None);
+
+		// Fire event
+		if (deletedCount > 0)
+		{
+			fireDeletedEvent(id, expired);
+		}
+	}
+
+	private void fireDeletedEvent(final String id, final boolean expired)
+	{
+		if (expired)
+		{
+			applicationEventPublisher.publishEvent(new SessionExpiredEvent(this, id));
+		}
+		else
+		{
+			applicationEventPublisher.publishEvent(new SessionDeletedEvent(this, id));
+		}
+	}
+
+	@Override
+	public ExpiringSession createSession()
+	{
+		final JdbcSession result = new JdbcSession();
+		if (defaultMaxInactiveInterval != null)
+		{
+			result.setMaxInactiveIntervalInSeconds(defaultMaxInactiveInterval);
+		}
+
+		// Fire event
+		applicationEventPublisher.publishEvent(new SessionCreatedEvent(this, result.getId()));
+
+		return result;
+	}
+
+	public void purgeExpiredSessionsNoFail()
+	{
+		try
+		{
+			purgeExpiredSessions();
+		}
+		catch (final Throwable ex)
+		{
+			logger.warn("Failed purging expired sessions. Ignored.", ex);
+		}
+	}
+
+	public void purgeExpiredSessions()
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final List<String> expiredSessionIds = deleteExpiredSessions();
+		expiredSessionIds.forEach(id -> fireDeletedEvent(id, true /* expired */));
+
+		logger.debug("Purged {} expired sessions in {}", expiredSessionIds.size(), stopwatch);
+	}
+
+	private List<String> deleteExpiredSessions()
+	{
+		final String sql = "DELETE FROM " + TABLENAME + " WHERE ExpiryTime < ? RETURNING SessionId";
+		final Object[] sqlParams = new Object[] { System.currentTimeMillis() };
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+
+			final ImmutableList.Builder<String> sessionIds = ImmutableList.builder();
+			while (rs.next())
+			{
+				sessionIds.add(rs.getString(1));
+			}
+			return sessionIds.build();
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	/**
+	 * Session which remembers the serialized attributes as they were loaded or last saved, so we can tell if they were changed.
+	 */
+	private static final class JdbcSession extends MapSession
+	{
+		private static final long serialVersionUID = 1L;
+
+		private transient byte[] loadedData;
+
+		private JdbcSession()
+		{
+			super();
+			loadedData = null;
+		}
+
+		private JdbcSession(final String id, final byte[] loadedData)
+		{
+			super(id);
+			this.loadedData = loadedData;
+		}
+
+		private byte[] getLoadedData()
+		{
+			return loadedData;
+		}
+
+		private void setLoadedData(final byte[] loadedData)
+		{
+			this.loadedData = loadedData;
+		}
+	}
+}
@@ -52,22 +52,48 @@ public class SessionConfig
 	@Value("${metasfresh.session.checkExpiredSessionsRateInMinutes:10}")
 	private int checkExpiredSessionsRateInMinutes;
 
+	/**
+	 * Where to keep the sessions:
+	 * <ul>
+	 * <li><code>memory</code> - in this node's memory (default)
+	 * <li><code>jdbc</code> - in database, so they can be shared between multiple nodes (see {@link JdbcSessionRepository})
+	 * </ul>
+	 */
+	@Value("${metasfresh.session.store:memory}")
+	private String sessionStore;
+
 	@Bean
 	public SessionRepository<ExpiringSession> sessionRepository(
 			final SessionProperties properties,
 			final ApplicationEventPublisher applicationEventPublisher)
 	{
-		final FixedMapSessionRepository sessionRepository = FixedMapSessionRepository.builder()
-				.applicationEventPublisher(applicationEventPublisher)
-				.defaultMaxInactiveInterval(properties.getTimeout())
-				.build();
+		final SessionRepository<ExpiringSession> sessionRepository;
+		final Runnable purgeExpiredSessionsCommand;
+		if ("jdbc".equalsIgnoreCase(sessionStore))
+		{
+			final JdbcSessionRepository jdbcSessionRepository = JdbcSessionRepository.builder()
+					.applicationEventPublisher(applicationEventPublisher)
+					.defaultMaxInactiveInterval(properties.getTimeout())
+					.build();
+			sessionRepository = jdbcSessionRepository;
+			purgeExpiredSessionsCommand = jdbcSessionRepository::purgeExpiredSessionsNoFail;
+		}
+		else
+		{
+			final FixedMapSessionRepository fixedMapSessionRepository = FixedMapSessionRepository.builder()
+					.applicationEventPublisher(applicationEventPublisher)
+					.defaultMaxInactiveInterval(properties.getTimeout())
+					.build();
+			sessionRepository = fixedMapSessionRepository;
+			purgeExpiredSessionsCommand = fixedMapSessionRepository::purgeExpiredSessionsNoFail;
+		}
 		logger.info("Using session repository: {}", sessionRepository);
 
 		if (checkExpiredSessionsRateInMinutes > 0)
 		{
 			final ScheduledExecutorService scheduledExecutor = sessionScheduledExecutorService();
 			scheduledExecutor.scheduleAtFixedRate(
-					sessionRepository::purgeExpiredSessionsNoFail, // command, don't fail because on failure the task won't be re-scheduled so it's game over
+					purgeExpiredSessionsCommand, // command, don't fail because on failure the task won't be re-scheduled so it's game over
 					checkExpiredSessionsRateInMinutes, // initialDelay
 					checkExpiredSessionsRateInMinutes, // period
 					TimeUnit.MINUTES // timeUnit
@@ -7,6 +7,7 @@ import java.util.Properties;
 import org.adempiere.ad.security.IUserRolePermissions;
 import org.adempiere.ad.security.UserRolePermissionsKey;
 import org.adempiere.util.Check;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.Adempiere;
 import org.compiere.util.Env;
 import org.compiere.util.Evaluatee;
@@ -126,14 +127,34 @@ public class UserSession
 	/**
 	 * Gets current permissions.
 	 *
+	 * If this is a background thread which is executing on behalf of a user (see {@link #temporarySetPermissions(IUserRolePermissions)}), that user's permissions are returned.
+	 *
 	 * @return permissions; never returns null
 	 * @throws NotLoggedInException
 	 */
 	public static IUserRolePermissions getCurrentPermissions()
 	{
+		final IUserRolePermissions backgroundPermissions = backgroundThreadPermissions.get();
+		if (backgroundPermissions != null)
+		{
+			return backgroundPermissions;
+		}
+
 		return getCurrent().getUserRolePermissions();
 	}
 
+	/**
+	 * Sets the permissions to be used by {@link #getCurrentPermissions()} in this thread, until the returned {@link IAutoCloseable} is closed.
+	 *
+	 * To be used by background threads which are executing on behalf of a user (e.g. async processes), because there is no {@link UserSession} in those threads.
+	 */
+	public static IAutoCloseable temporarySetPermissions(@NonNull final IUserRolePermissions permissions)
+	{
+		final IUserRolePermissions previousPermissions = backgroundThreadPermissions.get();
+		backgroundThreadPermissions.set(permissions);
+		return () -> backgroundThreadPermissions.set(previousPermissions);
+	}
+
 	/** @return true if we are running in a webui thread (i.e. NOT a background daemon thread) */
 	public static boolean isWebuiThread()
 	{
@@ -145,6 +166,8 @@ public class UserSession
 	private final transient ApplicationEventPublisher eventPublisher;
 
 	private static UserSession _staticUserSession = null;
+	/** permissions of the user on whose behalf the current background thread is executing */
+	private static final ThreadLocal<IUserRolePermissions> backgroundThreadPermissions = new ThreadLocal<>();
 
 	@Autowired
 	private InternalUserSessionData _data; // session scoped
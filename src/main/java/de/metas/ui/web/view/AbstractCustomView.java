@@ -4,6 +4,9 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -11,6 +14,7 @@ import javax.annotation.Nullable;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.util.Evaluatee;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -73,6 +77,8 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 
 	private final DocumentFilterDescriptorsProvider viewFilterDescriptors;
 
+	private final AtomicReference<RowsIndex<T>> rowsIndexRef = new AtomicReference<>();
+
 	/**
 	 *
 	 * @param viewId
@@ -124,7 +130,25 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 
 	public Map<DocumentId, T> getMainRowsAndSubRows()
 	{
-		return rowsData.getDocumentId2AllRows();
+		return getRowsIndex().getAllRows();
+	}
+
+	/**
+	 * @return index of current top level rows; the index is rebuilt only if the rows data provided another top level rows instance
+	 */
+	private RowsIndex<T> getRowsIndex()
+	{
+		final Map<DocumentId, T> topLevelRows = getRows();
+
+		final RowsIndex<T> rowsIndex = rowsIndexRef.get();
+		if (rowsIndex != null && rowsIndex.isIndexing(topLevelRows))
+		{
+			return rowsIndex;
+		}
+
+		final RowsIndex<T> newRowsIndex = new RowsIndex<>(topLevelRows, rowsData);
+		rowsIndexRef.set(newRowsIndex);
+		return newRowsIndex;
 	}
 
 	@Override
@@ -226,8 +250,7 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 	@Override
 	public final ViewResult getPage(final int firstRow, final int pageLength, @NonNull final List<DocumentQueryOrderBy> orderBys)
 	{
-		final List<IViewRow> pageRows = getRows().values().stream()
-				.sorted(DocumentQueryOrderBys.asComparator(orderBys))
+		final List<IViewRow> pageRows = getRowsIndex().getTopLevelRowsSorted(orderBys).stream()
 				.skip(firstRow >= 0 ? firstRow : 0)
 				.limit(pageLength > 0 ? pageLength : 30)
 				.collect(ImmutableList.toImmutableList());
@@ -278,7 +301,7 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 			return; // nothing to do
 		}
 
-		rowsData.invalidateAll();
+		rowsData.invalidate(DocumentIdsSelection.of(affectedRowIds));
 		ViewChangesCollector
 				.getCurrentOrAutoflush()
 				.collectRowsChanged(this, DocumentIdsSelection.of(affectedRowIds));
@@ -294,6 +317,51 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 		return rowsData.streamDocumentIdsToInvalidate(recordRef);
 	}
 
+	/**
+	 * Index of a given top level rows instance: all rows (including the included ones) by ID and the top level rows sorted by different orderBys.
+	 * <p>
+	 * NOTE: the index is valid as long as {@link IRowsData#getDocumentId2TopLevelRows()} returns the same instance.
+	 */
+	private static final class RowsIndex<T extends IViewRow>
+	{
+		private final Map<DocumentId, T> topLevelRows;
+		private final Supplier<Map<DocumentId, T>> allRowsSupplier;
+		private final ConcurrentHashMap<List<DocumentQueryOrderBy>, ImmutableList<T>> topLevelRowsSortedByOrderBys = new ConcurrentHashMap<>();
+
+		private RowsIndex(@NonNull final Map<DocumentId, T> topLevelRows, @NonNull final IRowsData<T> rowsData)
+		{
+			this.topLevelRows = topLevelRows;
+			allRowsSupplier = Suppliers.memoize(rowsData::getDocumentId2AllRows);
+		}
+
+		public boolean isIndexing(final Map<DocumentId, T> topLevelRows)
+		{
+			return this.topLevelRows == topLevelRows;
+		}
+
+		public Map<DocumentId, T> getAllRows()
+		{
+			return allRowsSupplier.get();
+		}
+
+		public ImmutableList<T> getTopLevelRowsSorted(final List<DocumentQueryOrderBy> orderBys)
+		{
+			return topLevelRowsSortedByOrderBys.computeIfAbsent(ImmutableList.copyOf(orderBys), this::sortTopLevelRows);
+		}
+
+		private ImmutableList<T> sortTopLevelRows(final List<DocumentQueryOrderBy> orderBys)
+		{
+			if (orderBys.isEmpty())
+			{
+				return ImmutableList.copyOf(topLevelRows.values());
+			}
+
+			return topLevelRows.values().stream()
+					.sorted(DocumentQueryOrderBys.asComparator(orderBys))
+					.collect(ImmutableList.toImmutableList());
+		}
+	}
+
 	private static class RowsDataTool
 	{
 		private static <T extends IViewRow> Map<DocumentId, T> extractAllRows(Collection<T> topLevelRows)
@@ -332,6 +400,16 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 
 		void invalidateAll();
 
+		/**
+		 * Invalidates the given rows, so they will be reloaded next time they are needed.
+		 * <p>
+		 * Implementations which are able to reload individual rows shall override this method. The default implementation invalidates all rows.
+		 */
+		default void invalidate(final DocumentIdsSelection rowIds)
+		{
+			invalidateAll();
+		}
+
 		default Map<DocumentId, T> getDocumentId2AllRows()
 		{
 			return RowsDataTool.extractAllRows(getDocumentId2TopLevelRows().values());
@@ -3,12 +3,17 @@ package de.metas.ui.web.view;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -25,17 +30,21 @@ import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Predicates;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Streams;
 
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.ImmutableTranslatableString;
 import de.metas.logging.LogManager;
+import de.metas.ui.web.cache.ETag;
+import de.metas.ui.web.cache.ETagAware;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.DocumentFilterDescriptorsProvider;
 import de.metas.ui.web.document.filter.json.JSONDocumentFilter;
-import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.view.event.ViewChangesCollector;
 import de.metas.ui.web.view.json.JSONViewDataType;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -82,7 +91,7 @@ import lombok.NonNull;
  * @author metas-dev <dev@metasfresh.com>
  *
  */
-public final class DefaultView implements IEditableView
+public final class DefaultView implements IEditableView, ETagAware
 {
 	public static final Builder builder(final IViewDataRepository viewDataRepository)
 	{
@@ -91,6 +100,8 @@ public final class DefaultView implements IEditableView
 
 	private static final Logger logger = LogManager.getLogger(DefaultView.class);
 
+	private static final int STREAM_ALL_PAGE_SIZE = 500;
+
 	private final IViewDataRepository viewDataRepository;
 
 	private final ViewId viewId;
@@ -104,6 +115,9 @@ public final class DefaultView implements IEditableView
 	private final ViewEvaluationCtx viewEvaluationCtx;
 	private final ExtendedMemorizingSupplier<ViewRowIdsOrderedSelections> selectionsRef;
 	private final AtomicBoolean defaultSelectionDeleteBeforeCreate = new AtomicBoolean(false);
+	private final AtomicBoolean defaultSelectionReuseExisting = new AtomicBoolean(false);
+	/** bumped each time some of the view's rows (or the whole selection) were invalidated */
+	private final AtomicLong selectionGeneration = new AtomicLong(1);
 
 	//
 	// Filters
@@ -151,6 +165,14 @@ public final class DefaultView implements IEditableView
 				{
 					viewDataRepository.deleteSelection(viewId);
 				}
+				else if (defaultSelectionReuseExisting.get())
+				{
+					final ViewRowIdsOrderedSelection existingSelection = viewDataRepository.retrieveOrderedSelectionOrNull(getViewEvaluationCtx(), viewId);
+					if (existingSelection != null)
+					{
+						return new ViewRowIdsOrderedSelections(existingSelection);
+					}
+				}
 				final ViewRowIdsOrderedSelection defaultSelection = viewDataRepository.createOrderedSelection(
 						getViewEvaluationCtx(),
 						viewId,
@@ -240,6 +262,20 @@ public final class DefaultView implements IEditableView
 		return viewDataRepository.getTableName();
 	}
 
+	/**
+	 * @return our table name if we are using the {@link DefaultViewInvalidationAdvisor} (which considers only that table), else {@code null}
+	 */
+	@Override
+	public Set<String> getNotifyRecordsChangedTableNamesOrNull()
+	{
+		if (viewInvalidationAdvisor != DefaultViewInvalidationAdvisor.instance)
+		{
+			return null;
+		}
+
+		return ImmutableSet.of(viewDataRepository.getTableName());
+	}
+
 	@Override
 	public long size()
 	{
@@ -302,7 +338,15 @@ public final class DefaultView implements IEditableView
 		}
 
 		final ViewRowIdsOrderedSelections selections = selectionsRef.forget();
-		viewDataRepository.scheduleDeleteSelections(selections.getSelectionIds());
+		if (reason == ViewCloseReason.DETACHED)
+		{
+			// NOTE: the default selection is shared with the other instances of this view (see ViewDefinitionsStore)
+			viewDataRepository.scheduleDeleteSelections(selections.getSelectionIdsExceptDefault());
+		}
+		else
+		{
+			viewDataRepository.scheduleDeleteSelections(selections.getSelectionIds());
+		}
 
 		logger.debug("View closed with reason={}: {}", reason, this);
 	}
@@ -311,12 +355,32 @@ public final class DefaultView implements IEditableView
 	public void invalidateAll()
 	{
 		cache_rowsById.clear();
+		selectionGeneration.incrementAndGet();
 	}
 
 	@Override
 	public void invalidateRowById(final DocumentId rowId)
 	{
 		cache_rowsById.remove(rowId);
+		selectionGeneration.incrementAndGet();
+	}
+
+	/**
+	 * @return ETag derived from the selection generation, which is changed each time the view (or some of its rows) are invalidated
+	 */
+	@Override
+	public ETag getETag()
+	{
+		return ETag.of(selectionGeneration.get(), ImmutableMap.of("viewId", viewId.toJson()));
+	}
+
+	/**
+	 * Advises this view to use the default selection which was already created for this viewId (e.g. by another node), instead of creating it again.
+	 * Has no effect if the default selection was already fetched.
+	 */
+	/* package */ void reuseExistingDefaultSelection()
+	{
+		defaultSelectionReuseExisting.set(true);
 	}
 
 	@Override
@@ -446,6 +510,12 @@ public final class DefaultView implements IEditableView
 		return viewDataRepository.retrieveById(evalCtx, getViewId(), rowId);
 	}
 
+	private final List<IViewRow> retrieveRowsByIds(final DocumentIdsSelection rowIds)
+	{
+		final ViewEvaluationCtx evalCtx = getViewEvaluationCtx();
+		return viewDataRepository.retrieveByIds(evalCtx, getViewId(), rowIds);
+	}
+
 	private ViewRowIdsOrderedSelection getOrderedSelection(final List<DocumentQueryOrderBy> orderBys)
 	{
 		return selectionsRef.get()
@@ -497,26 +567,74 @@ public final class DefaultView implements IEditableView
 		}
 		else if (rowIds.isAll())
 		{
-			throw new UnsupportedOperationException("Streaming all rows is not supported");
+			return streamAll();
 		}
 
-		// NOTE: we get/retrive one by one because we assume the "selected documents" were recently retrieved,
-		// and the records recently retrieved have a big chance to be cached.
-		return rowIds.stream()
-				.distinct()
-				.map(rowId -> {
-					try
-					{
-						return getOrRetrieveById(rowId);
-					}
-					catch (final EntityNotFoundException e)
-					{
-						return null;
-					}
-				})
+		// NOTE: we assume the "selected documents" were recently retrieved, so they have a big chance to be cached.
+		// The rows which are not cached are retrieved all together.
+		final ImmutableSet<DocumentId> rowIdsDistinct = rowIds.stream().collect(ImmutableSet.toImmutableSet());
+		final Map<DocumentId, IViewRow> rowsById = new HashMap<>(rowIdsDistinct.size());
+		final Set<DocumentId> rowIdsToRetrieve = new LinkedHashSet<>();
+		for (final DocumentId rowId : rowIdsDistinct)
+		{
+			final IViewRow row = cache_rowsById.get(rowId);
+			if (row != null)
+			{
+				rowsById.put(rowId, row);
+			}
+			else
+			{
+				rowIdsToRetrieve.add(rowId);
+			}
+		}
+
+		if (!rowIdsToRetrieve.isEmpty())
+		{
+			final List<IViewRow> rowsRetrieved = retrieveRowsByIds(DocumentIdsSelection.of(rowIdsToRetrieve));
+			rowsRetrieved.forEach(row -> {
+				cache_rowsById.put(row.getId(), row);
+				rowsById.put(row.getId(), row);
+			});
+		}
+
+		// NOTE: rows which were not found are skipped
+		return rowIdsDistinct.stream()
+				.map(rowsById::get)
 				.filter(row -> row != null);
 	}
 
+	@Override
+	public Stream<IViewRow> streamAll()
+	{
+		assertNotClosed();
+
+		final ViewEvaluationCtx evalCtx = getViewEvaluationCtx();
+		final ViewRowIdsOrderedSelection orderedSelection = getOrderedSelection(ImmutableList.of()); // default order
+
+		// NOTE: we are not caching the rows because we don't want to pollute the cache when scanning huge views
+		final Iterator<List<IViewRow>> pages = new AbstractIterator<List<IViewRow>>()
+		{
+			private int lastLine = 0;
+			private boolean lastPage = false;
+
+			@Override
+			protected List<IViewRow> computeNext()
+			{
+				if (lastPage)
+				{
+					return endOfData();
+				}
+
+				final ViewRowsKeysetPage page = viewDataRepository.retrievePageAfterLine(evalCtx, orderedSelection, lastLine, STREAM_ALL_PAGE_SIZE);
+				lastLine = page.getLastLine();
+				lastPage = page.isLastPage();
+				return page.getRows();
+			}
+		};
+
+		return Streams.stream(pages).flatMap(List::stream);
+	}
+
 	@Override
 	public <T> List<T> retrieveModelsByIds(final DocumentIdsSelection rowIds, final Class<T> modelClass)
 	{
@@ -534,6 +652,7 @@ public final class DefaultView implements IEditableView
 
 		// Invalidate local rowsById cache
 		rowIds.forEach(cache_rowsById::remove);
+		selectionGeneration.incrementAndGet();
 
 		// Collect event
 		// TODO: check which rowIds are contained in this view and fire events only for those
@@ -634,6 +753,13 @@ public final class DefaultView implements IEditableView
 		{
 			final ImmutableSet.Builder<String> selectionIds = ImmutableSet.builder();
 			selectionIds.add(defaultSelection.getSelectionId());
+			selectionIds.addAll(getSelectionIdsExceptDefault());
+			return selectionIds.build();
+		}
+
+		public Set<String> getSelectionIdsExceptDefault()
+		{
+			final ImmutableSet.Builder<String> selectionIds = ImmutableSet.builder();
 			for (final ViewRowIdsOrderedSelection selection : new ArrayList<>(selectionsByOrderBys.values()))
 			{
 				selectionIds.add(selection.getSelectionId());
@@ -1,10 +1,14 @@
 package de.metas.ui.web.view;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
 import com.google.common.cache.RemovalNotification;
 
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -40,6 +44,17 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 			.removalListener(notification -> onViewRemoved(notification))
 			.build();
 
+	/**
+	 * Index of views by the table names which could affect them (see {@link IView#getNotifyRecordsChangedTableNamesOrNull()}).
+	 * NOTE: we keep the views here and not only the IDs because we don't want to touch (i.e. extend the expiration of) the views cache when notifying.
+	 */
+	private final Map<String, Map<ViewId, IView>> viewsByTableName = new ConcurrentHashMap<>();
+	/** Views which might be affected by changes of any table */
+	private final Map<ViewId, IView> viewsAffectedByAnyTable = new ConcurrentHashMap<>();
+
+	/** Views which can be rehydrated from their definition (see {@link ViewDefinitionsStore}), so they are only detached when they expire */
+	private final Set<ViewId> detachableViewIds = ConcurrentHashMap.newKeySet();
+
 	@Override
 	public WindowId getWindowId()
 	{
@@ -49,14 +64,78 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 	private final void onViewRemoved(final RemovalNotification<Object, Object> notification)
 	{
 		final IView view = (IView)notification.getValue();
-		final ViewCloseReason closeReason = ViewCloseReason.fromCacheEvictedFlag(notification.wasEvicted());
+
+		// NOTE: in case the view was replaced, the index was already updated by put()
+		if (notification.getCause() != RemovalCause.REPLACED)
+		{
+			unindexView(view);
+		}
+
+		ViewCloseReason closeReason = ViewCloseReason.fromCacheEvictedFlag(notification.wasEvicted());
+		if (closeReason == ViewCloseReason.CLEANUP && detachableViewIds.remove(view.getViewId()))
+		{
+			closeReason = ViewCloseReason.DETACHED;
+		}
 		view.close(closeReason);
 	}
 
 	@Override
 	public void put(@NonNull final IView view)
 	{
-		views.put(view.getViewId(), view);
+		final ViewId viewId = view.getViewId();
+		final IView previousView = views.asMap().get(viewId);
+		if (previousView != null)
+		{
+			unindexView(previousView);
+		}
+
+		indexView(view);
+		views.put(viewId, view);
+	}
+
+	/**
+	 * Adds a view which can be rehydrated from its definition (see {@link ViewDefinitionsStore}).
+	 * When such a view expires, it's only removed from this storage but its default selection is kept.
+	 */
+	public void putDetachable(@NonNull final IView view)
+	{
+		put(view);
+		detachableViewIds.add(view.getViewId());
+	}
+
+	public boolean isDetachable(@NonNull final ViewId viewId)
+	{
+		return detachableViewIds.contains(viewId);
+	}
+
+	private void indexView(final IView view)
+	{
+		final Set<String> tableNames = view.getNotifyRecordsChangedTableNamesOrNull();
+		if (tableNames == null)
+		{
+			viewsAffectedByAnyTable.put(view.getViewId(), view);
+		}
+		else
+		{
+			tableNames.forEach(tableName -> viewsByTableName.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>()).put(view.getViewId(), view));
+		}
+	}
+
+	private void unindexView(final IView view)
+	{
+		final ViewId viewId = view.getViewId();
+
+		// NOTE: remove only if mapped to given view instance, because the viewId might already be mapped to a newer view
+		viewsAffectedByAnyTable.remove(viewId, view);
+
+		final Set<String> tableNames = view.getNotifyRecordsChangedTableNamesOrNull();
+		if (tableNames != null)
+		{
+			tableNames.forEach(tableName -> viewsByTableName.computeIfPresent(tableName, (k, tableViews) -> {
+				tableViews.remove(viewId, view);
+				return tableViews.isEmpty() ? null : tableViews;
+			}));
+		}
 	}
 
 	@Override
@@ -68,6 +147,7 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 	@Override
 	public void removeById(@NonNull final ViewId viewId)
 	{
+		detachableViewIds.remove(viewId);
 		views.invalidate(viewId);
 		views.cleanUp(); // also cleanup to prevent views cache to grow.
 	}
@@ -90,4 +170,21 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 		return views.asMap().values().stream();
 	}
 
+	@Override
+	public Stream<IView> streamViewsAffectedByTableNames(@NonNull final Set<String> tableNames)
+	{
+		final Stream<IView> viewsAffectedByTableNames = tableNames.stream()
+				.map(viewsByTableName::get)
+				.filter(tableViews -> tableViews != null)
+				.flatMap(tableViews -> tableViews.values().stream());
+
+		return Stream.concat(viewsAffectedByAnyTable.values().stream(), viewsAffectedByTableNames)
+				.distinct();
+	}
+
+	@Override
+	public long size()
+	{
+		return views.size();
+	}
 }
@@ -77,6 +77,16 @@ public interface IView
 		return getTableNameOrNull(null);
 	}
 
+	/**
+	 * Used by the views storage to decide which views shall be notified when some records are changed (see {@link #notifyRecordsChanged(Set)}).
+	 * 
+	 * @return the table names whose record changes might affect this view or {@code null} if this view might be affected by changes of any table.
+	 */
+	default Set<String> getNotifyRecordsChangedTableNamesOrNull()
+	{
+		return null;
+	}
+
 
 	/**
 	 * @return In case this is an included view, this method will return the parent's viewId. Else null will be returned.
@@ -181,6 +191,17 @@ public interface IView
 	 */
 	Stream<? extends IViewRow> streamByIds(DocumentIdsSelection rowIds);
 
+	/**
+	 * Streams all rows of this view, in default order.
+	 * <p>
+	 * Intended for server side consumers (e.g. exporters) which need to sequentially scan the whole view.
+	 * Implementations shall fetch the rows lazily, so the stream can be used for huge views too.
+	 */
+	default Stream<? extends IViewRow> streamAll()
+	{
+		return streamByIds(DocumentIdsSelection.ALL);
+	}
+
 	/**
 	 * Notify the view that given record(s) has changed.
 	 */
@@ -55,14 +55,36 @@ public interface IViewDataRepository
 
 	IViewRow retrieveById(ViewEvaluationCtx viewEvalCtx, ViewId viewId, DocumentId rowId);
 
+	/**
+	 * Retrieves the given rows using as few database round trips as possible.
+	 * 
+	 * @return rows which were found, in selection order; rows which are no longer present are silently skipped
+	 */
+	List<IViewRow> retrieveByIds(ViewEvaluationCtx viewEvalCtx, ViewId viewId, DocumentIdsSelection rowIds);
+
 	List<IViewRow> retrievePage(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection orderedSelection, int firstRow, int pageLength) throws DBException;
 
+	/**
+	 * Retrieves the rows which are right after given selection line, in selection order.
+	 * <p>
+	 * The page is located by a range predicate on selection's line (keyset paging), so sequentially scanning a big selection has the same cost for each page.
+	 *
+	 * @param afterLine last selection line which was already fetched (see {@link ViewRowsKeysetPage#getLastLine()}); use 0 to start from the beginning
+	 */
+	ViewRowsKeysetPage retrievePageAfterLine(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection orderedSelection, int afterLine, int pageLength) throws DBException;
+
 	List<DocumentId> retrieveRowIdsByPage(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection orderedSelection, int firstRow, int pageLength);
 
 	<T> List<T> retrieveModelsByIds(ViewId viewId, DocumentIdsSelection rowIds, Class<T> modelClass);
 
 	ViewRowIdsOrderedSelection createOrderedSelection(ViewEvaluationCtx viewEvalCtx, ViewId viewId, List<DocumentFilter> filters);
 
+	/**
+	 * @return the default selection which was already created for given viewId or <code>null</code>
+	 * @see ViewRowIdsOrderedSelectionFactory#retrieveOrderedSelectionOrNull(ViewEvaluationCtx, ViewId, List)
+	 */
+	ViewRowIdsOrderedSelection retrieveOrderedSelectionOrNull(ViewEvaluationCtx viewEvalCtx, ViewId viewId);
+
 	ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection fromSelection, List<DocumentQueryOrderBy> orderBys);
 
 	void deleteSelection(ViewId viewId);
@@ -1,5 +1,6 @@
 package de.metas.ui.web.view;
 
+import java.util.Set;
 import java.util.stream.Stream;
 
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -53,6 +54,20 @@ public interface IViewsIndexStorage
 
 	Stream<IView> streamAllViews();
 
+	/**
+	 * @return views which might be affected when records of given tables are changed. Implementations which are not indexing their views by table name shall return all views.
+	 */
+	default Stream<IView> streamViewsAffectedByTableNames(final Set<String> tableNames)
+	{
+		return streamAllViews();
+	}
+
+	/** @return how many views are currently stored */
+	default long size()
+	{
+		return streamAllViews().count();
+	}
+
 	void invalidateView(ViewId viewId);
 
 }
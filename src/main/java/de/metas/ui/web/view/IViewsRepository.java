@@ -1,6 +1,7 @@
 package de.metas.ui.web.view;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -94,6 +95,9 @@ public interface IViewsRepository
 	 */
 	void notifyRecordsChanged(Set<TableRecordReference> recordRefs);
 
+	/** @return statistics about {@link #notifyRecordsChanged(Set)} (for debugging) */
+	Map<String, Object> getNotifyRecordsChangedStats();
+
 	default void notifyRecordChanged(final String tableName, final int recordId)
 	{
 		notifyRecordsChanged(ImmutableSet.of(TableRecordReference.of(tableName, recordId)));
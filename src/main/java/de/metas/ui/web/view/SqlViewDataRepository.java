@@ -5,10 +5,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IntSummaryStatistics;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.impl.TypedSqlQueryFilter;
@@ -25,6 +27,7 @@ import org.slf4j.Logger;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.document.filter.DocumentFilter;
@@ -87,10 +90,13 @@ class SqlViewDataRepository implements IViewDataRepository
 
 	private final boolean hasIncludedRows;
 	private final ImmutableMap<String, SqlViewRowFieldLoader> rowFieldLoaders;
+	private final ViewRowFieldsSchema rowFieldsSchema;
 	private final ViewRowCustomizer rowCustomizer;
 
 	private final SqlDocumentFilterConverter filterConverters;
 
+	/** How many rows to load in one SQL round trip when retrieving rows by IDs */
+	private static final int RETRIEVE_BY_IDS_CHUNK_SIZE = 500;
 
 	SqlViewDataRepository(@NonNull final SqlViewBinding sqlBindings)
 	{
@@ -107,6 +113,7 @@ class SqlViewDataRepository implements IViewDataRepository
 		this.rowFieldLoaders = sqlBindings.getFields()
 				.stream()
 				.collect(ImmutableMap.toImmutableMap(SqlViewRowFieldBinding::getFieldName, SqlViewRowFieldBinding::getFieldLoader));
+		this.rowFieldsSchema = sqlBindings.getRowFieldsSchema();
 		this.rowCustomizer = sqlBindings.getRowCustomizer();
 
 		this.filterConverters = SqlDocumentFilterConverters.createEntityBindingEffectiveConverter(sqlBindings);
@@ -177,6 +184,12 @@ class SqlViewDataRepository implements IViewDataRepository
 		return viewRowIdsOrderedSelectionFactory.createOrderedSelection(viewEvalCtx, viewId, filters, defaultOrderBys);
 	}
 
+	@Override
+	public ViewRowIdsOrderedSelection retrieveOrderedSelectionOrNull(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId)
+	{
+		return viewRowIdsOrderedSelectionFactory.retrieveOrderedSelectionOrNull(viewEvalCtx, viewId, defaultOrderBys);
+	}
+
 	@Override
 	public ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection fromSelection, final List<DocumentQueryOrderBy> orderBys)
 	{
@@ -241,12 +254,78 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
+	@Override
+	public List<IViewRow> retrieveByIds(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentIdsSelection rowIds)
+	{
+		if (rowIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+		else if (rowIds.isAll())
+		{
+			throw new AdempiereException("Retrieving ALL rows by IDs is not supported");
+		}
+
+		final ImmutableList.Builder<IViewRow> rows = ImmutableList.builder();
+		for (final List<DocumentId> rowIdsChunk : Iterables.partition(rowIds.toSet(), RETRIEVE_BY_IDS_CHUNK_SIZE))
+		{
+			rows.addAll(retrieveByIdsChunk(viewEvalCtx, viewId, DocumentIdsSelection.of(rowIdsChunk)));
+		}
+		return rows.build();
+	}
+
+	private List<IViewRow> retrieveByIdsChunk(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentIdsSelection rowIds)
+	{
+		logger.debug("Getting rows by IDs: rowIds={} - {}", rowIds, this);
+
+		final SqlAndParams sqlAndParams = sqlViewSelect.selectByIds()
+				.viewEvalCtx(viewEvalCtx)
+				.viewId(viewId)
+				.rowIds(rowIds)
+				.build();
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+
+			rs = pstmt.executeQuery();
+
+			return loadViewRows(rs, viewEvalCtx, viewId, -1/* limit */);
+		}
+		catch (final SQLException | DBException e)
+		{
+			throw DBException.wrapIfNeeded(e)
+					.setSqlIfAbsent(sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
 	private final ImmutableList<IViewRow> loadViewRows(final ResultSet rs, final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final int limit) throws SQLException
+	{
+		final IntConsumer selectionLineConsumer = null;
+		return loadViewRows(rs, viewEvalCtx, viewId, limit, selectionLineConsumer);
+	}
+
+	/**
+	 * @param selectionLineConsumer if not null, it will be notified about each fetched selection line, including the ones whose records are missing
+	 */
+	private final ImmutableList<IViewRow> loadViewRows(final ResultSet rs, final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final int limit, final IntConsumer selectionLineConsumer) throws SQLException
 	{
 		final Map<DocumentId, ViewRow.Builder> rowBuilders = new LinkedHashMap<>();
 		final Set<DocumentId> rootRowIds = new HashSet<>();
 		while (rs.next())
 		{
+			if (selectionLineConsumer != null)
+			{
+				selectionLineConsumer.accept(rs.getInt(SqlViewSelectData.COLUMNNAME_Paging_SeqNo_OneBased));
+			}
+
 			final ViewRow.Builder rowBuilder = loadViewRow(rs, viewId.getWindowId(), viewEvalCtx.getAD_Language());
 			if (rowBuilder == null)
 			{
@@ -299,7 +378,7 @@ class SqlViewDataRepository implements IViewDataRepository
 			return null;
 		}
 
-		final ViewRow.Builder viewRowBuilder = ViewRow.builder(windowId);
+		final ViewRow.Builder viewRowBuilder = ViewRow.builder(windowId, rowFieldsSchema);
 
 		final DocumentId parentRowId = keyColumnNamesMap.retrieveRowId(rs, SqlViewSelectData.COLUMNNAME_Paging_Parent_Prefix, false);
 		if (parentRowId != null)
@@ -473,6 +552,51 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
+	@Override
+	public ViewRowsKeysetPage retrievePageAfterLine(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection orderedSelection, final int afterLine, final int pageLength) throws DBException
+	{
+		logger.debug("Getting page: afterLine={}, pageLength={} - {}", afterLine, pageLength, this);
+		logger.debug("Using: {}", orderedSelection);
+
+		final ViewId viewId = orderedSelection.getViewId();
+		final SqlAndParams sqlAndParams = sqlViewSelect.selectPageAfterLine()
+				.viewEvalCtx(viewEvalCtx)
+				.viewId(viewId)
+				.afterLine(afterLine)
+				.pageLength(pageLength)
+				.build();
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			pstmt.setMaxRows(pageLength);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+
+			rs = pstmt.executeQuery();
+
+			// NOTE: we also have to consider the lines whose records are missing, else we would not advance
+			final IntSummaryStatistics linesStats = new IntSummaryStatistics();
+			final List<IViewRow> rows = loadViewRows(rs, viewEvalCtx, viewId, -1/* limit */, linesStats);
+
+			return ViewRowsKeysetPage.builder()
+					.rows(rows)
+					.lastLine(linesStats.getCount() > 0 ? linesStats.getMax() : afterLine)
+					.lastPage(linesStats.getCount() < pageLength)
+					.build();
+		}
+		catch (final SQLException | DBException e)
+		{
+			throw DBException.wrapIfNeeded(e)
+					.setSqlIfAbsent(sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
 	@Override
 	public List<DocumentId> retrieveRowIdsByPage(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection orderedSelection, final int firstRow, final int pageLength)
 	{
@@ -0,0 +1,149 @@
+package de.metas.ui.web.view;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.exceptions.DBException;
+import org.compiere.util.DB;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * {@link ViewDefinitionsStore} which keeps the view definitions as JSON in database (T_WEBUI_ViewDefinition, created by the migration scripts).
+ * <p>
+ * NOTE: all statements are executed out of transaction because the definitions shall be visible to the other nodes right away.
+ */
+/* package */ final class SqlViewDefinitionsStore implements ViewDefinitionsStore
+{
+	private static final String TABLENAME = "T_WEBUI_ViewDefinition";
+
+	private final ObjectMapper jsonMapper;
+
+	/* package */ SqlViewDefinitionsStore(@NonNull final ObjectMapper jsonMapper)
+	{
+		this.jsonMapper = jsonMapper;
+	}
+
+	@Override
+	public void save(@NonNull final ViewDefinition viewDefinition)
+	{
+		final String definitionJson = toJson(viewDefinition);
+
+		final String sql = "INSERT INTO " + TABLENAME + " (ViewId, Definition, LastAccessed) VALUES (?, ?, now())"
+				+ " ON CONFLICT (ViewId) DO UPDATE SET Definition=EXCLUDED.Definition, LastAccessed=EXCLUDED.LastAccessed";
+		DB.executeUpdateEx(sql, new Object[] { viewDefinition.getViewId(), definitionJson }, ITrx.TRXNAME_None);
+	}
+
+	@Override
+	public ViewDefinition getByIdOrNull(@NonNull final ViewId viewId)
+	{
+		final String sql = "UPDATE " + TABLENAME + " SET LastAccessed=now() WHERE ViewId=? RETURNING Definition";
+		final String definitionJson = DB.getSQLValueStringEx(ITrx.TRXNAME_None, sql, viewId.toJson());
+		if (definitionJson == null)
+		{
+			return null;
+		}
+
+		return fromJson(definitionJson);
+	}
+
+	@Override
+	public void touch(@NonNull final ViewId viewId)
+	{
+		final String sql = "UPDATE " + TABLENAME + " SET LastAccessed=now() WHERE ViewId=?";
+		DB.executeUpdateEx(sql, new Object[] { viewId.toJson() }, ITrx.TRXNAME_None);
+	}
+
+	@Override
+	public void removeById(@NonNull final ViewId viewId)
+	{
+		final String sql = "DELETE FROM " + TABLENAME + " WHERE ViewId=?";
+		DB.executeUpdateEx(sql, new Object[] { viewId.toJson() }, ITrx.TRXNAME_None);
+	}
+
+	@Override
+	public Set<String> removeExpired(final int expireAfterAccessMinutes)
+	{
+		final String sql = "DELETE FROM " + TABLENAME + " WHERE LastAccessed < now() - ? * interval '1 minute' RETURNING ViewId";
+		final Object[] sqlParams = new Object[] { expireAfterAccessMinutes };
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+
+			final ImmutableSet.Builder<String> viewIds = ImmutableSet.builder();
+			while (rs.next())
+			{
+				viewIds.add(rs.getString(1));
+			}
+			return viewIds.build();
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	private String toJson(final ViewDefinition viewDefinition)
+	{
+		try
+		{
+			return jsonMapper.writeValueAsString(viewDefinition);
+		}
+		catch (final IOException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex)
+					.setParameter("viewDefinition", viewDefinition);
+		}
+	}
+
+	private ViewDefinition fromJson(final String definitionJson)
+	{
+		try
+		{
+			return jsonMapper.readValue(definitionJson, ViewDefinition.class);
+		}
+		catch (final IOException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex)
+					.setParameter("definitionJson", definitionJson);
+		}
+	}
+}
@@ -84,11 +84,7 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 	@Override
 	public ViewRowIdsOrderedSelection createOrderedSelection(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final List<DocumentFilter> filters, final List<DocumentQueryOrderBy> orderBys)
 	{
-		final UserRolePermissionsKey permissionsKey = viewEvalCtx.getPermissionsKey();
-		final IUserRolePermissions permissions = Services.get(IUserRolePermissionsDAO.class).retrieveUserRolePermissions(permissionsKey);
-		final int queryLimit = permissions.getConstraint(WindowMaxQueryRecordsConstraint.class)
-				.or(WindowMaxQueryRecordsConstraint.DEFAULT)
-				.getMaxQueryRecordsPerRole();
+		final int queryLimit = retrieveQueryLimit(viewEvalCtx);
 
 		//
 		//
@@ -123,6 +119,33 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 				.build();
 	}
 
+	@Override
+	public ViewRowIdsOrderedSelection retrieveOrderedSelectionOrNull(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final List<DocumentQueryOrderBy> orderBys)
+	{
+		// NOTE: the selection rows are inserted by one single statement, so if there are any, the selection is complete
+		final int size = retrieveSize(viewId.getViewId());
+		if (size <= 0)
+		{
+			return null;
+		}
+
+		return ViewRowIdsOrderedSelection.builder()
+				.setViewId(viewId)
+				.setSize(size)
+				.setOrderBys(orderBys)
+				.setQueryLimit(retrieveQueryLimit(viewEvalCtx))
+				.build();
+	}
+
+	private static int retrieveQueryLimit(final ViewEvaluationCtx viewEvalCtx)
+	{
+		final UserRolePermissionsKey permissionsKey = viewEvalCtx.getPermissionsKey();
+		final IUserRolePermissions permissions = Services.get(IUserRolePermissionsDAO.class).retrieveUserRolePermissions(permissionsKey);
+		return permissions.getConstraint(WindowMaxQueryRecordsConstraint.class)
+				.or(WindowMaxQueryRecordsConstraint.DEFAULT)
+				.getMaxQueryRecordsPerRole();
+	}
+
 	@Override
 	public ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection fromSelection, final List<DocumentQueryOrderBy> orderBys)
 	{
@@ -27,7 +27,9 @@ public enum ViewCloseReason
 	/** Closed because user requested it */
 	USER_REQUEST,
 	/** Closed because it was removed automatically from cache (expired, cache size exceeded etc) */
-	CLEANUP;
+	CLEANUP,
+	/** Removed from this node's memory, but the view can still be rehydrated from its definition (see {@link ViewDefinitionsStore}), so its shared resources shall be kept */
+	DETACHED;
 
 	public static ViewCloseReason fromCacheEvictedFlag(final boolean wasEvicted)
 	{
@@ -0,0 +1,189 @@
+package de.metas.ui.web.view;
+
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.document.filter.DocumentFiltersList;
+import de.metas.ui.web.document.filter.json.JSONDocumentFilter;
+import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.json.JSONDocumentPath;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Serializable definition of a view, i.e. everything we need to create the same view again (on any node) by calling {@link IViewFactory#createView(CreateViewRequest)}.
+ * <p>
+ * Only views which were created from plain data (i.e. JSON filters, referencing documents etc) can be defined this way.
+ * Views which were created with already unwrapped filters, sticky filters, actions, processes or parameters can't (see {@link #ofCreateViewRequestOrNull(CreateViewRequest)}).
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+public class ViewDefinition
+{
+	/**
+	 * @return definition of the view which would be created from given request or <code>null</code> if the request can't be defined in plain data
+	 */
+	public static ViewDefinition ofCreateViewRequestOrNull(@NonNull final CreateViewRequest request)
+	{
+		if (!request.getStickyFilters().isEmpty()
+				|| !request.getFilterOnlyIds().isEmpty()
+				|| !request.getActions().isEmpty()
+				|| !request.getAdditionalRelatedProcessDescriptors().isEmpty()
+				|| !request.getParameters().isEmpty())
+		{
+			return null;
+		}
+
+		final DocumentFiltersList filters = request.getFilters();
+		final List<JSONDocumentFilter> jsonFilters;
+		if (filters.isJson())
+		{
+			jsonFilters = filters.getJsonFilters();
+		}
+		else if (filters.getFilters().isEmpty())
+		{
+			jsonFilters = ImmutableList.of();
+		}
+		else
+		{
+			return null;
+		}
+
+		final Set<DocumentPath> referencingDocumentPaths = request.getReferencingDocumentPaths();
+		if (referencingDocumentPaths.stream().anyMatch(path -> !path.isRootDocument() && !path.isSingleIncludedDocument()))
+		{
+			return null;
+		}
+
+		return new ViewDefinition(
+				request.getViewId().toJson(),
+				request.getViewType(),
+				ViewProfileId.isNull(request.getProfileId()) ? null : request.getProfileId().toJson(),
+				request.getParentViewId() != null ? request.getParentViewId().toJson() : null,
+				request.getParentRowId() != null ? request.getParentRowId().toJson() : null,
+				referencingDocumentPaths.stream()
+						.map(JSONDocumentPath::ofWindowDocumentPath)
+						.collect(ImmutableList.toImmutableList()),
+				jsonFilters,
+				request.isUseAutoFilters());
+	}
+
+	@JsonProperty("viewId")
+	private final String viewId;
+
+	@JsonProperty("viewType")
+	private final JSONViewDataType viewType;
+
+	@JsonProperty("profileId")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final String profileId;
+
+	@JsonProperty("parentViewId")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final String parentViewId;
+
+	@JsonProperty("parentRowId")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final String parentRowId;
+
+	@JsonProperty("referencingDocumentPaths")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final List<JSONDocumentPath> referencingDocumentPaths;
+
+	@JsonProperty("filters")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final List<JSONDocumentFilter> filters;
+
+	@JsonProperty("useAutoFilters")
+	private final boolean useAutoFilters;
+
+	@JsonCreator
+	private ViewDefinition(
+			@JsonProperty("viewId") @NonNull final String viewId,
+			@JsonProperty("viewType") @NonNull final JSONViewDataType viewType,
+			@JsonProperty("profileId") final String profileId,
+			@JsonProperty("parentViewId") final String parentViewId,
+			@JsonProperty("parentRowId") final String parentRowId,
+			@JsonProperty("referencingDocumentPaths") final List<JSONDocumentPath> referencingDocumentPaths,
+			@JsonProperty("filters") final List<JSONDocumentFilter> filters,
+			@JsonProperty("useAutoFilters") final boolean useAutoFilters)
+	{
+		this.viewId = viewId;
+		this.viewType = viewType;
+		this.profileId = profileId;
+		this.parentViewId = parentViewId;
+		this.parentRowId = parentRowId;
+		this.referencingDocumentPaths = referencingDocumentPaths == null ? ImmutableList.of() : ImmutableList.copyOf(referencingDocumentPaths);
+		this.filters = filters == null ? ImmutableList.of() : ImmutableList.copyOf(filters);
+		this.useAutoFilters = useAutoFilters;
+	}
+
+	public ViewId getViewIdAsViewId()
+	{
+		return ViewId.ofViewIdString(viewId);
+	}
+
+	/**
+	 * @return definition of the view which is created by filtering this view (see {@link CreateViewRequest#filterViewBuilder(IView, de.metas.ui.web.view.json.JSONFilterViewRequest)})
+	 */
+	public ViewDefinition withViewIdAndFilters(@NonNull final ViewId viewId, final List<JSONDocumentFilter> filters)
+	{
+		return new ViewDefinition(
+				viewId.toJson(),
+				viewType,
+				profileId,
+				parentViewId,
+				parentRowId,
+				referencingDocumentPaths,
+				filters,
+				false); // useAutoFilters
+	}
+
+	public CreateViewRequest toCreateViewRequest()
+	{
+		final ImmutableSet<DocumentPath> referencingDocumentPaths = this.referencingDocumentPaths.stream()
+				.map(JSONDocumentPath::toDocumentPathOrNull)
+				.collect(ImmutableSet.toImmutableSet());
+
+		return CreateViewRequest.builder(getViewIdAsViewId(), viewType)
+				.setProfileId(ViewProfileId.fromJson(profileId))
+				.setParentViewId(parentViewId != null ? ViewId.ofViewIdString(parentViewId) : null)
+				.setParentRowId(DocumentId.fromNullable(parentRowId))
+				.setReferencingDocumentPaths(referencingDocumentPaths)
+				.setFiltersFromJSON(filters)
+				.setUseAutoFilters(useAutoFilters)
+				.build();
+	}
+}
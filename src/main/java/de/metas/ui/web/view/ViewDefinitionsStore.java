@@ -0,0 +1,49 @@
+package de.metas.ui.web.view;
+
+import java.util.Set;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Store of {@link ViewDefinition}s which is shared between all webui-api nodes, so any node can rehydrate a view which was created on another node.
+ */
+public interface ViewDefinitionsStore
+{
+	/** Adds or replaces given view definition */
+	void save(ViewDefinition viewDefinition);
+
+	/** @return view definition or <code>null</code> if not found. The definition is also marked as accessed. */
+	ViewDefinition getByIdOrNull(ViewId viewId);
+
+	/** Marks the view definition as accessed, i.e. extends its expiration */
+	void touch(ViewId viewId);
+
+	void removeById(ViewId viewId);
+
+	/**
+	 * Removes the view definitions which were not accessed in given time.
+	 *
+	 * @return removed viewIds
+	 */
+	Set<String> removeExpired(int expireAfterAccessMinutes);
+}
@@ -1,8 +1,8 @@
 package de.metas.ui.web.view;
 
-import java.util.List;
+import java.util.Iterator;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.impexp.AbstractExcelExporter;
@@ -10,19 +10,14 @@ import org.adempiere.impexp.CellValue;
 import org.adempiere.impexp.CellValues;
 import org.adempiere.util.Check;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.ui.web.view.descriptor.ViewLayout;
-import de.metas.ui.web.view.util.PageIndex;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.json.JSONDate;
 import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor;
-import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 import lombok.Builder;
 import lombok.NonNull;
 
@@ -48,7 +43,7 @@ import lombok.NonNull;
  * #L%
  */
 
-/* package */ class ViewExcelExporter extends AbstractExcelExporter
+/* package */ class ViewExcelExporter extends AbstractExcelExporter implements AutoCloseable
 {
 	private final RowsSupplier rows;
 	private final ViewLayout layout;
@@ -80,6 +75,13 @@ import lombok.NonNull;
 		setFreezePane(0, 1);
 	}
 
+	/** Releases the rows which were fetched for exporting (e.g. the underlying database cursor) */
+	@Override
+	public void close()
+	{
+		rows.close();
+	}
+
 	private IViewRow getRow(final int rowIndex)
 	{
 		return rows.getRow(rowIndex);
@@ -176,61 +178,55 @@ import lombok.NonNull;
 		IViewRow getRow(int rowIndex);
 
 		int getRowCount();
+
+		default void close()
+		{
+		}
 	}
 
+	/**
+	 * Supplies all view rows, assuming they are accessed sequentially (which is the case when exporting).
+	 * The rows are fetched by {@link IView#streamAll()}, which has to be closed when the export is done (see {@link #close()}).
+	 */
 	private static class AllRowsSupplier implements RowsSupplier
 	{
-		private static final int PAGE_LENGTH = 100;
 		private final IView view;
-		private LoadingCache<PageIndex, ViewResult> cache = CacheBuilder.newBuilder()
-				.maximumSize(2) // cache max 2 pages
-				.build(new CacheLoader<PageIndex, ViewResult>()
-				{
-					@Override
-					public ViewResult load(final PageIndex pageIndex)
-					{
-						final List<DocumentQueryOrderBy> orderBys = ImmutableList.of(); // default
-						return view.getPage(pageIndex.getFirstRow(), pageIndex.getPageLength(), orderBys);
-					}
 
-				});
+		private Stream<? extends IViewRow> rowsStream;
+		private Iterator<? extends IViewRow> rowsIterator;
+		private int currentRowIndex = -1;
+		private IViewRow currentRow;
 
 		private AllRowsSupplier(@NonNull final IView view)
 		{
 			this.view = view;
 		}
 
-		private ViewResult getPage(final PageIndex pageIndex)
-		{
-			try
-			{
-				return cache.get(pageIndex);
-			}
-			catch (ExecutionException e)
-			{
-				throw AdempiereException.wrapIfNeeded(e);
-			}
-		}
-
 		@Override
 		public IViewRow getRow(final int rowIndex)
 		{
-			final ViewResult page = getPage(PageIndex.getPageContainingRow(rowIndex, PAGE_LENGTH));
-
-			final int rowIndexInPage = rowIndex - page.getFirstRow();
-			if (rowIndexInPage < 0)
+			if (rowIndex < currentRowIndex || rowsIterator == null)
 			{
-				// shall not happen
-				return null;
+				// start over (shall not happen, except first time)
+				close();
+				rowsStream = view.streamAll();
+				rowsIterator = rowsStream.iterator();
+				currentRowIndex = -1;
+				currentRow = null;
 			}
 
-			final List<IViewRow> rows = page.getPage();
-			if (rowIndexInPage >= rows.size())
+			while (currentRowIndex < rowIndex)
 			{
-				return null;
+				if (!rowsIterator.hasNext())
+				{
+					return null;
+				}
+
+				currentRow = rowsIterator.next();
+				currentRowIndex++;
 			}
 
-			return rows.get(rowIndexInPage);
+			return currentRow;
 		}
 
 		@Override
@@ -238,6 +234,17 @@ import lombok.NonNull;
 		{
 			return (int)view.size();
 		}
+
+		@Override
+		public void close()
+		{
+			if (rowsStream != null)
+			{
+				rowsStream.close();
+				rowsStream = null;
+				rowsIterator = null;
+			}
+		}
 	}
 
 	private static class ListRowsSupplier implements RowsSupplier
@@ -3,9 +3,13 @@ package de.metas.ui.web.view;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
 import java.util.List;
 import java.util.Objects;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.adempiere.exceptions.AdempiereException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.InputStreamResource;
@@ -26,6 +30,7 @@ import org.springframework.web.context.request.WebRequest;
 
 import com.google.common.collect.ImmutableList;
 
+import de.metas.ui.web.cache.ETagAware;
 import de.metas.ui.web.cache.ETagResponseEntityBuilder;
 import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.process.ProcessRestController;
@@ -34,6 +39,7 @@ import de.metas.ui.web.process.WebuiPreconditionsContext;
 import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
 import de.metas.ui.web.process.json.JSONDocumentActionsList;
 import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.view.ViewStreamingExporter.ViewExportFormat;
 import de.metas.ui.web.view.descriptor.ViewLayout;
 import de.metas.ui.web.view.json.JSONCreateViewRequest;
 import de.metas.ui.web.view.json.JSONFilterViewRequest;
@@ -203,21 +209,36 @@ public class ViewRestController
 	}
 
 	@GetMapping("/{viewId}")
-	public JSONViewResult getViewData(
+	public ResponseEntity<JSONViewResult> getViewData(
 			@PathVariable(PARAM_WindowId) final String windowId //
 			, @PathVariable("viewId") final String viewIdStr//
 			, @RequestParam(name = PARAM_FirstRow, required = true) @ApiParam(PARAM_FirstRow_Description) final int firstRow //
 			, @RequestParam(name = PARAM_PageLength, required = true) final int pageLength //
 			, @RequestParam(name = PARAM_OrderBy, required = false) @ApiParam(PARAM_OrderBy_Description) final String orderBysListStr //
+			, final WebRequest request //
 	)
 	{
 		userSession.assertLoggedIn();
 
 		final ViewId viewId = ViewId.of(windowId, viewIdStr);
 		final IView view = viewsRepo.getView(viewId);
-		final ViewResult result = view.getPage(firstRow, pageLength, DocumentQueryOrderBy.parseOrderBysList(orderBysListStr));
 		final IViewRowOverrides rowOverrides = ViewRowOverridesHelper.getViewRowOverrides(view);
-		return JSONViewResult.of(result, rowOverrides, userSession.getAD_Language());
+		final List<DocumentQueryOrderBy> orderBys = DocumentQueryOrderBy.parseOrderBysList(orderBysListStr);
+
+		// Views which are not tracking their changes are always fetched
+		if (!(view instanceof ETagAware))
+		{
+			final ViewResult result = view.getPage(firstRow, pageLength, orderBys);
+			return ResponseEntity.ok(JSONViewResult.of(result, rowOverrides, userSession.getAD_Language()));
+		}
+
+		// NOTE: the ETag is checked (and 304 Not Modified is returned) before fetching the page and before building the JSON
+		return ETagResponseEntityBuilder.ofETagAware(request, (ETagAware)view)
+				.includeLanguageInETag()
+				.cacheMaxAge(0) // always revalidate, the view might be changed at any time
+				.map(etagAware -> view.getPage(firstRow, pageLength, orderBys))
+				.jsonOptions(() -> newJSONOptions())
+				.toJson((result, jsonOpts) -> JSONViewResult.of(result, rowOverrides, jsonOpts.getAD_Language()));
 	}
 
 	@GetMapping("/layout")
@@ -413,15 +434,15 @@ public class ViewRestController
 
 		final File tmpFile = File.createTempFile("exportToExcel", ".xls");
 
-		try (final FileOutputStream out = new FileOutputStream(tmpFile))
+		try (final FileOutputStream out = new FileOutputStream(tmpFile);
+				final ViewExcelExporter exporter = ViewExcelExporter.builder()
+						.view(viewsRepo.getView(viewId))
+						.rowIds(DocumentIdsSelection.ofCommaSeparatedString(selectedIdsListStr))
+						.layout(viewsRepo.getViewLayout(viewId.getWindowId(), JSONViewDataType.grid, ViewProfileId.NULL))
+						.adLanguage(userSession.getAD_Language())
+						.build())
 		{
-			ViewExcelExporter.builder()
-					.view(viewsRepo.getView(viewId))
-					.rowIds(DocumentIdsSelection.ofCommaSeparatedString(selectedIdsListStr))
-					.layout(viewsRepo.getViewLayout(viewId.getWindowId(), JSONViewDataType.grid, ViewProfileId.NULL))
-					.adLanguage(userSession.getAD_Language())
-					.build()
-					.export(out);
+			exporter.export(out);
 		}
 
 		final String filename = "report.xls"; // TODO: use a better name
@@ -433,4 +454,60 @@ public class ViewRestController
 		final ResponseEntity<Resource> response = new ResponseEntity<>(new InputStreamResource(new FileInputStream(tmpFile)), headers, HttpStatus.OK);
 		return response;
 	}
+
+	@GetMapping("/{viewId}/export/xlsx")
+	public void exportToXlsx(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("viewId") final String viewIdStr,
+			@RequestParam(name = "selectedIds", required = false) @ApiParam("comma separated IDs") final String selectedIdsListStr,
+			final HttpServletResponse response)
+			throws IOException
+	{
+		exportStreaming(windowIdStr, viewIdStr, selectedIdsListStr, ViewExportFormat.XLSX, response);
+	}
+
+	@GetMapping("/{viewId}/export/csv")
+	public void exportToCsv(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("viewId") final String viewIdStr,
+			@RequestParam(name = "selectedIds", required = false) @ApiParam("comma separated IDs") final String selectedIdsListStr,
+			final HttpServletResponse response)
+			throws IOException
+	{
+		exportStreaming(windowIdStr, viewIdStr, selectedIdsListStr, ViewExportFormat.CSV, response);
+	}
+
+	/**
+	 * Writes the view rows directly to HTTP response, while they are fetched, so no matter how many rows we have, we are not keeping them in memory.
+	 */
+	private void exportStreaming(
+			final String windowIdStr,
+			final String viewIdStr,
+			final String selectedIdsListStr,
+			final ViewExportFormat format,
+			final HttpServletResponse response)
+			throws IOException
+	{
+		userSession.assertLoggedIn();
+
+		final ViewId viewId = ViewId.ofViewIdString(viewIdStr, WindowId.fromJson(windowIdStr));
+
+		final ViewStreamingExporter exporter = ViewStreamingExporter.builder()
+				.view(viewsRepo.getView(viewId))
+				.rowIds(DocumentIdsSelection.ofCommaSeparatedString(selectedIdsListStr))
+				.layout(viewsRepo.getViewLayout(viewId.getWindowId(), JSONViewDataType.grid, ViewProfileId.NULL))
+				.adLanguage(userSession.getAD_Language())
+				.format(format)
+				.build();
+
+		final String filename = exporter.getFilename();
+		response.setContentType(format.getContentType());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment"
+				+ "; filename=\"" + filename.replaceAll("[^\\x20-\\x7E]", "_") + "\"" // ASCII fallback for older clients
+				+ "; filename*=UTF-8''" + URLEncoder.encode(filename, "UTF-8").replace("+", "%20")); // RFC 6266
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "must-revalidate, post-check=0, pre-check=0");
+
+		exporter.export(response.getOutputStream());
+		response.flushBuffer();
+	}
 }
@@ -44,7 +44,15 @@ public final class ViewRow implements IViewRow
 {
 	public static final Builder builder(final WindowId windowId)
 	{
-		return new Builder(windowId);
+		return new Builder(windowId, ViewRowFieldsSchema.EMPTY);
+	}
+
+	/**
+	 * @param fieldsSchema schema shared by all rows of a view; values of fields which are not part of it are still accepted, but they are stored less efficiently.
+	 */
+	public static final Builder builder(final WindowId windowId, final ViewRowFieldsSchema fieldsSchema)
+	{
+		return new Builder(windowId, fieldsSchema);
 	}
 
 	public static final ViewRow cast(final IViewRow row)
@@ -80,7 +88,7 @@ public final class ViewRow implements IViewRow
 	private final IViewRowType type;
 	private final boolean processed;
 
-	private final Map<String, Object> values;
+	private final ViewRowValuesMap values;
 
 	private final List<IViewRow> includedRows;
 
@@ -92,7 +100,7 @@ public final class ViewRow implements IViewRow
 		type = builder.getType();
 		processed = builder.isProcessed();
 
-		values = ImmutableMap.copyOf(builder.getValues());
+		values = builder.buildValues();
 
 		includedRows = builder.buildIncludedRows();
 	}
@@ -178,12 +186,16 @@ public final class ViewRow implements IViewRow
 		private DocumentId parentRowId;
 		private IViewRowType type;
 		private Boolean processed;
-		private final Map<String, Object> values = new LinkedHashMap<>(); // preserve the insertion order of fields
+		private final ViewRowFieldsSchema fieldsSchema;
+		private final Object[] values;
+		private Map<String, Object> extraValues = null; // values of fields which are not in schema; preserve the insertion order of fields
 		private List<IViewRow> includedRows = null;
 
-		private Builder(@NonNull final WindowId windowId)
+		private Builder(@NonNull final WindowId windowId, @NonNull final ViewRowFieldsSchema fieldsSchema)
 		{
 			this.windowId = windowId;
+			this.fieldsSchema = fieldsSchema;
+			values = new Object[fieldsSchema.size()];
 		}
 
 		public ViewRow build()
@@ -280,26 +292,45 @@ public final class ViewRow implements IViewRow
 
 		public Builder putFieldValue(final String fieldName, final Object jsonValue)
 		{
-			if (JSONNullValue.isNull(jsonValue))
+			final Object jsonValueToSet = JSONNullValue.isNull(jsonValue) ? null : jsonValue;
+
+			final int slot = fieldsSchema.getSlot(fieldName);
+			if (slot >= 0)
 			{
-				values.remove(fieldName);
+				values[slot] = jsonValueToSet;
+			}
+			else if (jsonValueToSet == null)
+			{
+				if (extraValues != null)
+				{
+					extraValues.remove(fieldName);
+				}
 			}
 			else
 			{
-				values.put(fieldName, jsonValue);
+				if (extraValues == null)
+				{
+					extraValues = new LinkedHashMap<>();
+				}
+				extraValues.put(fieldName, jsonValueToSet);
 			}
 
 			return this;
 		}
 
-		private Map<String, Object> getValues()
+		private ViewRowValuesMap buildValues()
 		{
-			return values;
+			return new ViewRowValuesMap(fieldsSchema, values.clone(), extraValues != null ? extraValues : ImmutableMap.of());
 		}
-		
+
 		public Object getFieldValue(final String fieldName)
 		{
-			return values.get(fieldName);
+			final int slot = fieldsSchema.getSlot(fieldName);
+			if (slot >= 0)
+			{
+				return values[slot];
+			}
+			return extraValues != null ? extraValues.get(fieldName) : null;
 		}
 
 		public Builder addIncludedRow(final IViewRow includedRow)
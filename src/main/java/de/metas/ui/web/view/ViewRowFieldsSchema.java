@@ -0,0 +1,90 @@
+package de.metas.ui.web.view;
+
+import java.util.Collection;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Immutable field name to slot mapping, shared by all {@link ViewRow}s of a view binding.
+ * <p>
+ * Having it, each row only has to keep its values in a plain array, indexed by slot.
+ */
+public final class ViewRowFieldsSchema
+{
+	public static ViewRowFieldsSchema of(@NonNull final Collection<String> fieldNames)
+	{
+		if (fieldNames.isEmpty())
+		{
+			return EMPTY;
+		}
+		return new ViewRowFieldsSchema(fieldNames);
+	}
+
+	public static final ViewRowFieldsSchema EMPTY = new ViewRowFieldsSchema(ImmutableList.of());
+
+	private final ImmutableList<String> fieldNames;
+	private final ImmutableMap<String, Integer> slotsByFieldName;
+
+	private ViewRowFieldsSchema(final Collection<String> fieldNames)
+	{
+		this.fieldNames = ImmutableList.copyOf(fieldNames);
+
+		final ImmutableMap.Builder<String, Integer> slotsByFieldName = ImmutableMap.builder();
+		for (int slot = 0; slot < this.fieldNames.size(); slot++)
+		{
+			slotsByFieldName.put(this.fieldNames.get(slot), slot);
+		}
+		this.slotsByFieldName = slotsByFieldName.build();
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.addValue(fieldNames)
+				.toString();
+	}
+
+	public int size()
+	{
+		return fieldNames.size();
+	}
+
+	public String getFieldName(final int slot)
+	{
+		return fieldNames.get(slot);
+	}
+
+	/** @return field's slot or -1 if the field is not part of this schema */
+	public int getSlot(final String fieldName)
+	{
+		final Integer slot = slotsByFieldName.get(fieldName);
+		return slot != null ? slot : -1;
+	}
+}
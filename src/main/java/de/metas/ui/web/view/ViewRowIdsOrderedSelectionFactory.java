@@ -33,6 +33,11 @@ public interface ViewRowIdsOrderedSelectionFactory
 {
 	ViewRowIdsOrderedSelection createOrderedSelection(ViewEvaluationCtx viewEvalCtx, ViewId viewId, List<DocumentFilter> filters, final List<DocumentQueryOrderBy> orderBys);
 
+	/**
+	 * @return the selection which was already created for given viewId (e.g. by another node) or <code>null</code> if there is no such selection or it's empty
+	 */
+	ViewRowIdsOrderedSelection retrieveOrderedSelectionOrNull(ViewEvaluationCtx viewEvalCtx, ViewId viewId, List<DocumentQueryOrderBy> orderBys);
+
 	/**
 	 * @return a new {@link ViewRowIdsOrderedSelection} from a given <code>fromSelection</code> ordered by <code>orderBys</code>
 	 */
@@ -0,0 +1,148 @@
+package de.metas.ui.web.view;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Immutable, read-only map view over a row's values, which are kept in an array whose slots are described by a {@link ViewRowFieldsSchema}.
+ * <p>
+ * Slots with <code>null</code> values are not part of the map.
+ * Values of fields which are not part of the schema (e.g. added by a {@link ViewRowCustomizer}) are kept aside and are iterated after the schema fields.
+ */
+/* package */ final class ViewRowValuesMap extends AbstractMap<String, Object>
+{
+	private final ViewRowFieldsSchema schema;
+	private final Object[] values;
+	private final ImmutableMap<String, Object> extraValues;
+	private final int size;
+
+	private transient Set<Map.Entry<String, Object>> _entrySet; // lazy
+
+	/* package */ ViewRowValuesMap(
+			@NonNull final ViewRowFieldsSchema schema,
+			@NonNull final Object[] values,
+			@NonNull final Map<String, Object> extraValues)
+	{
+		if (values.length != schema.size())
+		{
+			throw new IllegalArgumentException("Values count " + values.length + " does not match the schema: " + schema);
+		}
+
+		this.schema = schema;
+		this.values = values;
+		this.extraValues = ImmutableMap.copyOf(extraValues);
+
+		int size = this.extraValues.size();
+		for (final Object value : values)
+		{
+			if (value != null)
+			{
+				size++;
+			}
+		}
+		this.size = size;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(final Object key)
+	{
+		return get(key) != null;
+	}
+
+	@Override
+	public Object get(final Object key)
+	{
+		if (!(key instanceof String))
+		{
+			return null;
+		}
+
+		final String fieldName = (String)key;
+		final int slot = schema.getSlot(fieldName);
+		return slot >= 0 ? values[slot] : extraValues.get(fieldName);
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet()
+	{
+		Set<Map.Entry<String, Object>> entrySet = _entrySet;
+		if (entrySet == null)
+		{
+			entrySet = _entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<String, Object>>
+	{
+		@Override
+		public int size()
+		{
+			return size;
+		}
+
+		@Override
+		public Iterator<Map.Entry<String, Object>> iterator()
+		{
+			final Iterator<Map.Entry<String, Object>> extraValuesIterator = extraValues.entrySet().iterator();
+
+			return new AbstractIterator<Map.Entry<String, Object>>()
+			{
+				private int nextSlot = 0;
+
+				@Override
+				protected Map.Entry<String, Object> computeNext()
+				{
+					while (nextSlot < values.length)
+					{
+						final int slot = nextSlot++;
+						final Object value = values[slot];
+						if (value != null)
+						{
+							return Maps.immutableEntry(schema.getFieldName(slot), value);
+						}
+					}
+
+					return extraValuesIterator.hasNext() ? extraValuesIterator.next() : endOfData();
+				}
+			};
+		}
+	}
+}
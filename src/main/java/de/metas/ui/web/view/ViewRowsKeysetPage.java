@@ -0,0 +1,57 @@
+package de.metas.ui.web.view;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * A page of view rows, fetched by selection line (keyset paging).
+ *
+ * @see IViewDataRepository#retrievePageAfterLine(ViewEvaluationCtx, ViewRowIdsOrderedSelection, int, int)
+ */
+@Value
+public class ViewRowsKeysetPage
+{
+	/** rows which were found; rows whose underlying records are missing are skipped */
+	private final List<IViewRow> rows;
+
+	/** last selection line which was scanned; use it as cursor to fetch the next page */
+	private final int lastLine;
+
+	/** true if there are no more lines after {@link #lastLine} */
+	private final boolean lastPage;
+
+	@Builder
+	private ViewRowsKeysetPage(@NonNull final List<IViewRow> rows, final int lastLine, final boolean lastPage)
+	{
+		this.rows = ImmutableList.copyOf(rows);
+		this.lastLine = lastLine;
+		this.lastPage = lastPage;
+	}
+}
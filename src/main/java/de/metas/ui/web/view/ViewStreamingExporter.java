@@ -0,0 +1,369 @@
+package de.metas.ui.web.view;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.json.JSONDate;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementDescriptor;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Exports view rows directly to an {@link OutputStream}, while the rows are fetched sequentially (see {@link IView#streamAll()}).
+ * <p>
+ * Unlike {@link ViewExcelExporter}, the whole document is never kept in memory:
+ * <ul>
+ * <li>for {@link ViewExportFormat#XLSX} only the last {@link #XLSX_ROW_ACCESS_WINDOW_SIZE} rows are kept in memory, the others are flushed to the (compressed) sheet data
+ * <li>for {@link ViewExportFormat#CSV} each row is written as soon as it was fetched
+ * </ul>
+ */
+/* package */ class ViewStreamingExporter
+{
+	public enum ViewExportFormat
+	{
+		XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"), //
+		CSV("text/csv; charset=UTF-8", "csv");
+
+		private final String contentType;
+		private final String fileExtension;
+
+		ViewExportFormat(final String contentType, final String fileExtension)
+		{
+			this.contentType = contentType;
+			this.fileExtension = fileExtension;
+		}
+
+		public String getContentType()
+		{
+			return contentType;
+		}
+
+		public String getFileExtension()
+		{
+			return fileExtension;
+		}
+	}
+
+	private static final String DEFAULT_FILENAME = "export";
+	private static final int XLSX_ROW_ACCESS_WINDOW_SIZE = 100;
+	private static final char CSV_SEPARATOR = ',';
+	private static final String CSV_LINE_SEPARATOR = "\r\n";
+
+	private final IView view;
+	private final DocumentIdsSelection rowIds;
+	private final String adLanguage;
+	private final ViewExportFormat format;
+	private final String filename;
+
+	private final ImmutableList<DocumentLayoutElementDescriptor> columns;
+
+	@Builder
+	private ViewStreamingExporter(
+			@NonNull final IView view,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final ViewLayout layout,
+			@NonNull final String adLanguage,
+			@NonNull final ViewExportFormat format)
+	{
+		if (rowIds.isEmpty())
+		{
+			throw new AdempiereException("@NoSelection@");
+		}
+
+		this.view = view;
+		this.rowIds = rowIds;
+		this.adLanguage = adLanguage;
+		this.format = format;
+		filename = buildFilename(layout.getCaption(adLanguage), format);
+
+		columns = ImmutableList.copyOf(layout.getElements());
+	}
+
+	/**
+	 * @return export file name, derived from view's caption (e.g. "Sales Orders.xlsx")
+	 */
+	public String getFilename()
+	{
+		return filename;
+	}
+
+	@VisibleForTesting
+	static String buildFilename(final String caption, @NonNull final ViewExportFormat format)
+	{
+		// keep only the characters which are safe in file names, on any OS
+		final String name = caption != null ? caption.replaceAll("[^\\p{L}\\p{N} ._-]+", "_").trim() : "";
+		return (name.isEmpty() ? DEFAULT_FILENAME : name) + "." + format.getFileExtension();
+	}
+
+	public void export(@NonNull final OutputStream out) throws IOException
+	{
+		if (format == ViewExportFormat.XLSX)
+		{
+			exportToXlsx(out);
+		}
+		else if (format == ViewExportFormat.CSV)
+		{
+			exportToCsv(out);
+		}
+		else
+		{
+			throw new AdempiereException("Export format not supported: " + format);
+		}
+	}
+
+	private Stream<? extends IViewRow> streamRows()
+	{
+		return rowIds.isAll() ? view.streamAll() : view.streamByIds(rowIds);
+	}
+
+	private String getFieldName(final int columnIndex)
+	{
+		return columns.get(columnIndex).getFields().iterator().next().getField();
+	}
+
+	private DocumentFieldWidgetType getWidgetType(final int columnIndex)
+	{
+		return columns.get(columnIndex).getWidgetType();
+	}
+
+	private String getHeaderName(final int columnIndex)
+	{
+		return columns.get(columnIndex).getCaption(adLanguage);
+	}
+
+	/**
+	 * @return exported value: {@link Date}, {@link BigDecimal} or other {@link Number}, {@link Boolean}, {@link String} or <code>null</code>
+	 */
+	private Object getValue(final Map<String, Object> rowJsonValues, final int columnIndex)
+	{
+		final Object value = rowJsonValues.get(getFieldName(columnIndex));
+		if (value == null)
+		{
+			return null;
+		}
+
+		final DocumentFieldWidgetType widgetType = getWidgetType(columnIndex);
+		if (widgetType.isDateOrTime())
+		{
+			return JSONDate.fromJson(value.toString(), widgetType);
+		}
+		else if (value instanceof JSONLookupValue)
+		{
+			return ((JSONLookupValue)value).getCaption();
+		}
+		else if (value instanceof Number || value instanceof Boolean)
+		{
+			return value;
+		}
+		else
+		{
+			return value.toString();
+		}
+	}
+
+	//
+	// XLSX
+	//
+
+	private void exportToXlsx(final OutputStream out) throws IOException
+	{
+		final SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_ACCESS_WINDOW_SIZE);
+		workbook.setCompressTempFiles(true);
+		try
+		{
+			final SXSSFSheet sheet = workbook.createSheet();
+			sheet.createFreezePane(0, 1);
+
+			final CellStyle dateCellStyle = createDateCellStyle(workbook, "yyyy-mm-dd");
+			final CellStyle dateTimeCellStyle = createDateCellStyle(workbook, "yyyy-mm-dd hh:mm:ss");
+
+			final int columnsCount = columns.size();
+
+			//
+			// Header
+			{
+				final CellStyle headerCellStyle = workbook.createCellStyle();
+				final Font headerFont = workbook.createFont();
+				headerFont.setBold(true);
+				headerCellStyle.setFont(headerFont);
+
+				final Row headerRow = sheet.createRow(0);
+				for (int columnIndex = 0; columnIndex < columnsCount; columnIndex++)
+				{
+					final Cell cell = headerRow.createCell(columnIndex);
+					cell.setCellValue(getHeaderName(columnIndex));
+					cell.setCellStyle(headerCellStyle);
+				}
+			}
+
+			//
+			// Rows
+			final int[] nextRowIndex = { 1 };
+			try (final Stream<? extends IViewRow> rows = streamRows())
+			{
+				rows.forEach(row -> {
+					final Map<String, Object> rowJsonValues = row.getFieldNameAndJsonValues();
+					final Row sheetRow = sheet.createRow(nextRowIndex[0]++);
+
+					for (int columnIndex = 0; columnIndex < columnsCount; columnIndex++)
+					{
+						final Object value = getValue(rowJsonValues, columnIndex);
+						if (value == null)
+						{
+							continue;
+						}
+
+						final Cell cell = sheetRow.createCell(columnIndex);
+						if (value instanceof Date)
+						{
+							cell.setCellValue((Date)value);
+							cell.setCellStyle(getWidgetType(columnIndex) == DocumentFieldWidgetType.Date ? dateCellStyle : dateTimeCellStyle);
+						}
+						else if (value instanceof Number)
+						{
+							cell.setCellValue(((Number)value).doubleValue());
+						}
+						else if (value instanceof Boolean)
+						{
+							cell.setCellValue((Boolean)value);
+						}
+						else
+						{
+							cell.setCellValue(value.toString());
+						}
+					}
+				});
+			}
+
+			workbook.write(out);
+		}
+		finally
+		{
+			// delete the temporary sheet data files
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+
+	private static CellStyle createDateCellStyle(final SXSSFWorkbook workbook, final String format)
+	{
+		final CellStyle cellStyle = workbook.createCellStyle();
+		cellStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat(format));
+		return cellStyle;
+	}
+
+	//
+	// CSV
+	//
+
+	private void exportToCsv(final OutputStream out) throws IOException
+	{
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		final int columnsCount = columns.size();
+
+		//
+		// Header
+		for (int columnIndex = 0; columnIndex < columnsCount; columnIndex++)
+		{
+			if (columnIndex > 0)
+			{
+				writer.write(CSV_SEPARATOR);
+			}
+			writer.write(toCsvValue(getHeaderName(columnIndex)));
+		}
+		writer.write(CSV_LINE_SEPARATOR);
+
+		//
+		// Rows
+		try (final Stream<? extends IViewRow> rows = streamRows())
+		{
+			rows.forEach(row -> {
+				final Map<String, Object> rowJsonValues = row.getFieldNameAndJsonValues();
+				try
+				{
+					for (int columnIndex = 0; columnIndex < columnsCount; columnIndex++)
+					{
+						if (columnIndex > 0)
+						{
+							writer.write(CSV_SEPARATOR);
+						}
+
+						final Object value = rowJsonValues.get(getFieldName(columnIndex));
+						writer.write(toCsvValue(value instanceof JSONLookupValue ? ((JSONLookupValue)value).getCaption() : value));
+					}
+					writer.write(CSV_LINE_SEPARATOR);
+				}
+				catch (final IOException ex)
+				{
+					throw AdempiereException.wrapIfNeeded(ex);
+				}
+			});
+		}
+
+		writer.flush();
+	}
+
+	private static String toCsvValue(final Object value)
+	{
+		if (value == null)
+		{
+			return "";
+		}
+
+		final String valueStr = value instanceof BigDecimal ? ((BigDecimal)value).toPlainString() : value.toString();
+		if (valueStr.indexOf(CSV_SEPARATOR) < 0
+				&& valueStr.indexOf('"') < 0
+				&& valueStr.indexOf('\n') < 0
+				&& valueStr.indexOf('\r') < 0)
+		{
+			return valueStr;
+		}
+
+		return "\"" + valueStr.replace("\"", "\"\"") + "\"";
+	}
+}
@@ -6,13 +6,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.Check;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
 import org.adempiere.util.lang.MutableInt;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.Adempiere;
@@ -24,10 +31,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Streams;
+import com.google.common.util.concurrent.Striped;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelection;
@@ -80,8 +92,34 @@ public class ViewsRepository implements IViewsRepository
 	@Value("${metasfresh.webui.view.truncateOnStartUp:true}")
 	private boolean truncateSelectionOnStartUp;
 
+	/**
+	 * Where to keep the definitions of the views, besides this node's memory:
+	 * <ul>
+	 * <li><code>memory</code> - nowhere, the views are available only on the node which created them (default)
+	 * <li><code>jdbc</code> - in database, so the views can be rehydrated on any node (see {@link SqlViewDefinitionsStore})
+	 * </ul>
+	 */
+	@Value("${metasfresh.webui.view.store:memory}")
+	private String viewDefinitionsStoreType;
+	@Value("${metasfresh.webui.view.store.expireAfterAccessMinutes:120}")
+	private int viewDefinitionsExpireAfterAccessMinutes;
+	@Value("${metasfresh.webui.view.store.touchIntervalSeconds:60}")
+	private int viewDefinitionsTouchIntervalSeconds;
+
+	@Autowired
+	private ObjectMapper jsonMapper;
+
 	private final ConcurrentHashMap<WindowId, IViewsIndexStorage> viewsIndexStorages = new ConcurrentHashMap<>();
-	private final IViewsIndexStorage defaultViewsIndexStorage = new DefaultViewsRepositoryStorage();
+	private final DefaultViewsRepositoryStorage defaultViewsIndexStorage = new DefaultViewsRepositoryStorage();
+
+	/** shared view definitions or <code>null</code> if not enabled */
+	private ViewDefinitionsStore viewDefinitionsStore;
+	private Cache<ViewId, Boolean> recentlyTouchedViewIds;
+	private final Striped<Lock> rehydrateLocks = Striped.lazyWeakLock(64);
+	private ScheduledExecutorService viewDefinitionsPurgeExecutor;
+
+	private final AtomicLong notifyRecordsChangedDispatchedCount = new AtomicLong();
+	private final AtomicLong notifyRecordsChangedSkippedCount = new AtomicLong();
 
 	/**
 	 * 
@@ -97,9 +135,72 @@ public class ViewsRepository implements IViewsRepository
 	}
 
 	@PostConstruct
+	private void init()
+	{
+		createViewDefinitionsStoreIfEnabled();
+		truncateTempTablesIfAllowed();
+	}
+
+	@PreDestroy
+	private void destroy()
+	{
+		if (viewDefinitionsPurgeExecutor != null)
+		{
+			viewDefinitionsPurgeExecutor.shutdownNow();
+		}
+	}
+
+	private void createViewDefinitionsStoreIfEnabled()
+	{
+		if (!"jdbc".equalsIgnoreCase(viewDefinitionsStoreType))
+		{
+			return;
+		}
+
+		viewDefinitionsStore = new SqlViewDefinitionsStore(jsonMapper);
+		recentlyTouchedViewIds = CacheBuilder.newBuilder()
+				.expireAfterWrite(Math.max(viewDefinitionsTouchIntervalSeconds, 1), TimeUnit.SECONDS)
+				.build();
+
+		final int purgeRateInMinutes = Math.max(viewDefinitionsExpireAfterAccessMinutes / 4, 1);
+		viewDefinitionsPurgeExecutor = Executors.newSingleThreadScheduledExecutor(CustomizableThreadFactory.builder()
+				.setDaemon(true)
+				.setThreadNamePrefix(ViewsRepository.class.getName() + "-purgeViewDefinitions")
+				.build());
+		viewDefinitionsPurgeExecutor.scheduleAtFixedRate(
+				this::purgeExpiredViewDefinitionsNoFail, // command, don't fail because on failure the task won't be re-scheduled
+				purgeRateInMinutes, // initialDelay
+				purgeRateInMinutes, // period
+				TimeUnit.MINUTES // timeUnit
+		);
+
+		logger.info("Using view definitions store: {} (expireAfterAccessMinutes={})", viewDefinitionsStore.getClass().getSimpleName(), viewDefinitionsExpireAfterAccessMinutes);
+	}
+
+	private void purgeExpiredViewDefinitionsNoFail()
+	{
+		try
+		{
+			final Set<String> expiredViewIds = viewDefinitionsStore.removeExpired(viewDefinitionsExpireAfterAccessMinutes);
+			SqlViewSelectionToDeleteHelper.scheduleDeleteSelections(expiredViewIds.stream()
+					.map(viewId -> ViewId.ofViewIdString(viewId).getViewId())
+					.collect(ImmutableSet.toImmutableSet()));
+			logger.debug("Purged {} expired view definitions", expiredViewIds.size());
+		}
+		catch (final Throwable ex)
+		{
+			logger.warn("Failed purging expired view definitions. Ignored.", ex);
+		}
+	}
+
 	private void truncateTempTablesIfAllowed()
 	{
-		if (truncateSelectionOnStartUp)
+		if (viewDefinitionsStore != null)
+		{
+			// the selections might be used by views which are rehydrated on other nodes
+			logger.info("Skip truncating selection tables on startup because the view definitions are shared");
+		}
+		else if (truncateSelectionOnStartUp)
 		{
 			truncateTable(I_T_WEBUI_ViewSelection.Table_Name);
 			truncateTable(I_T_WEBUI_ViewSelectionLine.Table_Name);
@@ -216,9 +317,14 @@ public class ViewsRepository implements IViewsRepository
 		return defaultViewsIndexStorage;
 	}
 
+	private Stream<IViewsIndexStorage> streamAllViewsStorages()
+	{
+		return Streams.concat(viewsIndexStorages.values().stream(), Stream.of(defaultViewsIndexStorage));
+	}
+
 	private Stream<IView> streamAllViews()
 	{
-		return Streams.concat(viewsIndexStorages.values().stream(), Stream.of(defaultViewsIndexStorage))
+		return streamAllViewsStorages()
 				.flatMap(IViewsIndexStorage::streamAllViews);
 	}
 
@@ -265,7 +371,14 @@ public class ViewsRepository implements IViewsRepository
 					.setParameter("factory", factory.toString());
 		}
 
-		getViewsStorageFor(view.getViewId()).put(view);
+		if (factory == defaultFactory && isDefaultViewsStorage(view.getViewId()))
+		{
+			putAndSaveDefinitionIfPossible(view, ViewDefinition.ofCreateViewRequestOrNull(request));
+		}
+		else
+		{
+			getViewsStorageFor(view.getViewId()).put(view);
+		}
 		logger.trace("Created view {}", view);
 
 		return view;
@@ -296,7 +409,15 @@ public class ViewsRepository implements IViewsRepository
 		// NOTE: avoid adding if the factory returned the same view.
 		if (view != newView)
 		{
-			getViewsStorageFor(newView.getViewId()).put(newView);
+			if (factory == defaultFactory && isDefaultViewsStorage(newView.getViewId()) && defaultViewsIndexStorage.isDetachable(viewId))
+			{
+				final ViewDefinition viewDefinition = viewDefinitionsStore.getByIdOrNull(viewId);
+				putAndSaveDefinitionIfPossible(newView, viewDefinition != null ? viewDefinition.withViewIdAndFilters(newView.getViewId(), jsonRequest.getFilters()) : null);
+			}
+			else
+			{
+				getViewsStorageFor(newView.getViewId()).put(newView);
+			}
 			logger.trace("Created filtered view {}", newView);
 		}
 		else
@@ -308,6 +429,94 @@ public class ViewsRepository implements IViewsRepository
 		return newView;
 	}
 
+	private boolean isDefaultViewsStorage(final ViewId viewId)
+	{
+		return getViewsStorageFor(viewId) == defaultViewsIndexStorage;
+	}
+
+	private void putAndSaveDefinitionIfPossible(final IView view, final ViewDefinition viewDefinition)
+	{
+		if (viewDefinitionsStore == null || viewDefinition == null || !(view instanceof DefaultView))
+		{
+			defaultViewsIndexStorage.put(view);
+			return;
+		}
+
+		// Evaluate the default selection before sharing the definition, so the other nodes can always reuse it (see rehydrateViewOrNull)
+		view.size();
+
+		viewDefinitionsStore.save(viewDefinition);
+		defaultViewsIndexStorage.putDetachable(view);
+	}
+
+	/**
+	 * Creates the view again, on this node, from its shared definition.
+	 * The existing default selection is reused, because it's complete as soon as the definition was saved.
+	 * It's created again, under the same UUID, only if it does not exist anymore.
+	 *
+	 * @return rehydrated view or <code>null</code> if there is no definition for given viewId
+	 */
+	private IView rehydrateViewOrNull(final ViewId viewId)
+	{
+		if (viewDefinitionsStore == null || !isDefaultViewsStorage(viewId))
+		{
+			return null;
+		}
+
+		final Lock lock = rehydrateLocks.get(viewId);
+		lock.lock();
+		try
+		{
+			// check again, maybe it was rehydrated in meantime
+			final IView existingView = defaultViewsIndexStorage.getByIdOrNull(viewId);
+			if (existingView != null)
+			{
+				return existingView;
+			}
+
+			final ViewDefinition viewDefinition = viewDefinitionsStore.getByIdOrNull(viewId);
+			if (viewDefinition == null)
+			{
+				return null;
+			}
+
+			final CreateViewRequest request = viewDefinition.toCreateViewRequest();
+			final IViewFactory factory = getFactory(viewId.getWindowId(), request.getViewType());
+			if (factory != defaultFactory)
+			{
+				logger.warn("Cannot rehydrate {} because its factory is not the default one but {}", viewId, factory);
+				return null;
+			}
+
+			final IView view = factory.createView(request);
+			((DefaultView)view).reuseExistingDefaultSelection();
+			defaultViewsIndexStorage.putDetachable(view);
+			recentlyTouchedViewIds.put(viewId, Boolean.TRUE);
+			logger.debug("Rehydrated view {} from {}", view, viewDefinition);
+
+			return view;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void touchViewDefinitionIfNeeded(final ViewId viewId)
+	{
+		if (viewDefinitionsStore == null || !defaultViewsIndexStorage.isDetachable(viewId))
+		{
+			return;
+		}
+		if (recentlyTouchedViewIds.getIfPresent(viewId) != null)
+		{
+			return;
+		}
+
+		recentlyTouchedViewIds.put(viewId, Boolean.TRUE);
+		viewDefinitionsStore.touch(viewId);
+	}
+
 	@Override
 	public IView deleteStickyFilter(final ViewId viewId, final String filterId)
 	{
@@ -360,7 +569,16 @@ public class ViewsRepository implements IViewsRepository
 	@Override
 	public IView getViewIfExists(final ViewId viewId)
 	{
-		final IView view = getViewsStorageFor(viewId).getByIdOrNull(viewId);
+		IView view = getViewsStorageFor(viewId).getByIdOrNull(viewId);
+		if (view == null)
+		{
+			view = rehydrateViewOrNull(viewId);
+		}
+		else
+		{
+			touchViewDefinitionIfNeeded(viewId);
+		}
+
 		if (view == null)
 		{
 			throw new EntityNotFoundException("No view found for viewId=" + viewId);
@@ -375,6 +593,10 @@ public class ViewsRepository implements IViewsRepository
 	public void deleteView(final ViewId viewId)
 	{
 		getViewsStorageFor(viewId).removeById(viewId);
+		if (viewDefinitionsStore != null && isDefaultViewsStorage(viewId))
+		{
+			viewDefinitionsStore.removeById(viewId);
+		}
 		logger.trace("Removed view {}", viewId);
 	}
 
@@ -395,13 +617,35 @@ public class ViewsRepository implements IViewsRepository
 			return;
 		}
 
+		final Set<String> tableNames = recordRefs.stream()
+				.map(TableRecordReference::getTableName)
+				.collect(ImmutableSet.toImmutableSet());
+
 		final MutableInt notifiedCount = MutableInt.zero();
-		streamAllViews()
+		streamAllViewsStorages()
+				.flatMap(viewsIndexStorage -> viewsIndexStorage.streamViewsAffectedByTableNames(tableNames))
 				.forEach(view -> {
 					view.notifyRecordsChanged(recordRefs);
 					notifiedCount.incrementAndGet();
 				});
 
+		final long viewsCount = streamAllViewsStorages().mapToLong(IViewsIndexStorage::size).sum();
+		notifyRecordsChangedDispatchedCount.addAndGet(notifiedCount.getValue());
+		notifyRecordsChangedSkippedCount.addAndGet(Math.max(viewsCount - notifiedCount.getValue(), 0));
+
 		logger.debug("Notified {} views about changed records: {}", notifiedCount, recordRefs);
 	}
+
+	/**
+	 * @return statistics about how many views were notified (dispatched) or not (skipped) when records were changed
+	 */
+	@Override
+	public Map<String, Object> getNotifyRecordsChangedStats()
+	{
+		return ImmutableMap.<String, Object> builder()
+				.put("dispatched", notifyRecordsChangedDispatchedCount.get())
+				.put("skipped", notifyRecordsChangedSkippedCount.get())
+				.put("viewsCount", streamAllViewsStorages().mapToLong(IViewsIndexStorage::size).sum())
+				.build();
+	}
 }
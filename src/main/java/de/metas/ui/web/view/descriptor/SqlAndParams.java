@@ -56,6 +56,16 @@ public final class SqlAndParams
 	}
 
 	public static SqlAndParams and(@NonNull final Collection<SqlAndParams> sqlAndParamsCollection)
+	{
+		return join(sqlAndParamsCollection, " AND ");
+	}
+
+	public static SqlAndParams or(@NonNull final Collection<SqlAndParams> sqlAndParamsCollection)
+	{
+		return join(sqlAndParamsCollection, " OR ");
+	}
+
+	private static SqlAndParams join(@NonNull final Collection<SqlAndParams> sqlAndParamsCollection, final String sqlOperator)
 	{
 		Check.assumeNotEmpty(sqlAndParamsCollection, "sqlAndParamsCollection is not empty");
 		if (sqlAndParamsCollection.size() == 1)
@@ -68,7 +78,7 @@ public final class SqlAndParams
 		sqlAndParamsCollection.forEach(sqlAndParams -> {
 			if (sql.length() > 0)
 			{
-				sql.append(" AND ");
+				sql.append(sqlOperator);
 			}
 			sql.append("(").append(sqlAndParams.getSql()).append(")");
 
@@ -31,6 +31,7 @@ import de.metas.ui.web.view.DefaultViewInvalidationAdvisor;
 import de.metas.ui.web.view.IViewInvalidationAdvisor;
 import de.metas.ui.web.view.ViewEvaluationCtx;
 import de.metas.ui.web.view.ViewRowCustomizer;
+import de.metas.ui.web.view.ViewRowFieldsSchema;
 import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding.SqlViewRowFieldLoader;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.descriptor.sql.SqlEntityBinding;
@@ -73,6 +74,7 @@ public class SqlViewBinding implements SqlEntityBinding
 	private final SqlViewSelectData sqlViewSelect;
 	private final IStringExpression sqlWhereClause;
 	private final List<SqlViewRowFieldLoader> rowFieldLoaders;
+	private final ViewRowFieldsSchema rowFieldsSchema;
 	private final ViewRowCustomizer rowCustomizer;
 
 	private final ImmutableList<DocumentQueryOrderBy> defaultOrderBys;
@@ -135,6 +137,7 @@ public class SqlViewBinding implements SqlEntityBinding
 			}
 		}
 		this.rowFieldLoaders = ImmutableList.copyOf(rowFieldLoaders);
+		this.rowFieldsSchema = ViewRowFieldsSchema.of(_fieldsByFieldName.keySet());
 		this.rowCustomizer = builder.getRowCustomizer();
 
 		orderByFieldNameAliasMap = builder.buildOrderByFieldNameAliasMap();
@@ -212,6 +215,12 @@ public class SqlViewBinding implements SqlEntityBinding
 		return rowFieldLoaders;
 	}
 
+	/** @return field name to slot mapping which is shared by all rows of this binding */
+	public ViewRowFieldsSchema getRowFieldsSchema()
+	{
+		return rowFieldsSchema;
+	}
+
 	public ViewRowCustomizer getRowCustomizer()
 	{
 		return rowCustomizer;
@@ -312,13 +312,12 @@ public final class SqlViewKeyColumnNamesMap
 		}
 		else
 		{
-
 			final List<SqlAndParams> sqls = rowIds.toSet()
 					.stream()
 					.map(rowId -> getSqlFilterByRowId(rowId, sqlColumnPrefix, useKeyColumnName, embedSqlParams))
 					.collect(ImmutableList.toImmutableList());
 
-			return SqlAndParams.and(sqls);
+			return SqlAndParams.or(sqls);
 		}
 	}
 
@@ -333,8 +332,20 @@ public final class SqlViewKeyColumnNamesMap
 		extractComposedKey(rowId)
 				.forEach((keyColumnName, value) -> {
 					final String selectionColumnName = useKeyColumnName ? keyColumnName : getWebuiSelectionColumnNameForKeyColumnName(keyColumnName);
-					sql.append(sqlColumnPrefix != null ? sqlColumnPrefix : "").append(selectionColumnName).append("=?");
-					sqlParams.add(value);
+					if (sql.length() > 0)
+					{
+						sql.append(" AND ");
+					}
+					sql.append(sqlColumnPrefix != null ? sqlColumnPrefix : "").append(selectionColumnName).append("=");
+					if (embedSqlParams)
+					{
+						sql.append(DB.TO_SQL(value));
+					}
+					else
+					{
+						sql.append("?");
+						sqlParams.add(value);
+					}
 				});
 
 		return SqlAndParams.of(sql.toString(), sqlParams);
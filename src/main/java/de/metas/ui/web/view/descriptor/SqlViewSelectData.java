@@ -61,8 +61,10 @@ public class SqlViewSelectData
 
 	private final SqlViewKeyColumnNamesMap keyColumnNamesMap;
 	private final IStringExpression _sqlSelectByPage;
+	private final IStringExpression _sqlSelectPageAfterLine;
 	private final IStringExpression _sqlSelectRowIdsByPage;
 	private final IStringExpression _sqlSelectById;
+	private final IStringExpression _sqlSelectByIds;
 	private final IStringExpression _sqlSelectLines;
 
 	@Builder
@@ -84,6 +86,14 @@ public class SqlViewSelectData
 				.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
 				.build();
 
+		_sqlSelectPageAfterLine = sqlSelect.toComposer()
+				.append("\n WHERE ")
+				// NOTE: already filtered by UUID
+				.append("\n " + COLUMNNAME_Paging_SeqNo_OneBased + " > ?")
+				.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
+				.append("\n LIMIT ?")
+				.build();
+
 		_sqlSelectRowIdsByPage = buildSqlSelect(
 				sqlTableName,
 				sqlTableAlias,
@@ -109,6 +119,9 @@ public class SqlViewSelectData
 						.collect(Collectors.joining("\nAND ")))
 				.build();
 
+		// NOTE: the WHERE clause (filter by rowIds) is appended when the SQL is built, see selectByIdsBuilder
+		_sqlSelectByIds = sqlSelect;
+
 		if (groupingBinding != null)
 		{
 			this._sqlSelectLines = buildSqlSelectLines(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields);
@@ -124,6 +137,11 @@ public class SqlViewSelectData
 		return _sqlSelectByPage;
 	}
 
+	private IStringExpression getSqlSelectPageAfterLine()
+	{
+		return _sqlSelectPageAfterLine;
+	}
+
 	private IStringExpression getSqlSelectRowIdsByPage()
 	{
 		return _sqlSelectRowIdsByPage;
@@ -134,6 +152,11 @@ public class SqlViewSelectData
 		return _sqlSelectById;
 	}
 
+	private IStringExpression getSqlSelectByIds()
+	{
+		return _sqlSelectByIds;
+	}
+
 	private IStringExpression getSqlSelectLines()
 	{
 		Check.assumeNotNull(_sqlSelectLines, "sqlSelectLines is not null (grouping not supported)");
@@ -394,6 +417,28 @@ public class SqlViewSelectData
 		return SqlAndParams.of(sql, viewSelectionId, firstSeqNo, lastSeqNo);
 	}
 
+	/**
+	 * Selects the page which starts right after given selection line (keyset paging).
+	 * <p>
+	 * SQL Parameters: 1=UUID, 2=afterLine, 3=pageLength
+	 */
+	@Builder(builderMethodName = "selectPageAfterLine", builderClassName = "SelectPageAfterLineBuilder")
+	private SqlAndParams selectPageAfterLineBuilder(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewId viewId,
+			final int afterLine,
+			final int pageLength)
+	{
+		Check.assume(afterLine >= 0, "afterLine >= 0 but it was {}", afterLine);
+		Check.assume(pageLength > 0, "pageLength > 0 but it was {}", pageLength);
+
+		final String viewSelectionId = viewId.getViewId();
+
+		final IStringExpression sqlSelectPageAfterLine = getSqlSelectPageAfterLine();
+		final String sql = sqlSelectPageAfterLine.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
+		return SqlAndParams.of(sql, viewSelectionId, afterLine, pageLength);
+	}
+
 	@Builder(builderMethodName = "selectRowIdsByPage", builderClassName = "SelectRowIdsByPageBuilder")
 	private SqlAndParams selectRowIdsByIdPageBuilder(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
@@ -425,6 +470,33 @@ public class SqlViewSelectData
 		return SqlAndParams.of(sql, viewSelectionId, rowId.toInt());
 	}
 
+	@Builder(builderMethodName = "selectByIds", builderClassName = "SelectByIdsBuilder")
+	private SqlAndParams selectByIdsBuilder(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewId viewId,
+			@NonNull final DocumentIdsSelection rowIds)
+	{
+		Check.assume(!rowIds.isEmpty() && !rowIds.isAll(), "rowIds shall be a non empty list of IDs but it was {}", rowIds);
+
+		final List<Object> sqlParams = new ArrayList<>();
+		sqlParams.add(viewId.getViewId());
+
+		final SqlAndParams sqlFilterByRowIds = keyColumnNamesMap.prepareSqlFilterByRowIds()
+				.sqlColumnPrefix(COLUMNNAME_Paging_Prefix)
+				.rowIds(rowIds)
+				.build();
+		final String sql = new StringBuilder()
+				.append(getSqlSelectByIds().evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail))
+				// NOTE: already filtered by UUID
+				.append("\n WHERE ")
+				.append("\n").append(sqlFilterByRowIds.getSql())
+				.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
+				.toString();
+		sqlParams.addAll(sqlFilterByRowIds.getSqlParams());
+
+		return SqlAndParams.of(sql, sqlParams);
+	}
+
 	@Builder(builderMethodName = "selectIncludedLines", builderClassName = "SelectIncludedLinesBuilder")
 	private SqlAndParams selectIncludedLinesBuilder(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
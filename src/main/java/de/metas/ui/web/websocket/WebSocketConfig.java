@@ -3,6 +3,7 @@ package de.metas.ui.web.websocket;
 import java.util.List;
 import java.util.Map;
 
+import org.adempiere.ad.security.UserRolePermissionsKey;
 import org.adempiere.util.Check;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,11 +19,13 @@ import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.support.ChannelInterceptorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.AbstractWebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import org.springframework.web.socket.messaging.SessionSubscribeEvent;
@@ -30,10 +33,14 @@ import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 
 import com.google.common.base.Preconditions;
+import com.google.common.escape.Escaper;
+import com.google.common.net.UrlEscapers;
 
 import de.metas.logging.LogManager;
+import de.metas.ui.web.process.ProcessId;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.WindowId;
 import lombok.NonNull;
 
@@ -65,12 +72,16 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 {
 	private static final Logger logger = LogManager.getLogger(WebSocketConfig.class);
 
+	@Autowired
+	private WebsocketOutboundDispatcher websocketOutboundDispatcher;
+
 	private static final String ENDPOINT = "/stomp";
 	private static final String TOPIC_UserSession = "/userSession";
 	private static final String TOPIC_Notifications = "/notifications";
 	private static final String TOPIC_View = "/view";
 	private static final String TOPIC_Document = "/document";
 	private static final String TOPIC_Board = "/board";
+	private static final String TOPIC_Process = "/process";
 	public static final String TOPIC_Dashboard = "/dashboard";
 	public static final String TOPIC_Devices = "/devices";
 
@@ -95,6 +106,32 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 		return TOPIC_Document + "/" + windowId.toJson() + "/" + documentId.toJson();
 	}
 
+	/**
+	 * The references are loaded for given permissions and are published in given language, so the topic is specific to both.
+	 */
+	public static final String buildDocumentReferencesTopicName(
+			@NonNull final DocumentPath documentPath,
+			@NonNull final UserRolePermissionsKey permissionsKey,
+			@NonNull final String adLanguage)
+	{
+		final StringBuilder topicName = new StringBuilder(buildDocumentTopicName(documentPath.getWindowId(), documentPath.getDocumentId()));
+		if (!documentPath.isRootDocument())
+		{
+			topicName.append("/").append(documentPath.getDetailId().toJson())
+					.append("/").append(documentPath.getSingleRowId().toJson());
+		}
+		final Escaper escaper = UrlEscapers.urlPathSegmentEscaper();
+		return topicName.append("/references")
+				.append("/").append(escaper.escape(permissionsKey.toPermissionsKeyString()))
+				.append("/").append(escaper.escape(adLanguage))
+				.toString();
+	}
+
+	public static final String buildProcessInstanceTopicName(@NonNull final ProcessId processId, @NonNull final DocumentId pinstanceId)
+	{
+		return TOPIC_Process + "/" + processId.toJson() + "/" + pinstanceId.toJson();
+	}
+
 	public static final String buildBoardTopicName(final int boardId)
 	{
 		Preconditions.checkArgument(boardId > 0);
@@ -123,6 +160,7 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 				TOPIC_View,
 				TOPIC_Document,
 				TOPIC_Board,
+				TOPIC_Process,
 				TOPIC_Dashboard,
 				TOPIC_Devices);
 
@@ -134,13 +172,11 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 	public void configureClientOutboundChannel(final ChannelRegistration registration)
 	{
 		//
-		// IMPORTANT: make sure we are using only one thread for sending outbound messages.
-		// If not, it might be that the messages will not be sent in the right order,
-		// and that's important for things like WS notifications API.
+		// IMPORTANT: make sure the outbound messages of a given websocket session are sent in the same order they were published.
+		// If not, the frontend might get them in the wrong order, and that's important for things like WS notifications API.
 		// ( thanks to http://stackoverflow.com/questions/29689838/sockjs-receive-stomp-messages-from-spring-websocket-out-of-order )
-		registration.taskExecutor()
-				.corePoolSize(1)
-				.maxPoolSize(1);
+		// That's why we are not using a plain thread pool but we dispatch to single threaded stripes, by session.
+		registration.taskExecutor(new StripedOutboundTaskExecutor(websocketOutboundDispatcher));
 	}
 
 	@Override
@@ -153,6 +189,13 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 		// see: configureClientOutboundChannel().
 	}
 
+	@Override
+	public void configureWebSocketTransport(final WebSocketTransportRegistration registration)
+	{
+		// keep track of the open websocket sessions, so the outbound dispatcher can close the ones which missed messages
+		registration.addDecoratorFactory(websocketOutboundDispatcher::decorateWebSocketHandler);
+	}
+
 	@Override
 	public boolean configureMessageConverters(final List<MessageConverter> messageConverters)
 	{
@@ -160,6 +203,36 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 		return true;
 	}
 
+	/**
+	 * Task executor which forwards all tasks to {@link WebsocketOutboundDispatcher}.
+	 * <p>
+	 * NOTE: we have to extend {@link ThreadPoolTaskExecutor} because that's what {@link ChannelRegistration} accepts.
+	 * The underlying pool is initialized but never used.
+	 */
+	private static final class StripedOutboundTaskExecutor extends ThreadPoolTaskExecutor
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final transient WebsocketOutboundDispatcher dispatcher;
+
+		private StripedOutboundTaskExecutor(@NonNull final WebsocketOutboundDispatcher dispatcher)
+		{
+			this.dispatcher = dispatcher;
+		}
+
+		@Override
+		public void execute(final Runnable task)
+		{
+			dispatcher.dispatch(task);
+		}
+
+		@Override
+		public void execute(final Runnable task, final long startTimeout)
+		{
+			dispatcher.dispatch(task);
+		}
+	}
+
 	private static final String extractSimpDestination(final AbstractSubProtocolEvent event)
 	{
 		return extractSimpHeaderAsString(event, "simpDestination");
@@ -0,0 +1,296 @@
+package de.metas.ui.web.websocket;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.logging.LogManager;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Dispatches the outbound websocket messages to a striped thread pool.
+ * <p>
+ * All messages for the same websocket session (or destination, if the session is not known) are executed by the same single threaded stripe,
+ * so they are sent in the same order they were published. Messages for different sessions are sent in parallel.
+ * <p>
+ * Each stripe has a bounded queue. If the queue is full, the publisher is blocked until there is room again (but not more than {@link #offerTimeoutMillis}).
+ * If there is still no room, the message is dropped and, because its websocket session missed a message, that session is closed (see {@link #onMessageDropped(Runnable)}).
+ * The frontend reconnects and loads again everything it is displaying, so it's not left with stale data.
+ */
+@Component
+public class WebsocketOutboundDispatcher
+{
+	private static final Logger logger = LogManager.getLogger(WebsocketOutboundDispatcher.class);
+
+	private final int queueCapacityPerStripe;
+	private final long offerTimeoutMillis;
+	private final ImmutableList<Stripe> stripes;
+
+	/** open websocket sessions, indexed by session ID (which is also the simp session ID of the messages) */
+	private final ConcurrentHashMap<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+	private final AtomicLong closedSessionsCount = new AtomicLong();
+
+	public WebsocketOutboundDispatcher(
+			@Value("${metasfresh.webui.websocket.outbound.stripes:8}") final int stripesCount,
+			@Value("${metasfresh.webui.websocket.outbound.queueCapacityPerStripe:5000}") final int queueCapacityPerStripe,
+			@Value("${metasfresh.webui.websocket.outbound.offerTimeoutMillis:5000}") final long offerTimeoutMillis)
+	{
+		this.queueCapacityPerStripe = queueCapacityPerStripe;
+		this.offerTimeoutMillis = offerTimeoutMillis;
+
+		final ImmutableList.Builder<Stripe> stripes = ImmutableList.builder();
+		for (int stripeIndex = 0; stripeIndex < Math.max(stripesCount, 1); stripeIndex++)
+		{
+			stripes.add(new Stripe(stripeIndex, queueCapacityPerStripe, offerTimeoutMillis, this::onMessageDropped));
+		}
+		this.stripes = stripes.build();
+
+		logger.info("Started {} stripes, queueCapacityPerStripe={}, offerTimeoutMillis={}", this.stripes.size(), queueCapacityPerStripe, offerTimeoutMillis);
+	}
+
+	@PreDestroy
+	/* package */ void preDestroy()
+	{
+		stripes.forEach(Stripe::shutdown);
+	}
+
+	/**
+	 * Decorates the websocket handler to keep track of the open websocket sessions, so we can close them when they missed a message.
+	 */
+	public WebSocketHandler decorateWebSocketHandler(@NonNull final WebSocketHandler handler)
+	{
+		return new WebSocketHandlerDecorator(handler)
+		{
+			@Override
+			public void afterConnectionEstablished(final WebSocketSession session) throws Exception
+			{
+				sessions.put(session.getId(), session);
+				super.afterConnectionEstablished(session);
+			}
+
+			@Override
+			public void afterConnectionClosed(final WebSocketSession session, final CloseStatus closeStatus) throws Exception
+			{
+				sessions.remove(session.getId(), session);
+				super.afterConnectionClosed(session, closeStatus);
+			}
+		};
+	}
+
+	public void dispatch(@NonNull final Runnable task)
+	{
+		final String stripeKey = extractStripeKey(task);
+		getStripe(stripeKey).execute(task);
+	}
+
+	private static String extractStripeKey(final Runnable task)
+	{
+		final Message<?> message = extractMessageOrNull(task);
+		if (message == null)
+		{
+			return null;
+		}
+
+		final String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+		if (sessionId != null)
+		{
+			return sessionId;
+		}
+
+		return SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+	}
+
+	private static Message<?> extractMessageOrNull(final Runnable task)
+	{
+		if (!(task instanceof MessageHandlingRunnable))
+		{
+			return null;
+		}
+		return ((MessageHandlingRunnable)task).getMessage();
+	}
+
+	/**
+	 * Called when a message could not be enqueued. The message's websocket session is closed, because its client would silently miss that message.
+	 */
+	private void onMessageDropped(final Runnable task)
+	{
+		final Message<?> message = extractMessageOrNull(task);
+		final String sessionId = message != null ? SimpMessageHeaderAccessor.getSessionId(message.getHeaders()) : null;
+		final WebSocketSession session = sessionId != null ? sessions.remove(sessionId) : null;
+		if (session == null)
+		{
+			logger.warn("Dropped websocket message because the stripe is full. No open websocket session found to close (sessionId={}): {}", sessionId, task);
+			return;
+		}
+
+		logger.warn("Dropped websocket message because the stripe is full. Closing websocket session {} so the client reconnects and reloads: {}", sessionId, task);
+		closedSessionsCount.incrementAndGet();
+		try
+		{
+			session.close(CloseStatus.SESSION_NOT_RELIABLE);
+		}
+		catch (final IOException | RuntimeException ex)
+		{
+			logger.warn("Failed closing websocket session {}. Ignored.", sessionId, ex);
+		}
+	}
+
+	private Stripe getStripe(final String stripeKey)
+	{
+		if (stripeKey == null)
+		{
+			return stripes.get(0);
+		}
+
+		final int stripeIndex = (stripeKey.hashCode() & Integer.MAX_VALUE) % stripes.size();
+		return stripes.get(stripeIndex);
+	}
+
+	public ImmutableMap<String, Object> getStats()
+	{
+		final ImmutableMap.Builder<String, Object> stats = ImmutableMap.builder();
+		stats.put("stripesCount", stripes.size());
+		stats.put("queueCapacityPerStripe", queueCapacityPerStripe);
+		stats.put("offerTimeoutMillis", offerTimeoutMillis);
+		stats.put("openSessions", sessions.size());
+		stats.put("closedSessions", closedSessionsCount.get());
+		stats.put("stripes", stripes.stream()
+				.map(Stripe::getStats)
+				.collect(ImmutableList.toImmutableList()));
+		return stats.build();
+	}
+
+	private static final class Stripe
+	{
+		private final int stripeIndex;
+		private final ThreadPoolExecutor executor;
+		private final long offerTimeoutMillis;
+		private final Consumer<Runnable> droppedTaskHandler;
+
+		private final AtomicLong submittedCount = new AtomicLong();
+		private final AtomicLong blockedCount = new AtomicLong();
+		private final AtomicLong droppedCount = new AtomicLong();
+		private final AtomicInteger maxQueueSize = new AtomicInteger();
+
+		public Stripe(final int stripeIndex, final int queueCapacity, final long offerTimeoutMillis, @NonNull final Consumer<Runnable> droppedTaskHandler)
+		{
+			this.stripeIndex = stripeIndex;
+			this.offerTimeoutMillis = offerTimeoutMillis;
+			this.droppedTaskHandler = droppedTaskHandler;
+
+			final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("websocket-outbound-" + stripeIndex + "-");
+			threadFactory.setDaemon(true);
+
+			executor = new ThreadPoolExecutor(
+					1, // corePoolSize
+					1, // maxPoolSize
+					0, TimeUnit.MILLISECONDS, // keepAlive
+					new LinkedBlockingQueue<>(queueCapacity),
+					threadFactory,
+					(task, executor) -> waitAndEnqueue(task, executor.getQueue()));
+		}
+
+		public void execute(final Runnable task)
+		{
+			submittedCount.incrementAndGet();
+			executor.execute(task);
+
+			final int queueSize = executor.getQueue().size();
+			maxQueueSize.accumulateAndGet(queueSize, Math::max);
+		}
+
+		/**
+		 * Called when the stripe's queue is full: wait until there is room in the queue.
+		 * If there is still no room after {@link #offerTimeoutMillis}, the task is dropped and handed to {@link #droppedTaskHandler}.
+		 * <p>
+		 * NOTE: we are not running the task in caller's thread because that would break the ordering.
+		 */
+		private void waitAndEnqueue(final Runnable task, final BlockingQueue<Runnable> queue)
+		{
+			if (executor.isShutdown())
+			{
+				throw new RejectedExecutionException("Stripe " + stripeIndex + " was shut down");
+			}
+
+			blockedCount.incrementAndGet();
+			try
+			{
+				if (queue.offer(task, offerTimeoutMillis, TimeUnit.MILLISECONDS))
+				{
+					return;
+				}
+			}
+			catch (final InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+
+			droppedCount.incrementAndGet();
+			droppedTaskHandler.accept(task);
+		}
+
+		public void shutdown()
+		{
+			executor.shutdownNow();
+		}
+
+		public ImmutableMap<String, Object> getStats()
+		{
+			return ImmutableMap.<String, Object> builder()
+					.put("stripe", stripeIndex)
+					.put("submitted", submittedCount.get())
+					.put("completed", executor.getCompletedTaskCount())
+					.put("queueSize", executor.getQueue().size())
+					.put("maxQueueSize", maxQueueSize.get())
+					.put("blocked", blockedCount.get())
+					.put("dropped", droppedCount.get())
+					.build();
+		}
+	}
+}
@@ -9,6 +9,7 @@ import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.Services;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -38,6 +39,7 @@ import de.metas.ui.web.process.ProcessRestController;
 import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
 import de.metas.ui.web.process.json.JSONDocumentActionsList;
 import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.websocket.WebSocketConfig;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.DocumentPath;
@@ -47,8 +49,10 @@ import de.metas.ui.web.window.datatypes.json.JSONDocumentChangedEvent;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentLayout;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentPath;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentReference;
+import de.metas.ui.web.window.datatypes.json.JSONDocumentReferencesEvent;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentReferencesGroup;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentReferencesGroupList;
+import de.metas.ui.web.window.datatypes.json.JSONIncludedDocumentsCount;
 import de.metas.ui.web.window.datatypes.json.JSONLookupValuesList;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import de.metas.ui.web.window.datatypes.json.JSONZoomInto;
@@ -65,6 +69,8 @@ import de.metas.ui.web.window.model.DocumentCollection.DocumentPrint;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 import de.metas.ui.web.window.model.DocumentReference;
 import de.metas.ui.web.window.model.DocumentReferencesService;
+import de.metas.ui.web.window.model.DocumentReferencesService.DocumentReferencesResult;
+import de.metas.ui.web.window.model.DocumentReferencesService.LateDocumentReferencesListener;
 import de.metas.ui.web.window.model.IDocumentChangesCollector;
 import de.metas.ui.web.window.model.IDocumentChangesCollector.ReasonSupplier;
 import de.metas.ui.web.window.model.IDocumentFieldView;
@@ -73,6 +79,10 @@ import de.metas.ui.web.window.model.lookup.DocumentZoomIntoInfo;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
 
 /*
  * #%L
@@ -105,6 +115,10 @@ public class WindowRestController
 	private static final String PARAM_Advanced = "advanced";
 	private static final String PARAM_Advanced_DefaultValue = "false";
 	private static final String PARAM_FieldsList = "fields";
+	private static final String PARAM_FirstRow = "firstRow";
+	private static final String PARAM_FirstRow_Description = "first row to fetch (starting from 0)";
+	private static final String PARAM_PageLength = "pageLength";
+	private static final String PARAM_PageLength_Description = "how many rows to fetch; if not set, all rows starting from firstRow are fetched";
 
 	private static final ReasonSupplier REASON_Value_DirectSetFromCommitAPI = () -> "direct set from commit API";
 
@@ -180,52 +194,83 @@ public class WindowRestController
 	}
 
 	@GetMapping("/{windowId}/{documentId}")
-	public List<JSONDocument> getData(
+	public ResponseEntity<List<JSONDocument>> getData(
 			@PathVariable("windowId") final String windowIdStr,
 			@PathVariable("documentId") final String documentIdStr,
 			@RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr,
-			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced)
+			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
+			final WebRequest request)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentPath documentPath = DocumentPath.rootDocumentPath(windowId, documentIdStr);
 		final List<DocumentQueryOrderBy> orderBys = ImmutableList.of();
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, 0, -1, request);
 	}
 
 	@GetMapping("/{windowId}/{documentId}/{tabId}")
-	public List<JSONDocument> getData(
+	public ResponseEntity<List<JSONDocument>> getData(
 			@PathVariable("windowId") final String windowIdStr,
 			@PathVariable("documentId") final String documentIdStr,
 			@PathVariable("tabId") final String tabIdStr,
 			@RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr,
 			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
-			@RequestParam(name = "orderBy", required = false) final String orderBysListStr)
+			@RequestParam(name = "orderBy", required = false) final String orderBysListStr,
+			@RequestParam(name = PARAM_FirstRow, required = false, defaultValue = "0") @ApiParam(PARAM_FirstRow_Description) final int firstRow,
+			@RequestParam(name = PARAM_PageLength, required = false, defaultValue = "-1") @ApiParam(PARAM_PageLength_Description) final int pageLength,
+			final WebRequest request)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentId documentId = DocumentId.of(documentIdStr);
 		final DetailId tabId = DetailId.fromJson(tabIdStr);
 		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentId, tabId);
 		final List<DocumentQueryOrderBy> orderBys = DocumentQueryOrderBy.parseOrderBysList(orderBysListStr);
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, firstRow, pageLength, request);
+	}
+
+	@GetMapping("/{windowId}/{documentId}/{tabId}/count")
+	public JSONIncludedDocumentsCount getIncludedDocumentsCount(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("documentId") final String documentIdStr,
+			@PathVariable("tabId") final String tabIdStr)
+	{
+		userSession.assertLoggedIn();
+
+		final WindowId windowId = WindowId.fromJson(windowIdStr);
+		final DocumentPath rootDocumentPath = DocumentPath.rootDocumentPath(windowId, documentIdStr);
+		final DetailId tabId = DetailId.fromJson(tabIdStr);
+
+		final int count = documentCollection.forRootDocumentReadonly(rootDocumentPath, rootDocument -> rootDocument.getIncludedDocumentsCount(tabId));
+		return JSONIncludedDocumentsCount.builder()
+				.tabId(tabId.toJson())
+				.count(count)
+				.build();
 	}
 
 	@GetMapping("/{windowId}/{documentId}/{tabId}/{rowId}")
-	public List<JSONDocument> getData(
+	public ResponseEntity<List<JSONDocument>> getData(
 			@PathVariable("windowId") final String windowIdStr //
 			, @PathVariable("documentId") final String documentIdStr //
 			, @PathVariable("tabId") final String tabIdStr //
 			, @PathVariable("rowId") final String rowIdStr //
 			, @RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr //
 			, @RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced //
+			, final WebRequest request //
 	)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentIdStr, tabIdStr, rowIdStr);
 		final List<DocumentQueryOrderBy> orderBys = ImmutableList.of();
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, 0, -1, request);
 	}
 
-	private List<JSONDocument> getData(final DocumentPath documentPath, final String fieldsListStr, final boolean advanced, final List<DocumentQueryOrderBy> orderBys)
+	private ResponseEntity<List<JSONDocument>> getData(
+			final DocumentPath documentPath,
+			final String fieldsListStr,
+			final boolean advanced,
+			final List<DocumentQueryOrderBy> orderBys,
+			final int firstRow,
+			final int pageLength,
+			final WebRequest request)
 	{
 		userSession.assertLoggedIn();
 
@@ -234,27 +279,42 @@ public class WindowRestController
 				.setDataFieldsList(fieldsListStr)
 				.build();
 
-		return documentCollection.forRootDocumentReadonly(documentPath, rootDocument -> {
-			List<Document> documents;
-			if (documentPath.isRootDocument())
-			{
-				documents = ImmutableList.of(rootDocument);
-			}
-			else if (documentPath.isAnyIncludedDocument())
-			{
-				documents = rootDocument.getIncludedDocuments(documentPath.getDetailId(), orderBys).toList();
-			}
-			else if (documentPath.isSingleIncludedDocument())
-			{
-				documents = ImmutableList.of(rootDocument.getIncludedDocument(documentPath.getDetailId(), documentPath.getSingleRowId()));
-			}
-			else
+		// NOTE: the ETag is checked (and 304 Not Modified is returned) before loading the included documents and before building the JSON
+		return documentCollection.forRootDocumentReadonly(documentPath, rootDocument -> ETagResponseEntityBuilder.ofETagAware(request, rootDocument)
+				.includeJSONOptionsInETag()
+				.cacheMaxAge(0) // always revalidate, the document might be changed at any time
+				.map(document -> getDocuments(document, documentPath, orderBys, firstRow, pageLength))
+				.jsonOptions(() -> jsonOpts)
+				.toJson(JSONDocument::ofDocumentsList));
+	}
+
+	private static List<Document> getDocuments(
+			final Document rootDocument,
+			final DocumentPath documentPath,
+			final List<DocumentQueryOrderBy> orderBys,
+			final int firstRow,
+			final int pageLength)
+	{
+		if (documentPath.isRootDocument())
+		{
+			return ImmutableList.of(rootDocument);
+		}
+		else if (documentPath.isAnyIncludedDocument())
+		{
+			if (firstRow > 0 || pageLength > 0)
 			{
-				throw new InvalidDocumentPathException(documentPath);
+				return rootDocument.getIncludedDocumentsPage(documentPath.getDetailId(), orderBys, firstRow, pageLength).toList();
 			}
-
-			return JSONDocument.ofDocumentsList(documents, jsonOpts);
-		});
+			return rootDocument.getIncludedDocuments(documentPath.getDetailId(), orderBys).toList();
+		}
+		else if (documentPath.isSingleIncludedDocument())
+		{
+			return ImmutableList.of(rootDocument.getIncludedDocument(documentPath.getDetailId(), documentPath.getSingleRowId()));
+		}
+		else
+		{
+			throw new InvalidDocumentPathException(documentPath);
+		}
 	}
 
 	/**
@@ -673,12 +733,15 @@ public class WindowRestController
 		// Get document references
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentIdStr, tabIdStr, rowIdStr);
-		final List<DocumentReference> documentReferences = documentReferencesService.getDocumentReferences(documentPath);
-
 		final JSONOptions jsonOpts = newJSONOptions().build();
+		final LateDocumentReferencesPublisher lateReferencesPublisher = createLateDocumentReferencesPublisher(documentPath, jsonOpts);
+		final DocumentReferencesResult documentReferences = documentReferencesService.getDocumentReferences(documentPath, lateReferencesPublisher);
+
 		return JSONDocumentReferencesGroup.builder()
 				.caption("References")
-				.references(JSONDocumentReference.ofList(documentReferences, jsonOpts))
+				.references(JSONDocumentReference.ofList(documentReferences.getReferences(), jsonOpts))
+				.complete(documentReferences.isComplete())
+				.websocketEndpoint(documentReferences.isComplete() ? null : lateReferencesPublisher.getTopicName())
 				.build();
 	}
 
@@ -693,21 +756,76 @@ public class WindowRestController
 		// Get document references
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentPath documentPath = DocumentPath.rootDocumentPath(windowId, documentId);
-		final List<DocumentReference> documentReferences = documentReferencesService.getDocumentReferences(documentPath);
-		if (documentReferences.isEmpty())
+		final JSONOptions jsonOpts = newJSONOptions().build();
+		final LateDocumentReferencesPublisher lateReferencesPublisher = createLateDocumentReferencesPublisher(documentPath, jsonOpts);
+		final DocumentReferencesResult documentReferences = documentReferencesService.getDocumentReferences(documentPath, lateReferencesPublisher);
+		if (documentReferences.getReferences().isEmpty() && documentReferences.isComplete())
 		{
 			return JSONDocumentReferencesGroupList.EMPTY;
 		}
 
 		// Organize document references in groups (by top level menu) and return them as JSON
-		final JSONOptions jsonOpts = newJSONOptions().build();
 		final MenuTree menuTree = menuTreeRepository.getMenuTree(userSession.getUserRolePermissionsKey(), jsonOpts.getAD_Language());
 		final String othersMenuCaption = Services.get(IMsgBL.class).translatable("DocumentReferences.group.Others").translate(jsonOpts.getAD_Language());
-		return JSONDocumentReferencesGroupList.of(documentReferences, menuTree, othersMenuCaption, jsonOpts);
+		return JSONDocumentReferencesGroupList.of(
+				documentReferences.getReferences(),
+				documentReferences.isComplete(),
+				lateReferencesPublisher.getTopicName(),
+				menuTree,
+				othersMenuCaption,
+				jsonOpts);
+	}
+
+	private LateDocumentReferencesPublisher createLateDocumentReferencesPublisher(final DocumentPath documentPath, final JSONOptions jsonOpts)
+	{
+		final String topicName = WebSocketConfig.buildDocumentReferencesTopicName(documentPath, userSession.getUserRolePermissionsKey(), jsonOpts.getAD_Language());
+		return new LateDocumentReferencesPublisher(websocketPublisher, topicName, jsonOpts);
+	}
+
+	/**
+	 * Publishes the late loaded document references to websocket.
+	 * <p>
+	 * The topic is specific to the permissions for which the references are loaded and to the language, so each subscriber gets only the references it's allowed to see, in its own language.
+	 * NOTE: two publishers are equal if they publish to the same topic, so re-polling the references is not publishing them more than once.
+	 */
+	@EqualsAndHashCode(of = "topicName")
+	@ToString(of = "topicName")
+	private static final class LateDocumentReferencesPublisher implements LateDocumentReferencesListener
+	{
+		private final DocumentWebsocketPublisher websocketPublisher;
+		@Getter
+		private final String topicName;
+		private final JSONOptions jsonOpts;
+
+		private LateDocumentReferencesPublisher(
+				@NonNull final DocumentWebsocketPublisher websocketPublisher,
+				@NonNull final String topicName,
+				@NonNull final JSONOptions jsonOpts)
+		{
+			this.websocketPublisher = websocketPublisher;
+			this.topicName = topicName;
+			this.jsonOpts = jsonOpts;
+		}
+
+		@Override
+		public void onReferenceLoaded(final DocumentReference reference)
+		{
+			final JSONDocumentReference jsonDocumentReference = JSONDocumentReference.of(reference, jsonOpts);
+			if (jsonDocumentReference != null)
+			{
+				websocketPublisher.publishDocumentReferencesEvent(topicName, JSONDocumentReferencesEvent.referenceLoaded(jsonDocumentReference));
+			}
+		}
+
+		@Override
+		public void onLoadingDone()
+		{
+			websocketPublisher.publishDocumentReferencesEvent(topicName, JSONDocumentReferencesEvent.loadingDone());
+		}
 	}
 
 	@GetMapping("/{windowId}/{documentId}/print/{filename:.*}")
-	public ResponseEntity<byte[]> getDocumentPrint(
+	public ResponseEntity<Resource> getDocumentPrint(
 			@PathVariable("windowId") final String windowIdStr //
 			, @PathVariable("documentId") final String documentIdStr //
 			, @PathVariable("filename") final String filename)
@@ -718,14 +836,17 @@ public class WindowRestController
 		final DocumentPath documentPath = DocumentPath.rootDocumentPath(windowId, documentIdStr);
 
 		final DocumentPrint documentPrint = documentCollection.createDocumentPrint(documentPath);
-		final byte[] reportData = documentPrint.getReportData();
 		final String reportContentType = documentPrint.getReportContentType();
 
 		final HttpHeaders headers = new HttpHeaders();
 		headers.setContentType(MediaType.parseMediaType(reportContentType));
 		headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
 		headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-		final ResponseEntity<byte[]> response = new ResponseEntity<>(reportData, headers, HttpStatus.OK);
+		headers.setContentLength(documentPrint.getReportDataSize());
+
+		// NOTE: don't copy the report data, because it might be backed by a (cached) memory mapped file
+		final Resource reportData = documentPrint.getReportDataAsResource();
+		final ResponseEntity<Resource> response = new ResponseEntity<>(reportData, headers, HttpStatus.OK);
 		return response;
 	}
 
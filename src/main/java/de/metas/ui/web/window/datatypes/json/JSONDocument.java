@@ -3,6 +3,7 @@ package de.metas.ui.web.window.datatypes.json;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -15,12 +16,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.ui.web.websocket.WebSocketConfig;
 import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.model.Document;
 import de.metas.ui.web.window.model.DocumentChanges;
@@ -29,6 +32,7 @@ import de.metas.ui.web.window.model.DocumentStandardAction;
 import de.metas.ui.web.window.model.DocumentValidStatus;
 import de.metas.ui.web.window.model.IDocumentChangesCollector;
 import de.metas.ui.web.window.model.IIncludedDocumentsCollection;
+import de.metas.ui.web.window.model.lookup.LookupDataSource;
 import lombok.ToString;
 
 /*
@@ -67,6 +71,12 @@ import lombok.ToString;
 public final class JSONDocument extends JSONDocumentBase
 {
 	public static final JSONDocument ofDocument(final Document document, final JSONOptions jsonOpts)
+	{
+		final Map<String, LookupValuesList> translatedLookupValuesByFieldName = ImmutableMap.of();
+		return ofDocument(document, jsonOpts, translatedLookupValuesByFieldName);
+	}
+
+	private static final JSONDocument ofDocument(final Document document, final JSONOptions jsonOpts, final Map<String, LookupValuesList> translatedLookupValuesByFieldName)
 	{
 		final JSONDocument jsonDocument = new JSONDocument(document.getDocumentPath());
 
@@ -82,7 +92,10 @@ public final class JSONDocument extends JSONDocumentBase
 			document.getFieldViews()
 					.stream()
 					.filter(jsonOpts.documentFieldFilter())
-					.map(field -> JSONDocumentField.ofDocumentField(field, jsonOpts.getAD_Language()))
+					.map(field -> JSONDocumentField.ofDocumentField(
+							field,
+							jsonOpts.getAD_Language(),
+							translatedLookupValuesByFieldName.getOrDefault(field.getFieldName(), LookupValuesList.EMPTY)))
 					.peek(jsonField -> jsonOpts.getDocumentPermissions().apply(document, jsonField)) // apply permissions
 					.forEach(jsonFields::add);
 
@@ -160,11 +173,54 @@ public final class JSONDocument extends JSONDocumentBase
 	 */
 	public static List<JSONDocument> ofDocumentsList(final Collection<Document> documents, final JSONOptions jsonOpts)
 	{
+		final Map<String, LookupValuesList> translatedLookupValuesByFieldName = retrieveTranslatedLookupValuesByFieldName(documents, jsonOpts);
 		return documents.stream()
-				.map(document -> ofDocument(document, jsonOpts))
+				.map(document -> ofDocument(document, jsonOpts, translatedLookupValuesByFieldName))
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Fetches, using one bulk query per field, the lookup values which are not translated to the requested language,
+	 * so we don't have to fetch them one by one for each document while rendering them.
+	 *
+	 * @return fieldName to translated lookup values
+	 */
+	private static Map<String, LookupValuesList> retrieveTranslatedLookupValuesByFieldName(final Collection<Document> documents, final JSONOptions jsonOpts)
+	{
+		if (documents.size() <= 1)
+		{
+			return ImmutableMap.of();
+		}
+
+		final String adLanguage = jsonOpts.getAD_Language();
+		final Map<String, LookupDataSource> lookupDataSourcesByFieldName = new HashMap<>();
+		final Map<String, Set<Object>> lookupValueIdsByFieldName = new HashMap<>();
+		for (final Document document : documents)
+		{
+			document.getFieldViews()
+					.stream()
+					.filter(jsonOpts.documentFieldFilter())
+					.forEach(field -> {
+						final Object lookupValueId = field.getLookupValueIdToTranslateOrNull(adLanguage);
+						if (lookupValueId == null)
+						{
+							return;
+						}
+
+						final String fieldName = field.getFieldName();
+						lookupDataSourcesByFieldName.putIfAbsent(fieldName, field.getLookupDataSourceOrNull());
+						lookupValueIdsByFieldName.computeIfAbsent(fieldName, k -> new HashSet<>()).add(lookupValueId);
+					});
+		}
+
+		final ImmutableMap.Builder<String, LookupValuesList> translatedLookupValuesByFieldName = ImmutableMap.builder();
+		lookupValueIdsByFieldName.forEach((fieldName, lookupValueIds) -> {
+			final LookupDataSource lookupDataSource = lookupDataSourcesByFieldName.get(fieldName);
+			translatedLookupValuesByFieldName.put(fieldName, lookupDataSource.findByIds(lookupValueIds));
+		});
+		return translatedLookupValuesByFieldName.build();
+	}
+
 	public static List<JSONDocument> ofEvents(final IDocumentChangesCollector documentChangesCollector, final JSONOptions jsonOpts)
 	{
 		final int MAX_SIZE = 100;
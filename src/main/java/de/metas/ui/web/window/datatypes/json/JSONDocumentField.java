@@ -16,6 +16,7 @@ import com.google.common.base.MoreObjects;
 
 import de.metas.ui.web.process.IProcessInstanceParameter;
 import de.metas.ui.web.window.WindowConstants;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
 import de.metas.ui.web.window.datatypes.Password;
 import de.metas.ui.web.window.descriptor.ViewEditorRenderMode;
 import de.metas.ui.web.window.model.DocumentFieldChange;
@@ -60,10 +61,18 @@ import io.swagger.annotations.ApiModel;
 public final class JSONDocumentField implements Serializable
 {
 	public static final JSONDocumentField ofDocumentField(final IDocumentFieldView field, final String adLanguage)
+	{
+		return ofDocumentField(field, adLanguage, LookupValuesList.EMPTY);
+	}
+
+	/**
+	 * @param translatedLookupValues lookup values which were already fetched in given language (see {@link IDocumentFieldView#getValueAsJsonObject(String, LookupValuesList)})
+	 */
+	public static final JSONDocumentField ofDocumentField(final IDocumentFieldView field, final String adLanguage, final LookupValuesList translatedLookupValues)
 	{
 		final String name = field.getFieldName();
 		final JSONLayoutWidgetType jsonWidgetType = JSONLayoutWidgetType.fromNullable(field.getWidgetType());
-		final Object valueJSON = field.getValueAsJsonObject(adLanguage);
+		final Object valueJSON = field.getValueAsJsonObject(adLanguage, translatedLookupValues);
 		final String reason = null; // N/A
 
 		final JSONDocumentField jsonField = new JSONDocumentField(name, jsonWidgetType)
@@ -0,0 +1,77 @@
+package de.metas.ui.web.window.datatypes.json;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Websocket event sent while the references of a document are loaded after the references request was answered.
+ * <p>
+ * It's either about one more loaded reference or about the loading being done.
+ * When the loading is done, the frontend shall fetch the references again, to get the complete list
+ * (that's also covering the references which were loaded before the frontend subscribed to the websocket endpoint).
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+public final class JSONDocumentReferencesEvent
+{
+	public static final JSONDocumentReferencesEvent referenceLoaded(@NonNull final JSONDocumentReference reference)
+	{
+		return new JSONDocumentReferencesEvent(reference, false);
+	}
+
+	public static final JSONDocumentReferencesEvent loadingDone()
+	{
+		return LOADING_DONE;
+	}
+
+	private static final JSONDocumentReferencesEvent LOADING_DONE = new JSONDocumentReferencesEvent(null, true);
+
+	@JsonProperty("reference")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final JSONDocumentReference reference;
+
+	@JsonProperty("loadingDone")
+	private final boolean loadingDone;
+
+	private JSONDocumentReferencesEvent(final JSONDocumentReference reference, final boolean loadingDone)
+	{
+		this.reference = reference;
+		this.loadingDone = loadingDone;
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.omitNullValues()
+				.add("reference", reference)
+				.add("loadingDone", loadingDone)
+				.toString();
+	}
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
@@ -44,6 +45,15 @@ public class JSONDocumentReferencesGroup
 	@JsonProperty("references")
 	private final List<JSONDocumentReference> references;
 
+	/** <code>false</code> if the references are still loading. Set only when this group is returned standalone (i.e. not part of a {@link JSONDocumentReferencesGroupList}) */
+	@JsonProperty("complete")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final Boolean complete;
+
+	@JsonProperty("websocketEndpoint")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final String websocketEndpoint;
+
 	@JsonIgnore
 	private boolean miscGroup;
 
@@ -53,11 +63,15 @@ public class JSONDocumentReferencesGroup
 			@JsonProperty("caption") final String caption //
 			, final boolean isMiscGroup //
 			, @JsonProperty("references") @Singular final List<JSONDocumentReference> references //
+			, @JsonProperty("complete") final Boolean complete //
+			, @JsonProperty("websocketEndpoint") final String websocketEndpoint //
 	)
 	{
 		this.caption = caption;
 		this.miscGroup = isMiscGroup;
 		this.references = references == null || references.isEmpty() ? ImmutableList.of() : ImmutableList.copyOf(references);
+		this.complete = complete;
+		this.websocketEndpoint = websocketEndpoint;
 	}
 
 	@Override
@@ -10,6 +10,7 @@ import java.util.UUID;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
@@ -44,14 +45,20 @@ import de.metas.ui.web.window.model.DocumentReference;
 @JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
 public class JSONDocumentReferencesGroupList
 {
+	/**
+	 * @param complete <code>false</code> if the references are still loading
+	 * @param websocketEndpoint where the references loaded later are published; relevant only if not complete
+	 */
 	public static JSONDocumentReferencesGroupList of( //
 			final Collection<DocumentReference> documentReferences //
+			, final boolean complete //
+			, final String websocketEndpoint //
 			, final MenuTree menuTree //
 			, final String othersMenuCaption //
 			, final JSONOptions jsonOpts //
 	)
 	{
-		if (documentReferences.isEmpty())
+		if (documentReferences.isEmpty() && complete)
 		{
 			return EMPTY;
 		}
@@ -91,10 +98,10 @@ public class JSONDocumentReferencesGroupList
 				.sorted(sorting)
 				.collect(ImmutableList.toImmutableList());
 
-		return new JSONDocumentReferencesGroupList(groups);
+		return new JSONDocumentReferencesGroupList(groups, complete, complete ? null : websocketEndpoint);
 	}
 
-	public static final JSONDocumentReferencesGroupList EMPTY = new JSONDocumentReferencesGroupList(ImmutableList.of());
+	public static final JSONDocumentReferencesGroupList EMPTY = new JSONDocumentReferencesGroupList(ImmutableList.of(), true, null);
 
 	@JsonProperty("groups")
 	private final List<JSONDocumentReferencesGroup> groups;
@@ -104,10 +111,23 @@ public class JSONDocumentReferencesGroupList
 	@Deprecated
 	private final List<JSONDocumentReference> references;
 
+	/** <code>false</code> if the references are still loading; the frontend shall listen on {@link #websocketEndpoint} for the ones loaded later */
+	@JsonProperty("complete")
+	private final boolean complete;
+
+	@JsonProperty("websocketEndpoint")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final String websocketEndpoint;
+
 	@JsonCreator
-	private JSONDocumentReferencesGroupList(@JsonProperty("groups") final List<JSONDocumentReferencesGroup> groups)
+	private JSONDocumentReferencesGroupList(
+			@JsonProperty("groups") final List<JSONDocumentReferencesGroup> groups,
+			@JsonProperty("complete") final boolean complete,
+			@JsonProperty("websocketEndpoint") final String websocketEndpoint)
 	{
 		this.groups = groups == null || groups.isEmpty() ? ImmutableList.of() : ImmutableList.copyOf(groups);
+		this.complete = complete;
+		this.websocketEndpoint = websocketEndpoint;
 
 		references = this.groups.stream()
 				.flatMap(group -> group.getReferences().stream())
@@ -118,7 +138,10 @@ public class JSONDocumentReferencesGroupList
 	public String toString()
 	{
 		return MoreObjects.toStringHelper(this)
+				.omitNullValues()
 				.addValue(groups)
+				.add("complete", complete)
+				.add("websocketEndpoint", websocketEndpoint)
 				.toString();
 	}
 
@@ -1,5 +1,6 @@
 package de.metas.ui.web.window.datatypes.json;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -17,6 +18,7 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.i18n.ILanguageDAO;
@@ -86,6 +88,7 @@ public final class JSONOptions
 	private final NewRecordDescriptorsProvider newRecordDescriptorsProvider;
 
 	private final Supplier<JSONDocumentPermissions> documentPermissionsSupplier;
+	private final Supplier<String> permissionsKeySupplier;
 
 	private JSONOptions(final Builder builder)
 	{
@@ -98,6 +101,7 @@ public final class JSONOptions
 		newRecordDescriptorsProvider = builder.getNewRecordDescriptorsProvider();
 
 		documentPermissionsSupplier = builder.getPermissionsSupplier();
+		permissionsKeySupplier = builder.getPermissionsKeySupplier();
 	}
 
 	@Override
@@ -198,6 +202,26 @@ public final class JSONOptions
 		return documentPermissionsSupplier.get();
 	}
 
+	/**
+	 * @return the options which are affecting the JSON output, to be included in the ETag of the JSON result
+	 */
+	public Map<String, String> toETagAttributes()
+	{
+		final ImmutableMap.Builder<String, String> attributes = ImmutableMap.<String, String> builder()
+				.put("lang", Strings.nullToEmpty(adLanguage))
+				.put("advanced", String.valueOf(showAdvancedFields))
+				.put("fields", Strings.nullToEmpty(dataFieldsListStr))
+				.put("debugColumnNames", String.valueOf(debugShowColumnNamesForCaption));
+
+		final String permissionsKey = permissionsKeySupplier.get();
+		if (permissionsKey != null)
+		{
+			attributes.put("permissions", permissionsKey);
+		}
+
+		return attributes.build();
+	}
+
 	private static final Predicate<DocumentLayoutElementDescriptor> FILTER_DocumentLayoutElementDescriptor_BASIC = new Predicate<DocumentLayoutElementDescriptor>()
 	{
 		@Override
@@ -456,6 +480,17 @@ public final class JSONOptions
 			});
 		}
 
+		private Supplier<String> getPermissionsKeySupplier()
+		{
+			final UserSession userSession = _userSession;
+			if (userSession == null)
+			{
+				return () -> null;
+			}
+
+			return ExtendedMemorizingSupplier.of(() -> userSession.getUserRolePermissionsKey().toPermissionsKeyString());
+		}
+
 		public Builder setShowAdvancedFields(final boolean showAdvancedFields)
 		{
 			this.showAdvancedFields = showAdvancedFields;
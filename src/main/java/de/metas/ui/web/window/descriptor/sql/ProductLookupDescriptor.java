@@ -88,6 +88,7 @@ import lombok.Value;
  * Product lookup.
  *
  * It is searching by product's Value, Name, UPC and bpartner's ProductNo.
+ * If enabled by sysconfig, the matching products are found using the in-memory {@link ProductLookupIndex} and SQL is used only for the remaining filters, ordering and paging.
  *
  * @author metas-dev <dev@metasfresh.com>
  * @task https://github.com/metasfresh/metasfresh/issues/2484
@@ -103,6 +104,12 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 	private static final String SYSCONFIG_ATP_DISPLAY_ONLY_POSITIVE = //
 			"de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor.ATP.DisplayOnlyPositive";
 
+	private static final String SYSCONFIG_INDEX_ENABLED = //
+			"de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor.Index.Enabled";
+
+	/** If the index finds more products than this, we search by SQL */
+	private static final int INDEX_MAX_MATCHES = 1000;
+
 	private static final Optional<String> LookupTableName = Optional.of(I_M_Product.Table_Name);
 	private static final String CONTEXT_LookupTableName = LookupTableName.get();
 
@@ -246,7 +253,19 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 		final StringBuilder sqlWhereClause = new StringBuilder();
 		final SqlParamsCollector sqlWhereClauseParams = SqlParamsCollector.newInstance();
 		appendFilterByIsActive(sqlWhereClause, sqlWhereClauseParams);
-		appendFilterBySearchString(sqlWhereClause, sqlWhereClauseParams, evalCtx, trlAlias);
+		final Set<Integer> indexedProductIds = findProductIdsUsingIndex(evalCtx);
+		if (indexedProductIds == null)
+		{
+			appendFilterBySearchString(sqlWhereClause, sqlWhereClauseParams, evalCtx, trlAlias);
+		}
+		else if (indexedProductIds.isEmpty())
+		{
+			return null;
+		}
+		else
+		{
+			appendFilterByProductIds(sqlWhereClause, indexedProductIds);
+		}
 		appendFilterById(sqlWhereClause, sqlWhereClauseParams, evalCtx);
 		appendFilterByBPartner(sqlWhereClause, sqlWhereClauseParams, evalCtx);
 		appendFilterByPriceList(sqlWhereClause, sqlWhereClauseParams, evalCtx);
@@ -315,6 +334,34 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 				.append(")");
 	}
 
+	/**
+	 * @return IDs of the products matching the search string, using {@link ProductLookupIndex}; <code>null</code> if the index is not enabled or it cannot tell
+	 */
+	private Set<Integer> findProductIdsUsingIndex(final LookupDataSourceContext evalCtx)
+	{
+		final String evalCtxFilter = evalCtx.getFilter();
+		if (evalCtxFilter == LookupDataSourceContext.FILTER_Any || Check.isEmpty(evalCtxFilter, true))
+		{
+			return null;
+		}
+		if (!isIndexActivatedInSysConfig())
+		{
+			return null;
+		}
+
+		return ProductLookupIndex.instance.findProductIds(
+				evalCtx.getAD_Language(),
+				param_AD_Org_ID.getValueAsInteger(evalCtx),
+				param_C_BPartner_ID.getValueAsInteger(evalCtx),
+				evalCtxFilter,
+				INDEX_MAX_MATCHES);
+	}
+
+	private static void appendFilterByProductIds(final StringBuilder sqlWhereClause, final Set<Integer> productIds)
+	{
+		sqlWhereClause.append("\n AND p.").append(I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID).append(" IN ").append(DB.buildSqlList(productIds));
+	}
+
 	private static void appendFilterById(final StringBuilder sqlWhereClause, final SqlParamsCollector sqlWhereClauseParams, final LookupDataSourceContext evalCtx)
 	{
 		final Integer idToFilter = evalCtx.getIdToFilterAsInt(-1);
@@ -524,6 +571,17 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 		return stockQueryActivated;
 	}
 
+	private boolean isIndexActivatedInSysConfig()
+	{
+		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+		final int clientId = Env.getAD_Client_ID(Env.getCtx());
+		final int orgId = Env.getAD_Org_ID(Env.getCtx());
+
+		return sysConfigBL.getBooleanValue(
+				SYSCONFIG_INDEX_ENABLED,
+				false, clientId, orgId);
+	}
+
 	private void addStorageAttributeKeysToQueryBuilder(@NonNull final AvailableToPromiseQueryBuilder stockQueryBuilder)
 	{
 		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
@@ -641,7 +699,7 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 		private final ImmutableAttributeSet attributes = ImmutableAttributeSet.EMPTY;
 	}
 
-	private static interface I_M_Product_Lookup_V
+	/* package */ static interface I_M_Product_Lookup_V
 	{
 		String Table_Name = "M_Product_Lookup_V";
 
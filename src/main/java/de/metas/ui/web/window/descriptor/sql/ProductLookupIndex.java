@@ -0,0 +1,451 @@
+package de.metas.ui.web.window.descriptor.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.adempiere.ad.dao.cache.CacheInvalidateMultiRequest;
+import org.adempiere.ad.dao.cache.CacheInvalidateRequest;
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.exceptions.DBException;
+import org.adempiere.util.Services;
+import org.compiere.util.CacheMgt;
+import org.compiere.util.DB;
+import org.slf4j.Logger;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+
+import de.metas.i18n.Language;
+import de.metas.logging.LogManager;
+import de.metas.product.model.I_M_Product;
+import de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor.I_M_Product_Lookup_V;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In-memory n-gram index of the product lookup's searchable columns (Value, Name, UPC, BPartnerProductNo and BPartnerProductName),
+ * one per language and organization.
+ * <p>
+ * It's used by {@link ProductLookupDescriptor} to find the product IDs matching a typed text, without the <code>ILIKE '%...%'</code> full scan.
+ * Whenever the index cannot give an answer (not yet loaded, query too short, too many matches etc) the caller shall fallback to SQL.
+ * <p>
+ * The indexes are loaded asynchronously on first use and they are kept up to date based on the cache invalidation events:
+ * <ul>
+ * <li>changed products are reloaded one by one
+ * <li>on product translation changes, the non base language indexes are discarded
+ * <li>on bpartner product changes or when the whole product table was invalidated, all indexes are discarded
+ * </ul>
+ */
+/* package */ final class ProductLookupIndex
+{
+	public static final ProductLookupIndex instance = new ProductLookupIndex();
+
+	private static final Logger logger = LogManager.getLogger(ProductLookupIndex.class);
+
+	private static final int NGRAM_LENGTH = 3;
+
+	private static final String TABLENAME_M_Product_Trl = I_M_Product.Table_Name + "_Trl";
+	private static final String TABLENAME_C_BPartner_Product = "C_BPartner_Product";
+
+	private final ConcurrentHashMap<IndexKey, ProductsIndex> indexesByKey = new ConcurrentHashMap<>();
+
+	/** Single thread executor, so the loading and reloading tasks are executed in the order they were submitted */
+	private final ExecutorService async;
+
+	private ProductLookupIndex()
+	{
+		final CustomizableThreadFactory asyncThreadFactory = new CustomizableThreadFactory(ProductLookupIndex.class.getSimpleName());
+		asyncThreadFactory.setDaemon(true);
+		async = Executors.newSingleThreadExecutor(asyncThreadFactory);
+
+		final CacheMgt cacheMgt = CacheMgt.get();
+		cacheMgt.addCacheResetListener(I_M_Product.Table_Name, this::onCacheReset);
+		cacheMgt.addCacheResetListener(TABLENAME_M_Product_Trl, this::onCacheReset);
+		cacheMgt.addCacheResetListener(TABLENAME_C_BPartner_Product, this::onCacheReset);
+	}
+
+	/**
+	 * @param bpartnerId if > 0, only the products which are not bpartner specific or which are specific to this bpartner are matched
+	 * @return IDs of the products matching the query or <code>null</code> if the index cannot tell, in which case the caller shall search by SQL
+	 */
+	public Set<Integer> findProductIds(
+			@NonNull final String adLanguage,
+			final int adOrgId,
+			final int bpartnerId,
+			@NonNull final String query,
+			final int maxMatches)
+	{
+		final String queryNorm = normalize(query);
+		if (queryNorm.length() < NGRAM_LENGTH
+				|| queryNorm.indexOf('%') >= 0 || queryNorm.indexOf('_') >= 0) // SQL wildcards
+		{
+			return null;
+		}
+
+		final ProductsIndex index = getIndexIfLoaded(IndexKey.of(adLanguage, adOrgId));
+		if (index == null)
+		{
+			return null;
+		}
+
+		return index.findProductIds(queryNorm, bpartnerId, maxMatches);
+	}
+
+	private ProductsIndex getIndexIfLoaded(final IndexKey key)
+	{
+		final ProductsIndex index = indexesByKey.computeIfAbsent(key, k -> {
+			final ProductsIndex newIndex = new ProductsIndex(k);
+			async.submit(() -> load(newIndex));
+			return newIndex;
+		});
+		return index.isLoaded() ? index : null;
+	}
+
+	private void load(final ProductsIndex index)
+	{
+		try
+		{
+			final long startMillis = System.currentTimeMillis();
+			final ListMultimap<Integer, ProductLookupRow> rowsByProductId = retrieveRows(index.getKey(), -1);
+			for (final Integer productId : rowsByProductId.keySet())
+			{
+				index.setProductRows(productId, rowsByProductId.get(productId));
+			}
+			index.setLoaded();
+
+			logger.info("Loaded {} in {}ms", index, System.currentTimeMillis() - startMillis);
+		}
+		catch (final Exception ex)
+		{
+			// discard it, so it will be loaded again on next search
+			logger.warn("Failed loading {}. Discarded.", index, ex);
+			indexesByKey.remove(index.getKey(), index);
+		}
+	}
+
+	private void reloadProduct(final int productId)
+	{
+		for (final ProductsIndex index : indexesByKey.values())
+		{
+			final ListMultimap<Integer, ProductLookupRow> rowsByProductId = retrieveRows(index.getKey(), productId);
+			index.setProductRows(productId, rowsByProductId.get(productId));
+		}
+	}
+
+	private int onCacheReset(@NonNull final CacheInvalidateMultiRequest multiRequest)
+	{
+		// NOTE: reload after commit, else we would load the old data
+		Services.get(ITrxManager.class)
+				.getCurrentTrxListenerManagerOrAutoCommit()
+				.newEventListener(TrxEventTiming.AFTER_COMMIT)
+				.registerHandlingMethod(trx -> async.submit(() -> onCacheResetAfterCommit(multiRequest)));
+
+		return 1; // not relevant
+	}
+
+	private void onCacheResetAfterCommit(final CacheInvalidateMultiRequest multiRequest)
+	{
+		try
+		{
+			for (final CacheInvalidateRequest request : multiRequest.getRequests())
+			{
+				final String tableName = request.getRootTableName();
+				if (I_M_Product.Table_Name.equals(tableName) && request.getRootRecordId() > 0)
+				{
+					reloadProduct(request.getRootRecordId());
+				}
+				else if (TABLENAME_M_Product_Trl.equals(tableName))
+				{
+					indexesByKey.keySet().removeIf(key -> !key.isBaseLanguage());
+				}
+				else
+				{
+					indexesByKey.clear();
+				}
+			}
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed updating the indexes for {}. Discarding all indexes.", multiRequest, ex);
+			indexesByKey.clear();
+		}
+	}
+
+	private static ListMultimap<Integer, ProductLookupRow> retrieveRows(final IndexKey key, final int onlyProductId)
+	{
+		final String trlAlias = key.isBaseLanguage() ? "p" : "trl";
+		final List<Object> sqlParams = new ArrayList<>();
+		final StringBuilder sql = new StringBuilder("SELECT"
+				+ "\n p." + I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_C_BPartner_ID
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_Value
+				+ "\n, " + trlAlias + "." + I_M_Product_Lookup_V.COLUMNNAME_Name
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_UPC
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_BPartnerProductNo
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_BPartnerProductName
+				+ "\n FROM " + I_M_Product_Lookup_V.Table_Name + " p ");
+		if (!key.isBaseLanguage())
+		{
+			sql.append("\n INNER JOIN M_Product_Trl trl ON (trl.M_Product_ID=p.M_Product_ID AND trl.AD_Language=?)");
+			sqlParams.add(key.getAdLanguage());
+		}
+
+		sql.append("\n WHERE p." + I_M_Product_Lookup_V.COLUMNNAME_IsActive + "='Y'");
+		sql.append("\n AND p.AD_Org_ID IN (0, ?)");
+		sqlParams.add(key.getAdOrgId());
+		if (onlyProductId > 0)
+		{
+			sql.append("\n AND p." + I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID + "=?");
+			sqlParams.add(onlyProductId);
+		}
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql.toString(), ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+
+			final ListMultimap<Integer, ProductLookupRow> rowsByProductId = ArrayListMultimap.create();
+			while (rs.next())
+			{
+				final ProductLookupRow row = ProductLookupRow.of(
+						rs.getInt(I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID),
+						rs.getInt(I_M_Product_Lookup_V.COLUMNNAME_C_BPartner_ID),
+						normalizeSearchTexts(
+								rs.getString(I_M_Product_Lookup_V.COLUMNNAME_Value),
+								rs.getString(I_M_Product_Lookup_V.COLUMNNAME_Name),
+								rs.getString(I_M_Product_Lookup_V.COLUMNNAME_UPC),
+								rs.getString(I_M_Product_Lookup_V.COLUMNNAME_BPartnerProductNo),
+								rs.getString(I_M_Product_Lookup_V.COLUMNNAME_BPartnerProductName)));
+				rowsByProductId.put(row.getProductId(), row);
+			}
+			return rowsByProductId;
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql.toString(), sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	@VisibleForTesting
+	static ImmutableList<String> normalizeSearchTexts(final String... texts)
+	{
+		final ImmutableList.Builder<String> textsNorm = ImmutableList.builder();
+		for (final String text : texts)
+		{
+			final String textNorm = normalize(text);
+			if (!textNorm.isEmpty())
+			{
+				textsNorm.add(textNorm);
+			}
+		}
+		return textsNorm.build();
+	}
+
+	/** @return lowercase string, similar to what <code>ILIKE</code> is comparing; the lowercasing does not depend on the default locale (e.g. turkish) */
+	@VisibleForTesting
+	static String normalize(final String string)
+	{
+		return string != null ? string.trim().toLowerCase(Locale.ROOT) : "";
+	}
+
+	private static Set<String> extractNGrams(final List<ProductLookupRow> rows)
+	{
+		final Set<String> ngrams = new HashSet<>();
+		for (final ProductLookupRow row : rows)
+		{
+			for (final String text : row.getSearchTexts())
+			{
+				for (int i = 0; i + NGRAM_LENGTH <= text.length(); i++)
+				{
+					ngrams.add(text.substring(i, i + NGRAM_LENGTH));
+				}
+			}
+		}
+		return ngrams;
+	}
+
+	@Value(staticConstructor = "of")
+	@VisibleForTesting
+	static final class IndexKey
+	{
+		private final String adLanguage;
+		private final int adOrgId;
+
+		public boolean isBaseLanguage()
+		{
+			return Language.isBaseLanguage(adLanguage);
+		}
+	}
+
+	/** One row of <code>M_Product_Lookup_V</code>, i.e. a product or a bpartner specific product */
+	@Value(staticConstructor = "of")
+	@VisibleForTesting
+	static final class ProductLookupRow
+	{
+		private final int productId;
+		private final int bpartnerId;
+		private final ImmutableList<String> searchTexts;
+
+		public boolean isMatching(final String queryNorm, final int bpartnerId)
+		{
+			if (bpartnerId > 0 && this.bpartnerId > 0 && this.bpartnerId != bpartnerId)
+			{
+				return false;
+			}
+			return searchTexts.stream().anyMatch(text -> text.contains(queryNorm));
+		}
+	}
+
+	@VisibleForTesting
+	static final class ProductsIndex
+	{
+		private final IndexKey key;
+		private volatile boolean loaded = false;
+
+		private final Map<Integer, List<ProductLookupRow>> rowsByProductId = new ConcurrentHashMap<>();
+		private final Map<String, Set<Integer>> productIdsByNGram = new ConcurrentHashMap<>();
+
+		public ProductsIndex(final IndexKey key)
+		{
+			this.key = key;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "ProductsIndex[" + key + ", products=" + rowsByProductId.size() + ", ngrams=" + productIdsByNGram.size() + "]";
+		}
+
+		public IndexKey getKey()
+		{
+			return key;
+		}
+
+		public boolean isLoaded()
+		{
+			return loaded;
+		}
+
+		public void setLoaded()
+		{
+			loaded = true;
+		}
+
+		public synchronized void setProductRows(final int productId, final List<ProductLookupRow> rows)
+		{
+			final List<ProductLookupRow> rowsOld = rows.isEmpty() ? rowsByProductId.remove(productId) : rowsByProductId.put(productId, ImmutableList.copyOf(rows));
+
+			final Set<String> ngrams = extractNGrams(rows);
+			if (rowsOld != null)
+			{
+				for (final String ngramOld : extractNGrams(rowsOld))
+				{
+					if (ngrams.contains(ngramOld))
+					{
+						continue;
+					}
+
+					final Set<Integer> productIds = productIdsByNGram.get(ngramOld);
+					if (productIds != null)
+					{
+						productIds.remove(productId);
+						if (productIds.isEmpty())
+						{
+							productIdsByNGram.remove(ngramOld);
+						}
+					}
+				}
+			}
+
+			for (final String ngram : ngrams)
+			{
+				productIdsByNGram.computeIfAbsent(ngram, k -> ConcurrentHashMap.newKeySet()).add(productId);
+			}
+		}
+
+		/** @return matching product IDs or <code>null</code> if there are more than <code>maxMatches</code> */
+		public Set<Integer> findProductIds(final String queryNorm, final int bpartnerId, final int maxMatches)
+		{
+			//
+			// Pick the n-gram with the fewest products as candidates
+			Set<Integer> candidateProductIds = null;
+			for (int i = 0; i + NGRAM_LENGTH <= queryNorm.length(); i++)
+			{
+				final Set<Integer> productIds = productIdsByNGram.get(queryNorm.substring(i, i + NGRAM_LENGTH));
+				if (productIds == null || productIds.isEmpty())
+				{
+					return ImmutableSet.of();
+				}
+				if (candidateProductIds == null || productIds.size() < candidateProductIds.size())
+				{
+					candidateProductIds = productIds;
+				}
+			}
+
+			//
+			// Check the candidates
+			final Set<Integer> matchingProductIds = new HashSet<>();
+			for (final Integer productId : candidateProductIds)
+			{
+				final List<ProductLookupRow> rows = rowsByProductId.get(productId);
+				if (rows == null || rows.stream().noneMatch(row -> row.isMatching(queryNorm, bpartnerId)))
+				{
+					continue;
+				}
+
+				matchingProductIds.add(productId);
+				if (matchingProductIds.size() > maxMatches)
+				{
+					return null;
+				}
+			}
+
+			return ImmutableSet.copyOf(matchingProductIds);
+		}
+	}
+}
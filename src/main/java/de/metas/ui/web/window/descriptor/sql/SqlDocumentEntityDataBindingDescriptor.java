@@ -84,6 +84,7 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 	private final String sqlParentLinkColumnName;
 
 	private final ICachedStringExpression sqlSelectAllFrom;
+	private final ICachedStringExpression sqlSelectCountFrom;
 	private final ICachedStringExpression sqlWhereClause;
 	private final List<DocumentQueryOrderBy> defaultOrderBys;
 
@@ -112,6 +113,8 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 
 		sqlSelectAllFrom = builder.getSqlSelectAll()
 				.caching();
+		sqlSelectCountFrom = builder.getSqlSelectCount()
+				.caching();
 		sqlWhereClause = builder.getSqlWhereClauseExpression()
 				.caching();
 
@@ -191,6 +194,14 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 		return sqlSelectAllFrom;
 	}
 
+	/**
+	 * @return <code>SELECT COUNT(1) FROM ...</code>, using the same (secured) FROM as {@link #getSqlSelectAllFrom()}
+	 */
+	public IStringExpression getSqlSelectCountFrom()
+	{
+		return sqlSelectCountFrom;
+	}
+
 	@Override
 	public IStringExpression getSqlWhereClause()
 	{
@@ -248,6 +259,7 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 
 		//
 		private IStringExpression _sqlSelectAll; // will be built
+		private IStringExpression _sqlSelectCount; // will be built
 
 		private final LinkedHashMap<String, SqlDocumentFieldDataBindingDescriptor> _fieldsByFieldName = new LinkedHashMap<>();
 
@@ -283,6 +295,15 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 			return _sqlSelectAll;
 		}
 
+		private IStringExpression getSqlSelectCount()
+		{
+			if (_sqlSelectCount == null)
+			{
+				buildSqlSelects();
+			}
+			return _sqlSelectCount;
+		}
+
 		/**
 		 * @return SELECT ... FROM ....
 		 */
@@ -313,20 +334,35 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 			}
 
 			//
-			_sqlSelectAll = buildSqlSelect(sqlSelectValuesList, sqlSelectDisplayNamesList);
+			final IStringExpression sqlInnerExpr = buildSqlSelectInner(sqlSelectValuesList);
+			_sqlSelectAll = buildSqlSelect(sqlInnerExpr, sqlSelectDisplayNamesList);
+			_sqlSelectCount = buildSqlSelectCount(sqlInnerExpr);
 		}
 
-		private final IStringExpression buildSqlSelect(final List<String> sqlSelectValuesList, final List<IStringExpression> sqlSelectDisplayNamesList)
+		private final IStringExpression buildSqlSelectInner(final List<String> sqlSelectValuesList)
 		{
 			final String sqlTableName = getTableName();
-			final String sqlTableAlias = getTableAlias();
 
-			final IStringExpression sqlInnerExpr = IStringExpression.composer()
+			return IStringExpression.composer()
 					.append("SELECT ")
 					.append("\n ").append(Joiner.on("\n, ").join(sqlSelectValuesList))
 					.append("\n FROM ").append(sqlTableName)
 					.wrap(AccessSqlStringExpression.wrapper(sqlTableName, IUserRolePermissions.SQL_FULLYQUALIFIED, IUserRolePermissions.SQL_RO)) // security
 					.build();
+		}
+
+		private final IStringExpression buildSqlSelectCount(final IStringExpression sqlInnerExpr)
+		{
+			// NOTE: the display columns are not needed for counting
+			return IStringExpression.composer()
+					.append("SELECT COUNT(1)")
+					.append("\n FROM (").append(sqlInnerExpr).append(") ").append(getTableAlias()) // FROM
+					.build();
+		}
+
+		private final IStringExpression buildSqlSelect(final IStringExpression sqlInnerExpr, final List<IStringExpression> sqlSelectDisplayNamesList)
+		{
+			final String sqlTableAlias = getTableAlias();
 
 			final CompositeStringExpression.Builder sqlBuilder = IStringExpression.composer()
 					.append("SELECT ")
@@ -108,6 +108,8 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 	private final ICachedStringExpression sqlForFetchingDisplayNameByIdExpression;
 	private final int entityTypeIndex;
 	private final INamePairPredicate postQueryPredicate;
+	/** true if the filter is matched against the display name using <code>unaccent(displayName) ILIKE unaccent(filter)</code> */
+	private final boolean filterByUnaccentedDisplayName;
 
 	private final boolean highVolume;
 	private final boolean numericKey;
@@ -124,6 +126,7 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 		sqlForFetchingExpression = builder.sqlForFetchingExpression;
 		sqlForFetchingDisplayNameByIdExpression = builder.sqlForFetchingDisplayNameByIdExpression;
 		entityTypeIndex = builder.entityTypeIndex;
+		filterByUnaccentedDisplayName = builder.filterByUnaccentedDisplayName;
 
 		postQueryPredicate = builder.getPostQueryPredicate();
 
@@ -255,6 +258,11 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 		return postQueryPredicate;
 	}
 
+	public boolean isFilterByUnaccentedDisplayName()
+	{
+		return filterByUnaccentedDisplayName;
+	}
+
 	@Override
 	public boolean hasParameters()
 	{
@@ -298,6 +306,7 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 		private ICachedStringExpression sqlForFetchingExpression;
 		private ICachedStringExpression sqlForFetchingDisplayNameByIdExpression;
 		private int entityTypeIndex = -1;
+		private boolean filterByUnaccentedDisplayName;
 
 		private int zoomIntoWindowId = -1;
 
@@ -423,6 +432,7 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 						.caching();
 				sqlForFetchingDisplayNameByIdExpression = buildSqlForFetchingDisplayNameById(lookupInfo)
 						.caching();
+				filterByUnaccentedDisplayName = true; // see buildSqlWhere
 
 				if (lookupInfo.isQueryHasEntityType())
 				{
@@ -13,11 +13,13 @@ import org.adempiere.util.Services;
 import org.adempiere.util.lang.IAutoCloseable;
 import org.springframework.stereotype.Component;
 
+import de.metas.ui.web.websocket.WebSocketConfig;
 import de.metas.ui.web.websocket.WebsocketSender;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.datatypes.json.JSONDocument;
+import de.metas.ui.web.window.datatypes.json.JSONDocumentReferencesEvent;
 import de.metas.ui.web.window.descriptor.DetailId;
 import lombok.NonNull;
 
@@ -141,6 +143,16 @@ public class DocumentWebsocketPublisher
 		forCollector(collector -> collector.staleIncludedDocument(windowId, documentId, tabId, rowId));
 	}
 
+	/**
+	 * Publishes a document references event which happened after the references request was answered.
+	 *
+	 * @param topicName see {@link WebSocketConfig#buildDocumentReferencesTopicName(DocumentPath, org.adempiere.ad.security.UserRolePermissionsKey, String)}
+	 */
+	public void publishDocumentReferencesEvent(@NonNull final String topicName, @NonNull final JSONDocumentReferencesEvent event)
+	{
+		websocketSender.convertAndSend(topicName, event);
+	}
+
 	public void convertAndPublish(final List<JSONDocument> jsonDocumentEvents)
 	{
 		if (jsonDocumentEvents == null || jsonDocumentEvents.isEmpty())
@@ -10,6 +10,7 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -43,6 +44,8 @@ import de.metas.document.engine.IDocumentBL;
 import de.metas.document.exceptions.DocumentProcessingException;
 import de.metas.letters.model.Letters;
 import de.metas.logging.LogManager;
+import de.metas.ui.web.cache.ETag;
+import de.metas.ui.web.cache.ETagAware;
 import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.datatypes.DataTypes;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -88,7 +91,7 @@ import lombok.NonNull;
  * #L%
  */
 
-public final class Document
+public final class Document implements ETagAware
 {
 	public static final Builder builder(final DocumentEntityDescriptor entityDescriptor)
 	{
@@ -122,6 +125,9 @@ public final class Document
 	private DocumentSaveStatus _saveStatusOnCheckout;
 	private final DocumentStaleState _staleStatus;
 	private final ReentrantReadWriteLock _lock;
+	private static final AtomicLong nextSnapshotId = new AtomicLong(1);
+	/** unique for each instance, i.e. each readonly snapshot which is put in cache gets a new one */
+	private final long _snapshotId = nextSnapshotId.getAndIncrement();
 	// Status: readonly
 	private DocumentReadonly parentReadonly = DocumentReadonly.NOT_READONLY;
 	private DocumentReadonly readonly = DocumentReadonly.NOT_READONLY;
@@ -163,6 +169,14 @@ public final class Document
 
 		String getVersion();
 
+		/**
+		 * @return {@link System#nanoTime()} from before the {@link #getVersion()} was loaded
+		 */
+		default long getVersionLoadStartNanos()
+		{
+			return System.nanoTime();
+		}
+
 		/**
 		 * @param fieldDescriptor
 		 * @return initial value or {@link #NO_VALUE} if it cannot provide a value
@@ -440,7 +454,7 @@ public final class Document
 
 			//
 			// Mark the document not staled because we just initialized it
-			getStale().markNotStaled(documentValuesSupplier.getVersion());
+			getStale().markNotStaled(documentValuesSupplier.getVersion(), documentValuesSupplier.getVersionLoadStartNanos());
 
 			//
 			// Update document's valid status
@@ -630,6 +644,12 @@ public final class Document
 			return parentSupplier.getVersion();
 		}
 
+		@Override
+		public long getVersionLoadStartNanos()
+		{
+			return parentSupplier.getVersionLoadStartNanos();
+		}
+
 		private final IDocumentEvaluatee getEvaluatee(final DocumentFieldDescriptor fieldInScope)
 		{
 			if (fieldInScope == null)
@@ -1499,6 +1519,17 @@ public final class Document
 		return includedDocuments.getDocuments(orderBys);
 	}
 
+	public OrderedDocumentsList getIncludedDocumentsPage(final DetailId detailId, final List<DocumentQueryOrderBy> orderBys, final int firstRow, final int pageLength)
+	{
+		final IIncludedDocumentsCollection includedDocuments = getIncludedDocumentsCollection(detailId);
+		return includedDocuments.getDocumentsPage(orderBys, firstRow, pageLength);
+	}
+
+	public int getIncludedDocumentsCount(final DetailId detailId)
+	{
+		return getIncludedDocumentsCollection(detailId).getDocumentsCount();
+	}
+
 	public void assertNewDocumentAllowed(final DetailId detailId)
 	{
 		getIncludedDocumentsCollection(detailId).assertNewDocumentAllowed();
@@ -1866,11 +1897,16 @@ public final class Document
 		getDocumentRepository().refresh(this);
 	}
 
-	/* package */ Document refreshFromRepositoryIfStaled()
+	/**
+	 * Refreshes this document if it was changed in database since it was loaded.
+	 *
+	 * @param stalenessTracker used to avoid checking the version in database, when we know for sure the document was not changed in meantime
+	 */
+	/* package */ Document refreshFromRepositoryIfStaled(@NonNull final DocumentStalenessTracker stalenessTracker)
 	{
 		if (getEntityDescriptor().getDataBinding().isVersioningSupported())
 		{
-			if (getStale().checkStaled())
+			if (getStale().checkStaled(stalenessTracker))
 			{
 				refreshFromRepository();
 			}
@@ -1898,6 +1934,23 @@ public final class Document
 		return _staleStatus.isStaled();
 	}
 
+	/** @return document's version, as it was last loaded from database; null if unknown */
+	/* package */String getVersion()
+	{
+		return getStale().getVersion();
+	}
+
+	/**
+	 * @return ETag derived from the document's version (last time it was saved in database) and from this document snapshot.
+	 *         So any change of this document, or of its included documents, will produce a new ETag.
+	 */
+	@Override
+	public ETag getETag()
+	{
+		final String version = getStale().getVersion();
+		return ETag.of(_snapshotId, ImmutableMap.of("version", version != null ? version : "new"));
+	}
+
 	public IAutoCloseable lockForReading()
 	{
 		// assume _lock is not null
@@ -1975,17 +2028,21 @@ public final class Document
 	{
 		private boolean staled;
 		private String version;
+		/** {@link System#nanoTime()} when the {@link #version} was last checked */
+		private long versionCheckedNanos;
 
 		private DocumentStaleState()
 		{
 			staled = false; // initially not staled
 			version = null; // unknown
+			versionCheckedNanos = System.nanoTime();
 		}
 
 		private DocumentStaleState(final DocumentStaleState from)
 		{
 			staled = from.staled;
 			version = from.version;
+			versionCheckedNanos = from.versionCheckedNanos;
 		}
 
 		@Override
@@ -1994,6 +2051,7 @@ public final class Document
 			return MoreObjects.toStringHelper(this)
 					.add("staled", staled)
 					.add("version", version)
+					.add("versionCheckedNanos", versionCheckedNanos)
 					.add("document", Document.this)
 					.toString();
 		}
@@ -2003,7 +2061,12 @@ public final class Document
 			return staled;
 		}
 
-		private boolean checkStaled()
+		public String getVersion()
+		{
+			return version;
+		}
+
+		private boolean checkStaled(final DocumentStalenessTracker stalenessTracker)
 		{
 			if (staled)
 			{
@@ -2015,9 +2078,18 @@ public final class Document
 				return false;
 			}
 
-			final String versionNow = getDocumentRepository().retrieveVersion(getEntityDescriptor(), getDocumentIdAsInt());
+			final DocumentEntityDescriptor entityDescriptor = getEntityDescriptor();
+			final int documentIdAsInt = getDocumentIdAsInt();
+			if (!stalenessTracker.isPossiblyChangedSince(entityDescriptor.getTableName(), documentIdAsInt, versionCheckedNanos))
+			{
+				return false;
+			}
+
+			final long checkingNanos = System.nanoTime();
+			final String versionNow = getDocumentRepository().retrieveVersion(entityDescriptor, documentIdAsInt);
 			if (Objects.equals(version, versionNow))
 			{
+				versionCheckedNanos = checkingNanos;
 				return false;
 			}
 
@@ -2025,10 +2097,11 @@ public final class Document
 			return true;
 		}
 
-		private void markNotStaled(final String version)
+		private void markNotStaled(final String version, final long versionCheckedNanos)
 		{
 			staled = false;
 			this.version = version;
+			this.versionCheckedNanos = versionCheckedNanos;
 		}
 	}
 
@@ -1,12 +1,16 @@
 package de.metas.ui.web.window.model;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.adempiere.ad.dao.cache.CacheInvalidateMultiRequest;
 import org.adempiere.ad.dao.cache.CacheInvalidateRequest;
@@ -16,10 +20,12 @@ import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
 import org.adempiere.util.Services;
 import org.adempiere.util.lang.IAutoCloseable;
+import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.util.CacheMgt;
 import org.compiere.util.ICacheResetListener;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
@@ -54,6 +60,12 @@ import lombok.NonNull;
 
 /**
  * This component listens to all cache invalidation events (see {@link CacheMgt}) and invalidates the right documents or included documents from {@link DocumentCollection}.
+ * <p>
+ * The requests are buffered for a short time window ({@link #coalesceWindowMillis}), deduplicated and then dispatched in batches,
+ * i.e. each view is notified only once per batch.
+ * Requests are grouped by their root table name: the batches of the same root table are dispatched sequentially, the batches of different root tables are dispatched in parallel.
+ * <p>
+ * Besides that, all requests are immediately fed to the {@link DocumentStalenessTracker}.
  *
  * @author metas-dev <dev@metasfresh.com>
  *
@@ -71,20 +83,30 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 	@Autowired
 	private IViewsRepository viewsRepository;
 
-	private final Executor async;
+	@Value("${metasfresh.webui.documents.cacheInvalidation.coalesceWindowMillis:200}")
+	private long coalesceWindowMillis;
+	@Value("${metasfresh.webui.documents.cacheInvalidation.threads:4}")
+	private int threadsCount;
 
-	public DocumentCacheInvalidationDispatcher()
+	private ScheduledExecutorService async;
+
+	private final ConcurrentHashMap<String, RootTableRequestsBatcher> batchersByRootTableName = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	private void postConstruct()
 	{
 		final CustomizableThreadFactory asyncThreadFactory = new CustomizableThreadFactory(DocumentCacheInvalidationDispatcher.class.getSimpleName());
 		asyncThreadFactory.setDaemon(true);
 
-		async = Executors.newSingleThreadExecutor(asyncThreadFactory);
+		async = Executors.newScheduledThreadPool(Math.max(threadsCount, 1), asyncThreadFactory);
+
+		CacheMgt.get().addCacheResetListener(this);
 	}
 
-	@PostConstruct
-	private void postConstruct()
+	@PreDestroy
+	private void preDestroy()
 	{
-		CacheMgt.get().addCacheResetListener(this);
+		async.shutdown();
 	}
 
 	@Override
@@ -95,7 +117,7 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 		final ITrx currentTrx = trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone);
 		if (trxManager.isNull(currentTrx))
 		{
-			async.execute(() -> resetNow(request));
+			markChangedAndEnqueue(request);
 		}
 		else
 		{
@@ -109,7 +131,7 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 							{
 								return;
 							}
-							async.execute(() -> resetNow(aggregatedRequest));
+							markChangedAndEnqueue(aggregatedRequest);
 						});
 				return c;
 			});
@@ -120,52 +142,155 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 		return 1; // not relevant
 	}
 
-	private void resetNow(final CacheInvalidateMultiRequest request)
+	private void markChangedAndEnqueue(final CacheInvalidateMultiRequest multiRequest)
+	{
+		// NOTE: we mark the records as changed right away (and not when the requests are dispatched),
+		// so from now on any writable checkout of those documents will check their version in database.
+		// We do it only after commit, else a concurrent checkout could still read (and keep as current) the not yet committed version.
+		markChanged(multiRequest);
+		enqueue(multiRequest);
+	}
+
+	private void markChanged(final CacheInvalidateMultiRequest multiRequest)
+	{
+		final DocumentStalenessTracker stalenessTracker = documents.getStalenessTracker();
+		for (final CacheInvalidateRequest request : multiRequest.getRequests())
+		{
+			final String rootTableName = request.getRootTableName();
+			if (rootTableName == null)
+			{
+				stalenessTracker.markAllChanged();
+			}
+			else if (request.getRootRecordId() < 0)
+			{
+				stalenessTracker.markTableChanged(rootTableName);
+			}
+			else
+			{
+				stalenessTracker.markRecordChanged(rootTableName, request.getRootRecordId());
+			}
+		}
+	}
+
+	private void enqueue(final CacheInvalidateMultiRequest multiRequest)
+	{
+		for (final CacheInvalidateRequest request : multiRequest.getRequests())
+		{
+			final String rootTableName = request.getRootTableName();
+			if (rootTableName == null)
+			{
+				logger.debug("Nothing to do, no rootTableName: {}", request);
+				continue;
+			}
+			if (request.getRootRecordId() < 0)
+			{
+				logger.debug("Nothing to do, rootRecordId < 0: {}", request);
+				continue;
+			}
+
+			batchersByRootTableName
+					.computeIfAbsent(rootTableName, RootTableRequestsBatcher::new)
+					.add(request);
+		}
+	}
+
+	private void resetNow(final Set<CacheInvalidateRequest> requests)
 	{
 		final DocumentWebsocketPublisher websocketPublisher = documents.getWebsocketPublisher();
 		try (final IAutoCloseable c = websocketPublisher.temporaryCollectOnThisThread())
 		{
-			request.getRequests().forEach(this::resetNow);
+			final Set<TableRecordReference> rootRecordRefs = new LinkedHashSet<>();
+			for (final CacheInvalidateRequest request : requests)
+			{
+				logger.debug("Got {}", request);
+
+				final String rootTableName = request.getRootTableName();
+				final int rootRecordId = request.getRootRecordId();
+				final String childTableName = request.getChildTableName();
+				if (childTableName != null)
+				{
+					logger.debug("Invalidating the included document: {}", request);
+					final int childRecordId = request.getChildRecordId();
+					documents.invalidateIncludedDocumentsByRecordId(rootTableName, rootRecordId, childTableName, childRecordId);
+				}
+
+				// NOTE: in case of included documents, as a workaround to solve the problem of https://github.com/metasfresh/metasfresh-webui-api/issues/851,
+				// we are invalidating the whole root document to make sure that in case there were any virtual columns on header,
+				// those get refreshed too.
+				rootRecordRefs.add(TableRecordReference.of(rootTableName, rootRecordId));
+			}
+
+			logger.debug("Invalidating the root documents: {}", rootRecordRefs);
+			rootRecordRefs.forEach(rootRecordRef -> documents.invalidateDocumentByRecordId(rootRecordRef.getTableName(), rootRecordRef.getRecord_ID()));
+
+			viewsRepository.notifyRecordsChanged(rootRecordRefs);
 		}
 	}
 
-	private void resetNow(final CacheInvalidateRequest request)
+	/**
+	 * Collects the requests of one root table and dispatches them in batches, one batch at a time.
+	 */
+	private final class RootTableRequestsBatcher
 	{
-		logger.debug("Got {}", request);
+		private final String rootTableName;
+
+		private Set<CacheInvalidateRequest> pendingRequests = new LinkedHashSet<>(); // guarded by this
+		private boolean flushScheduled = false; // guarded by this
 
-		final String rootTableName = request.getRootTableName();
-		if (rootTableName == null)
+		public RootTableRequestsBatcher(final String rootTableName)
 		{
-			logger.debug("Nothing to do, no rootTableName: {}", request);
-			return;
+			this.rootTableName = rootTableName;
 		}
 
-		final int rootRecordId = request.getRootRecordId();
-		if (rootRecordId < 0)
+		public synchronized void add(final CacheInvalidateRequest request)
 		{
-			logger.debug("Nothing to do, rootRecordId < 0: {}", request);
-			return;
+			pendingRequests.add(request);
+			if (!flushScheduled)
+			{
+				scheduleFlush();
+			}
 		}
 
-		final String childTableName = request.getChildTableName();
-		if (childTableName == null)
+		private void scheduleFlush()
 		{
-			logger.debug("Invalidating the root document: {}", request);
-			documents.invalidateDocumentByRecordId(rootTableName, rootRecordId);
+			flushScheduled = true;
+			async.schedule(this::flush, coalesceWindowMillis, TimeUnit.MILLISECONDS);
 		}
-		else
+
+		private void flush()
 		{
-			logger.debug("Invalidating the included document: {}", request);
-			final int childRecordId = request.getChildRecordId();
-			documents.invalidateIncludedDocumentsByRecordId(rootTableName, rootRecordId, childTableName, childRecordId);
-			
-			// NOTE: as a workaround to solve the problem of https://github.com/metasfresh/metasfresh-webui-api/issues/851,
-			// we are invalidating the whole root document to make sure that in case there were any virtual columns on header,
-			// those get refreshed too.
-			documents.invalidateDocumentByRecordId(rootTableName, rootRecordId);
-		}
+			final Set<CacheInvalidateRequest> requests;
+			synchronized (this)
+			{
+				requests = pendingRequests;
+				pendingRequests = new LinkedHashSet<>();
+			}
 
-		viewsRepository.notifyRecordChanged(rootTableName, rootRecordId);
+			try
+			{
+				logger.debug("Dispatching {} requests for {}", requests.size(), rootTableName);
+				resetNow(requests);
+			}
+			catch (final Exception ex)
+			{
+				logger.warn("Failed dispatching {} cache invalidation requests for {}. Ignored.", requests.size(), rootTableName, ex);
+			}
+			finally
+			{
+				synchronized (this)
+				{
+					// NOTE: schedule the next batch only after this one was dispatched, so the batches of the same root table are never dispatched in parallel
+					if (pendingRequests.isEmpty())
+					{
+						flushScheduled = false;
+					}
+					else
+					{
+						scheduleFlush();
+					}
+				}
+			}
+		}
 	}
 
 	private static final class CacheInvalidateMultiRequestsCollector
@@ -1,11 +1,15 @@
 package de.metas.ui.web.window.model;
 
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
@@ -33,13 +37,18 @@ import org.compiere.util.Evaluatee;
 import org.compiere.util.Evaluatees;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.adempiere.report.jasper.OutputType;
@@ -49,6 +58,7 @@ import de.metas.letters.model.MADBoilerPlate.SourceDocument;
 import de.metas.logging.LogManager;
 import de.metas.process.ProcessExecutionResult;
 import de.metas.process.ProcessInfo;
+import de.metas.ui.web.cache.ByteBufferResource;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.window.WindowConstants;
@@ -64,11 +74,13 @@ import de.metas.ui.web.window.events.DocumentWebsocketPublisher;
 import de.metas.ui.web.window.exceptions.DocumentNotFoundException;
 import de.metas.ui.web.window.exceptions.InvalidDocumentPathException;
 import de.metas.ui.web.window.model.Document.CopyMode;
+import de.metas.ui.web.window.model.DocumentPrintCache.DocumentPrintKey;
 import de.metas.ui.web.window.model.lookup.DocumentZoomIntoInfo;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NonNull;
-import lombok.Value;
 
 /*
  * #%L
@@ -106,12 +118,130 @@ public class DocumentCollection
 	@Autowired
 	private DocumentWebsocketPublisher websocketPublisher;
 
-	private final Cache<DocumentKey, Document> rootDocuments = CacheBuilder.newBuilder().build();
+	/**
+	 * Readonly root document snapshots, bounded by their estimated weight (see {@link #estimateWeight(Document)}) and expiring after they were not accessed for a while.
+	 * <p>
+	 * NOTE: the document locks are shared between all copies of a root document (see {@link Document#lockForWriting()}),
+	 * so we have to make sure that, as long as somebody is still using an evicted document, the same instance is loaded back (see {@link #evictedRootDocuments}).
+	 */
+	private final Cache<DocumentKey, Document> rootDocuments;
+	private final long rootDocumentsMaxWeight;
+	private final int rootDocumentsExpireAfterAccessMinutes;
+
+	/**
+	 * Root documents which were evicted from {@link #rootDocuments} because of size or expiration.
+	 * We keep them as weak references, so they are available as long as somebody is still using (and maybe locking) them.
+	 */
+	private final Cache<DocumentKey, Document> evictedRootDocuments = CacheBuilder.newBuilder().weakValues().build();
+	private final AtomicLong evictedRootDocumentsReusedCount = new AtomicLong();
 
 	private final ConcurrentHashMap<String, Set<WindowId>> tableName2windowIds = new ConcurrentHashMap<>();
 
-	/* package */ DocumentCollection()
+	/** Fed by {@link DocumentCacheInvalidationDispatcher} and used to avoid checking the root document's version in database on each writable checkout */
+	private final DocumentStalenessTracker stalenessTracker;
+
+	private final DocumentPrintCache printCache;
+
+	/* package */ DocumentCollection(
+			@Value("${metasfresh.webui.documents.cache.maxWeight:2000000}") final long rootDocumentsMaxWeight,
+			@Value("${metasfresh.webui.documents.cache.expireAfterAccessMinutes:60}") final int rootDocumentsExpireAfterAccessMinutes,
+			@Value("${metasfresh.webui.documents.stalenessTracker.trustIntervalSeconds:300}") final int stalenessTrackerTrustIntervalSeconds,
+			@Value("${metasfresh.webui.documents.print.cache.maxSizeMB:256}") final int printCacheMaxSizeMB,
+			@Value("${metasfresh.webui.documents.print.cache.expireAfterWriteMinutes:60}") final int printCacheExpireAfterWriteMinutes)
+	{
+		stalenessTracker = new DocumentStalenessTracker(stalenessTrackerTrustIntervalSeconds);
+		printCache = new DocumentPrintCache(printCacheMaxSizeMB, printCacheExpireAfterWriteMinutes);
+
+		this.rootDocumentsMaxWeight = rootDocumentsMaxWeight;
+		this.rootDocumentsExpireAfterAccessMinutes = rootDocumentsExpireAfterAccessMinutes;
+
+		rootDocuments = CacheBuilder.newBuilder()
+				.maximumWeight(rootDocumentsMaxWeight)
+				.weigher((final DocumentKey documentKey, final Document document) -> estimateWeight(document))
+				.expireAfterAccess(rootDocumentsExpireAfterAccessMinutes, TimeUnit.MINUTES)
+				.removalListener(this::onRootDocumentRemoved)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * @return estimated memory weight of given root document, i.e. the number of fields multiplied by the number of documents (root and the included ones which are kept in memory).
+	 */
+	private static int estimateWeight(final Document rootDocument)
+	{
+		int documentsCount = 1;
+		for (final IIncludedDocumentsCollection includedDocuments : rootDocument.getIncludedDocumentsCollections())
+		{
+			documentsCount += includedDocuments.getLoadedDocumentsCount();
+		}
+
+		final int fieldsCount = Math.max(rootDocument.getFieldNames().size(), 1);
+		return fieldsCount * documentsCount;
+	}
+
+	private void onRootDocumentRemoved(final RemovalNotification<DocumentKey, Document> notification)
+	{
+		// NOTE: explicit invalidations are not relevant here, they are also invalidating the evicted documents
+		if (!notification.wasEvicted() || notification.getKey() == null || notification.getValue() == null)
+		{
+			return;
+		}
+
+		evictedRootDocuments.put(notification.getKey(), notification.getValue());
+	}
+
+	private Document getCachedRootDocumentOrNull(final DocumentKey documentKey)
+	{
+		final Document rootDocument = rootDocuments.getIfPresent(documentKey);
+		if (rootDocument != null)
+		{
+			return rootDocument;
+		}
+
+		return evictedRootDocuments.getIfPresent(documentKey);
+	}
+
+	private void putRootDocumentToCache(final DocumentKey documentKey, final Document rootDocument)
+	{
+		evictedRootDocuments.invalidate(documentKey);
+		rootDocuments.put(documentKey, rootDocument);
+	}
+
+	private void invalidateRootDocumentsFromCache(final Iterable<DocumentKey> documentKeys)
+	{
+		rootDocuments.invalidateAll(documentKeys);
+		evictedRootDocuments.invalidateAll(documentKeys);
+		documentKeys.forEach(documentKey -> printCache.invalidate(documentKey.getWindowId(), documentKey.getDocumentId()));
+	}
+
+	/* package */ DocumentStalenessTracker getStalenessTracker()
 	{
+		return stalenessTracker;
+	}
+
+	public Map<String, Object> getCacheStats()
+	{
+		final CacheStats stats = rootDocuments.stats();
+		final long totalWeight = rootDocuments.asMap().values().stream().mapToLong(DocumentCollection::estimateWeight).sum();
+
+		return ImmutableMap.<String, Object> builder()
+				.put("size", rootDocuments.size())
+				.put("weight", totalWeight)
+				.put("maxWeight", rootDocumentsMaxWeight)
+				.put("expireAfterAccessMinutes", rootDocumentsExpireAfterAccessMinutes)
+				.put("hitCount", stats.hitCount())
+				.put("missCount", stats.missCount())
+				.put("hitRate", stats.hitRate())
+				.put("loadSuccessCount", stats.loadSuccessCount())
+				.put("loadExceptionCount", stats.loadExceptionCount())
+				.put("totalLoadTimeMillis", TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime()))
+				.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000)
+				.put("evictionCount", stats.evictionCount())
+				.put("evictedButStillUsedCount", evictedRootDocuments.size())
+				.put("evictedAndReusedCount", evictedRootDocumentsReusedCount.get())
+				.put("stalenessTracker", stalenessTracker.getStats())
+				.put("prints", printCache.getStats())
+				.build();
 	}
 
 	public DocumentDescriptorFactory getDocumentDescriptorFactory()
@@ -193,6 +323,15 @@ public class DocumentCollection
 		{
 			return rootDocuments.get(documentKey, () -> {
 
+				// If the document was evicted but somebody is still using it, load back the same instance, in order to keep the same lock
+				final Document evictedRootDocument = evictedRootDocuments.getIfPresent(documentKey);
+				if (evictedRootDocument != null)
+				{
+					evictedRootDocuments.invalidate(documentKey);
+					evictedRootDocumentsReusedCount.incrementAndGet();
+					return evictedRootDocument;
+				}
+
 				final Document rootDocument = retrieveRootDocumentFromRepository(documentKey)
 						.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
 
@@ -212,7 +351,11 @@ public class DocumentCollection
 
 		try (final IAutoCloseable readLock = getOrLoadDocument(rootDocumentKey).lockForReading())
 		{
-			final Document rootDocument = getOrLoadDocument(rootDocumentKey).copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
+			// NOTE: the cached root document is a readonly snapshot which is never changed after it was added to cache
+			// (writers and invalidations are putting back a new readonly snapshot, see commitRootDocument and invalidateIncludedDocuments).
+			// So we can share it between readers, without copying it.
+			// We are fetching it again, after we got the lock, because a writer might have replaced it while we were waiting for the lock (the lock is shared by all snapshots).
+			final Document rootDocument = getOrLoadDocument(rootDocumentKey);
 			DocumentPermissionsHelper.assertCanView(rootDocument, UserSession.getCurrentPermissions());
 
 			return rootDocumentProcessor.apply(rootDocument);
@@ -278,7 +421,7 @@ public class DocumentCollection
 			{
 				rootDocument = getOrLoadDocument(rootDocumentKey)
 						.copy(CopyMode.CheckOutWritable, changesCollector)
-						.refreshFromRepositoryIfStaled();
+						.refreshFromRepositoryIfStaled(stalenessTracker);
 
 				DocumentPermissionsHelper.assertCanEdit(rootDocument);
 			}
@@ -291,7 +434,7 @@ public class DocumentCollection
 			// Commit or remove it from cache if deleted
 			if (rootDocument.isDeleted())
 			{
-				rootDocuments.invalidate(rootDocumentKey);
+				invalidateRootDocumentsFromCache(ImmutableSet.of(rootDocumentKey));
 				changesCollector.collectDeleted(rootDocument.getDocumentPath());
 			}
 			else
@@ -364,6 +507,7 @@ public class DocumentCollection
 		// TODO: invalidate only those which are: 1. NOT new; 2. NOT currently editing
 		rootDocuments.invalidateAll();
 		rootDocuments.cleanUp();
+		evictedRootDocuments.invalidateAll();
 	}
 
 	private void commitRootDocument(@NonNull final Document rootDocument)
@@ -384,7 +528,7 @@ public class DocumentCollection
 		//
 		// Add the saved and changed document back to index
 		final DocumentKey rootDocumentKey = DocumentKey.of(rootDocument);
-		rootDocuments.put(rootDocumentKey, rootDocument.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance));
+		putRootDocumentToCache(rootDocumentKey, rootDocument.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance));
 		addToTableName2WindowIdsCache(rootDocument.getEntityDescriptor());
 
 		//
@@ -562,6 +706,9 @@ public class DocumentCollection
 		}
 	}
 
+	/**
+	 * Creates the document's print, or gets it from the prints cache, if the document was not changed since it was last printed.
+	 */
 	public DocumentPrint createDocumentPrint(final DocumentPath documentPath)
 	{
 		final Document document = getDocumentReadonly(documentPath);
@@ -571,6 +718,24 @@ public class DocumentCollection
 		final int printProcessId = entityDescriptor.getPrintProcessId();
 		final TableRecordReference recordRef = getTableRecordReference(documentPath);
 
+		final String version = document.getVersion();
+		if (version == null || document.isNew())
+		{
+			return createDocumentPrint(windowNo, printProcessId, recordRef);
+		}
+
+		final DocumentPrintKey printKey = DocumentPrintKey.builder()
+				.windowId(documentPath.getWindowId())
+				.documentId(documentPath.getDocumentId())
+				.version(version)
+				.printProcessId(printProcessId)
+				.adLanguage(Env.getAD_Language(Env.getCtx()))
+				.build();
+		return printCache.getOrCreate(printKey, () -> createDocumentPrint(windowNo, printProcessId, recordRef));
+	}
+
+	private static DocumentPrint createDocumentPrint(final int windowNo, final int printProcessId, final TableRecordReference recordRef)
+	{
 		final ProcessExecutionResult processExecutionResult = ProcessInfo.builder()
 				.setCtx(Env.getCtx())
 				.setAD_Process_ID(printProcessId)
@@ -588,7 +753,7 @@ public class DocumentCollection
 		return DocumentPrint.builder()
 				.filename(processExecutionResult.getReportFilename())
 				.reportContentType(processExecutionResult.getReportContentType())
-				.reportData(processExecutionResult.getReportData())
+				.reportData(ByteBuffer.wrap(processExecutionResult.getReportData()))
 				.build();
 	}
 
@@ -622,7 +787,7 @@ public class DocumentCollection
 
 		//
 		// Invalidate the root documents
-		rootDocuments.invalidateAll(documentKeys);
+		invalidateRootDocumentsFromCache(documentKeys);
 
 		//
 		// Notify frontend
@@ -665,16 +830,24 @@ public class DocumentCollection
 		// Get the root document if exists
 		final DocumentPath rootDocumentPath = documentPath.getRootDocumentPath();
 		final DocumentKey documentKey = DocumentKey.ofRootDocumentPath(rootDocumentPath);
-		final Document document = rootDocuments.getIfPresent(documentKey);
+		final Document document = getCachedRootDocumentOrNull(documentKey);
 
 		// Invalidate
+		// NOTE: the cached root document is a readonly snapshot shared between readers, so instead of changing (or copying) it
+		// we are evicting it, and it will be loaded again when it's requested next time.
+		// We are doing it while holding the write lock, so a writer which is about to put back its changed copy cannot put back the staled included documents after us.
+		// The document's version is not changed when only the included documents were changed, so the cached prints are invalidated too.
 		if (document != null)
 		{
 			try (final IAutoCloseable lock = document.lockForWriting())
 			{
-				document.getIncludedDocumentsCollection(documentPath.getDetailId()).markStale(documentPath.getSingleRowId());
+				invalidateRootDocumentsFromCache(ImmutableSet.of(documentKey));
 			}
 		}
+		else
+		{
+			printCache.invalidate(documentKey.getWindowId(), documentKey.getDocumentId());
+		}
 
 		//
 		// Notify frontend, even if the root document does not exist (or it was not cached).
@@ -693,7 +866,7 @@ public class DocumentCollection
 
 		//
 		// Invalidate the root documents
-		rootDocuments.invalidate(documentKey);
+		invalidateRootDocumentsFromCache(ImmutableSet.of(documentKey));
 
 		//
 		// Notify frontend
@@ -777,7 +950,7 @@ public class DocumentCollection
 	}
 
 	@Immutable
-	@Value
+	@lombok.Value
 	@Builder
 	public static final class DocumentPrint
 	{
@@ -785,8 +958,31 @@ public class DocumentCollection
 		private final String filename;
 		@NonNull
 		private final String reportContentType;
+		/** report data; might be backed by a memory mapped file (see {@link DocumentPrintCache}), so we always access it through duplicates */
 		@NonNull
-		private final byte[] reportData;
+		@Getter(AccessLevel.NONE)
+		private final ByteBuffer reportData;
+
+		public byte[] getReportData()
+		{
+			final ByteBuffer reportData = this.reportData.duplicate();
+			final byte[] bytes = new byte[reportData.remaining()];
+			reportData.get(bytes);
+			return bytes;
+		}
+
+		public int getReportDataSize()
+		{
+			return reportData.remaining();
+		}
+
+		/**
+		 * @return report data as a resource which can be read more than once (e.g. for HTTP range requests), without copying the data
+		 */
+		public Resource getReportDataAsResource()
+		{
+			return ByteBufferResource.of(reportData, filename);
+		}
 	}
 
 	@Immutable
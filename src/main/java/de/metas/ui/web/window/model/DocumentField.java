@@ -148,7 +148,8 @@ import lombok.NonNull;
 		return descriptor;
 	}
 
-	private LookupDataSource getLookupDataSourceOrNull()
+	@Override
+	public LookupDataSource getLookupDataSourceOrNull()
 	{
 		return _lookupDataSource;
 	}
@@ -224,6 +225,12 @@ import lombok.NonNull;
 
 	@Override
 	public Object getValueAsJsonObject(final String adLanguage)
+	{
+		return getValueAsJsonObject(adLanguage, LookupValuesList.EMPTY);
+	}
+
+	@Override
+	public Object getValueAsJsonObject(final String adLanguage, @NonNull final LookupValuesList translatedLookupValues)
 	{
 		Object value = getValue();
 		if (value == null)
@@ -233,21 +240,30 @@ import lombok.NonNull;
 
 		//
 		// If we are dealing with a lookup value, make, sure it's translated (see https://github.com/metasfresh/metasfresh-webui-api/issues/311 )
-		final LookupDataSource lookupDataSource = getLookupDataSourceOrNull();
-		if (lookupDataSource != null && value instanceof LookupValue)
+		final Object lookupValueIdToTranslate = getLookupValueIdToTranslateOrNull(adLanguage);
+		if (lookupValueIdToTranslate != null)
 		{
-			final LookupValue lookupValue = (LookupValue)value;
-			final ITranslatableString displayNameTrl = lookupValue.getDisplayNameTrl();
-			if (!displayNameTrl.isTranslatedTo(adLanguage))
-			{
-				final LookupValue lookupValueNew = lookupDataSource.findById(lookupValue.getId());
-				value = lookupValueNew;
-			}
+			final LookupValue lookupValueTranslated = translatedLookupValues.getById(lookupValueIdToTranslate);
+			value = lookupValueTranslated != null ? lookupValueTranslated : getLookupDataSource().findById(lookupValueIdToTranslate);
 		}
 
 		return Values.valueToJsonObject(value);
 	}
 
+	@Override
+	public Object getLookupValueIdToTranslateOrNull(final String adLanguage)
+	{
+		final Object value = getValue();
+		if (getLookupDataSourceOrNull() == null || !(value instanceof LookupValue))
+		{
+			return null;
+		}
+
+		final LookupValue lookupValue = (LookupValue)value;
+		final ITranslatableString displayNameTrl = lookupValue.getDisplayNameTrl();
+		return displayNameTrl.isTranslatedTo(adLanguage) ? null : lookupValue.getId();
+	}
+
 	@Override
 	public int getValueAsInt(final int defaultValueWhenNull)
 	{
@@ -422,7 +438,7 @@ import lombok.NonNull;
 		final LookupDataSource lookupDataSource = getLookupDataSource();
 		final Evaluatee ctx = getDocument().asEvaluatee();
 		final LookupValuesList values = lookupDataSource.findEntities(ctx);
-		lookupValuesStaled = false;
+		markLookupValuesNotStaled();
 		return values == null ? LookupValuesList.EMPTY : values;
 	}
 
@@ -432,10 +448,21 @@ import lombok.NonNull;
 		final LookupDataSource lookupDataSource = getLookupDataSource();
 		final Evaluatee ctx = getDocument().asEvaluatee();
 		final LookupValuesList values = lookupDataSource.findEntities(ctx, query);
-		lookupValuesStaled = false;
+		markLookupValuesNotStaled();
 		return values;
 	}
 
+	private void markLookupValuesNotStaled()
+	{
+		// NOTE: readonly documents are shared snapshots (see DocumentCollection.forRootDocumentReadonly), so don't change them
+		if (!getDocument().isWritable())
+		{
+			return;
+		}
+
+		lookupValuesStaled = false;
+	}
+
 	@Override
 	public ICalloutField asCalloutField()
 	{
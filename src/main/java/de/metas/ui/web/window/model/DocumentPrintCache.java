@@ -0,0 +1,148 @@
+package de.metas.ui.web.window.model;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.compiere.util.Util.ArrayKey;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.cache.MappedFilesCache;
+import de.metas.ui.web.cache.MappedFilesCache.Content;
+import de.metas.ui.web.cache.MappedFilesCache.MappedFile;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.model.DocumentCollection.DocumentPrint;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * On-disk cache of rendered document prints, bounded by the total size of the report files (see {@link MappedFilesCache}).
+ * <p>
+ * The entries are keyed by document version, print process and language, but because the version of a document does not change when its included documents are changed,
+ * the entries are also invalidated together with the document (see {@link #invalidate(WindowId, DocumentId)}).
+ */
+/* package */ final class DocumentPrintCache
+{
+	private final int expireAfterWriteMinutes;
+	private final MappedFilesCache<DocumentPrintKey, PrintInfo> prints;
+
+	/* package */ DocumentPrintCache(final int maxSizeMB, final int expireAfterWriteMinutes)
+	{
+		this.expireAfterWriteMinutes = expireAfterWriteMinutes;
+
+		prints = MappedFilesCache.<DocumentPrintKey, PrintInfo> builder()
+				.name("prints")
+				.maxSizeMB(maxSizeMB)
+				.expireAfterWriteMinutes(Math.max(expireAfterWriteMinutes, 1))
+				.groupKeyFunction(DocumentPrintKey::getDocumentKey)
+				.build();
+	}
+
+	public DocumentPrint getOrCreate(@NonNull final DocumentPrintKey key, @NonNull final Supplier<DocumentPrint> printCreator)
+	{
+		if (!prints.isEnabled())
+		{
+			return printCreator.get();
+		}
+
+		final MappedFile<PrintInfo> cachedPrintFile = prints.getIfPresent(key);
+		if (cachedPrintFile != null)
+		{
+			return toDocumentPrint(cachedPrintFile);
+		}
+
+		final DocumentPrint print = printCreator.get();
+		if (!prints.isCacheable(print.getReportDataSize()))
+		{
+			return print;
+		}
+
+		final MappedFile<PrintInfo> printFile = prints.getOrCreate(key, () -> Content.of(print.getReportData(), PrintInfo.of(print.getFilename(), print.getReportContentType())));
+		return toDocumentPrint(printFile);
+	}
+
+	private static DocumentPrint toDocumentPrint(final MappedFile<PrintInfo> printFile)
+	{
+		return DocumentPrint.builder()
+				.filename(printFile.getMetadata().getFilename())
+				.reportContentType(printFile.getMetadata().getReportContentType())
+				.reportData(printFile.getData())
+				.build();
+	}
+
+	public void invalidate(@NonNull final WindowId windowId, @NonNull final DocumentId documentId)
+	{
+		if (!prints.isEnabled())
+		{
+			return;
+		}
+
+		prints.invalidateGroup(DocumentPrintKey.documentKey(windowId, documentId));
+	}
+
+	public Map<String, Object> getStats()
+	{
+		return ImmutableMap.<String, Object> builder()
+				.putAll(prints.getStats())
+				.put("expireAfterWriteMinutes", expireAfterWriteMinutes)
+				.build();
+	}
+
+	@lombok.Value
+	@Builder
+	public static final class DocumentPrintKey
+	{
+		@NonNull
+		private final WindowId windowId;
+		@NonNull
+		private final DocumentId documentId;
+		@NonNull
+		private final String version;
+		private final int printProcessId;
+		@NonNull
+		private final String adLanguage;
+
+		private static ArrayKey documentKey(final WindowId windowId, final DocumentId documentId)
+		{
+			return ArrayKey.of(windowId, documentId);
+		}
+
+		/** @return the key of the document this print belongs to; all prints of a document are invalidated together */
+		private ArrayKey getDocumentKey()
+		{
+			return documentKey(windowId, documentId);
+		}
+	}
+
+	@lombok.Value(staticConstructor = "of")
+	private static final class PrintInfo
+	{
+		@NonNull
+		private final String filename;
+		@NonNull
+		private final String reportContentType;
+	}
+}
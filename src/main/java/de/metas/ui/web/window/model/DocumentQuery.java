@@ -215,6 +215,13 @@ public final class DocumentQuery
 			return documentsRepository.retrieveParentDocumentId(parentEntityDescriptor, query);
 		}
 		
+		public int retrieveCount()
+		{
+			final DocumentQuery query = build();
+			final DocumentsRepository documentsRepository = getDocumentsRepository();
+			return documentsRepository.retrieveCount(query);
+		}
+
 		public int retrieveLastLineNo()
 		{
 			final DocumentQuery query = build();
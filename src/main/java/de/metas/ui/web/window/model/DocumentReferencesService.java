@@ -1,26 +1,50 @@
 package de.metas.ui.web.window.model;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
+import org.adempiere.ad.dao.cache.CacheInvalidateMultiRequest;
+import org.adempiere.ad.dao.cache.CacheInvalidateRequest;
 import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.ZoomInfoFactory;
 import org.adempiere.model.ZoomInfoFactory.IZoomSource;
 import org.adempiere.model.ZoomInfoFactory.ZoomInfo;
 import org.adempiere.util.Services;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.model.I_AD_Column;
+import org.compiere.util.CacheMgt;
+import org.compiere.util.Env;
 import org.compiere.util.Evaluatee;
+import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.ImmutableTranslatableString;
+import de.metas.logging.LogManager;
+import de.metas.security.UserRolePermissionsKey;
 import de.metas.ui.web.document.filter.MQueryDocumentFilterHelper;
 import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.datatypes.DocumentPath;
@@ -28,6 +52,7 @@ import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentFieldDataBindingDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
+import de.metas.ui.web.window.model.Document.CopyMode;
 import lombok.Getter;
 import lombok.NonNull;
 
@@ -53,33 +78,141 @@ import lombok.NonNull;
  * #L%
  */
 
+/**
+ * Provides the references (zoom targets and their records count) of a given document.
+ * <p>
+ * The references are loaded in background, on a bounded thread pool, and outside of the document's lock.
+ * The caller waits for them at most {@link #timeoutMillis}. The references which are loaded after that are passed to a given consumer (e.g. to be published to websocket).
+ * <p>
+ * The loaded references are cached for a short time ({@link #cacheExpireAfterWriteSeconds}) per document and permissions,
+ * and they are invalidated earlier when the source document or any of the referenced tables are changed.
+ */
 @Service
 public class DocumentReferencesService
 {
+	private static final Logger logger = LogManager.getLogger(DocumentReferencesService.class);
+
 	@Autowired
 	private DocumentCollection documentCollection;
 
-	public List<DocumentReference> getDocumentReferences(final DocumentPath documentPath)
+	@Value("${metasfresh.webui.documentReferences.threads:4}")
+	private int threadsCount;
+	@Value("${metasfresh.webui.documentReferences.timeoutMillis:3000}")
+	private long timeoutMillis;
+	@Value("${metasfresh.webui.documentReferences.cache.expireAfterWriteSeconds:60}")
+	private int cacheExpireAfterWriteSeconds;
+
+	private ExecutorService async;
+	private Cache<DocumentReferencesKey, DocumentReferencesLoader> loaders;
+
+	@PostConstruct
+	private void postConstruct()
 	{
-		return documentCollection.forDocumentReadonly(documentPath, document -> {
+		final CustomizableThreadFactory asyncThreadFactory = new CustomizableThreadFactory(DocumentReferencesService.class.getSimpleName());
+		asyncThreadFactory.setDaemon(true);
+		async = Executors.newFixedThreadPool(Math.max(threadsCount, 1), asyncThreadFactory);
+
+		loaders = CacheBuilder.newBuilder()
+				.maximumSize(1000)
+				.expireAfterWrite(Math.max(cacheExpireAfterWriteSeconds, 1), TimeUnit.SECONDS)
+				.removalListener((final RemovalNotification<DocumentReferencesKey, DocumentReferencesLoader> notification) -> notification.getValue().cancel())
+				.build();
 
-			if (document.isNew())
+		CacheMgt.get().addCacheResetListener(this::onCacheReset);
+	}
+
+	@PreDestroy
+	private void preDestroy()
+	{
+		async.shutdownNow();
+	}
+
+	private int onCacheReset(final CacheInvalidateMultiRequest multiRequest)
+	{
+		for (final CacheInvalidateRequest request : multiRequest.getRequests())
+		{
+			final String rootTableName = request.getRootTableName();
+			if (rootTableName == null)
 			{
-				return ImmutableList.of();
+				loaders.invalidateAll();
+				break;
 			}
 
-			final DocumentAsZoomSource zoomSource = new DocumentAsZoomSource(document);
-			final ITranslatableString filterCaption = extractFilterCaption(document);
+			final String childTableName = request.getChildTableName();
+			loaders.asMap().values().removeIf(loader -> loader.isAffectedByTableName(rootTableName) || loader.isAffectedByTableName(childTableName));
+		}
+
+		return 1; // not relevant
+	}
+
+	/**
+	 * Gets the references which were loaded within {@link #timeoutMillis}.
+	 * <p>
+	 * If not all references were loaded, the result is flagged as not complete and the <code>lateReferencesListener</code> will be notified (from a background thread)
+	 * about the references loaded after that and when the loading is done.
+	 * Calling this method again for the same document is returning all references loaded so far, so a caller which was not notified can always re-poll.
+	 *
+	 * @param lateReferencesListener listener of the references which were not loaded within {@link #timeoutMillis}; equal listeners are registered only once
+	 */
+	public DocumentReferencesResult getDocumentReferences(
+			@NonNull final DocumentPath documentPath,
+			@NonNull final LateDocumentReferencesListener lateReferencesListener)
+	{
+		final UserRolePermissionsKey permissionsKey = UserRolePermissionsKey.of(Env.getCtx());
+		final DocumentReferencesKey key = DocumentReferencesKey.of(documentPath, permissionsKey);
+
+		DocumentReferencesLoader loader = loaders.getIfPresent(key);
+		if (loader == null)
+		{
+			loader = createLoaderOrNull(documentPath);
+			if (loader == null)
+			{
+				return DocumentReferencesResult.EMPTY;
+			}
+
+			final DocumentReferencesLoader existingLoader = loaders.asMap().putIfAbsent(key, loader);
+			if (existingLoader != null)
+			{
+				loader = existingLoader;
+			}
+			else
+			{
+				loader.start(key);
+			}
+		}
+
+		return loader.getReferences(timeoutMillis, lateReferencesListener);
+	}
 
-			return ZoomInfoFactory.get()
-					.streamZoomInfos(zoomSource)
-					.map(zoomInfo -> createDocumentReference(zoomInfo, filterCaption))
-					.collect(ImmutableList.toImmutableList());
+	private DocumentReferencesLoader createLoaderOrNull(final DocumentPath documentPath)
+	{
+		// NOTE: the shared readonly documents can still change while they are used (e.g. when loading their included documents),
+		// so, while holding the read lock, we take a private copy which is used only by the loader.
+		// Having this, we are holding the lock only while the zoom source is created and not while the references are loaded.
+		return documentCollection.forDocumentReadonly(documentPath, document -> {
+			if (document.isNew())
+			{
+				return null;
+			}
+
+			final Document rootDocumentCopy = document.getRootDocument().copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
+			final Document documentCopy = documentPath.isRootDocument() ? rootDocumentCopy : rootDocumentCopy.getIncludedDocument(documentPath.getDetailId(), documentPath.getSingleRowId());
+			return new DocumentReferencesLoader(
+					new DocumentAsZoomSource(documentCopy),
+					extractFilterCaption(document),
+					Env.copyCtx(Env.getCtx()));
 		});
 	}
 
 	public DocumentReference getDocumentReference(final DocumentPath sourceDocumentPath, final WindowId targetWindowId)
 	{
+		final DocumentReferencesLoader loader = loaders.getIfPresent(DocumentReferencesKey.of(sourceDocumentPath, UserRolePermissionsKey.of(Env.getCtx())));
+		final DocumentReference cachedReference = loader != null ? loader.getLoadedReferenceOrNull(targetWindowId) : null;
+		if (cachedReference != null)
+		{
+			return cachedReference;
+		}
+
 		return documentCollection.forDocumentReadonly(sourceDocumentPath, sourceDocument -> {
 			if (sourceDocument.isNew())
 			{
@@ -140,6 +273,220 @@ public class DocumentReferencesService
 				.build();
 	}
 
+	/**
+	 * Listener of the document references which were loaded after {@link DocumentReferencesService#getDocumentReferences(DocumentPath, LateDocumentReferencesListener)} returned.
+	 */
+	public interface LateDocumentReferencesListener
+	{
+		void onReferenceLoaded(DocumentReference reference);
+
+		/** Called when the loading finished, failed or was cancelled. The callers shall re-poll the references to get the final list. */
+		void onLoadingDone();
+	}
+
+	@lombok.Value(staticConstructor = "of")
+	public static final class DocumentReferencesResult
+	{
+		public static final DocumentReferencesResult EMPTY = of(ImmutableList.of(), true);
+
+		private final ImmutableList<DocumentReference> references;
+		/** <code>false</code> if the references are still loading, in which case the not yet loaded ones are not included */
+		private final boolean complete;
+	}
+
+	@lombok.Value(staticConstructor = "of")
+	private static final class DocumentReferencesKey
+	{
+		private final DocumentPath documentPath;
+		private final UserRolePermissionsKey permissionsKey;
+	}
+
+	/**
+	 * Loads the references of one document in background and collects them as they are loaded.
+	 */
+	private final class DocumentReferencesLoader
+	{
+		private final DocumentAsZoomSource zoomSource;
+		private final ITranslatableString filterCaption;
+		private final Properties ctx;
+
+		/** source table and referenced tables; the references shall be reloaded when any of them changes */
+		private final Set<String> tableNames = ConcurrentHashMap.newKeySet();
+
+		private final List<DocumentReference> references = new ArrayList<>(); // guarded by this
+		private final Set<LateDocumentReferencesListener> lateReferencesListeners = new LinkedHashSet<>(); // guarded by this
+		private boolean done = false; // guarded by this
+		private Throwable error = null; // guarded by this
+		private Future<?> future; // guarded by this
+		private volatile boolean cancelled = false;
+
+		private DocumentReferencesLoader(
+				@NonNull final DocumentAsZoomSource zoomSource,
+				@NonNull final ITranslatableString filterCaption,
+				@NonNull final Properties ctx)
+		{
+			this.zoomSource = zoomSource;
+			this.filterCaption = filterCaption;
+			this.ctx = ctx;
+
+			tableNames.add(zoomSource.getTableName());
+		}
+
+		@Override
+		public String toString()
+		{
+			return MoreObjects.toStringHelper(this)
+					.add("zoomSource", zoomSource)
+					.toString();
+		}
+
+		public synchronized void start(final DocumentReferencesKey key)
+		{
+			future = async.submit(() -> load(key));
+		}
+
+		public synchronized void cancel()
+		{
+			cancelled = true;
+			if (future != null)
+			{
+				future.cancel(true);
+			}
+		}
+
+		public boolean isAffectedByTableName(@Nullable final String tableName)
+		{
+			return tableName != null && tableNames.contains(tableName);
+		}
+
+		private void load(final DocumentReferencesKey key)
+		{
+			try (final IAutoCloseable c = Env.switchContext(ctx))
+			{
+				ZoomInfoFactory.get()
+						.streamZoomInfos(zoomSource)
+						.peek(this::assertNotInterrupted)
+						.forEach(zoomInfo -> {
+							tableNames.add(zoomInfo.getQuery().getTableName());
+							onReferenceLoaded(createDocumentReference(zoomInfo, filterCaption));
+						});
+
+				onDone(null);
+			}
+			catch (final Throwable ex)
+			{
+				if (cancelled)
+				{
+					// the references got invalidated meanwhile, so return to current callers what we have so far
+					logger.debug("Loading the references of {} was cancelled", zoomSource);
+					onDone(null);
+					return;
+				}
+
+				logger.warn("Failed loading the references of {}", zoomSource, ex);
+				onDone(ex);
+
+				// don't cache the failed loaders
+				loaders.asMap().remove(key, this);
+			}
+		}
+
+		private void assertNotInterrupted(final ZoomInfo zoomInfo)
+		{
+			if (Thread.currentThread().isInterrupted())
+			{
+				throw new AdempiereException("Loading the references was cancelled");
+			}
+		}
+
+		private void onReferenceLoaded(final DocumentReference reference)
+		{
+			final List<LateDocumentReferencesListener> listeners;
+			synchronized (this)
+			{
+				references.add(reference);
+				listeners = ImmutableList.copyOf(lateReferencesListeners);
+			}
+
+			for (final LateDocumentReferencesListener listener : listeners)
+			{
+				try
+				{
+					listener.onReferenceLoaded(reference);
+				}
+				catch (final Exception ex)
+				{
+					logger.warn("Failed notifying {} about {}. Ignored.", listener, reference, ex);
+				}
+			}
+		}
+
+		private void onDone(@Nullable final Throwable error)
+		{
+			final List<LateDocumentReferencesListener> listeners;
+			synchronized (this)
+			{
+				this.done = true;
+				this.error = error;
+				listeners = ImmutableList.copyOf(lateReferencesListeners);
+				lateReferencesListeners.clear();
+				notifyAll();
+			}
+
+			for (final LateDocumentReferencesListener listener : listeners)
+			{
+				try
+				{
+					listener.onLoadingDone();
+				}
+				catch (final Exception ex)
+				{
+					logger.warn("Failed notifying {} that loading is done. Ignored.", listener, ex);
+				}
+			}
+		}
+
+		public synchronized DocumentReferencesResult getReferences(final long timeoutMillis, final LateDocumentReferencesListener lateReferencesListener)
+		{
+			final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+			long remainingNanos = deadlineNanos - System.nanoTime();
+			while (!done && remainingNanos > 0)
+			{
+				try
+				{
+					TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+				}
+				catch (final InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+					break;
+				}
+				remainingNanos = deadlineNanos - System.nanoTime();
+			}
+
+			if (error != null)
+			{
+				throw AdempiereException.wrapIfNeeded(error);
+			}
+			if (!done)
+			{
+				lateReferencesListeners.add(lateReferencesListener);
+			}
+
+			// NOTE: a cancelled loader got invalidated, so its references are not complete; the next call will use a new loader
+			final boolean complete = done && !cancelled;
+			return DocumentReferencesResult.of(ImmutableList.copyOf(references), complete);
+		}
+
+		public synchronized DocumentReference getLoadedReferenceOrNull(final WindowId targetWindowId)
+		{
+			return references.stream()
+					.filter(reference -> targetWindowId.equals(reference.getWindowId()))
+					.findFirst()
+					.orElse(null);
+		}
+	}
+
 	private static final class DocumentAsZoomSource implements IZoomSource
 	{
 		private final Properties ctx;
@@ -0,0 +1,166 @@
+package de.metas.ui.web.window.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.adempiere.util.lang.impl.TableRecordReference;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Tracks when the records were changed, based on the cache invalidation events (see {@link DocumentCacheInvalidationDispatcher}).
+ * <p>
+ * It's used to avoid checking the document's version in database (see {@link Document#refreshFromRepositoryIfStaled(DocumentStalenessTracker)})
+ * when we know for sure the document was not changed since its version was last checked.
+ * <p>
+ * We consider we don't know for sure, i.e. the document might be changed, when:
+ * <ul>
+ * <li>we got an invalidation event for the record, for the whole table or for everything, after the version was checked
+ * <li>the tracked invalidation events were evicted because there were too many of them (i.e. we lost sync)
+ * <li>the version was checked more than {@link #trustIntervalNanos} ago
+ * </ul>
+ *
+ * NOTE: all timestamps are {@link System#nanoTime()} values, so they have to be compared by subtraction.
+ */
+/* package */ final class DocumentStalenessTracker
+{
+	private static final int MAX_TRACKED_RECORDS = 100000;
+
+	private final long trustIntervalNanos;
+
+	private final Cache<TableRecordReference, Long> lastChangeNanosByRecordRef;
+	private final Map<String, Long> lastChangeNanosByTableName = new ConcurrentHashMap<>();
+	private volatile long lastChangeAllNanos;
+	private volatile long lostSyncNanos;
+
+	private final AtomicLong checksSkippedCount = new AtomicLong();
+	private final AtomicLong checksRequiredCount = new AtomicLong();
+
+	/**
+	 * @param trustIntervalSeconds how long we trust a checked document version if we get no invalidation events for it; if <= 0 the versions are always checked
+	 */
+	/* package */ DocumentStalenessTracker(final int trustIntervalSeconds)
+	{
+		trustIntervalNanos = TimeUnit.SECONDS.toNanos(Math.max(trustIntervalSeconds, 0));
+
+		// NOTE: older events are not relevant because any version checked before them shall be checked again anyways
+		lastChangeNanosByRecordRef = CacheBuilder.newBuilder()
+				.maximumSize(MAX_TRACKED_RECORDS)
+				.expireAfterWrite(Math.max(trustIntervalSeconds, 1), TimeUnit.SECONDS)
+				.removalListener(this::onRecordRemoved)
+				.build();
+
+		final long now = System.nanoTime();
+		lastChangeAllNanos = now;
+		lostSyncNanos = now;
+	}
+
+	private void onRecordRemoved(final RemovalNotification<TableRecordReference, Long> notification)
+	{
+		if (notification.getCause() == RemovalCause.SIZE)
+		{
+			lostSyncNanos = System.nanoTime();
+		}
+	}
+
+	public void markRecordChanged(@NonNull final String tableName, final int recordId)
+	{
+		lastChangeNanosByRecordRef.put(TableRecordReference.of(tableName, recordId), System.nanoTime());
+	}
+
+	public void markTableChanged(@NonNull final String tableName)
+	{
+		lastChangeNanosByTableName.put(tableName, System.nanoTime());
+	}
+
+	public void markAllChanged()
+	{
+		lastChangeAllNanos = System.nanoTime();
+	}
+
+	/**
+	 * @param sinceNanos {@link System#nanoTime()} when the record's version was checked
+	 * @return true if the record might be changed since given time, so its version shall be checked again
+	 */
+	public boolean isPossiblyChangedSince(@NonNull final String tableName, final int recordId, final long sinceNanos)
+	{
+		final boolean possiblyChanged = checkPossiblyChangedSince(tableName, recordId, sinceNanos);
+		if (possiblyChanged)
+		{
+			checksRequiredCount.incrementAndGet();
+		}
+		else
+		{
+			checksSkippedCount.incrementAndGet();
+		}
+		return possiblyChanged;
+	}
+
+	private boolean checkPossiblyChangedSince(final String tableName, final int recordId, final long sinceNanos)
+	{
+		if (System.nanoTime() - sinceNanos >= trustIntervalNanos)
+		{
+			return true;
+		}
+		if (isAfter(lastChangeAllNanos, sinceNanos) || isAfter(lostSyncNanos, sinceNanos))
+		{
+			return true;
+		}
+
+		final Long lastTableChangeNanos = lastChangeNanosByTableName.get(tableName);
+		if (lastTableChangeNanos != null && isAfter(lastTableChangeNanos, sinceNanos))
+		{
+			return true;
+		}
+
+		final Long lastRecordChangeNanos = lastChangeNanosByRecordRef.getIfPresent(TableRecordReference.of(tableName, recordId));
+		return lastRecordChangeNanos != null && isAfter(lastRecordChangeNanos, sinceNanos);
+	}
+
+	/** @return true if <code>nanos</code> is after or the same as <code>sinceNanos</code> */
+	private static boolean isAfter(final long nanos, final long sinceNanos)
+	{
+		return nanos - sinceNanos >= 0;
+	}
+
+	public Map<String, Object> getStats()
+	{
+		return ImmutableMap.<String, Object> builder()
+				.put("trustIntervalSeconds", TimeUnit.NANOSECONDS.toSeconds(trustIntervalNanos))
+				.put("trackedRecordsCount", lastChangeNanosByRecordRef.size())
+				.put("trackedTablesCount", lastChangeNanosByTableName.size())
+				.put("checksSkippedCount", checksSkippedCount.get())
+				.put("checksRequiredCount", checksRequiredCount.get())
+				.build();
+	}
+}
@@ -64,4 +64,7 @@ public interface DocumentsRepository
 	String retrieveVersion(DocumentEntityDescriptor entityDescriptor, int documentIdAsInt);
 
 	int retrieveLastLineNo(DocumentQuery query);
+
+	/** @return how many documents are matched by given query; query's paging is ignored */
+	int retrieveCount(DocumentQuery query);
 }
@@ -13,6 +13,7 @@ import org.compiere.util.Evaluatee;
 import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 
 import de.metas.logging.LogManager;
@@ -176,11 +177,70 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 			documents.addDocuments(documentsWithChanges.values());
 		}
 
-		staled = false;
+		// NOTE: readonly documents are shared snapshots (see DocumentCollection.forRootDocumentReadonly), so don't change them
+		if (parentDocument.isWritable())
+		{
+			staled = false;
+		}
 
 		return documents;
 	}
 
+	/**
+	 * The page is made of the documents from database (where the ones with changes are replaced by their changed version),
+	 * followed by the new documents which were never saved in database.
+	 */
+	@Override
+	public OrderedDocumentsList getDocumentsPage(final List<DocumentQueryOrderBy> orderBys, final int firstRow, final int pageLength)
+	{
+		final Map<DocumentId, Document> documentsWithChanges = getInnerDocumentsWithChanges();
+		final OrderedDocumentsList documents = DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.setExistingDocumentsSupplier(documentsWithChanges::get)
+				.setChangesCollector(NullDocumentChangesCollector.instance)
+				.setOrderBys(orderBys)
+				.setFirstRow(firstRow)
+				.setPageLength(pageLength)
+				.retriveDocuments();
+
+		//
+		// Fill up the page with the new documents, if any
+		final List<Document> newDocuments = getNewDocuments();
+		final boolean pageFull = pageLength > 0 && documents.size() >= pageLength;
+		if (!newDocuments.isEmpty() && !pageFull)
+		{
+			final int countSaved = DocumentQuery.builder(entityDescriptor)
+					.setParentDocument(parentDocument)
+					.retrieveCount();
+			final int fromIndex = Math.min(Math.max(firstRow, 0) + documents.size() - countSaved, newDocuments.size());
+			final int toIndex = pageLength > 0 ? Math.min(fromIndex + pageLength - documents.size(), newDocuments.size()) : newDocuments.size();
+			if (fromIndex >= 0 && fromIndex < toIndex)
+			{
+				documents.addDocuments(newDocuments.subList(fromIndex, toIndex));
+			}
+		}
+
+		return documents;
+	}
+
+	@Override
+	public int getDocumentsCount()
+	{
+		final int countSaved = DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.retrieveCount();
+		return countSaved + getNewDocuments().size();
+	}
+
+	/** @return documents which were never saved in database */
+	private List<Document> getNewDocuments()
+	{
+		return getChangedDocuments()
+				.stream()
+				.filter(Document::isNew)
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	@Override
 	public Document getDocumentById(final DocumentId documentId)
 	{
@@ -389,6 +449,12 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		return staled;
 	}
 
+	@Override
+	public int getLoadedDocumentsCount()
+	{
+		return _documentsWithChanges.size();
+	}
+
 	@Override
 	public int getNextLineNo()
 	{
@@ -81,6 +81,26 @@ public final class HighVolumeReadonlyIncludedDocumentsCollection implements IInc
 				.retriveDocuments();
 	}
 
+	@Override
+	public OrderedDocumentsList getDocumentsPage(final List<DocumentQueryOrderBy> orderBys, final int firstRow, final int pageLength)
+	{
+		return DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.setChangesCollector(NullDocumentChangesCollector.instance)
+				.setOrderBys(orderBys)
+				.setFirstRow(firstRow)
+				.setPageLength(pageLength)
+				.retriveDocuments();
+	}
+
+	@Override
+	public int getDocumentsCount()
+	{
+		return DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.retrieveCount();
+	}
+
 	@Override
 	public Document getDocumentById(final DocumentId documentId)
 	{
@@ -173,4 +193,10 @@ public final class HighVolumeReadonlyIncludedDocumentsCollection implements IInc
 	{
 		throw new UnsupportedOperationException();
 	}
+
+	@Override
+	public int getLoadedDocumentsCount()
+	{
+		return 0; // NOTE: we are always querying the documents, we are not keeping them
+	}
 }
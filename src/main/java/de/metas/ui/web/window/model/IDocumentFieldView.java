@@ -5,11 +5,13 @@ import java.util.Optional;
 import org.adempiere.ad.expression.api.LogicExpressionResult;
 
 import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor.Characteristic;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.model.lookup.DocumentZoomIntoInfo;
+import de.metas.ui.web.window.model.lookup.LookupDataSource;
 
 /*
  * #%L
@@ -79,6 +81,12 @@ public interface IDocumentFieldView
 	/** @return field's current value */
 	Object getValue();
 	Object getValueAsJsonObject(String adLanguage);
+	/** Same as {@link #getValueAsJsonObject(String)} but the translated lookup value is taken from given list, if it's there, instead of fetching it again. */
+	Object getValueAsJsonObject(String adLanguage, LookupValuesList translatedLookupValues);
+	/** @return the ID of the lookup value which has to be fetched again to get it translated to given language or <code>null</code> if there is no such need */
+	Object getLookupValueIdToTranslateOrNull(String adLanguage);
+	/** @return lookup data source or <code>null</code> if this is not a lookup field */
+	LookupDataSource getLookupDataSourceOrNull();
 	boolean getValueAsBoolean();
 	int getValueAsInt(final int defaultValueWhenNull);
 	DocumentZoomIntoInfo getZoomIntoInfo();
@@ -40,6 +40,17 @@ public interface IIncludedDocumentsCollection
 
 	OrderedDocumentsList getDocuments(List<DocumentQueryOrderBy> orderBys);
 
+	/**
+	 * Gets a page of included documents. Only the documents from that page are materialized.
+	 *
+	 * @param firstRow first row (0 based)
+	 * @param pageLength page length; if <= 0 all documents starting from <code>firstRow</code> are returned
+	 */
+	OrderedDocumentsList getDocumentsPage(List<DocumentQueryOrderBy> orderBys, int firstRow, int pageLength);
+
+	/** @return how many included documents are in this collection, without loading them */
+	int getDocumentsCount();
+
 	Document getDocumentById(DocumentId documentId);
 
 	void updateStatusFromParent();
@@ -74,6 +85,9 @@ public interface IIncludedDocumentsCollection
 
 	int getNextLineNo();
 
+	/** @return how many included documents are currently kept in memory by this collection */
+	int getLoadedDocumentsCount();
+
 	default void onChildSaved(final Document document)
 	{
 		// nothing
@@ -1,6 +1,10 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.adempiere.util.Check;
@@ -39,6 +43,10 @@ import de.metas.ui.web.window.model.lookup.LookupDataSourceContext.Builder;
 
 /**
  * Wraps a given {@link LookupDataSourceFetcher} and cached its retriving methods.
+ * <p>
+ * If the delegate's filtering by display name can be reproduced in memory (see {@link LookupDataSourceFetcher#isFilterByDisplayNameRefinable()}),
+ * the complete results (i.e. smaller than the requested limit) are also kept by filter, so when the user types more characters
+ * the narrower results are computed from the cached result of a shorter filter instead of querying the database again.
  *
  * @author metas-dev <dev@metasfresh.com>
  *
@@ -61,6 +69,7 @@ public final class CachedLookupDataSourceFetcherAdapter implements LookupDataSou
 
 	private final transient CCache<LookupDataSourceContext, LookupValuesList> cache_retrieveEntities;
 	private final transient CCache<LookupDataSourceContext, LookupValue> cache_retrieveLookupValueById;
+	private final transient CCache<CompleteResultKey, LookupValuesList> cache_retrieveEntitiesComplete;
 
 	private CachedLookupDataSourceFetcherAdapter(final LookupDataSourceFetcher delegate)
 	{
@@ -75,6 +84,7 @@ public final class CachedLookupDataSourceFetcherAdapter implements LookupDataSou
 		// NOTE: it's very important to have the lookupTableName as cache name prefix because we want the cache invalidation to happen for this table
 		cache_retrieveEntities = CCache.newLRUCache(cachePrefix + "#" + NAME + "#retrieveEntities", maxSize, expireAfterMinutes);
 		cache_retrieveLookupValueById = CCache.newLRUCache(cachePrefix + "#" + NAME + "#retrieveLookupValueById", maxSize, expireAfterMinutes);
+		cache_retrieveEntitiesComplete = CCache.newLRUCache(cachePrefix + "#" + NAME + "#retrieveEntitiesComplete", maxSize, expireAfterMinutes);
 	}
 
 	@Override
@@ -109,6 +119,7 @@ public final class CachedLookupDataSourceFetcherAdapter implements LookupDataSou
 		return ImmutableList.<CCacheStats> builder()
 				.add(cache_retrieveEntities.stats())
 				.add(cache_retrieveLookupValueById.stats())
+				.add(cache_retrieveEntitiesComplete.stats())
 				.addAll(delegate.getCacheStats())
 				.build();
 	}
@@ -131,6 +142,40 @@ public final class CachedLookupDataSourceFetcherAdapter implements LookupDataSou
 		return cache_retrieveLookupValueById.getOrLoad(evalCtx, () -> delegate.retrieveLookupValueById(evalCtx));
 	}
 
+	/**
+	 * Serves the cached values locally and asks the delegate only for the missing ones.
+	 */
+	@Override
+	public Map<LookupDataSourceContext, LookupValue> retrieveLookupValuesByIds(final Collection<LookupDataSourceContext> evalCtxs)
+	{
+		final Map<LookupDataSourceContext, LookupValue> result = new LinkedHashMap<>(evalCtxs.size());
+		final List<LookupDataSourceContext> evalCtxsToRetrieve = new ArrayList<>();
+		for (final LookupDataSourceContext evalCtx : evalCtxs)
+		{
+			final LookupValue lookupValue = cache_retrieveLookupValueById.get(evalCtx);
+			if (lookupValue != null)
+			{
+				result.put(evalCtx, lookupValue);
+			}
+			else
+			{
+				result.put(evalCtx, null); // placeholder, to preserve the order
+				evalCtxsToRetrieve.add(evalCtx);
+			}
+		}
+
+		if (!evalCtxsToRetrieve.isEmpty())
+		{
+			delegate.retrieveLookupValuesByIds(evalCtxsToRetrieve)
+					.forEach((evalCtx, lookupValue) -> {
+						cache_retrieveLookupValueById.put(evalCtx, lookupValue);
+						result.put(evalCtx, lookupValue);
+					});
+		}
+
+		return result;
+	}
+
 	@Override
 	public Builder newContextForFetchingList()
 	{
@@ -140,7 +185,89 @@ public final class CachedLookupDataSourceFetcherAdapter implements LookupDataSou
 	@Override
 	public LookupValuesList retrieveEntities(final LookupDataSourceContext evalCtx)
 	{
-		return cache_retrieveEntities.getOrLoad(evalCtx, () -> delegate.retrieveEntities(evalCtx));
+		return cache_retrieveEntities.getOrLoad(evalCtx, () -> retrieveEntitiesOrRefine(evalCtx));
+	}
+
+	private LookupValuesList retrieveEntitiesOrRefine(final LookupDataSourceContext evalCtx)
+	{
+		final String filter = getRefinableFilterOrNull(evalCtx);
+		if (filter == null)
+		{
+			return delegate.retrieveEntities(evalCtx);
+		}
+
+		final int limit = evalCtx.getLimit(-1);
+		final LookupDataSourceContext baseCtx = evalCtx.withoutFilterAndPaging();
+
+		//
+		// Try refining the complete result of a shorter filter (longest first)
+		for (int prefixLength = filter.length() - 1; prefixLength > 0; prefixLength--)
+		{
+			final LookupValuesList completeResult = cache_retrieveEntitiesComplete.get(CompleteResultKey.of(baseCtx, filter.substring(0, prefixLength)));
+			if (completeResult != null)
+			{
+				// NOTE: the refined result is complete only if it's not limited, so we are limiting only the returned copy
+				final LookupValuesList refinedCompleteResult = completeResult.filter(LookupValueFilterPredicates.ofFilterAndLanguageIgnoringAccents(filter, evalCtx.getAD_Language()), 0, -1);
+				cache_retrieveEntitiesComplete.put(CompleteResultKey.of(baseCtx, filter), refinedCompleteResult);
+				return refinedCompleteResult.limit(limit);
+			}
+		}
+
+		//
+		// Retrieve from delegate and remember the result if it's complete
+		final LookupValuesList result = delegate.retrieveEntities(evalCtx);
+		if (isCompleteAndRefinable(result, limit, evalCtx.getAD_Language()))
+		{
+			cache_retrieveEntitiesComplete.put(CompleteResultKey.of(baseCtx, filter), result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the filter if the result for given context can be computed in memory from the complete result of a shorter filter; else null
+	 */
+	private String getRefinableFilterOrNull(final LookupDataSourceContext evalCtx)
+	{
+		if (!delegate.isFilterByDisplayNameRefinable())
+		{
+			return null;
+		}
+		if (evalCtx.getOffset(0) != 0 || evalCtx.getLimit(-1) <= 0)
+		{
+			return null;
+		}
+
+		final String filter = evalCtx.getFilter();
+		if (filter == null || filter == LookupDataSourceContext.FILTER_Any || filter.isEmpty())
+		{
+			return null;
+		}
+		// the SQL wildcards are not supported by our in memory filter
+		if (filter.indexOf('%') >= 0 || filter.indexOf('_') >= 0)
+		{
+			return null;
+		}
+		if (!LookupValueFilterPredicates.isIgnoringAccentsLikeSQL(filter))
+		{
+			return null;
+		}
+
+		return filter;
+	}
+
+	/**
+	 * @return true if the result contains all matching values (i.e. was not truncated by limit) and all of them can be filtered in memory the same way as in SQL
+	 */
+	private static boolean isCompleteAndRefinable(final LookupValuesList result, final int limit, final String adLanguage)
+	{
+		if (result.getValues().size() >= limit)
+		{
+			return false;
+		}
+
+		return result.stream()
+				.map(lookupValue -> lookupValue.getDisplayName(adLanguage))
+				.allMatch(LookupValueFilterPredicates::isIgnoringAccentsLikeSQL);
 	}
 	
 	@Override
@@ -148,4 +275,11 @@ public final class CachedLookupDataSourceFetcherAdapter implements LookupDataSou
 	{
 		return delegate.getZoomIntoWindowId();
 	}
+
+	@lombok.Value(staticConstructor = "of")
+	private static final class CompleteResultKey
+	{
+		private final LookupDataSourceContext baseCtx;
+		private final String filter;
+	}
 }
@@ -1,5 +1,11 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,17 +16,23 @@ import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.ad.service.impl.LookupDAO.SQLNamePairIterator;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.validationRule.INamePairPredicate;
+import org.adempiere.exceptions.DBException;
+import org.adempiere.util.Check;
 import org.compiere.util.CCache.CCacheStats;
 import org.compiere.util.DB;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.ImmutableTranslatableString;
 import de.metas.logging.LogManager;
+import de.metas.ui.web.view.descriptor.SqlAndParams;
 import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.datatypes.LookupValue;
 import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
@@ -62,6 +74,11 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 
 	private static final Logger logger = LogManager.getLogger(GenericSqlLookupDataSourceFetcher.class);
 
+	private static final String SQL_ALIAS_IDs = "lookup_ids";
+	private static final String SQL_COLUMNNAME_ID = "id";
+	/** How many IDs to fetch in one SQL round trip */
+	private static final int RETRIEVE_BY_IDS_CHUNK_SIZE = 500;
+
 	private final @NonNull String lookupTableName;
 	private final @NonNull Optional<String> lookupTableNameAsOptional;
 	private final boolean numericKey;
@@ -69,7 +86,10 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 
 	private final IStringExpression sqlForFetchingExpression;
 	private final IStringExpression sqlForFetchingDisplayNameByIdExpression;
+	/** Same as {@link #sqlForFetchingDisplayNameByIdExpression} but correlated to {@value #SQL_ALIAS_IDs}.{@value #SQL_COLUMNNAME_ID} */
+	private final IStringExpression sqlForFetchingDisplayNameByIdsExpression;
 	private final INamePairPredicate postQueryPredicate;
+	private final boolean filterByDisplayNameRefinable;
 
 	private final boolean isTranslatable;
 
@@ -88,7 +108,11 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 		entityTypeIndex = sqlLookupDescriptor.getEntityTypeIndex();
 		sqlForFetchingExpression = sqlLookupDescriptor.getSqlForFetchingExpression();
 		sqlForFetchingDisplayNameByIdExpression = sqlLookupDescriptor.getSqlForFetchingDisplayNameByIdExpression();
+		sqlForFetchingDisplayNameByIdsExpression = sqlLookupDescriptor.getSqlForFetchingDisplayNameByIdExpression(SQL_ALIAS_IDs + "." + SQL_COLUMNNAME_ID);
 		postQueryPredicate = sqlLookupDescriptor.getPostQueryPredicate();
+		// NOTE: the post query predicate is applied after the SQL LIMIT, so we cannot tell if a result was complete
+		filterByDisplayNameRefinable = sqlLookupDescriptor.isFilterByUnaccentedDisplayName()
+				&& (postQueryPredicate == null || postQueryPredicate == INamePairPredicate.NULL);
 
 		isTranslatable = sqlForFetchingDisplayNameByIdExpression.requiresParameter(LookupDataSourceContext.PARAM_AD_Language.getName());
 
@@ -193,6 +217,12 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 		}
 	}
 
+	@Override
+	public boolean isFilterByDisplayNameRefinable()
+	{
+		return filterByDisplayNameRefinable;
+	}
+
 	@Override
 	public final LookupValue retrieveLookupValueById(final LookupDataSourceContext evalCtx)
 	{
@@ -209,10 +239,142 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 			return LOOKUPVALUE_NULL;
 		}
 
+		return createLookupValue(id, displayName, evalCtx.getAD_Language());
+	}
+
+	/**
+	 * Fetches the display names of all given IDs using one SQL query (per chunk of IDs) like:
+	 * 
+	 * <pre>
+	 * SELECT lookup_ids.id, (SELECT DisplayName FROM ... WHERE KeyColumn=lookup_ids.id) FROM (VALUES (?), (?), ...) lookup_ids(id)
+	 * </pre>
+	 */
+	@Override
+	public Map<LookupDataSourceContext, LookupValue> retrieveLookupValuesByIds(final Collection<LookupDataSourceContext> evalCtxs)
+	{
+		if (evalCtxs.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		//
+		// Group the contexts by the SQL which needs to be executed
+		// NOTE: usually all contexts are resulting to the same SQL because they are differing only by the ID to filter
+		final Map<String, List<LookupDataSourceContext>> evalCtxsBySql = new LinkedHashMap<>();
+		for (final LookupDataSourceContext evalCtx : evalCtxs)
+		{
+			final String sqlDisplayName = sqlForFetchingDisplayNameByIdsExpression.evaluate(evalCtx, OnVariableNotFound.Fail);
+			evalCtxsBySql.computeIfAbsent(sqlDisplayName, k -> new ArrayList<>()).add(evalCtx);
+		}
+
+		final Map<LookupDataSourceContext, LookupValue> result = new LinkedHashMap<>(evalCtxs.size());
+		evalCtxs.forEach(evalCtx -> result.put(evalCtx, LOOKUPVALUE_NULL));
+
+		evalCtxsBySql.forEach((sqlDisplayName, evalCtxsForSql) -> {
+			for (final List<LookupDataSourceContext> evalCtxsChunk : Iterables.partition(evalCtxsForSql, RETRIEVE_BY_IDS_CHUNK_SIZE))
+			{
+				result.putAll(retrieveLookupValuesByIds(sqlDisplayName, evalCtxsChunk));
+			}
+		});
+
+		return result;
+	}
+
+	private Map<LookupDataSourceContext, LookupValue> retrieveLookupValuesByIds(final String sqlDisplayName, final List<LookupDataSourceContext> evalCtxs)
+	{
+		final Map<Object, List<LookupDataSourceContext>> evalCtxsById = new LinkedHashMap<>(evalCtxs.size());
+		for (final LookupDataSourceContext evalCtx : evalCtxs)
+		{
+			final Object id = evalCtx.getIdToFilter();
+			if (id == null)
+			{
+				throw new IllegalStateException("No ID provided in " + evalCtx);
+			}
+
+			evalCtxsById.computeIfAbsent(id, k -> new ArrayList<>(1)).add(evalCtx); // fetch duplicate IDs only once
+		}
+
+		final SqlAndParams sqlAndParams = buildSqlFetchDisplayNamesByIds(sqlDisplayName, evalCtxsById.keySet());
+		final String sql = sqlAndParams.getSql();
+		final List<Object> sqlParams = sqlAndParams.getSqlParams();
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+
+			final Map<LookupDataSourceContext, LookupValue> result = new HashMap<>(evalCtxs.size());
+			while (rs.next())
+			{
+				final String displayName = rs.getString(2);
+				if (displayName == null)
+				{
+					continue;
+				}
+
+				final Object id = numericKey ? (Object)rs.getInt(1) : (Object)rs.getString(1);
+				final List<LookupDataSourceContext> evalCtxsForId = evalCtxsById.get(id);
+				if (evalCtxsForId == null)
+				{
+					// shall not happen
+					logger.warn("Got unexpected id={} while fetching {}. Ignored.", id, evalCtxsById.keySet());
+					continue;
+				}
+
+				for (final LookupDataSourceContext evalCtx : evalCtxsForId)
+				{
+					result.put(evalCtx, createLookupValue(evalCtx.getIdToFilter(), displayName, evalCtx.getAD_Language()));
+				}
+			}
+
+			logger.trace("Returning values={} (executed sql: {}, params: {})", result, sql, sqlParams);
+			return result;
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	/**
+	 * @param sqlDisplayName display name SQL, correlated to {@value #SQL_ALIAS_IDs}.{@value #SQL_COLUMNNAME_ID}
+	 * @param ids distinct IDs to fetch
+	 * @return SQL which returns the ID and display name of each given ID (display name is null if the ID was not found)
+	 */
+	@VisibleForTesting
+	static SqlAndParams buildSqlFetchDisplayNamesByIds(@NonNull final String sqlDisplayName, @NonNull final Collection<?> ids)
+	{
+		Check.assumeNotEmpty(ids, "ids is not empty");
+
+		final StringBuilder sqlValues = new StringBuilder();
+		final List<Object> sqlParams = new ArrayList<>(ids.size());
+		for (final Object id : ids)
+		{
+			if (sqlValues.length() > 0)
+			{
+				sqlValues.append(", ");
+			}
+			sqlValues.append("(?)");
+			sqlParams.add(id);
+		}
+
+		final String sql = "SELECT " + SQL_ALIAS_IDs + "." + SQL_COLUMNNAME_ID + ", (" + sqlDisplayName + ") AS DisplayName"
+				+ "\n FROM (VALUES " + sqlValues + ") " + SQL_ALIAS_IDs + "(" + SQL_COLUMNNAME_ID + ")";
+		return SqlAndParams.of(sql, sqlParams);
+	}
+
+	private LookupValue createLookupValue(final Object id, final String displayName, final String adLanguage)
+	{
 		final ITranslatableString displayNameTrl;
 		if (isTranslatable)
 		{
-			final String adLanguage = evalCtx.getAD_Language();
 			displayNameTrl = ImmutableTranslatableString.singleLanguage(adLanguage, displayName);
 		}
 		else
@@ -1,6 +1,9 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.Optional;
 
 import org.adempiere.util.Check;
@@ -134,6 +137,44 @@ final class LookupDataSourceAdapter implements LookupDataSource
 		return lookupValue;
 	}
 
+	@Override
+	public LookupValuesList findByIds(final Collection<? extends Object> ids)
+	{
+		if (ids.isEmpty())
+		{
+			return LookupValuesList.EMPTY;
+		}
+
+		//
+		// Normalize the IDs to Integer/String and build the validation contexts
+		final Set<LookupDataSourceContext> evalCtxs = new LinkedHashSet<>(ids.size());
+		for (final Object idObj : ids)
+		{
+			final Object idNormalized = idObj != null ? LookupValue.normalizeId(idObj, fetcher.isNumericKey()) : null;
+			if (idNormalized == null)
+			{
+				continue;
+			}
+
+			evalCtxs.add(fetcher.newContextForFetchingById(idNormalized)
+					.putFilterById(idNormalized)
+					.putShowInactive(true)
+					.build());
+		}
+		if (evalCtxs.isEmpty())
+		{
+			return LookupValuesList.EMPTY;
+		}
+
+		//
+		// Get the lookup values
+		return fetcher.retrieveLookupValuesByIds(evalCtxs)
+				.values()
+				.stream()
+				.filter(lookupValue -> lookupValue != null && lookupValue != LookupDataSourceFetcher.LOOKUPVALUE_NULL)
+				.collect(LookupValuesList.collect());
+	}
+
 	@Override
 	public List<CCacheStats> getCacheStats()
 	{
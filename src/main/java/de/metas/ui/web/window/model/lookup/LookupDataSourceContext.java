@@ -144,6 +144,19 @@ public final class LookupDataSourceContext implements Evaluatee2, IValidationCon
 				&& Objects.equals(postQueryPredicate, other.postQueryPredicate);
 	}
 
+	/**
+	 * @return a copy of this context, without the filter, offset and limit parameters
+	 */
+	/* package */ LookupDataSourceContext withoutFilterAndPaging()
+	{
+		final Map<String, Object> values = new HashMap<>(parameterValues);
+		values.remove(PARAM_Filter.getName());
+		values.remove(PARAM_FilterSql.getName());
+		values.remove(PARAM_Offset.getName());
+		values.remove(PARAM_Limit.getName());
+		return new LookupDataSourceContext(lookupTableName, values, idToFilter, postQueryPredicate);
+	}
+
 	public String getFilter()
 	{
 		return get_ValueAsString(PARAM_Filter.getName());
@@ -1,6 +1,9 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.compiere.util.CCache.CCacheStats;
@@ -44,10 +47,33 @@ public interface LookupDataSourceFetcher
 
 	LookupValue retrieveLookupValueById(LookupDataSourceContext evalCtx);
 
+	/**
+	 * Retrieves the lookup values for given contexts (one context per ID, see {@link #newContextForFetchingById(Object)}).
+	 * Implementations are advised to fetch all of them in one go.
+	 * 
+	 * @return map of context to lookup value; for IDs which were not found, {@link #LOOKUPVALUE_NULL} is returned
+	 */
+	default Map<LookupDataSourceContext, LookupValue> retrieveLookupValuesByIds(final Collection<LookupDataSourceContext> evalCtxs)
+	{
+		final Map<LookupDataSourceContext, LookupValue> result = new LinkedHashMap<>(evalCtxs.size());
+		evalCtxs.forEach(evalCtx -> result.put(evalCtx, retrieveLookupValueById(evalCtx)));
+		return result;
+	}
+
 	LookupDataSourceContext.Builder newContextForFetchingList();
 
 	LookupValuesList retrieveEntities(LookupDataSourceContext evalCtx);
 
+	/**
+	 * @return true if {@link #retrieveEntities(LookupDataSourceContext)} is matching the filter only against the value's display name,
+	 *         exactly like {@link LookupValueFilterPredicates#ofFilterAndLanguageIgnoringAccents(String, String)} does.
+	 *         In that case, the complete result of a filter can be refined in memory for any longer filter starting with it.
+	 */
+	default boolean isFilterByDisplayNameRefinable()
+	{
+		return false;
+	}
+
 	//
 	// Caching
 	//@formatter:off
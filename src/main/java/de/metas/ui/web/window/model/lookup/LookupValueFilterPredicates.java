@@ -1,10 +1,13 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.util.Locale;
 import java.util.function.Predicate;
 
 import org.adempiere.util.Check;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
 
 import de.metas.ui.web.window.datatypes.LookupValue;
 
@@ -39,6 +42,23 @@ public final class LookupValueFilterPredicates
 	}
 	
 	public static final LookupValueFilterPredicate ofFilterAndLanguage(final String filter, final String adLanguage)
+	{
+		final boolean ignoreAccents = false;
+		return ofFilterAndLanguage(filter, adLanguage, ignoreAccents);
+	}
+
+	/**
+	 * Same as {@link #ofFilterAndLanguage(String, String)} but the accents (diacritics) are also ignored, similar to SQL's <code>unaccent_string(displayName, 1) ILIKE unaccent_string(filter, 1)</code>.
+	 *
+	 * @see #isIgnoringAccentsLikeSQL(String)
+	 */
+	public static final LookupValueFilterPredicate ofFilterAndLanguageIgnoringAccents(final String filter, final String adLanguage)
+	{
+		final boolean ignoreAccents = true;
+		return ofFilterAndLanguage(filter, adLanguage, ignoreAccents);
+	}
+
+	private static final LookupValueFilterPredicate ofFilterAndLanguage(final String filter, final String adLanguage, final boolean ignoreAccents)
 	{
 		if (filter == null)
 		{
@@ -51,7 +71,97 @@ public final class LookupValueFilterPredicates
 			return MATCH_ALL;
 		}
 
-		return new ContainsLookupValueFilterPredicate(filterNorm, adLanguage);
+		return new ContainsLookupValueFilterPredicate(filterNorm, adLanguage, ignoreAccents);
+	}
+
+	/**
+	 * Accented characters and their base characters, as translated by the <code>unaccent_string(text, 1)</code> database function
+	 * which is used when filtering the lookups in SQL (see {@link de.metas.ui.web.window.descriptor.sql.SqlLookupDescriptor}).
+	 * <p>
+	 * Like SQL's <code>translate</code>, the characters which are not in this table are kept as they are. Keep it in sync with the database function.
+	 */
+	private static final ImmutableMap<Character, Character> ACCENTED_CHARS_TO_BASE_CHAR = new AccentsTableBuilder()
+			.put("\u00E0\u00E1\u00E2\u00E3\u00E4\u00E5\u0101\u0103\u0105", 'a') // àáâãäåāăą
+			.put("\u00C0\u00C1\u00C2\u00C3\u00C4\u00C5\u0100\u0102\u0104", 'A') // ÀÁÂÃÄÅĀĂĄ
+			.put("\u00E8\u00E9\u00EA\u00EB\u0113\u0115\u0117\u0119\u011B", 'e') // èéêëēĕėęě
+			.put("\u00C8\u00C9\u00CA\u00CB\u0112\u0114\u0116\u0118\u011A", 'E') // ÈÉÊËĒĔĖĘĚ
+			.put("\u00EC\u00ED\u00EE\u00EF\u0129\u012B\u012D\u012F", 'i') // ìíîïĩīĭį
+			.put("\u00CC\u00CD\u00CE\u00CF\u0128\u012A\u012C\u012E", 'I') // ÌÍÎÏĨĪĬĮ
+			.put("\u00F2\u00F3\u00F4\u00F5\u00F6\u014D\u014F\u0151", 'o') // òóôõöōŏő
+			.put("\u00D2\u00D3\u00D4\u00D5\u00D6\u014C\u014E\u0150", 'O') // ÒÓÔÕÖŌŎŐ
+			.put("\u00F9\u00FA\u00FB\u00FC\u0169\u016B\u016D\u016F\u0171\u0173", 'u') // ùúûüũūŭůűų
+			.put("\u00D9\u00DA\u00DB\u00DC\u0168\u016A\u016C\u016E\u0170\u0172", 'U') // ÙÚÛÜŨŪŬŮŰŲ
+			.put("\u00E7\u0107\u0109\u010B\u010D", 'c') // çćĉċč
+			.put("\u00C7\u0106\u0108\u010A\u010C", 'C') // ÇĆĈĊČ
+			.put("\u00F1\u0144\u0146\u0148", 'n') // ñńņň
+			.put("\u00D1\u0143\u0145\u0147", 'N') // ÑŃŅŇ
+			.put("\u00FD\u00FF", 'y') // ýÿ
+			.put("\u00DD\u0178", 'Y') // ÝŸ
+			.build();
+
+	/**
+	 * @return true if ignoring the accents of given string in memory (see {@link #ofFilterAndLanguageIgnoringAccents(String, String)}) gives the same result as SQL's <code>unaccent_string</code> and <code>ILIKE</code>.
+	 *         To be on the safe side, that's the case only for strings which contain just ASCII characters and the accented characters we know how to translate.
+	 */
+	public static final boolean isIgnoringAccentsLikeSQL(final String string)
+	{
+		if (string == null)
+		{
+			return true;
+		}
+
+		for (int i = 0, length = string.length(); i < length; i++)
+		{
+			final char ch = string.charAt(i);
+			if (ch >= 128 && !ACCENTED_CHARS_TO_BASE_CHAR.containsKey(ch))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@VisibleForTesting
+	static final String removeAccents(final String string)
+	{
+		StringBuilder result = null; // lazy, only if there is something to translate
+		for (int i = 0, length = string.length(); i < length; i++)
+		{
+			final char ch = string.charAt(i);
+			final Character baseChar = ch >= 128 ? ACCENTED_CHARS_TO_BASE_CHAR.get(ch) : null;
+			if (baseChar == null)
+			{
+				if (result != null)
+				{
+					result.append(ch);
+				}
+				continue;
+			}
+
+			if (result == null)
+			{
+				result = new StringBuilder(length).append(string, 0, i);
+			}
+			result.append(baseChar.charValue());
+		}
+
+		return result != null ? result.toString() : string;
+	}
+
+	private static final class AccentsTableBuilder
+	{
+		private final ImmutableMap.Builder<Character, Character> map = ImmutableMap.builder();
+
+		public AccentsTableBuilder put(final String accentedChars, final char baseChar)
+		{
+			accentedChars.chars().forEach(accentedChar -> map.put((char)accentedChar, baseChar));
+			return this;
+		}
+
+		public ImmutableMap<Character, Character> build()
+		{
+			return map.build();
+		}
 	}
 
 	public static interface LookupValueFilterPredicate extends Predicate<LookupValue>
@@ -87,10 +197,12 @@ public final class LookupValueFilterPredicates
 	{
 		private final String filterNormalized;
 		private final String adLanguage;
+		private final boolean ignoreAccents;
 
-		private ContainsLookupValueFilterPredicate(final String filter, final String adLanguage)
+		private ContainsLookupValueFilterPredicate(final String filter, final String adLanguage, final boolean ignoreAccents)
 		{
 			super();
+			this.ignoreAccents = ignoreAccents;
 			filterNormalized = normalizeString(filter);
 			this.adLanguage = Check.isEmpty(adLanguage, true) ? null : adLanguage;
 		}
@@ -102,12 +214,14 @@ public final class LookupValueFilterPredicates
 					.omitNullValues()
 					.addValue(filterNormalized)
 					.add("adLanguage", adLanguage)
+					.add("ignoreAccents", ignoreAccents ? Boolean.TRUE : null)
 					.toString();
 		}
 
-		private static final String normalizeString(final String str)
+		private final String normalizeString(final String str)
 		{
-			return str.toLowerCase();
+			final String strLC = str.toLowerCase(Locale.ROOT);
+			return ignoreAccents ? removeAccents(strLC) : strLC;
 		}
 
 		@Override
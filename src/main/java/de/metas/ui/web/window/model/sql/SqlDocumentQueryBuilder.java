@@ -257,6 +257,25 @@ public class SqlDocumentQueryBuilder
 		return sql.toString();
 	}
 
+	/**
+	 * @return SQL to count the documents matched by this query; paging is not considered.
+	 */
+	public String getSqlCount(final List<Object> outSqlParams)
+	{
+		final Evaluatee evalCtx = getEvaluationContext();
+
+		// NOTE: no need to add security here because it was already embedded in SqlSelectCountFrom
+		final StringBuilder sql = new StringBuilder(entityBinding.getSqlSelectCountFrom().evaluate(evalCtx, OnVariableNotFound.Fail));
+
+		String sqlWhere = getSqlWhere(outSqlParams);
+		if (!Check.isEmpty(sqlWhere, true))
+		{
+			sql.append("\n WHERE ").append(sqlWhere);
+		}
+
+		return sql.toString();
+	}
+
 	/**
 	 * @return SQL to fully load the documents matched by this query.
 	 */
@@ -313,6 +332,12 @@ public class SqlDocumentQueryBuilder
 			if (sqlOrderBy != null && !sqlOrderBy.isNullExpression())
 			{
 				sqlBuilder.append("\n ORDER BY ").append(sqlOrderBy);
+
+				// When paging, make sure the order is deterministic, else the same row might show up on more pages
+				if (isPaging() && entityBinding.isSingleKey())
+				{
+					sqlBuilder.append(", ").append(entityBinding.getKeyFields().get(0).getColumnName());
+				}
 			}
 		}
 
@@ -559,6 +584,11 @@ public class SqlDocumentQueryBuilder
 		return this;
 	}
 
+	private boolean isPaging()
+	{
+		return getFirstRow() > 0 || getPageLength() > 0;
+	}
+
 	public SqlDocumentQueryBuilder setPage(final int firstRow, final int pageLength)
 	{
 		this.firstRow = firstRow;
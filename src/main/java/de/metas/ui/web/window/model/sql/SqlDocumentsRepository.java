@@ -201,12 +201,13 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 				pstmt.setMaxRows(maxRowsToFetch);
 			}
 			DB.setParameters(pstmt, sqlParams);
+			final long loadStartNanos = System.nanoTime();
 			rs = pstmt.executeQuery();
 
 			boolean loadLimitWarnReported = false;
 			while (rs.next())
 			{
-				final ResultSetDocumentValuesSupplier documentValuesSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs);
+				final ResultSetDocumentValuesSupplier documentValuesSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs, loadStartNanos);
 
 				Document document = null;
 				if (existingDocumentsSupplier != null)
@@ -330,13 +331,15 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		private final DocumentEntityDescriptor entityDescriptor;
 		private final String adLanguage;
 		private final ResultSet rs;
+		/** {@link System#nanoTime()} from before the query was executed */
+		private final long loadStartNanos;
 
 		private boolean idAquired = false;
 		private DocumentId id;
 
 		private String version;
 
-		public ResultSetDocumentValuesSupplier(final DocumentEntityDescriptor entityDescriptor, final String adLanguage, final ResultSet rs)
+		public ResultSetDocumentValuesSupplier(final DocumentEntityDescriptor entityDescriptor, final String adLanguage, final ResultSet rs, final long loadStartNanos)
 		{
 			super();
 			Check.assumeNotNull(entityDescriptor, "Parameter entityDescriptor is not null");
@@ -344,6 +347,7 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 			this.entityDescriptor = entityDescriptor;
 			this.adLanguage = adLanguage;
 			this.rs = rs;
+			this.loadStartNanos = loadStartNanos;
 		}
 
 		@Override
@@ -406,6 +410,12 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 			}
 		}
 
+		@Override
+		public long getVersionLoadStartNanos()
+		{
+			return loadStartNanos;
+		}
+
 		@Override
 		public Object getValue(final DocumentFieldDescriptor fieldDescriptor)
 		{
@@ -465,10 +475,11 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		{
 			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_ThreadInherited);
 			DB.setParameters(pstmt, sqlParams);
+			final long loadStartNanos = System.nanoTime();
 			rs = pstmt.executeQuery();
 			if (rs.next())
 			{
-				final ResultSetDocumentValuesSupplier fieldValueSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs);
+				final ResultSetDocumentValuesSupplier fieldValueSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs, loadStartNanos);
 				document.refreshFromSupplier(fieldValueSupplier);
 			}
 			else
@@ -965,6 +976,21 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		return DB.getSQLValueEx(ITrx.TRXNAME_ThreadInherited, sql, sqlParams);
 	}
 
+	@Override
+	public int retrieveCount(final DocumentQuery query)
+	{
+		logger.debug("Retrieving records count: query={}", query);
+
+		final DocumentEntityDescriptor entityDescriptor = query.getEntityDescriptor();
+		assertThisRepository(entityDescriptor);
+
+		final List<Object> sqlParams = new ArrayList<>();
+		final SqlDocumentQueryBuilder sqlBuilder = SqlDocumentQueryBuilder.of(query);
+		final String sql = sqlBuilder.getSqlCount(sqlParams);
+
+		return DB.getSQLValueEx(ITrx.TRXNAME_ThreadInherited, sql, sqlParams);
+	}
+
 	private static final void saveLabels(final Document document, final IDocumentFieldView documentField)
 	{
 		final LabelsLookup lookup = LabelsLookup.cast(documentField.getDescriptor().getLookupDescriptor(LookupScope.DocumentField));
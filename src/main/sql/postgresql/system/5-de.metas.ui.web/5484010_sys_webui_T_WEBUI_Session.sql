@@ -0,0 +1,14 @@
+-- Web UI sessions shared between multiple webui-api nodes (see metasfresh.session.store=jdbc)
+CREATE TABLE IF NOT EXISTS T_WEBUI_Session
+(
+	SessionId VARCHAR(64) NOT NULL PRIMARY KEY
+	, CreationTime BIGINT NOT NULL
+	, LastAccessedTime BIGINT NOT NULL
+	, MaxInactiveInterval INTEGER NOT NULL
+	, ExpiryTime BIGINT NOT NULL
+	, Data BYTEA
+)
+;
+
+CREATE INDEX IF NOT EXISTS T_WEBUI_Session_ExpiryTime ON T_WEBUI_Session (ExpiryTime)
+;
@@ -0,0 +1,11 @@
+-- Web UI view definitions, used to rehydrate a view on any webui-api node (see metasfresh.webui.view.store=jdbc)
+CREATE TABLE IF NOT EXISTS T_WEBUI_ViewDefinition
+(
+	ViewId VARCHAR(255) NOT NULL PRIMARY KEY
+	, Definition TEXT NOT NULL
+	, LastAccessed TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+)
+;
+
+CREATE INDEX IF NOT EXISTS T_WEBUI_ViewDefinition_LastAccessed ON T_WEBUI_ViewDefinition (LastAccessed)
+;
@@ -0,0 +1,134 @@
+package de.metas.ui.web.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.util.StreamUtils;
+
+import de.metas.ui.web.cache.MappedFilesCache.Content;
+import de.metas.ui.web.cache.MappedFilesCache.MappedFile;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class MappedFilesCacheTest
+{
+	private static MappedFilesCache<String, String> newCache(final int maxSizeMB)
+	{
+		return MappedFilesCache.<String, String> builder()
+				.name("test")
+				.maxSizeMB(maxSizeMB)
+				.expireAfterAccessMinutes(1)
+				.build();
+	}
+
+	private static Content<String> content(final String data, final String metadata)
+	{
+		return Content.of(data.getBytes(StandardCharsets.UTF_8), metadata);
+	}
+
+	@Test
+	public void getOrCreate_WritesOnlyOnce() throws Exception
+	{
+		final MappedFilesCache<String, String> cache = newCache(1);
+		final AtomicInteger contentRequests = new AtomicInteger();
+
+		final MappedFile<String> file1 = cache.getOrCreate("key", () -> {
+			contentRequests.incrementAndGet();
+			return content("some data", "metadata");
+		});
+		final MappedFile<String> file2 = cache.getOrCreate("key", () -> {
+			contentRequests.incrementAndGet();
+			return content("other data", "other metadata");
+		});
+
+		assertThat(contentRequests.get()).isEqualTo(1);
+		assertThat(file2).isSameAs(file1);
+		assertThat(file1.getMetadata()).isEqualTo("metadata");
+		assertThat(Files.exists(file1.getFile())).isTrue();
+		assertThat(cache.getIfPresent("key")).isSameAs(file1);
+	}
+
+	@Test
+	public void toResource_CanBeReadMoreThanOnce() throws Exception
+	{
+		final MappedFile<String> file = newCache(1).getOrCreate("key", () -> content("some data", null));
+
+		assertThat(StreamUtils.copyToString(file.toResource().getInputStream(), StandardCharsets.UTF_8)).isEqualTo("some data");
+		assertThat(StreamUtils.copyToString(file.toResource().getInputStream(), StandardCharsets.UTF_8)).isEqualTo("some data");
+		assertThat(file.toResource().contentLength()).isEqualTo(9);
+	}
+
+	@Test
+	public void invalidateGroup_DeletesTheFilesOfThatGroup()
+	{
+		// group = the part before "/"
+		final MappedFilesCache<String, String> cache = MappedFilesCache.<String, String> builder()
+				.name("test")
+				.maxSizeMB(1)
+				.expireAfterAccessMinutes(1)
+				.groupKeyFunction(key -> key.substring(0, key.indexOf('/')))
+				.build();
+		final MappedFile<String> fileA1 = cache.getOrCreate("A/1", () -> content("dataA1", null));
+		final MappedFile<String> fileA2 = cache.getOrCreate("A/2", () -> content("dataA2", null));
+		final MappedFile<String> fileB1 = cache.getOrCreate("B/1", () -> content("dataB1", null));
+
+		cache.invalidateGroup("A");
+
+		assertThat(cache.getIfPresent("A/1")).isNull();
+		assertThat(cache.getIfPresent("A/2")).isNull();
+		assertThat(Files.exists(fileA1.getFile())).isFalse();
+		assertThat(Files.exists(fileA2.getFile())).isFalse();
+		assertThat(cache.getIfPresent("B/1")).isSameAs(fileB1);
+		assertThat(Files.exists(fileB1.getFile())).isTrue();
+
+		// the group can be cached and invalidated again
+		final MappedFile<String> fileA1New = cache.getOrCreate("A/1", () -> content("dataA1", null));
+		assertThat(fileA1New).isNotSameAs(fileA1);
+		cache.invalidateGroup("A");
+		assertThat(cache.getIfPresent("A/1")).isNull();
+	}
+
+	@Test
+	public void isCacheable()
+	{
+		final MappedFilesCache<String, String> cache = newCache(4);
+
+		assertThat(cache.isEnabled()).isTrue();
+		assertThat(cache.isCacheable(1024 * 1024)).isTrue();
+		assertThat(cache.isCacheable(1024 * 1024 + 1024)).isFalse();
+	}
+
+	@Test
+	public void disabled()
+	{
+		final MappedFilesCache<String, String> cache = newCache(0);
+
+		assertThat(cache.isEnabled()).isFalse();
+		assertThat(cache.isCacheable(1)).isFalse();
+		assertThat(cache.getStats()).containsEntry("enabled", false);
+	}
+}
@@ -0,0 +1,258 @@
+package de.metas.ui.web.handlingunits.process;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.save;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.util.Services;
+import org.adempiere.util.StringUtils;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.util.Env;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.movement.api.IHUMovementBL;
+import de.metas.interfaces.I_M_Movement;
+import de.metas.ui.web.process.ProcessExecutionProgress;
+import de.metas.ui.web.process.ProcessExecutionProgresses;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class HUMoveToDirectWarehouseServiceTest
+{
+	@Mocked
+	private IHUMovementBL huMovementBL;
+
+	private TestProgress progress;
+	private IAutoCloseable progressRestorer;
+
+	/** HU IDs for which the movement creation shall fail */
+	private Set<Integer> failingHUIds;
+	/** For each context in which movements were created, the HU IDs moved */
+	private Map<Properties, List<Integer>> huIdsByCtx;
+	/** The contexts in which movements were created, in the order they were first used */
+	private List<Properties> ctxs;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		Services.registerService(IHUMovementBL.class, huMovementBL);
+
+		progress = new TestProgress();
+		progressRestorer = ProcessExecutionProgresses.temporarySet(progress);
+
+		failingHUIds = ImmutableSet.of();
+		huIdsByCtx = new IdentityHashMap<>();
+		ctxs = new ArrayList<>();
+	}
+
+	@After
+	public void restoreProgress()
+	{
+		progressRestorer.close();
+	}
+
+	private List<I_M_HU> createHUs(final int count)
+	{
+		return IntStream.rangeClosed(1, count)
+				.mapToObj(i -> {
+					final I_M_HU hu = newInstance(I_M_HU.class);
+					save(hu);
+					return hu;
+				})
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private I_M_Movement createMovement(final I_M_HU hu)
+	{
+		final int huId = hu.getM_HU_ID();
+		synchronized (huIdsByCtx)
+		{
+			huIdsByCtx.computeIfAbsent(Env.getCtx(), ctx -> {
+				ctxs.add(ctx);
+				return new ArrayList<>();
+			}).add(huId);
+		}
+
+		if (failingHUIds.contains(huId))
+		{
+			throw new AdempiereException("failing on purpose");
+		}
+
+		final I_M_Movement movement = newInstance(I_M_Movement.class);
+		movement.setDocumentNo("M" + huId);
+		return movement;
+	}
+
+	private HUMoveToDirectWarehouseService newService(final int chunkSize, final int parallelism)
+	{
+		return HUMoveToDirectWarehouseService.newInstance()
+				.setChunkSize(chunkSize)
+				.setParallelism(parallelism)
+				.setMovementCreator(this::createMovement);
+	}
+
+	@Test
+	public void moveInChunks_SplitsInChunksAndCopiesTheContextPerChunk()
+	{
+		final List<I_M_HU> hus = createHUs(7);
+
+		newService(3, 1).move(hus.iterator());
+
+		// each chunk was moved in its own context, which is not the caller's context
+		assertThat(ctxs.stream().map(huIdsByCtx::get)).containsExactly(
+				ImmutableList.of(hus.get(0).getM_HU_ID(), hus.get(1).getM_HU_ID(), hus.get(2).getM_HU_ID()),
+				ImmutableList.of(hus.get(3).getM_HU_ID(), hus.get(4).getM_HU_ID(), hus.get(5).getM_HU_ID()),
+				ImmutableList.of(hus.get(6).getM_HU_ID()));
+		final Properties callerCtx = Env.getCtx();
+		assertThat(ctxs).allMatch(ctx -> ctx != callerCtx);
+		assertThat(progress.getLastDone()).isEqualTo(7);
+		assertThat(progress.getLastTotal()).isEqualTo(7);
+	}
+
+	@Test
+	public void moveInChunks_FailingChunkIsMovedOneByOne()
+	{
+		final List<I_M_HU> hus = createHUs(3);
+		final int failingHUId = hus.get(1).getM_HU_ID();
+		failingHUIds = ImmutableSet.of(failingHUId);
+
+		newService(3, 1).move(hus.iterator());
+
+		assertThat(progress.getLogs()).containsExactly(
+				"@Created@ @M_Movement_ID@: M" + hus.get(0).getM_HU_ID(),
+				"Error on M_HU_ID=" + failingHUId + ": failing on purpose",
+				"@Created@ @M_Movement_ID@: M" + hus.get(2).getM_HU_ID(),
+				"Chunk 1/1: 2 HUs moved, 1 errors");
+	}
+
+	@Test(expected = AdempiereException.class)
+	public void moveInChunks_FailOnFirstError()
+	{
+		final List<I_M_HU> hus = createHUs(3);
+		failingHUIds = ImmutableSet.of(hus.get(1).getM_HU_ID());
+
+		newService(3, 1)
+				.setFailOnFirstError(true)
+				.move(hus.iterator());
+	}
+
+	@Test
+	public void moveInChunks_LogsAreAggregatedInChunksOrder()
+	{
+		final List<I_M_HU> hus = createHUs(6);
+		final int failingHUId = hus.get(4).getM_HU_ID();
+		failingHUIds = ImmutableSet.of(failingHUId);
+
+		newService(2, 3).move(hus.iterator());
+
+		assertThat(progress.getLogs()).containsExactly(
+				"@Created@ @M_Movement_ID@: M" + hus.get(0).getM_HU_ID(),
+				"@Created@ @M_Movement_ID@: M" + hus.get(1).getM_HU_ID(),
+				"@Created@ @M_Movement_ID@: M" + hus.get(2).getM_HU_ID(),
+				"@Created@ @M_Movement_ID@: M" + hus.get(3).getM_HU_ID(),
+				"Error on M_HU_ID=" + failingHUId + ": failing on purpose",
+				"@Created@ @M_Movement_ID@: M" + hus.get(5).getM_HU_ID(),
+				"Chunk 3/3: 1 HUs moved, 1 errors");
+	}
+
+	@Test
+	public void moveInChunks_NoHUs()
+	{
+		newService(3, 2).move(ImmutableList.<I_M_HU> of().iterator());
+
+		assertThat(huIdsByCtx).isEmpty();
+		assertThat(progress.getLogs()).isEmpty();
+	}
+
+	@Test(expected = AdempiereException.class)
+	public void moveInChunks_NoHUs_FailIfNoHUs()
+	{
+		newService(3, 2)
+				.setFailIfNoHUs(true)
+				.move(ImmutableList.<I_M_HU> of().iterator());
+	}
+
+	private static final class TestProgress implements ProcessExecutionProgress
+	{
+		private final List<String> logs = Collections.synchronizedList(new ArrayList<>());
+		private volatile int lastDone = 0;
+		private volatile int lastTotal = 0;
+
+		@Override
+		public synchronized void setProgress(final int done, final int total)
+		{
+			// NOTE: chunks can report their progress in any order
+			if (done >= lastDone)
+			{
+				lastDone = done;
+				lastTotal = total;
+			}
+		}
+
+		@Override
+		public void addLog(final String msg, final Object... msgParameters)
+		{
+			logs.add(StringUtils.formatMessage(msg, msgParameters));
+		}
+
+		@Override
+		public boolean isCancelRequested()
+		{
+			return false;
+		}
+
+		public List<String> getLogs()
+		{
+			return ImmutableList.copyOf(logs);
+		}
+
+		public int getLastDone()
+		{
+			return lastDone;
+		}
+
+		public int getLastTotal()
+		{
+			return lastTotal;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package de.metas.ui.web.menu;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.ui.web.menu.MenuNode.MenuNodeType;
+import de.metas.ui.web.window.datatypes.DocumentId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2017 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class MenuTreeTest
+{
+	private MenuTree menuTree;
+
+	@Before
+	public void init()
+	{
+		final MenuNode rootNode = group(0, "Root",
+				group(1, "Sales",
+						window(11, "Sales Order"),
+						window(12, "Bestellübersicht"),
+						group(13, "Reports",
+								window(131, "Sales statistics"))),
+				group(2, "Purchase",
+						window(21, "Purchase Order"),
+						group(22, "Empty group")),
+				window(3, "Über uns"));
+
+		menuTree = MenuTree.of(1, rootNode);
+	}
+
+	private static MenuNode group(final int adMenuId, final String caption, final MenuNode... children)
+	{
+		final MenuNode.Builder builder = MenuNode.builder()
+				.setAD_Menu_ID(adMenuId)
+				.setCaption(caption)
+				.setTypeGroup();
+		for (final MenuNode child : children)
+		{
+			builder.addChild(child);
+		}
+		return builder.build();
+	}
+
+	private static MenuNode window(final int adMenuId, final String caption)
+	{
+		return MenuNode.builder()
+				.setAD_Menu_ID(adMenuId)
+				.setCaption(caption)
+				.setType(MenuNodeType.Window, DocumentId.of(adMenuId))
+				.build();
+	}
+
+	private static List<String> collectNodeIds(final MenuNode rootNode)
+	{
+		final List<String> nodeIds = new ArrayList<>();
+		if (rootNode != null)
+		{
+			rootNode.iterate(node -> nodeIds.add(node.getId()));
+		}
+		return nodeIds;
+	}
+
+	@Test
+	public void filter_usingNGrams()
+	{
+		final MenuNode result = menuTree.filter("ORDER", false);
+		assertThat(collectNodeIds(result)).containsExactly("0", "1", "11", "2", "21");
+	}
+
+	@Test
+	public void filter_shortQuery()
+	{
+		final MenuNode result = menuTree.filter("st", false);
+		assertThat(collectNodeIds(result)).containsExactly("0", "1", "12", "13", "131");
+	}
+
+	@Test
+	public void filter_ignoresDiacritics()
+	{
+		assertThat(collectNodeIds(menuTree.filter("uber", false))).containsExactly("0", "1", "12", "3");
+		assertThat(collectNodeIds(menuTree.filter("Übersicht", false))).containsExactly("0", "1", "12");
+	}
+
+	@Test
+	public void filter_matchingGroupIncludesLeafs()
+	{
+		final MenuNode result = menuTree.filter("sales", true);
+		assertThat(collectNodeIds(result)).containsExactly("0", "1", "11", "12", "13", "131", "3");
+	}
+
+	@Test
+	public void filter_noMatch()
+	{
+		assertThat(collectNodeIds(menuTree.filter("inexistent", false))).containsExactly("0");
+	}
+}
@@ -0,0 +1,158 @@
+package de.metas.ui.web.process;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.adempiere.ad.security.IUserRolePermissions;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.Adempiere;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.process.json.JSONProcessInstanceExecution;
+import de.metas.ui.web.process.json.JSONProcessInstanceExecution.Status;
+import de.metas.ui.web.process.json.JSONProcessInstanceResult;
+import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.view.CreateViewRequest;
+import de.metas.ui.web.view.IView;
+import de.metas.ui.web.view.IViewFactory;
+import de.metas.ui.web.view.ViewFactory;
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewProfileId;
+import de.metas.ui.web.view.ViewsRepository;
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.websocket.WebsocketSender;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class AsyncProcessExecutionServiceTest
+{
+	private static final String WINDOW_ID = "asyncProcessTestWindow";
+	private static final int AD_USER_ID = 100;
+
+	@Mocked
+	private WebsocketSender websocketSender;
+	@Injectable
+	private Adempiere adempiere;
+	@Mocked
+	private IView view;
+	@Mocked
+	private IUserRolePermissions permissions;
+
+	private AsyncProcessExecutionService service;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		service = new AsyncProcessExecutionService(websocketSender, 1, 10, 1);
+	}
+
+	@After
+	public void destroy()
+	{
+		service.preDestroy();
+	}
+
+	@Test
+	public void startViewBasedProcess()
+	{
+		final ViewId viewId = ViewId.random(WindowId.fromJson(WINDOW_ID));
+		// @formatter:off
+		new Expectations() {{ view.getViewId(); result = viewId; minTimes = 0; }};
+		// @formatter:on
+
+		final ViewsRepository viewsRepo = new ViewsRepository(adempiere, ImmutableList.of(new TestViewFactory(view)));
+		viewsRepo.createView(CreateViewRequest.builder(viewId, JSONViewDataType.grid).build());
+
+		final ProcessId processId = ProcessId.ofAD_Process_ID(1);
+		final DocumentId pinstanceId = DocumentId.of(2);
+		final AtomicReference<IView> processView = new AtomicReference<>();
+		final AtomicReference<IUserRolePermissions> processPermissions = new AtomicReference<>();
+
+		// like a view based process, which is loading its view from the process context
+		service.start(processId, pinstanceId, AD_USER_ID, permissions, () -> {
+			processView.set(viewsRepo.getViewIfExists(viewId));
+			processPermissions.set(UserSession.getCurrentPermissions());
+			return JSONProcessInstanceResult.of(ProcessInstanceResult.ok(pinstanceId));
+		});
+
+		final JSONProcessInstanceExecution execution = waitUntilFinished(processId, pinstanceId);
+		assertThat(execution.getStatus()).as("error: %s", execution.getError()).isEqualTo(Status.COMPLETED);
+		assertThat(processView.get()).isSameAs(view);
+		assertThat(processPermissions.get()).isSameAs(permissions);
+	}
+
+	private JSONProcessInstanceExecution waitUntilFinished(final ProcessId processId, final DocumentId pinstanceId)
+	{
+		final long timeoutMillis = System.currentTimeMillis() + 10_000;
+		JSONProcessInstanceExecution execution = service.getExecution(processId, pinstanceId, AD_USER_ID);
+		while (!execution.getStatus().isFinal() && System.currentTimeMillis() < timeoutMillis)
+		{
+			try
+			{
+				Thread.sleep(10);
+			}
+			catch (final InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+			execution = service.getExecution(processId, pinstanceId, AD_USER_ID);
+		}
+		return execution;
+	}
+
+	@ViewFactory(windowId = WINDOW_ID)
+	private static final class TestViewFactory implements IViewFactory
+	{
+		private final IView view;
+
+		private TestViewFactory(final IView view)
+		{
+			this.view = view;
+		}
+
+		@Override
+		public IView createView(final CreateViewRequest request)
+		{
+			return view;
+		}
+
+		@Override
+		public ViewLayout getViewLayout(final WindowId windowId, final JSONViewDataType viewDataType, final ViewProfileId profileId)
+		{
+			throw new UnsupportedOperationException();
+		}
+	}
+}
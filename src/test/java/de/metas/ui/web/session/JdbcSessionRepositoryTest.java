@@ -0,0 +1,117 @@
+package de.metas.ui.web.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.Env;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.session.MapSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class JdbcSessionRepositoryTest
+{
+	/** The attribute name under which spring keeps the session scoped bean */
+	private static final String ATTRIBUTE_InternalUserSessionData = "scopedTarget.internalUserSessionData";
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+	}
+
+	@After
+	public void resetRequestAttributes()
+	{
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	private static Map<String, Object> serializeAndDeserialize(final MapSession session)
+	{
+		final byte[] data = JdbcSessionRepository.serializeAttributes(session);
+		return JdbcSessionRepository.deserializeAttributes(data);
+	}
+
+	@Test
+	public void internalUserSessionData_RoundTrip()
+	{
+		final InternalUserSessionData data = new InternalUserSessionData();
+		data.setLoggedIn(true);
+		data.setLocale(Locale.GERMANY);
+		data.setUserFullname("John Doe");
+		data.setUserEmail("john.doe@example.com");
+		data.setAvatarId("123");
+		data.setHttpCacheMaxAge(120);
+		data.setShowColumnNamesForCaption(true);
+		Env.setContext(data.getCtx(), "#AD_User_ID", 100);
+		Env.setContext(data.getCtx(), Env.CTXNAME_AD_Language, "de_DE");
+
+		final MapSession session = new MapSession("session1");
+		session.setAttribute(ATTRIBUTE_InternalUserSessionData, data);
+		session.setAttribute("someString", "someValue");
+
+		final Map<String, Object> attributes = serializeAndDeserialize(session);
+
+		assertThat(attributes).containsOnlyKeys(ATTRIBUTE_InternalUserSessionData, "someString");
+		assertThat(attributes.get("someString")).isEqualTo("someValue");
+
+		final InternalUserSessionData dataDeserialized = (InternalUserSessionData)attributes.get(ATTRIBUTE_InternalUserSessionData);
+		assertThat(dataDeserialized).isNotSameAs(data);
+		assertThat(dataDeserialized.getSessionId()).isEqualTo(data.getSessionId());
+		assertThat(dataDeserialized.isLoggedIn()).isTrue();
+		assertThat(dataDeserialized.getLocale()).isEqualTo(Locale.GERMANY);
+		assertThat(dataDeserialized.getUserFullname()).isEqualTo("John Doe");
+		assertThat(dataDeserialized.getUserEmail()).isEqualTo("john.doe@example.com");
+		assertThat(dataDeserialized.getAvatarId()).isEqualTo("123");
+		assertThat(dataDeserialized.getHttpCacheMaxAge()).isEqualTo(120);
+		assertThat(dataDeserialized.isShowColumnNamesForCaption()).isTrue();
+		assertThat(dataDeserialized.getUserPreference()).isNotNull();
+
+		assertThat(dataDeserialized.getCtx()).isNotSameAs(data.getCtx());
+		assertThat(dataDeserialized.getAD_User_ID()).isEqualTo(100);
+		assertThat(dataDeserialized.getAdLanguage()).isEqualTo("de_DE");
+		assertThat(Env.getContext(dataDeserialized.getCtx(), WebRestApiContextProvider.CTXNAME_IsWebUI)).isEqualTo("Y");
+	}
+
+	@Test
+	public void emptySession_RoundTrip()
+	{
+		final Map<String, Object> attributes = serializeAndDeserialize(new MapSession("session1"));
+		assertThat(attributes).isEmpty();
+	}
+
+	@Test
+	public void deserializeAttributes_NoData()
+	{
+		assertThat(JdbcSessionRepository.deserializeAttributes(null)).isNull();
+	}
+}
@@ -0,0 +1,90 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.document.filter.json.JSONDocumentFilter;
+import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.WindowId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewDefinitionTests
+{
+	private final ObjectMapper jsonMapper = new ObjectMapper();
+
+	@Test
+	public void test_JsonRoundTrip() throws Exception
+	{
+		final List<JSONDocumentFilter> jsonFilters = jsonMapper.readValue(
+				"[{\"filterId\":\"default\",\"parameters\":[{\"parameterName\":\"Name\",\"value\":\"abc\"}]}]",
+				new TypeReference<List<JSONDocumentFilter>>()
+				{
+				});
+
+		final CreateViewRequest request = CreateViewRequest.builder(ViewId.random(WindowId.of(123)), JSONViewDataType.grid)
+				.setProfileId(ViewProfileId.fromJson("profile1"))
+				.setParentViewId(ViewId.random(WindowId.of(456)))
+				.setParentRowId(DocumentId.of(789))
+				.setReferencingDocumentPath(DocumentPath.rootDocumentPath(WindowId.of(143), 1000))
+				.setFiltersFromJSON(jsonFilters)
+				.build();
+
+		final ViewDefinition viewDefinition = ViewDefinition.ofCreateViewRequestOrNull(request);
+		assertThat(viewDefinition).isNotNull();
+
+		final String json = jsonMapper.writeValueAsString(viewDefinition);
+		final ViewDefinition viewDefinitionDeserialized = jsonMapper.readValue(json, ViewDefinition.class);
+		assertThat(viewDefinitionDeserialized).isEqualTo(viewDefinition);
+
+		final CreateViewRequest requestRehydrated = viewDefinitionDeserialized.toCreateViewRequest();
+		assertThat(requestRehydrated.getViewId()).isEqualTo(request.getViewId());
+		assertThat(requestRehydrated.getViewType()).isEqualTo(request.getViewType());
+		assertThat(requestRehydrated.getProfileId()).isEqualTo(request.getProfileId());
+		assertThat(requestRehydrated.getParentViewId()).isEqualTo(request.getParentViewId());
+		assertThat(requestRehydrated.getParentRowId()).isEqualTo(request.getParentRowId());
+		assertThat(requestRehydrated.getReferencingDocumentPaths()).isEqualTo(request.getReferencingDocumentPaths());
+		assertThat(requestRehydrated.getFilters().getJsonFilters()).isEqualTo(jsonFilters);
+	}
+
+	@Test
+	public void test_StickyFilters_NotSupported()
+	{
+		final DocumentFilter stickyFilter = DocumentFilter.inArrayFilter("C_BPartner_ID", "C_BPartner_ID", ImmutableList.of(1, 2, 3));
+		final CreateViewRequest request = CreateViewRequest.builder(WindowId.of(123), JSONViewDataType.grid)
+				.setStickyFilters(ImmutableList.of(stickyFilter))
+				.build();
+
+		assertThat(ViewDefinition.ofCreateViewRequestOrNull(request)).isNull();
+	}
+}
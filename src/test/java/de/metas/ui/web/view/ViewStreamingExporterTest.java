@@ -0,0 +1,255 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.ViewStreamingExporter.ViewExportFormat;
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewStreamingExporterTest
+{
+	private static final WindowId WINDOW_ID = WindowId.of(123);
+
+	@Mocked
+	private IView view;
+
+	private static ViewLayout createLayout()
+	{
+		return ViewLayout.builder()
+				.setWindowId(WINDOW_ID)
+				.setCaption("Sales Orders")
+				.addElement(createLayoutElement("Name", DocumentFieldWidgetType.Text))
+				.addElement(createLayoutElement("Qty", DocumentFieldWidgetType.Quantity))
+				.build();
+	}
+
+	private static DocumentLayoutElementDescriptor.Builder createLayoutElement(final String fieldName, final DocumentFieldWidgetType widgetType)
+	{
+		return DocumentLayoutElementDescriptor.builder()
+				.setCaption(fieldName + " caption")
+				.setWidgetType(widgetType)
+				.addField(DocumentLayoutElementFieldDescriptor.builder(fieldName).setPublicField(true));
+	}
+
+	private ViewStreamingExporter createExporter(final ViewExportFormat format, final int rowsCount, final Stream<IViewRow> rows)
+	{
+		final DocumentIdsSelection rowIds = DocumentIdsSelection.ofIntSet(IntStream.rangeClosed(1, rowsCount).boxed().collect(ImmutableList.toImmutableList()));
+
+		// @formatter:off
+		new Expectations() {{ view.streamByIds(rowIds); result = rows; }};
+		// @formatter:on
+
+		return ViewStreamingExporter.builder()
+				.view(view)
+				.rowIds(rowIds)
+				.layout(createLayout())
+				.adLanguage("en_US")
+				.format(format)
+				.build();
+	}
+
+	private static Stream<IViewRow> streamRows(final int rowsCount)
+	{
+		// NOTE: rows are created lazily, while they are consumed
+		return IntStream.rangeClosed(1, rowsCount)
+				.mapToObj(i -> new TestRow(i, "Name" + i, new BigDecimal(i)));
+	}
+
+	private static String exportToString(final ViewStreamingExporter exporter) throws Exception
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void buildFilename()
+	{
+		assertThat(ViewStreamingExporter.buildFilename("Sales Orders", ViewExportFormat.XLSX)).isEqualTo("Sales Orders.xlsx");
+		assertThat(ViewStreamingExporter.buildFilename("Aufträge / Übersicht", ViewExportFormat.CSV)).isEqualTo("Aufträge _ Übersicht.csv");
+		assertThat(ViewStreamingExporter.buildFilename("  ", ViewExportFormat.CSV)).isEqualTo("export.csv");
+		assertThat(ViewStreamingExporter.buildFilename(null, ViewExportFormat.XLSX)).isEqualTo("export.xlsx");
+	}
+
+	@Test
+	public void getFilename_FromLayoutCaption()
+	{
+		final ViewStreamingExporter exporter = createExporter(ViewExportFormat.CSV, 1, streamRows(1));
+		assertThat(exporter.getFilename()).isEqualTo("Sales Orders.csv");
+	}
+
+	@Test
+	public void csv_HeaderAndRows() throws Exception
+	{
+		final String csv = exportToString(createExporter(ViewExportFormat.CSV, 2, streamRows(2)));
+
+		assertThat(csv).isEqualTo("Name caption,Qty caption\r\n"
+				+ "Name1,1\r\n"
+				+ "Name2,2\r\n");
+	}
+
+	@Test
+	public void csv_Escaping() throws Exception
+	{
+		final Stream<IViewRow> rows = Stream.of(
+				new TestRow(1, "comma, inside", new BigDecimal("1E+3")),
+				new TestRow(2, "quote \" inside", null),
+				new TestRow(3, "new\nline", new BigDecimal("0.50")));
+
+		final String csv = exportToString(createExporter(ViewExportFormat.CSV, 3, rows));
+
+		assertThat(csv).isEqualTo("Name caption,Qty caption\r\n"
+				+ "\"comma, inside\",1000\r\n"
+				+ "\"quote \"\" inside\",\r\n"
+				+ "\"new\nline\",0.50\r\n");
+	}
+
+	@Test
+	public void csv_ManyRows() throws Exception
+	{
+		final int rowsCount = 50_000;
+		final String csv = exportToString(createExporter(ViewExportFormat.CSV, rowsCount, streamRows(rowsCount)));
+
+		final String[] lines = csv.split("\r\n");
+		assertThat(lines).hasSize(rowsCount + 1);
+		assertThat(lines[rowsCount]).isEqualTo("Name" + rowsCount + "," + rowsCount);
+	}
+
+	@Test
+	public void xlsx_HeaderAndManyRows() throws Exception
+	{
+		final int rowsCount = 1_000; // more than the rows kept in memory
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		createExporter(ViewExportFormat.XLSX, rowsCount, streamRows(rowsCount)).export(out);
+
+		try (final XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray())))
+		{
+			final Sheet sheet = workbook.getSheetAt(0);
+			assertThat(sheet.getLastRowNum()).isEqualTo(rowsCount);
+
+			final Row headerRow = sheet.getRow(0);
+			assertThat(headerRow.getCell(0).getStringCellValue()).isEqualTo("Name caption");
+			assertThat(headerRow.getCell(1).getStringCellValue()).isEqualTo("Qty caption");
+
+			final Row firstRow = sheet.getRow(1);
+			assertThat(firstRow.getCell(0).getStringCellValue()).isEqualTo("Name1");
+			assertThat(firstRow.getCell(1).getNumericCellValue()).isEqualTo(1d);
+
+			final Row lastRow = sheet.getRow(rowsCount);
+			assertThat(lastRow.getCell(0).getStringCellValue()).isEqualTo("Name" + rowsCount);
+			assertThat(lastRow.getCell(1).getNumericCellValue()).isEqualTo(rowsCount);
+		}
+	}
+
+	@Test
+	public void xlsx_NullValuesAreSkipped() throws Exception
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		createExporter(ViewExportFormat.XLSX, 1, Stream.of(new TestRow(1, "Name1", null))).export(out);
+
+		try (final XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray())))
+		{
+			final Row row = workbook.getSheetAt(0).getRow(1);
+			assertThat(row.getCell(0).getStringCellValue()).isEqualTo("Name1");
+			assertThat(row.getCell(1)).isNull();
+		}
+	}
+
+	private static final class TestRow implements IViewRow
+	{
+		private final DocumentId id;
+		private final Map<String, Object> values;
+
+		private TestRow(final int id, final String name, final BigDecimal qty)
+		{
+			this.id = DocumentId.of(id);
+
+			values = new HashMap<>();
+			values.put("Name", name);
+			values.put("Qty", qty);
+		}
+
+		@Override
+		public DocumentId getId()
+		{
+			return id;
+		}
+
+		@Override
+		public IViewRowType getType()
+		{
+			return null;
+		}
+
+		@Override
+		public boolean isProcessed()
+		{
+			return false;
+		}
+
+		@Override
+		public DocumentPath getDocumentPath()
+		{
+			return DocumentPath.rootDocumentPath(WINDOW_ID, id);
+		}
+
+		@Override
+		public Map<String, Object> getFieldNameAndJsonValues()
+		{
+			return values;
+		}
+
+		@Override
+		public List<? extends IViewRow> getIncludedRows()
+		{
+			return ImmutableList.of();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package de.metas.ui.web.view.descriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.descriptor.sql.PlainSqlEntityFieldBinding;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlViewKeyColumnNamesMapTest
+{
+	private static SqlViewKeyColumnNamesMap createCompositeKeyMap()
+	{
+		return SqlViewKeyColumnNamesMap.ofKeyFields(ImmutableList.of(
+				PlainSqlEntityFieldBinding.intField("M_Product_ID"),
+				PlainSqlEntityFieldBinding.intField("M_Warehouse_ID")));
+	}
+
+	@Test
+	public void getSqlFilterByRowIds_CompositeKey_SingleRow()
+	{
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = createCompositeKeyMap();
+		final String productSelectionColumnName = keyColumnNamesMap.getWebuiSelectionColumnNameForKeyColumnName("M_Product_ID");
+		final String warehouseSelectionColumnName = keyColumnNamesMap.getWebuiSelectionColumnNameForKeyColumnName("M_Warehouse_ID");
+
+		final SqlAndParams sqlAndParams = keyColumnNamesMap.prepareSqlFilterByRowIds()
+				.sqlColumnPrefix("sel.")
+				.rowIds(DocumentIdsSelection.of(ImmutableList.of(DocumentId.ofComposedKeyParts(ImmutableList.of(10, 20)))))
+				.build();
+
+		assertThat(sqlAndParams.getSql()).isEqualTo("sel." + productSelectionColumnName + "=? AND sel." + warehouseSelectionColumnName + "=?");
+		assertThat(sqlAndParams.getSqlParams()).containsExactly(10, 20);
+	}
+
+	@Test
+	public void getSqlFilterByRowIds_CompositeKey_MultipleRows()
+	{
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = createCompositeKeyMap();
+		final String productSelectionColumnName = keyColumnNamesMap.getWebuiSelectionColumnNameForKeyColumnName("M_Product_ID");
+		final String warehouseSelectionColumnName = keyColumnNamesMap.getWebuiSelectionColumnNameForKeyColumnName("M_Warehouse_ID");
+
+		final SqlAndParams sqlAndParams = keyColumnNamesMap.prepareSqlFilterByRowIds()
+				.rowIds(DocumentIdsSelection.of(ImmutableList.of(
+						DocumentId.ofComposedKeyParts(ImmutableList.of(10, 20)),
+						DocumentId.ofComposedKeyParts(ImmutableList.of(11, 21)))))
+				.build();
+
+		final String sqlRow1 = "(" + productSelectionColumnName + "=? AND " + warehouseSelectionColumnName + "=?)";
+		assertThat(sqlAndParams.getSql()).isEqualTo(sqlRow1 + " OR " + sqlRow1);
+		assertThat(sqlAndParams.getSqlParams()).hasSize(4);
+		assertThat(sqlAndParams.getSqlParams()).containsOnly(10, 20, 11, 21);
+
+		// each row's key parts shall be bound next to each other
+		final int idx10 = sqlAndParams.getSqlParams().indexOf(10);
+		assertThat(sqlAndParams.getSqlParams().get(idx10 + 1)).isEqualTo(20);
+	}
+}
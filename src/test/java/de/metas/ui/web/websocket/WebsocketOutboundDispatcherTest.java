@@ -0,0 +1,151 @@
+package de.metas.ui.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class WebsocketOutboundDispatcherTest
+{
+	private static final String SESSION_ID = "session1";
+
+	@Mocked
+	private WebSocketHandler handler;
+	@Mocked
+	private WebSocketSession session;
+
+	private WebsocketOutboundDispatcher dispatcher;
+	private final CountDownLatch stripeBlocked = new CountDownLatch(1);
+	private final CountDownLatch releaseStripe = new CountDownLatch(1);
+
+	@Before
+	public void init()
+	{
+		// one stripe, with room for only one queued message and no waiting
+		dispatcher = new WebsocketOutboundDispatcher(1, 1, 0);
+	}
+
+	@After
+	public void destroy()
+	{
+		releaseStripe.countDown();
+		dispatcher.preDestroy();
+	}
+
+	private void blockStripe() throws InterruptedException
+	{
+		dispatcher.dispatch(() -> {
+			stripeBlocked.countDown();
+			try
+			{
+				releaseStripe.await();
+			}
+			catch (final InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThat(stripeBlocked.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void droppedMessage_ClosesItsSession() throws Exception
+	{
+		// @formatter:off
+		new Expectations() {{ session.getId(); result = SESSION_ID; }};
+		// @formatter:on
+		dispatcher.decorateWebSocketHandler(handler).afterConnectionEstablished(session);
+		blockStripe();
+
+		dispatcher.dispatch(new TestMessageTask(SESSION_ID)); // queued
+		dispatcher.dispatch(new TestMessageTask(SESSION_ID)); // dropped
+
+		// @formatter:off
+		new Verifications() {{ session.close(CloseStatus.SESSION_NOT_RELIABLE); times = 1; }};
+		// @formatter:on
+		assertThat(dispatcher.getStats()).containsEntry("closedSessions", 1L);
+		assertThat(dispatcher.getStats()).containsEntry("openSessions", 0);
+	}
+
+	@Test
+	public void closedSession_IsForgotten() throws Exception
+	{
+		// @formatter:off
+		new Expectations() {{ session.getId(); result = SESSION_ID; }};
+		// @formatter:on
+		final WebSocketHandler decoratedHandler = dispatcher.decorateWebSocketHandler(handler);
+		decoratedHandler.afterConnectionEstablished(session);
+		assertThat(dispatcher.getStats()).containsEntry("openSessions", 1);
+
+		decoratedHandler.afterConnectionClosed(session, CloseStatus.NORMAL);
+		assertThat(dispatcher.getStats()).containsEntry("openSessions", 0);
+	}
+
+	private static final class TestMessageTask implements MessageHandlingRunnable
+	{
+		private final Message<?> message;
+
+		private TestMessageTask(final String sessionId)
+		{
+			message = MessageBuilder.withPayload("test")
+					.setHeader(SimpMessageHeaderAccessor.SESSION_ID_HEADER, sessionId)
+					.build();
+		}
+
+		@Override
+		public Message<?> getMessage()
+		{
+			return message;
+		}
+
+		@Override
+		public MessageHandler getMessageHandler()
+		{
+			return null;
+		}
+
+		@Override
+		public void run()
+		{
+			// nothing
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package de.metas.ui.web.window.descriptor.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.descriptor.sql.ProductLookupIndex.IndexKey;
+import de.metas.ui.web.window.descriptor.sql.ProductLookupIndex.ProductLookupRow;
+import de.metas.ui.web.window.descriptor.sql.ProductLookupIndex.ProductsIndex;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ProductLookupIndexTest
+{
+	private static final int MAX_MATCHES = 100;
+
+	private ProductsIndex index;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		index = new ProductsIndex(IndexKey.of("en_US", 0));
+		index.setProductRows(1, ImmutableList.of(row(1, 0, "P001", "Tomato")));
+		index.setProductRows(2, ImmutableList.of(row(2, 0, "P002", "Potato")));
+		index.setProductRows(3, ImmutableList.of(row(3, 0, "P003", "Carrot"), row(3, 10, "BP-CAR", "Orange Carrot")));
+		index.setLoaded();
+	}
+
+	private static ProductLookupRow row(final int productId, final int bpartnerId, final String value, final String name)
+	{
+		return ProductLookupRow.of(productId, bpartnerId, ProductLookupIndex.normalizeSearchTexts(value, name));
+	}
+
+	@Test
+	public void normalize()
+	{
+		assertThat(ProductLookupIndex.normalize("  Tomato ")).isEqualTo("tomato");
+		assertThat(ProductLookupIndex.normalize(null)).isEmpty();
+	}
+
+	@Test
+	public void normalize_DoesNotDependOnDefaultLocale()
+	{
+		final Locale defaultLocale = Locale.getDefault();
+		try
+		{
+			Locale.setDefault(new Locale("tr", "TR"));
+			assertThat(ProductLookupIndex.normalize("TITLE")).isEqualTo("title");
+		}
+		finally
+		{
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	public void findProductIds()
+	{
+		assertThat(index.findProductIds("ato", -1, MAX_MATCHES)).containsOnly(1, 2);
+		assertThat(index.findProductIds("tomato", -1, MAX_MATCHES)).containsOnly(1);
+		assertThat(index.findProductIds("p00", -1, MAX_MATCHES)).containsOnly(1, 2, 3);
+		assertThat(index.findProductIds("xyz", -1, MAX_MATCHES)).isEmpty();
+	}
+
+	@Test
+	public void findProductIds_AllNGramsMustMatchInTheSameText()
+	{
+		// "tat", "ato" and "tom" are all indexed, but no text contains "tatom"
+		assertThat(index.findProductIds("tatom", -1, MAX_MATCHES)).isEmpty();
+	}
+
+	@Test
+	public void findProductIds_BPartnerSpecificRows()
+	{
+		assertThat(index.findProductIds("orange", 10, MAX_MATCHES)).containsOnly(3);
+		assertThat(index.findProductIds("orange", 20, MAX_MATCHES)).isEmpty();
+		assertThat(index.findProductIds("orange", -1, MAX_MATCHES)).containsOnly(3);
+		assertThat(index.findProductIds("carrot", 20, MAX_MATCHES)).containsOnly(3);
+	}
+
+	@Test
+	public void findProductIds_MoreThanMaxMatches()
+	{
+		assertThat(index.findProductIds("p00", -1, 2)).isNull();
+		assertThat(index.findProductIds("p00", -1, 3)).containsOnly(1, 2, 3);
+	}
+
+	@Test
+	public void setProductRows_Update()
+	{
+		index.setProductRows(1, ImmutableList.of(row(1, 0, "P001", "Cucumber")));
+
+		assertThat(index.findProductIds("tomato", -1, MAX_MATCHES)).isEmpty();
+		assertThat(index.findProductIds("ato", -1, MAX_MATCHES)).containsOnly(2);
+		assertThat(index.findProductIds("cucumber", -1, MAX_MATCHES)).containsOnly(1);
+		assertThat(index.findProductIds("p001", -1, MAX_MATCHES)).containsOnly(1);
+	}
+
+	@Test
+	public void setProductRows_Remove()
+	{
+		index.setProductRows(2, ImmutableList.of());
+
+		assertThat(index.findProductIds("potato", -1, MAX_MATCHES)).isEmpty();
+		assertThat(index.findProductIds("ato", -1, MAX_MATCHES)).containsOnly(1);
+		assertThat(index.findProductIds("p00", -1, MAX_MATCHES)).containsOnly(1, 3);
+	}
+
+	@Test
+	public void setProductRows_AddAfterRemove()
+	{
+		index.setProductRows(2, ImmutableList.of());
+		index.setProductRows(2, ImmutableList.of(row(2, 0, "P002", "Potato")));
+
+		assertThat(index.findProductIds("potato", -1, MAX_MATCHES)).containsOnly(2);
+	}
+}
@@ -0,0 +1,218 @@
+package de.metas.ui.web.window.model.lookup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.WindowId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class CachedLookupDataSourceFetcherAdapterTest
+{
+	private static final int LIMIT = 10;
+
+	private MockedLookupDataSourceFetcher delegate;
+	private CachedLookupDataSourceFetcherAdapter fetcher;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		delegate = new MockedLookupDataSourceFetcher(ImmutableList.of(
+				IntegerLookupValue.of(1, "Café Müller"),
+				IntegerLookupValue.of(2, "Cafeteria"),
+				IntegerLookupValue.of(3, "Tea"),
+				IntegerLookupValue.of(4, "Straße")));
+		fetcher = CachedLookupDataSourceFetcherAdapter.of(delegate);
+	}
+
+	private LookupValuesList retrieveEntities(final String filter, final int limit)
+	{
+		final LookupDataSourceContext evalCtx = fetcher.newContextForFetchingList()
+				.putFilter(filter, 0, limit)
+				.build();
+		return fetcher.retrieveEntities(evalCtx);
+	}
+
+	@Test
+	public void longerFilterIsRefinedInMemory()
+	{
+		assertThat(retrieveEntities("caf", LIMIT).getKeys()).containsExactly(1, 2);
+		assertThat(delegate.getRetrieveEntitiesCallsCount()).isEqualTo(1);
+
+		assertThat(retrieveEntities("cafe", LIMIT).getKeys()).containsExactly(1, 2);
+		assertThat(retrieveEntities("cafet", LIMIT).getKeys()).containsExactly(2);
+		assertThat(delegate.getRetrieveEntitiesCallsCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void refinedInMemoryIgnoringAccents()
+	{
+		assertThat(retrieveEntities("caf", LIMIT).getKeys()).containsExactly(1, 2);
+
+		assertThat(retrieveEntities("café", LIMIT).getKeys()).containsExactly(1, 2);
+		assertThat(retrieveEntities("CAFE MU", LIMIT).getKeys()).containsExactly(1);
+		assertThat(delegate.getRetrieveEntitiesCallsCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void notRefinedWhenTheShorterFilterResultWasTruncated()
+	{
+		assertThat(retrieveEntities("caf", 2).getKeys()).containsExactly(1, 2);
+		assertThat(retrieveEntities("cafe", 2).getKeys()).containsExactly(1, 2);
+
+		assertThat(delegate.getRetrieveEntitiesCallsCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void refinedResultIsLimitedButRememberedComplete()
+	{
+		assertThat(retrieveEntities("ca", LIMIT).getKeys()).containsExactly(1, 2);
+		assertThat(retrieveEntities("caf", 1).getKeys()).containsExactly(1);
+
+		assertThat(retrieveEntities("cafe", LIMIT).getKeys()).containsExactly(1, 2);
+		assertThat(delegate.getRetrieveEntitiesCallsCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void notRefinedWhenTheResultContainsCharactersNotTranslatedLikeSQL()
+	{
+		assertThat(retrieveEntities("str", LIMIT).getKeys()).containsExactly(4);
+		assertThat(retrieveEntities("stra", LIMIT).getKeys()).containsExactly(4);
+
+		assertThat(delegate.getRetrieveEntitiesCallsCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void notRefinedWhenTheFilterContainsCharactersNotTranslatedLikeSQL()
+	{
+		assertThat(retrieveEntities("tea", LIMIT).getKeys()).containsExactly(3);
+		assertThat(retrieveEntities("teaß", LIMIT).getKeys()).isEmpty();
+
+		assertThat(delegate.getRetrieveEntitiesCallsCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void notRefinedWhenTheFilterContainsSQLWildcards()
+	{
+		assertThat(retrieveEntities("te", LIMIT).getKeys()).containsExactly(2, 3);
+		assertThat(retrieveEntities("te%", LIMIT).getKeys()).isNotNull();
+
+		assertThat(delegate.getRetrieveEntitiesCallsCount()).isEqualTo(2);
+	}
+
+	/**
+	 * Filters the values like SQL's <code>unaccent_string(DisplayName, 1) ILIKE unaccent_string(filter, 1)</code> would do.
+	 */
+	private static final class MockedLookupDataSourceFetcher implements LookupDataSourceFetcher
+	{
+		private final List<LookupValue> values;
+		private int retrieveEntitiesCallsCount = 0;
+
+		private MockedLookupDataSourceFetcher(final List<LookupValue> values)
+		{
+			this.values = values;
+		}
+
+		public int getRetrieveEntitiesCallsCount()
+		{
+			return retrieveEntitiesCallsCount;
+		}
+
+		@Override
+		public boolean isNumericKey()
+		{
+			return true;
+		}
+
+		@Override
+		public LookupDataSourceContext.Builder newContextForFetchingById(final Object id)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public LookupValue retrieveLookupValueById(final LookupDataSourceContext evalCtx)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public LookupDataSourceContext.Builder newContextForFetchingList()
+		{
+			return LookupDataSourceContext.builder("MockedTable");
+		}
+
+		@Override
+		public LookupValuesList retrieveEntities(final LookupDataSourceContext evalCtx)
+		{
+			retrieveEntitiesCallsCount++;
+
+			final String filter = evalCtx.getFilter().replace("%", "");
+			return LookupValuesList.fromCollection(values)
+					.filter(LookupValueFilterPredicates.ofFilterAndLanguageIgnoringAccents(filter, evalCtx.getAD_Language()), evalCtx.getOffset(0), evalCtx.getLimit(-1));
+		}
+
+		@Override
+		public boolean isFilterByDisplayNameRefinable()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean isCached()
+		{
+			return false;
+		}
+
+		@Override
+		public String getCachePrefix()
+		{
+			return "MockedTable";
+		}
+
+		@Override
+		public Optional<String> getLookupTableName()
+		{
+			return Optional.of("MockedTable");
+		}
+
+		@Override
+		public Optional<WindowId> getZoomIntoWindowId()
+		{
+			return Optional.empty();
+		}
+	}
+}
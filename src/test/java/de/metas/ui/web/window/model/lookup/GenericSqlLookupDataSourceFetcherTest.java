@@ -0,0 +1,71 @@
+package de.metas.ui.web.window.model.lookup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.descriptor.SqlAndParams;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class GenericSqlLookupDataSourceFetcherTest
+{
+	private static final String SQL_DisplayName = "SELECT Name FROM C_BPartner WHERE C_BPartner_ID=lookup_ids.id";
+
+	@Test
+	public void buildSqlFetchDisplayNamesByIds_SingleId()
+	{
+		final SqlAndParams sqlAndParams = GenericSqlLookupDataSourceFetcher.buildSqlFetchDisplayNamesByIds(SQL_DisplayName, ImmutableList.of(10));
+
+		assertThat(sqlAndParams.getSql()).isEqualTo("SELECT lookup_ids.id, (" + SQL_DisplayName + ") AS DisplayName"
+				+ "\n FROM (VALUES (?)) lookup_ids(id)");
+		assertThat(sqlAndParams.getSqlParams()).containsExactly(10);
+	}
+
+	@Test
+	public void buildSqlFetchDisplayNamesByIds_ValuesListKeepsIdsOrder()
+	{
+		final SqlAndParams sqlAndParams = GenericSqlLookupDataSourceFetcher.buildSqlFetchDisplayNamesByIds(SQL_DisplayName, ImmutableList.of(30, 10, 20));
+
+		assertThat(sqlAndParams.getSql()).isEqualTo("SELECT lookup_ids.id, (" + SQL_DisplayName + ") AS DisplayName"
+				+ "\n FROM (VALUES (?), (?), (?)) lookup_ids(id)");
+		assertThat(sqlAndParams.getSqlParams()).containsExactly(30, 10, 20);
+	}
+
+	@Test
+	public void buildSqlFetchDisplayNamesByIds_StringIds()
+	{
+		final SqlAndParams sqlAndParams = GenericSqlLookupDataSourceFetcher.buildSqlFetchDisplayNamesByIds(SQL_DisplayName, ImmutableList.of("CO", "DR"));
+
+		assertThat(sqlAndParams.getSql()).contains("(VALUES (?), (?))");
+		assertThat(sqlAndParams.getSqlParams()).containsExactly("CO", "DR");
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void buildSqlFetchDisplayNamesByIds_NoIds()
+	{
+		GenericSqlLookupDataSourceFetcher.buildSqlFetchDisplayNamesByIds(SQL_DisplayName, ImmutableList.of());
+	}
+}
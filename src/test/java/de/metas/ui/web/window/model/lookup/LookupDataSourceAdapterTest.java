@@ -0,0 +1,210 @@
+package de.metas.ui.web.window.model.lookup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.WindowId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class LookupDataSourceAdapterTest
+{
+	private MockedLookupDataSourceFetcher fetcher;
+	private LookupDataSourceAdapter lookupDataSource;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		fetcher = new MockedLookupDataSourceFetcher(ImmutableMap.of(
+				1, "one",
+				2, "two",
+				3, "three"));
+		lookupDataSource = LookupDataSourceAdapter.of(fetcher);
+	}
+
+	@Test
+	public void findByIds_FetchesAllIdsInOneCall()
+	{
+		final LookupValuesList values = lookupDataSource.findByIds(ImmutableList.of(1, 2, 3));
+
+		assertThat(values.getKeys()).containsExactly(1, 2, 3);
+		assertThat(values.getById(2).getDisplayName()).isEqualTo("two");
+		assertThat(fetcher.getRetrieveByIdsCalls()).containsExactly(ImmutableList.<Object> of(1, 2, 3));
+		assertThat(fetcher.getRetrieveByIdCallsCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void findByIds_KeepsRequestedOrder()
+	{
+		final LookupValuesList values = lookupDataSource.findByIds(ImmutableList.of(3, 1, 2));
+
+		assertThat(values.getKeys()).containsExactly(3, 1, 2);
+	}
+
+	@Test
+	public void findByIds_SkipsMissingIds()
+	{
+		final LookupValuesList values = lookupDataSource.findByIds(ImmutableList.of(1, 100, 3));
+
+		assertThat(values.getKeys()).containsExactly(1, 3);
+	}
+
+	@Test
+	public void findByIds_NormalizesAndSkipsDuplicateAndNullIds()
+	{
+		final List<Object> ids = new ArrayList<>();
+		ids.add("2");
+		ids.add(null);
+		ids.add(2);
+		ids.add(1);
+
+		final LookupValuesList values = lookupDataSource.findByIds(ids);
+
+		assertThat(values.getKeys()).containsExactly(2, 1);
+		assertThat(fetcher.getRetrieveByIdsCalls()).containsExactly(ImmutableList.<Object> of(2, 1));
+	}
+
+	@Test
+	public void findByIds_EmptyIds()
+	{
+		assertThat(lookupDataSource.findByIds(ImmutableList.of()).isEmpty()).isTrue();
+		assertThat(fetcher.getRetrieveByIdsCalls()).isEmpty();
+	}
+
+	private static final class MockedLookupDataSourceFetcher implements LookupDataSourceFetcher
+	{
+		private final Map<Integer, String> displayNamesById;
+		private final List<List<Object>> retrieveByIdsCalls = new ArrayList<>();
+		private int retrieveByIdCallsCount = 0;
+
+		private MockedLookupDataSourceFetcher(final Map<Integer, String> displayNamesById)
+		{
+			this.displayNamesById = displayNamesById;
+		}
+
+		public List<List<Object>> getRetrieveByIdsCalls()
+		{
+			return retrieveByIdsCalls;
+		}
+
+		public int getRetrieveByIdCallsCount()
+		{
+			return retrieveByIdCallsCount;
+		}
+
+		@Override
+		public boolean isNumericKey()
+		{
+			return true;
+		}
+
+		@Override
+		public LookupDataSourceContext.Builder newContextForFetchingById(final Object id)
+		{
+			return LookupDataSourceContext.builder("MockedTable")
+					.putFilterById(id);
+		}
+
+		@Override
+		public LookupValue retrieveLookupValueById(final LookupDataSourceContext evalCtx)
+		{
+			retrieveByIdCallsCount++;
+			return retrieveLookupValue(evalCtx);
+		}
+
+		@Override
+		public Map<LookupDataSourceContext, LookupValue> retrieveLookupValuesByIds(final Collection<LookupDataSourceContext> evalCtxs)
+		{
+			final List<Object> ids = new ArrayList<>();
+			final Map<LookupDataSourceContext, LookupValue> result = new LinkedHashMap<>();
+			for (final LookupDataSourceContext evalCtx : evalCtxs)
+			{
+				ids.add(evalCtx.getIdToFilter());
+				result.put(evalCtx, retrieveLookupValue(evalCtx));
+			}
+			retrieveByIdsCalls.add(ids);
+			return result;
+		}
+
+		private LookupValue retrieveLookupValue(final LookupDataSourceContext evalCtx)
+		{
+			final Integer id = evalCtx.getIdToFilterAsInt(-1);
+			final String displayName = displayNamesById.get(id);
+			return displayName != null ? IntegerLookupValue.of(id, displayName) : LOOKUPVALUE_NULL;
+		}
+
+		@Override
+		public LookupDataSourceContext.Builder newContextForFetchingList()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public LookupValuesList retrieveEntities(final LookupDataSourceContext evalCtx)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isCached()
+		{
+			return true;
+		}
+
+		@Override
+		public String getCachePrefix()
+		{
+			return "MockedTable";
+		}
+
+		@Override
+		public Optional<String> getLookupTableName()
+		{
+			return Optional.of("MockedTable");
+		}
+
+		@Override
+		public Optional<WindowId> getZoomIntoWindowId()
+		{
+			return Optional.empty();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package de.metas.ui.web.window.model.lookup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.model.lookup.LookupValueFilterPredicates.LookupValueFilterPredicate;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class LookupValueFilterPredicatesTest
+{
+	private static boolean test(final LookupValueFilterPredicate predicate, final String displayName)
+	{
+		return predicate.test(IntegerLookupValue.of(1, displayName));
+	}
+
+	@Test
+	public void removeAccents()
+	{
+		assertThat(LookupValueFilterPredicates.removeAccents("Café Müller")).isEqualTo("Cafe Muller");
+		assertThat(LookupValueFilterPredicates.removeAccents("ÀÉÎÕÜÇÑ")).isEqualTo("AEIOUCN");
+		assertThat(LookupValueFilterPredicates.removeAccents("plain")).isEqualTo("plain");
+	}
+
+	@Test
+	public void removeAccents_KeepsTheCharactersWhichAreNotTranslatedBySQL()
+	{
+		// ß, ø, ł are not translated by unaccent_string, so they shall be kept (unlike an NFD based decomposition which would drop some accents SQL keeps)
+		assertThat(LookupValueFilterPredicates.removeAccents("Straße")).isEqualTo("Straße");
+		assertThat(LookupValueFilterPredicates.removeAccents("øł")).isEqualTo("øł");
+		assertThat(LookupValueFilterPredicates.removeAccents("e\u0301")).isEqualTo("e\u0301"); // decomposed accent
+	}
+
+	@Test
+	public void isIgnoringAccentsLikeSQL()
+	{
+		assertThat(LookupValueFilterPredicates.isIgnoringAccentsLikeSQL(null)).isTrue();
+		assertThat(LookupValueFilterPredicates.isIgnoringAccentsLikeSQL("Cafe 123 %_")).isTrue();
+		assertThat(LookupValueFilterPredicates.isIgnoringAccentsLikeSQL("Café Müller")).isTrue();
+
+		assertThat(LookupValueFilterPredicates.isIgnoringAccentsLikeSQL("Straße")).isFalse();
+		assertThat(LookupValueFilterPredicates.isIgnoringAccentsLikeSQL("Øresund")).isFalse();
+		assertThat(LookupValueFilterPredicates.isIgnoringAccentsLikeSQL("İstanbul")).isFalse();
+	}
+
+	@Test
+	public void ignoringAccents()
+	{
+		final LookupValueFilterPredicate predicate = LookupValueFilterPredicates.ofFilterAndLanguageIgnoringAccents("CAFE", null);
+
+		assertThat(test(predicate, "Café Müller")).isTrue();
+		assertThat(test(predicate, "CAFÉ")).isTrue();
+		assertThat(test(predicate, "Cafeteria")).isTrue();
+		assertThat(test(predicate, "Tea")).isFalse();
+	}
+
+	@Test
+	public void ignoringAccents_AccentedFilter()
+	{
+		final LookupValueFilterPredicate predicate = LookupValueFilterPredicates.ofFilterAndLanguageIgnoringAccents("mül", null);
+
+		assertThat(test(predicate, "Mueller")).isFalse();
+		assertThat(test(predicate, "Muller")).isTrue();
+		assertThat(test(predicate, "MÜLLER")).isTrue();
+	}
+
+	@Test
+	public void notIgnoringAccents()
+	{
+		final LookupValueFilterPredicate predicate = LookupValueFilterPredicates.of("cafe");
+
+		assertThat(test(predicate, "Cafeteria")).isTrue();
+		assertThat(test(predicate, "Café")).isFalse();
+	}
+
+	@Test
+	public void lowercasingDoesNotDependOnDefaultLocale()
+	{
+		final Locale defaultLocale = Locale.getDefault();
+		try
+		{
+			Locale.setDefault(new Locale("tr", "TR"));
+
+			final LookupValueFilterPredicate predicate = LookupValueFilterPredicates.ofFilterAndLanguageIgnoringAccents("TITLE", null);
+			assertThat(test(predicate, "title")).isTrue();
+		}
+		finally
+		{
+			Locale.setDefault(defaultLocale);
+		}
+	}
+}